@@ -1,4 +1,4 @@
 #!/usr/bin/env bash
 set -euo pipefail
 
-mvn -q -pl people-core,people-cli,people-tests -am clean
+mvn -q -pl people-core,people-cli,people-server,people-loadgen,people-tests -am clean
@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Usage: ./loadgen.sh [--workload <file>] [--target inprocess|http://host:port] [--<workload key> <value> ...]
+mvn -q -pl people-core,people-server,people-loadgen -am install -DskipTests
+
+LOADGEN_CP="people-loadgen/target/classes:people-server/target/classes:people-core/target/classes"
+java ${JAVA_OPTS:-} -cp "$LOADGEN_CP" com.people.loadgen.LoadGeneratorMain "$@"
@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Usage: ./loadtest.sh [--people <number>] [--concurrency <number>] [--seconds <number>] [--warmup <number>]
+mvn -q -pl people-core,people-server -am install -DskipTests
+
+SERVER_CP="people-server/target/classes:people-core/target/classes"
+java ${JAVA_OPTS:-} -cp "$SERVER_CP" com.people.server.GetPersonLoadTest "$@"
@@ -8,22 +8,36 @@ import com.people.api.PeopleApi;
 import com.people.cli.commands.AddressCommand;
 import com.people.cli.commands.CompanyCommand;
 import com.people.cli.commands.EmploymentCommand;
+import com.people.cli.commands.ExplainCommand;
 import com.people.cli.commands.PersonCommand;
+import com.people.cli.commands.QueryCommand;
 import com.people.cli.commands.RelationshipCommand;
+import com.people.cli.commands.SearchCommand;
+import com.people.picture.PictureStore;
+import com.people.service.AsyncPeopleService;
 import com.people.service.PeopleService;
 
+import java.nio.file.Path;
+
 public final class PeopleCliMain {
     public static void main(String[] args) throws Exception {
-        PeopleApi api = PeopleService.createInMemory();
+        PictureStore pictures = PictureStore.open(Path.of(System.getProperty("people.pictures", "pictures")));
+        pictures.collectGarbage();
+        PeopleApi api = PeopleService.createInMemory(pictures);
+
+        AsyncPeopleService asyncApi = new AsyncPeopleService(api);
 
         CommandRegistry registry = new CommandRegistry()
                 .register(new HelpCommand())
                 .register(new ExitCommand())
-                .register(new PersonCommand(api))
+                .register(new PersonCommand(api, asyncApi))
                 .register(new AddressCommand(api))
                 .register(new EmploymentCommand(api))
                 .register(new RelationshipCommand(api))
-                .register(new CompanyCommand(api));
+                .register(new CompanyCommand(api))
+                .register(new QueryCommand(api))
+                .register(new ExplainCommand(api))
+                .register(new SearchCommand(api));
 
         CliEngine engine = new CliEngine(registry, "people");
         engine.run();
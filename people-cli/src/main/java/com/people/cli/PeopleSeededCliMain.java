@@ -8,25 +8,58 @@ import com.people.api.PeopleApi;
 import com.people.cli.commands.AddressCommand;
 import com.people.cli.commands.CompanyCommand;
 import com.people.cli.commands.EmploymentCommand;
+import com.people.cli.commands.ExplainCommand;
 import com.people.cli.commands.PersonCommand;
+import com.people.cli.commands.QueryCommand;
 import com.people.cli.commands.RelationshipCommand;
+import com.people.cli.commands.SearchCommand;
+import com.people.datagen.GeneratorConfig;
+import com.people.picture.PictureStore;
+import com.people.service.AsyncPeopleService;
 import com.people.service.PeopleService;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
 public final class PeopleSeededCliMain {
     public static void main(String[] args) throws Exception {
-        PeopleApi api = PeopleService.createInMemory();
-        SeedData.populate(api);
+        PictureStore pictures = PictureStore.open(Path.of(System.getProperty("people.pictures", "pictures")));
+        pictures.collectGarbage();
+        PeopleApi api = PeopleService.createInMemory(pictures);
+        Map<String, String> options = CliArgs.parse(List.of(args));
+        String scale = CliArgs.optional(options, "scale");
+        if (scale == null) {
+            SeedData.populate(api);
+        } else {
+            SeedData.populate(api, Integer.parseInt(scale), parseSeed(options), parseThreads(options));
+        }
+
+        AsyncPeopleService asyncApi = new AsyncPeopleService(api);
 
         CommandRegistry registry = new CommandRegistry()
                 .register(new HelpCommand())
                 .register(new ExitCommand())
-                .register(new PersonCommand(api))
+                .register(new PersonCommand(api, asyncApi))
                 .register(new AddressCommand(api))
                 .register(new EmploymentCommand(api))
                 .register(new RelationshipCommand(api))
-                .register(new CompanyCommand(api));
+                .register(new CompanyCommand(api))
+                .register(new QueryCommand(api))
+                .register(new ExplainCommand(api))
+                .register(new SearchCommand(api));
 
         CliEngine engine = new CliEngine(registry, "people");
         engine.run();
     }
+
+    private static long parseSeed(Map<String, String> options) {
+        String seed = CliArgs.optional(options, "seed");
+        return seed == null ? GeneratorConfig.DEFAULT_SEED : Long.parseLong(seed);
+    }
+
+    private static int parseThreads(Map<String, String> options) {
+        String threads = CliArgs.optional(options, "threads");
+        return threads == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+    }
 }
@@ -1,6 +1,9 @@
 package com.people.cli;
 
 import com.people.api.PeopleApi;
+import com.people.datagen.GenerationSummary;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
 import com.people.domain.Address;
 import com.people.domain.AddressType;
 import com.people.domain.Employment;
@@ -21,6 +24,16 @@ public final class SeedData {
     private SeedData() {
     }
 
+    public static GenerationSummary populate(PeopleApi api, int people, long seed, int threads) {
+        GeneratorConfig config = GeneratorConfig.forScale(people, seed).withThreads(threads);
+        GenerationSummary summary = new SyntheticDataGenerator(api, config).generate();
+        System.out.printf("Generated %d people, %d addresses, %d employments, %d relationships"
+                        + " (%d rejected) in %d ms%n",
+                summary.people(), summary.addresses(), summary.employments(), summary.relationships(),
+                summary.rejected(), summary.elapsed().toMillis());
+        return summary;
+    }
+
     public static void populate(PeopleApi api) {
         List<Person> people = new ArrayList<>();
         String[] firstNames = {
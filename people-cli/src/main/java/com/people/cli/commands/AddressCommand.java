@@ -2,6 +2,7 @@ package com.people.cli.commands;
 
 import cli.Command;
 import cli.CommandContext;
+import com.people.api.GeoStats;
 import com.people.api.PeopleApi;
 import com.people.cli.CliArgs;
 import com.people.domain.Address;
@@ -40,6 +41,7 @@ public final class AddressCommand implements Command {
             case "delete" -> deleteAddress(args.subList(1, args.size()));
             case "get" -> formatAddress(getAddress(args.subList(1, args.size())));
             case "list" -> formatAddresses(listAddresses(args.subList(1, args.size())), args.subList(1, args.size()));
+            case "stats" -> formatStats(listStats(args.subList(1, args.size())));
             default -> throw new IllegalArgumentException("Unknown action: " + action);
         };
     }
@@ -57,10 +59,11 @@ public final class AddressCommand implements Command {
                                --type <house|apartment|condo|flat|other> --owns <true|false> --primary <true|false>
                                --monthly-payment <number:0-1000000.00> --bedrooms <number:0-100>
                                --bathrooms <number:0-100> [--description <text:1-500>]
-                address delete --person-id <text:1-50> --id <text:1-50>
-                address get --person-id <text:1-50> --id <text:1-50>
+                address delete [--person-id <text:1-50>] --id <text:1-50>
+                address get [--person-id <text:1-50>] --id <text:1-50>
                 address list --person-id <text:1-50>
                 address list [--street <text>] [--street-contains <text>] [--town <text>] [--state <text>]
+                address stats [--state <text>]
                 """;
     }
 
@@ -79,16 +82,16 @@ public final class AddressCommand implements Command {
 
     private Address deleteAddress(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        String personId = CliArgs.require(map, "person-id");
+        String personId = CliArgs.optional(map, "person-id");
         String id = CliArgs.require(map, "id");
-        return api.deleteAddress(personId, id);
+        return personId == null ? api.deleteAddress(id) : api.deleteAddress(personId, id);
     }
 
     private Address getAddress(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        String personId = CliArgs.require(map, "person-id");
+        String personId = CliArgs.optional(map, "person-id");
         String id = CliArgs.require(map, "id");
-        return api.getAddress(personId, id);
+        return personId == null ? api.getAddress(id) : api.getAddress(personId, id);
     }
 
     private List<Address> listAddresses(List<String> args) {
@@ -107,6 +110,12 @@ public final class AddressCommand implements Command {
         return api.listAddressesFiltered(street, town, state, streetContains);
     }
 
+    private List<GeoStats> listStats(List<String> args) {
+        String state = CliArgs.optional(CliArgs.parse(args), "state");
+        List<GeoStats> stats = api.listGeoStats();
+        return state == null ? stats : stats.stream().filter(row -> row.state().equalsIgnoreCase(state)).toList();
+    }
+
     private Address buildAddress(String id, Map<String, String> map) {
         String personId = CliArgs.require(map, "person-id");
         String street = CliArgs.require(map, "street");
@@ -175,6 +184,30 @@ public final class AddressCommand implements Command {
         return sb.toString();
     }
 
+    private String formatStats(List<GeoStats> stats) {
+        if (stats.isEmpty()) {
+            return "No addresses found.";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-8s  %-14s  %7s  %9s  %7s  %7s  %12s  %8s%n",
+                "State", "Town", "People", "Addresses", "Owners", "Renters", "Avg Payment", "Avg Beds"));
+        sb.append(String.format("%-8s  %-14s  %7s  %9s  %7s  %7s  %12s  %8s%n",
+                "-".repeat(8), "-".repeat(14), "-".repeat(7), "-".repeat(9), "-".repeat(7), "-".repeat(7),
+                "-".repeat(12), "-".repeat(8)));
+        for (GeoStats row : stats) {
+            sb.append(String.format("%-8s  %-14s  %7d  %9d  %7d  %7d  %12s  %8.1f%n",
+                    truncate(row.state(), 8),
+                    row.town() == null ? "(all)" : truncate(row.town(), 14),
+                    row.people(),
+                    row.addresses(),
+                    row.owners(),
+                    row.renters(),
+                    row.averageMonthlyPayment().toPlainString(),
+                    row.averageBedrooms()));
+        }
+        return sb.toString();
+    }
+
     private String truncate(String value, int max) {
         if (value.length() <= max) {
             return value;
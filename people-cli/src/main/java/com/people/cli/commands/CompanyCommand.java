@@ -4,6 +4,8 @@ import cli.Command;
 import cli.CommandContext;
 import com.people.api.CompanySummary;
 import com.people.api.PeopleApi;
+import com.people.cli.CliArgs;
+import com.people.domain.Employment;
 
 import java.util.Comparator;
 import java.util.List;
@@ -33,6 +35,8 @@ public final class CompanyCommand implements Command {
         String action = args.get(0).toLowerCase();
         return switch (action) {
             case "list" -> formatCompanies(api.listCompanies());
+            case "employees" -> formatEmployees(api.listCompanyEmployments(
+                    CliArgs.require(CliArgs.parse(args.subList(1, args.size())), "id")));
             default -> throw new IllegalArgumentException("Unknown action: " + action);
         };
     }
@@ -40,6 +44,7 @@ public final class CompanyCommand implements Command {
     private String usage() {
         return """
                 company list
+                company employees --id <company id>
                 """;
     }
 
@@ -49,11 +54,12 @@ public final class CompanyCommand implements Command {
         }
         companies.sort(Comparator.comparing(CompanySummary::name));
         StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-24s  %-24s  %-9s%n", "Company", "Address", "Employees"));
-        sb.append(String.format("%-24s  %-24s  %-9s%n",
-                "-".repeat(24), "-".repeat(24), "-".repeat(9)));
+        sb.append(String.format("%-36s  %-24s  %-24s  %-9s%n", "ID", "Company", "Address", "Employees"));
+        sb.append(String.format("%-36s  %-24s  %-24s  %-9s%n",
+                "-".repeat(36), "-".repeat(24), "-".repeat(24), "-".repeat(9)));
         for (CompanySummary company : companies) {
-            sb.append(String.format("%-24s  %-24s  %-9d%n",
+            sb.append(String.format("%-36s  %-24s  %-24s  %-9d%n",
+                    company.id(),
                     truncate(company.name(), 24),
                     truncate(company.address(), 24),
                     company.employeeCount()));
@@ -61,6 +67,23 @@ public final class CompanyCommand implements Command {
         return sb.toString();
     }
 
+    private String formatEmployees(List<Employment> employments) {
+        if (employments.isEmpty()) {
+            return "No employees found.";
+        }
+        employments.sort(Comparator.comparing(Employment::personId));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-36s  %-24s  %-7s%n", "Person ID", "Job Title", "Current"));
+        sb.append(String.format("%-36s  %-24s  %-7s%n", "-".repeat(36), "-".repeat(24), "-".repeat(7)));
+        for (Employment employment : employments) {
+            sb.append(String.format("%-36s  %-24s  %-7s%n",
+                    employment.personId(),
+                    truncate(employment.jobTitle(), 24),
+                    employment.currentEmployer() ? "yes" : "no"));
+        }
+        return sb.toString();
+    }
+
     private String truncate(String value, int max) {
         if (value == null) {
             return "";
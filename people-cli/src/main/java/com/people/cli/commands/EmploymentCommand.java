@@ -58,9 +58,11 @@ public final class EmploymentCommand implements Command {
                                   --pay-type <salary|hourly> --rate <number:0-1000000000.00>
                                   --current <true|false> --start-date <MM-dd-yyyy> [--end-date <MM-dd-yyyy>]
                                   [--description <text:1-500>]
-                employment delete --person-id <text:1-50> --id <text:1-50>
-                employment get --person-id <text:1-50> --id <text:1-50>
+                employment delete [--person-id <text:1-50>] --id <text:1-50>
+                employment get [--person-id <text:1-50>] --id <text:1-50>
                 employment list --person-id <text:1-50>
+                employment list --on <MM-dd-yyyy> [--company-id <text:1-50>]
+                employment list --from <MM-dd-yyyy> --to <MM-dd-yyyy> [--company-id <text:1-50>]
                 """;
     }
 
@@ -79,20 +81,28 @@ public final class EmploymentCommand implements Command {
 
     private Employment deleteEmployment(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        String personId = CliArgs.require(map, "person-id");
+        String personId = CliArgs.optional(map, "person-id");
         String id = CliArgs.require(map, "id");
-        return api.deleteEmployment(personId, id);
+        return personId == null ? api.deleteEmployment(id) : api.deleteEmployment(personId, id);
     }
 
     private Employment getEmployment(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        String personId = CliArgs.require(map, "person-id");
+        String personId = CliArgs.optional(map, "person-id");
         String id = CliArgs.require(map, "id");
-        return api.getEmployment(personId, id);
+        return personId == null ? api.getEmployment(id) : api.getEmployment(personId, id);
     }
 
     private List<Employment> listEmployments(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
+        String companyId = CliArgs.optional(map, "company-id");
+        if (map.containsKey("on")) {
+            return api.listEmploymentsOn(CliArgs.parseDate(map, "on"), companyId);
+        }
+        if (map.containsKey("from") || map.containsKey("to")) {
+            return api.listEmploymentsOverlapping(CliArgs.parseDate(map, "from"), CliArgs.parseDate(map, "to"),
+                    companyId);
+        }
         String personId = CliArgs.require(map, "person-id");
         return api.listEmployments(personId);
     }
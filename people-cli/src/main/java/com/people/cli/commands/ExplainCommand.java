@@ -0,0 +1,34 @@
+package com.people.cli.commands;
+
+import cli.Command;
+import cli.CommandContext;
+import com.people.api.PeopleApi;
+import com.people.query.Query;
+
+import java.util.List;
+
+public final class ExplainCommand implements Command {
+    private final PeopleApi api;
+
+    public ExplainCommand(PeopleApi api) {
+        this.api = api;
+    }
+
+    @Override
+    public String name() {
+        return "explain";
+    }
+
+    @Override
+    public String description() {
+        return "Show the execution plan for a query (type: explain help for syntax)";
+    }
+
+    @Override
+    public Object execute(List<String> args, CommandContext ctx) {
+        if (args.isEmpty() || "help".equalsIgnoreCase(args.get(0))) {
+            return QueryCommand.usage();
+        }
+        return api.explain(Query.parse(String.join(" ", args))).describe().stripTrailing();
+    }
+}
@@ -2,13 +2,20 @@ package com.people.cli.commands;
 
 import cli.Command;
 import cli.CommandContext;
+import com.people.api.AsyncPeopleApi;
+import com.people.api.DuplicateCluster;
 import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
 import com.people.cli.CliArgs;
+import com.people.dedup.DuplicateDetector;
 import com.people.domain.Gender;
 import com.people.domain.Person;
 import com.people.domain.PreferredGender;
 import com.people.domain.PreferredGenderType;
+import com.people.picture.PictureStore;
+import com.people.service.AsyncPeopleService;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
@@ -19,9 +26,11 @@ import java.util.Map;
 
 public final class PersonCommand implements Command {
     private final PeopleApi api;
+    private final AsyncPeopleApi asyncApi;
 
-    public PersonCommand(PeopleApi api) {
+    public PersonCommand(PeopleApi api, AsyncPeopleApi asyncApi) {
         this.api = api;
+        this.asyncApi = asyncApi;
     }
 
     @Override
@@ -44,8 +53,9 @@ public final class PersonCommand implements Command {
             case "create" -> createPerson(args.subList(1, args.size()));
             case "update" -> updatePerson(args.subList(1, args.size()));
             case "delete" -> deletePerson(args.subList(1, args.size()));
-            case "get" -> formatPerson(getPerson(args.subList(1, args.size())));
+            case "get" -> formatPerson(getPersonDetail(args.subList(1, args.size())));
             case "list" -> formatPeople(api.listPeople());
+            case "duplicates" -> formatDuplicates(findDuplicates(args.subList(1, args.size())));
             case "picture" -> setPicture(args.subList(1, args.size()));
             default -> throw new IllegalArgumentException("Unknown action: " + action);
         };
@@ -66,6 +76,7 @@ public final class PersonCommand implements Command {
                 person delete --id <text:1-50>
                 person get --id <text:1-50>
                 person list
+                person duplicates [--threshold <number:0-1, default 0.9>]
                 """;
     }
 
@@ -89,7 +100,8 @@ public final class PersonCommand implements Command {
         Person base = buildPerson(id, map, null);
         Person existing = api.getPerson(id);
         Person updated = new Person(base.id(), base.firstName(), base.middleName(), base.lastName(),
-                base.dateOfBirth(), base.gender(), base.preferredGender(), existing.picturePath());
+                base.dateOfBirth(), base.gender(), base.preferredGender(), existing.pictureHash(),
+                existing.version());
         return api.updatePerson(updated);
     }
 
@@ -98,9 +110,22 @@ public final class PersonCommand implements Command {
         return api.deletePerson(CliArgs.require(map, "id"));
     }
 
-    private Person getPerson(List<String> args) {
+    private List<DuplicateCluster> findDuplicates(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        return api.getPerson(CliArgs.require(map, "id"));
+        String threshold = CliArgs.optional(map, "threshold");
+        if (threshold == null) {
+            return api.findDuplicates(DuplicateDetector.DEFAULT_THRESHOLD);
+        }
+        try {
+            return api.findDuplicates(Double.parseDouble(threshold));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("threshold must be a number");
+        }
+    }
+
+    private PersonDetail getPersonDetail(List<String> args) {
+        Map<String, String> map = CliArgs.parse(args);
+        return AsyncPeopleService.join(asyncApi.getPersonDetail(CliArgs.require(map, "id")));
     }
 
     private Person buildPerson(String id, Map<String, String> map, String picture) {
@@ -121,13 +146,19 @@ public final class PersonCommand implements Command {
         if (!(lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg"))) {
             throw new IllegalArgumentException("picture file must be .png or .jpg");
         }
-        if (!Files.exists(Path.of(file))) {
+        Path path = Path.of(file);
+        if (!Files.isRegularFile(path)) {
             throw new IllegalArgumentException("picture file not found: " + file);
         }
-        Person existing = api.getPerson(id);
-        Person updated = new Person(existing.id(), existing.firstName(), existing.middleName(), existing.lastName(),
-                existing.dateOfBirth(), existing.gender(), existing.preferredGender(), file);
-        return api.updatePerson(updated);
+        try {
+            if (Files.size(path) > PictureStore.MAX_PICTURE_BYTES) {
+                throw new IllegalArgumentException("picture must be at most " + PictureStore.MAX_PICTURE_BYTES
+                        + " bytes");
+            }
+            return api.setPicture(id, Files.readAllBytes(path));
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("cannot read picture file: " + file);
+        }
     }
 
     private PreferredGender parsePreferredGender(Map<String, String> map) {
@@ -157,7 +188,7 @@ public final class PersonCommand implements Command {
             if (person.middleName() != null) {
                 name += " " + person.middleName();
             }
-            String picture = person.picturePath() == null ? "no" : "yes";
+            String picture = person.pictureHash() == null ? "no" : "yes";
             sb.append(String.format("%-36s  %-22s  %-10s  %-10s  %-15s  %-7s%n",
                     person.id(),
                     truncate(name, 22),
@@ -169,6 +200,30 @@ public final class PersonCommand implements Command {
         return sb.toString();
     }
 
+    private String formatDuplicates(List<DuplicateCluster> clusters) {
+        if (clusters.isEmpty()) {
+            return "No duplicates found.";
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM-dd-yyyy");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < clusters.size(); i++) {
+            DuplicateCluster cluster = clusters.get(i);
+            sb.append(String.format("Cluster %d (score %.3f, %d people)%n", i + 1, cluster.score(),
+                    cluster.people().size()));
+            for (Person person : cluster.people()) {
+                String name = person.lastName() + ", " + person.firstName();
+                if (person.middleName() != null) {
+                    name += " " + person.middleName();
+                }
+                sb.append(String.format("  %-36s  %-22s  %-10s%n",
+                        person.id(),
+                        truncate(name, 22),
+                        person.dateOfBirth() == null ? "" : person.dateOfBirth().format(formatter)));
+            }
+        }
+        return sb.toString().trim();
+    }
+
     private String truncate(String value, int max) {
         if (value.length() <= max) {
             return value;
@@ -176,7 +231,8 @@ public final class PersonCommand implements Command {
         return value.substring(0, Math.max(0, max - 3)) + "...";
     }
 
-    private String formatPerson(Person person) {
+    private String formatPerson(PersonDetail detail) {
+        Person person = detail.person();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM-dd-yyyy");
         StringBuilder sb = new StringBuilder();
         sb.append("ID: ").append(person.id()).append(System.lineSeparator());
@@ -186,16 +242,16 @@ public final class PersonCommand implements Command {
         sb.append("DOB: ").append(person.dateOfBirth().format(formatter)).append(System.lineSeparator());
         sb.append("Gender: ").append(person.gender()).append(System.lineSeparator());
         sb.append("Preferred Gender: ").append(person.preferredGender()).append(System.lineSeparator());
-        sb.append("Picture: ").append(nullToEmpty(person.picturePath())).append(System.lineSeparator());
+        sb.append("Picture: ").append(nullToEmpty(person.pictureHash())).append(System.lineSeparator());
         sb.append(System.lineSeparator());
         sb.append("Addresses:").append(System.lineSeparator());
-        sb.append(formatAddresses(api.listAddresses(person.id()))).append(System.lineSeparator());
+        sb.append(formatAddresses(detail.addresses())).append(System.lineSeparator());
         sb.append(System.lineSeparator());
         sb.append("Relationships:").append(System.lineSeparator());
-        sb.append(formatRelationships(api.listRelationships(person.id()))).append(System.lineSeparator());
+        sb.append(formatRelationships(detail.relationships())).append(System.lineSeparator());
         sb.append(System.lineSeparator());
         sb.append("Employment:").append(System.lineSeparator());
-        sb.append(formatEmployments(api.listEmployments(person.id())));
+        sb.append(formatEmployments(detail.employments()));
         return sb.toString();
     }
 
@@ -0,0 +1,67 @@
+package com.people.cli.commands;
+
+import cli.Command;
+import cli.CommandContext;
+import com.people.api.PeopleApi;
+import com.people.query.Field;
+import com.people.query.Query;
+
+import java.util.List;
+
+public final class QueryCommand implements Command {
+    private final PeopleApi api;
+
+    public QueryCommand(PeopleApi api) {
+        this.api = api;
+    }
+
+    @Override
+    public String name() {
+        return "query";
+    }
+
+    @Override
+    public String description() {
+        return "Run an ad-hoc query (type: query help for syntax)";
+    }
+
+    @Override
+    public Object execute(List<String> args, CommandContext ctx) {
+        if (args.isEmpty() || "help".equalsIgnoreCase(args.get(0))) {
+            return usage();
+        }
+        return format(Query.parse(String.join(" ", args)));
+    }
+
+    static String usage() {
+        return """
+                query <person|address|employment> [where <condition>] [order by <field> [asc|desc], ...] [limit <n>]
+                  condition: <field> <=|!=|<|<=|>|>=|contains> <value>, combined with and, or, not and parentheses
+                  values: 'text', numbers, true, false, null; dates as 'yyyy-MM-dd'
+                example: query address where town = 'Springfield' and bedrooms >= 3 order by monthlyPayment desc limit 10
+                explain <same query> shows the chosen plan without running it
+                """;
+    }
+
+    private <T> String format(Query<T> query) {
+        List<T> rows = api.query(query);
+        if (rows.isEmpty()) {
+            return "No rows found.";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (T row : rows) {
+            boolean first = true;
+            for (Field<T> field : query.entity().fields()) {
+                Object value = field.get(row);
+                if (value == null) {
+                    continue;
+                }
+                sb.append(first ? "" : "  ").append(field.name()).append('=').append(value);
+                first = false;
+            }
+            sb.append(System.lineSeparator());
+        }
+        sb.append(rows.size()).append(rows.size() == 1 ? " row" : " rows");
+        return sb.toString();
+    }
+}
@@ -50,8 +50,8 @@ public final class RelationshipCommand implements Command {
                                     --type <spouse|child|aunt|uncle|niece|nephew|grandparent|grandchild|cousin>
                 relationship update --person-id <text:1-50> --id <text:1-50> --related-person-id <text:1-50>
                                     --type <spouse|child|aunt|uncle|niece|nephew|grandparent|grandchild|cousin>
-                relationship delete --person-id <text:1-50> --id <text:1-50>
-                relationship get --person-id <text:1-50> --id <text:1-50>
+                relationship delete [--person-id <text:1-50>] --id <text:1-50>
+                relationship get [--person-id <text:1-50>] --id <text:1-50>
                 relationship list --person-id <text:1-50>
                 """;
     }
@@ -71,16 +71,16 @@ public final class RelationshipCommand implements Command {
 
     private Relationship deleteRelationship(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        String personId = CliArgs.require(map, "person-id");
+        String personId = CliArgs.optional(map, "person-id");
         String id = CliArgs.require(map, "id");
-        return api.deleteRelationship(personId, id);
+        return personId == null ? api.deleteRelationship(id) : api.deleteRelationship(personId, id);
     }
 
     private Relationship getRelationship(List<String> args) {
         Map<String, String> map = CliArgs.parse(args);
-        String personId = CliArgs.require(map, "person-id");
+        String personId = CliArgs.optional(map, "person-id");
         String id = CliArgs.require(map, "id");
-        return api.getRelationship(personId, id);
+        return personId == null ? api.getRelationship(id) : api.getRelationship(personId, id);
     }
 
     private List<Relationship> listRelationships(List<String> args) {
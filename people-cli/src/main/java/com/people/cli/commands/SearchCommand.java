@@ -0,0 +1,82 @@
+package com.people.cli.commands;
+
+import cli.Command;
+import cli.CommandContext;
+import com.people.api.PeopleApi;
+import com.people.api.SearchHit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SearchCommand implements Command {
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final PeopleApi api;
+
+    public SearchCommand(PeopleApi api) {
+        this.api = api;
+    }
+
+    @Override
+    public String name() {
+        return "search";
+    }
+
+    @Override
+    public String description() {
+        return "Ranked search over address descriptions and job titles";
+    }
+
+    @Override
+    public Object execute(List<String> args, CommandContext ctx) {
+        if (args.isEmpty() || "help".equalsIgnoreCase(args.get(0))) {
+            return usage();
+        }
+        List<String> words = new ArrayList<>();
+        int limit = DEFAULT_LIMIT;
+        for (int i = 0; i < args.size(); i++) {
+            if ("--limit".equals(args.get(i))) {
+                if (i + 1 >= args.size()) {
+                    throw new IllegalArgumentException("--limit requires a value");
+                }
+                limit = parseLimit(args.get(++i));
+            } else {
+                words.add(args.get(i));
+            }
+        }
+        return format(api.search(String.join(" ", words), limit));
+    }
+
+    static String usage() {
+        return """
+                search <text> [--limit <number, default 10>]
+                  matches address descriptions and employment job titles/descriptions, best match first
+                example: search senior engineer --limit 5
+                """;
+    }
+
+    private static int parseLimit(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("limit must be a number");
+        }
+    }
+
+    private static String format(List<SearchHit> hits) {
+        if (hits.isEmpty()) {
+            return "No matches found.";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (SearchHit hit : hits) {
+            sb.append(String.format("%7.3f  %-10s  %-36s  %s%n", hit.score(), hit.type(), hit.personId(),
+                    truncate(hit.text(), 60)));
+        }
+        sb.append(hits.size()).append(hits.size() == 1 ? " match" : " matches");
+        return sb.toString();
+    }
+
+    private static String truncate(String value, int width) {
+        return value.length() <= width ? value : value.substring(0, width - 3) + "...";
+    }
+}
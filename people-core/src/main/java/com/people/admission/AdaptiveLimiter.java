@@ -0,0 +1,109 @@
+package com.people.admission;
+
+import com.people.api.OverloadedException;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class AdaptiveLimiter {
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 2.0;
+    private static final double BASELINE_SAMPLES = 500;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final OperationClass operationClass;
+    private final AdmissionLimits limits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private double baselineNanos;
+    private int inFlight;
+    private int queued;
+    private long admitted;
+    private long rejected;
+    private long completed;
+    private long totalLatencyNanos;
+
+    public AdaptiveLimiter(OperationClass operationClass, AdmissionLimits limits) {
+        this.operationClass = operationClass;
+        this.limits = limits;
+        this.limit = limits.initialLimit();
+    }
+
+    public void acquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                await();
+            }
+            inFlight++;
+            admitted++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            adjust(Math.max(1, latencyNanos));
+            inFlight--;
+            completed++;
+            totalLatencyNanos += latencyNanos;
+            if ((int) limit > before) {
+                released.signalAll();
+            } else {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public AdmissionStats stats() {
+        lock.lock();
+        try {
+            return new AdmissionStats(operationClass, (int) limit, inFlight, queued, admitted, rejected,
+                    completed == 0 ? 0 : totalLatencyNanos / completed / 1_000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void await() {
+        if (queued >= limits.maxQueue()) {
+            throw reject();
+        }
+        queued++;
+        try {
+            long remaining = limits.maxWait().toNanos();
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    throw reject();
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        } finally {
+            queued--;
+        }
+    }
+
+    private void adjust(long latencyNanos) {
+        baselineNanos = baselineNanos == 0 ? latencyNanos
+                : baselineNanos + (latencyNanos - baselineNanos) / BASELINE_SAMPLES;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * baselineNanos / latencyNanos));
+        boolean saturated = inFlight * 2 >= limit || queued > 0;
+        double target = limit * gradient + (saturated ? Math.sqrt(limit) : 0);
+        double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(limits.minLimit(), Math.min(limits.maxLimit(), next));
+    }
+
+    private OverloadedException reject() {
+        rejected++;
+        return new OverloadedException(operationClass.name().toLowerCase(), limits.maxWait().toMillis());
+    }
+}
@@ -0,0 +1,316 @@
+package com.people.admission;
+
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+import com.people.query.Query;
+import com.people.query.QueryPlan;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public final class AdmissionControlledPeopleService implements PeopleApi {
+    private final PeopleApi delegate;
+    private final Map<OperationClass, AdaptiveLimiter> limiters = new EnumMap<>(OperationClass.class);
+
+    public AdmissionControlledPeopleService(PeopleApi delegate) {
+        this(delegate, Map.of());
+    }
+
+    public AdmissionControlledPeopleService(PeopleApi delegate, Map<OperationClass, AdmissionLimits> limits) {
+        this.delegate = delegate;
+        for (OperationClass operationClass : OperationClass.values()) {
+            limiters.put(operationClass, new AdaptiveLimiter(operationClass,
+                    limits.getOrDefault(operationClass, AdmissionLimits.defaults(operationClass))));
+        }
+    }
+
+    public PeopleApi delegate() {
+        return delegate;
+    }
+
+    public List<AdmissionStats> stats() {
+        List<AdmissionStats> stats = new ArrayList<>(limiters.size());
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            stats.add(limiter.stats());
+        }
+        return stats;
+    }
+
+    @Override
+    public Person createPerson(Person person) {
+        return admit(OperationClass.WRITE, () -> delegate.createPerson(person));
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        return admit(OperationClass.WRITE, () -> delegate.createPeople(people));
+    }
+
+    @Override
+    public Person updatePerson(Person person) {
+        return admit(OperationClass.WRITE, () -> delegate.updatePerson(person));
+    }
+
+    @Override
+    public Person deletePerson(String id) {
+        return admit(OperationClass.WRITE, () -> delegate.deletePerson(id));
+    }
+
+    @Override
+    public Person getPerson(String id) {
+        return admit(OperationClass.POINT, () -> delegate.getPerson(id));
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        return admit(OperationClass.POINT, () -> delegate.getPersonDetail(id, parts));
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return admit(OperationClass.POINT, () -> delegate.getPerson(id, asOf));
+    }
+
+    @Override
+    public List<Person> listPeople() {
+        return admit(OperationClass.SCAN, delegate::listPeople);
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        return admit(OperationClass.WRITE, () -> delegate.setPicture(personId, image));
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        return admit(OperationClass.POINT, () -> delegate.getPicture(personId));
+    }
+
+    @Override
+    public Address createAddress(Address address) {
+        return admit(OperationClass.WRITE, () -> delegate.createAddress(address));
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        return admit(OperationClass.WRITE, () -> delegate.createAddresses(addresses));
+    }
+
+    @Override
+    public Address updateAddress(Address address) {
+        return admit(OperationClass.WRITE, () -> delegate.updateAddress(address));
+    }
+
+    @Override
+    public Address deleteAddress(String personId, String addressId) {
+        return admit(OperationClass.WRITE, () -> delegate.deleteAddress(personId, addressId));
+    }
+
+    @Override
+    public Address getAddress(String personId, String addressId) {
+        return admit(OperationClass.POINT, () -> delegate.getAddress(personId, addressId));
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return admit(OperationClass.POINT, () -> delegate.getAddress(addressId));
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        return admit(OperationClass.WRITE, () -> delegate.deleteAddress(addressId));
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId) {
+        return admit(OperationClass.POINT, () -> delegate.listAddresses(personId));
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        return admit(OperationClass.POINT, () -> delegate.listAddresses(personId, asOf));
+    }
+
+    @Override
+    public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
+        return admit(OperationClass.SCAN, () -> delegate.listAddressesFiltered(street, town, state, streetContains));
+    }
+
+    @Override
+    public Employment createEmployment(Employment employment) {
+        return admit(OperationClass.WRITE, () -> delegate.createEmployment(employment));
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        return admit(OperationClass.WRITE, () -> delegate.createEmployments(employments));
+    }
+
+    @Override
+    public Employment updateEmployment(Employment employment) {
+        return admit(OperationClass.WRITE, () -> delegate.updateEmployment(employment));
+    }
+
+    @Override
+    public Employment deleteEmployment(String personId, String employmentId) {
+        return admit(OperationClass.WRITE, () -> delegate.deleteEmployment(personId, employmentId));
+    }
+
+    @Override
+    public Employment getEmployment(String personId, String employmentId) {
+        return admit(OperationClass.POINT, () -> delegate.getEmployment(personId, employmentId));
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return admit(OperationClass.POINT, () -> delegate.getEmployment(employmentId));
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        return admit(OperationClass.WRITE, () -> delegate.deleteEmployment(employmentId));
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId) {
+        return admit(OperationClass.POINT, () -> delegate.listEmployments(personId));
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        return admit(OperationClass.POINT, () -> delegate.listEmployments(personId, asOf));
+    }
+
+    @Override
+    public List<Employment> listAllEmployments() {
+        return admit(OperationClass.SCAN, delegate::listAllEmployments);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        return admit(OperationClass.SCAN, () -> delegate.listEmploymentsOn(date, companyId));
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        return admit(OperationClass.SCAN, () -> delegate.listEmploymentsOverlapping(from, to, companyId));
+    }
+
+    @Override
+    public List<CompanySummary> listCompanies() {
+        return admit(OperationClass.SCAN, delegate::listCompanies);
+    }
+
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        return admit(OperationClass.SCAN, () -> delegate.listCompanyEmployments(companyId));
+    }
+
+    @Override
+    public Relationship createRelationship(Relationship relationship) {
+        return admit(OperationClass.WRITE, () -> delegate.createRelationship(relationship));
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        return admit(OperationClass.WRITE, () -> delegate.createRelationships(relationships));
+    }
+
+    @Override
+    public Relationship updateRelationship(Relationship relationship) {
+        return admit(OperationClass.WRITE, () -> delegate.updateRelationship(relationship));
+    }
+
+    @Override
+    public Relationship deleteRelationship(String personId, String relationshipId) {
+        return admit(OperationClass.WRITE, () -> delegate.deleteRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public Relationship getRelationship(String personId, String relationshipId) {
+        return admit(OperationClass.POINT, () -> delegate.getRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return admit(OperationClass.POINT, () -> delegate.getRelationship(relationshipId));
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        return admit(OperationClass.WRITE, () -> delegate.deleteRelationship(relationshipId));
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId) {
+        return admit(OperationClass.POINT, () -> delegate.listRelationships(personId));
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        return admit(OperationClass.POINT, () -> delegate.listRelationships(personId, asOf));
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        return admit(OperationClass.SCAN, () -> delegate.query(query));
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        return admit(OperationClass.POINT, () -> delegate.explain(query));
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        return admit(OperationClass.POINT, () -> delegate.getHousehold(personId));
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        return admit(OperationClass.SCAN, () -> delegate.listHouseholds(minSize));
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return admit(OperationClass.SCAN, () -> delegate.search(text, limit));
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return admit(OperationClass.SCAN, delegate::listGeoStats);
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return admit(OperationClass.SCAN, () -> delegate.findDuplicates(threshold));
+    }
+
+    private <T> T admit(OperationClass operationClass, Supplier<T> call) {
+        AdaptiveLimiter limiter = limiters.get(operationClass);
+        limiter.acquire();
+        long started = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            limiter.release(System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.people.admission;
+
+import java.time.Duration;
+
+public record AdmissionLimits(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        int maxQueue,
+        Duration maxWait
+) {
+    public AdmissionLimits {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (maxQueue < 0) {
+            throw new IllegalArgumentException("maxQueue must not be negative");
+        }
+        if (maxWait == null || maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+    }
+
+    public static AdmissionLimits defaults(OperationClass operationClass) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return switch (operationClass) {
+            case POINT -> new AdmissionLimits(256, 16, 4096, 1024, Duration.ofMillis(100));
+            case WRITE -> new AdmissionLimits(64, 4, 1024, 512, Duration.ofMillis(250));
+            case SCAN -> new AdmissionLimits(Math.max(2, cores / 2), 1, Math.max(2, cores), 16, Duration.ofSeconds(1));
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.people.admission;
+
+public record AdmissionStats(
+        OperationClass operationClass,
+        int limit,
+        int inFlight,
+        int queued,
+        long admitted,
+        long rejected,
+        long averageLatencyMicros
+) {
+}
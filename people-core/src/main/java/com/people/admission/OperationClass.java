@@ -0,0 +1,7 @@
+package com.people.admission;
+
+public enum OperationClass {
+    POINT,
+    WRITE,
+    SCAN
+}
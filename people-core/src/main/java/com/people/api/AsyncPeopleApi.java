@@ -0,0 +1,60 @@
+package com.people.api;
+
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPeopleApi {
+    CompletableFuture<Person> createPerson(Person person);
+
+    CompletableFuture<Person> updatePerson(Person person);
+
+    CompletableFuture<Person> deletePerson(String id);
+
+    CompletableFuture<Person> getPerson(String id);
+
+    CompletableFuture<List<Person>> getPeople(List<String> ids);
+
+    CompletableFuture<List<Person>> listPeople();
+
+    CompletableFuture<PersonDetail> getPersonDetail(String id);
+
+    CompletableFuture<Address> createAddress(Address address);
+
+    CompletableFuture<Address> updateAddress(Address address);
+
+    CompletableFuture<Address> deleteAddress(String personId, String addressId);
+
+    CompletableFuture<Address> getAddress(String personId, String addressId);
+
+    CompletableFuture<List<Address>> listAddresses(String personId);
+
+    CompletableFuture<List<Address>> listAddressesFiltered(String street, String town, String state,
+                                                           String streetContains);
+
+    CompletableFuture<Employment> createEmployment(Employment employment);
+
+    CompletableFuture<Employment> updateEmployment(Employment employment);
+
+    CompletableFuture<Employment> deleteEmployment(String personId, String employmentId);
+
+    CompletableFuture<Employment> getEmployment(String personId, String employmentId);
+
+    CompletableFuture<List<Employment>> listEmployments(String personId);
+
+    CompletableFuture<List<CompanySummary>> listCompanies();
+
+    CompletableFuture<Relationship> createRelationship(Relationship relationship);
+
+    CompletableFuture<Relationship> updateRelationship(Relationship relationship);
+
+    CompletableFuture<Relationship> deleteRelationship(String personId, String relationshipId);
+
+    CompletableFuture<Relationship> getRelationship(String personId, String relationshipId);
+
+    CompletableFuture<List<Relationship>> listRelationships(String personId);
+}
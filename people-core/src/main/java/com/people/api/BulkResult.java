@@ -0,0 +1,12 @@
+package com.people.api;
+
+import java.util.List;
+
+public record BulkResult<T>(
+        List<T> created,
+        List<RowError> errors
+) {
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -1,6 +1,7 @@
 package com.people.api;
 
 public record CompanySummary(
+        String id,
         String name,
         String address,
         int employeeCount
@@ -0,0 +1,14 @@
+package com.people.api;
+
+import com.people.domain.Person;
+
+import java.util.List;
+
+public record DuplicateCluster(
+        double score,
+        List<Person> people
+) {
+    public DuplicateCluster {
+        people = List.copyOf(people);
+    }
+}
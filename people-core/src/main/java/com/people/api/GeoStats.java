@@ -0,0 +1,28 @@
+package com.people.api;
+
+import com.people.domain.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record GeoStats(
+        String state,
+        String town,
+        long people,
+        long addresses,
+        long owners,
+        long renters,
+        BigDecimal totalMonthlyPayment,
+        long totalBedrooms
+) {
+    public BigDecimal averageMonthlyPayment() {
+        if (addresses == 0) {
+            return Money.fromCents(0);
+        }
+        return Money.fromCents(Money.divide(Money.toCents(totalMonthlyPayment), addresses, RoundingMode.HALF_UP));
+    }
+
+    public double averageBedrooms() {
+        return addresses == 0 ? 0 : (double) totalBedrooms / addresses;
+    }
+}
@@ -0,0 +1,17 @@
+package com.people.api;
+
+import java.util.List;
+
+public record Household(
+        List<String> personIds,
+        List<String> addresses
+) {
+    public Household {
+        personIds = List.copyOf(personIds);
+        addresses = List.copyOf(addresses);
+    }
+
+    public int size() {
+        return personIds.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.people.api;
+
+public final class NotFoundException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
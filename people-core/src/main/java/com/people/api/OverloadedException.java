@@ -0,0 +1,27 @@
+package com.people.api;
+
+public final class OverloadedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String operationClass;
+    private final long retryAfterMillis;
+
+    public OverloadedException(String operationClass, long retryAfterMillis) {
+        super("server is overloaded: " + operationClass + " requests are being shed");
+        this.operationClass = operationClass;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String operationClass() {
+        return operationClass;
+    }
+
+    public long retryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
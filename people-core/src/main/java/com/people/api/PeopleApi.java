@@ -4,53 +4,113 @@ import com.people.domain.Address;
 import com.people.domain.Employment;
 import com.people.domain.Person;
 import com.people.domain.Relationship;
+import com.people.query.Query;
+import com.people.query.QueryPlan;
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 public interface PeopleApi {
     Person createPerson(Person person);
 
+    BulkResult<Person> createPeople(List<Person> people);
+
     Person updatePerson(Person person);
 
     Person deletePerson(String id);
 
     Person getPerson(String id);
 
+    PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts);
+
+    Person getPerson(String id, Instant asOf);
+
     List<Person> listPeople();
 
+    Person setPicture(String personId, byte[] image);
+
+    ByteBuffer getPicture(String personId);
+
     Address createAddress(Address address);
 
+    BulkResult<Address> createAddresses(List<Address> addresses);
+
     Address updateAddress(Address address);
 
     Address deleteAddress(String personId, String addressId);
 
+    Address deleteAddress(String addressId);
+
     Address getAddress(String personId, String addressId);
 
+    Address getAddress(String addressId);
+
     List<Address> listAddresses(String personId);
 
+    List<Address> listAddresses(String personId, Instant asOf);
+
     List<Address> listAddressesFiltered(String street, String town, String state, String streetContains);
 
     Employment createEmployment(Employment employment);
 
+    BulkResult<Employment> createEmployments(List<Employment> employments);
+
     Employment updateEmployment(Employment employment);
 
     Employment deleteEmployment(String personId, String employmentId);
 
+    Employment deleteEmployment(String employmentId);
+
     Employment getEmployment(String personId, String employmentId);
 
+    Employment getEmployment(String employmentId);
+
     List<Employment> listEmployments(String personId);
 
+    List<Employment> listEmployments(String personId, Instant asOf);
+
     List<Employment> listAllEmployments();
 
+    List<Employment> listEmploymentsOn(LocalDate date, String companyId);
+
+    List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId);
+
     List<CompanySummary> listCompanies();
 
+    List<Employment> listCompanyEmployments(String companyId);
+
     Relationship createRelationship(Relationship relationship);
 
+    BulkResult<Relationship> createRelationships(List<Relationship> relationships);
+
     Relationship updateRelationship(Relationship relationship);
 
     Relationship deleteRelationship(String personId, String relationshipId);
 
+    Relationship deleteRelationship(String relationshipId);
+
     Relationship getRelationship(String personId, String relationshipId);
 
+    Relationship getRelationship(String relationshipId);
+
     List<Relationship> listRelationships(String personId);
+
+    List<Relationship> listRelationships(String personId, Instant asOf);
+
+    <T> List<T> query(Query<T> query);
+
+    QueryPlan explain(Query<?> query);
+
+    List<DuplicateCluster> findDuplicates(double threshold);
+
+    Household getHousehold(String personId);
+
+    List<Household> listHouseholds(int minSize);
+
+    List<SearchHit> search(String text, int limit);
+
+    List<GeoStats> listGeoStats();
 }
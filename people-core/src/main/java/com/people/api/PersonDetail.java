@@ -0,0 +1,26 @@
+package com.people.api;
+
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public record PersonDetail(
+        Person person,
+        List<Address> addresses,
+        List<Relationship> relationships,
+        List<Employment> employments
+) {
+    public enum Part {
+        ADDRESSES,
+        RELATIONSHIPS,
+        EMPLOYMENTS;
+
+        public static final Set<Part> ALL = Collections.unmodifiableSet(EnumSet.allOf(Part.class));
+    }
+}
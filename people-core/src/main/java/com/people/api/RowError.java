@@ -0,0 +1,9 @@
+package com.people.api;
+
+import java.util.List;
+
+public record RowError(
+        int row,
+        List<String> messages
+) {
+}
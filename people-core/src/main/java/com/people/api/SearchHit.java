@@ -0,0 +1,10 @@
+package com.people.api;
+
+public record SearchHit(
+        String type,
+        String personId,
+        String id,
+        String text,
+        double score
+) {
+}
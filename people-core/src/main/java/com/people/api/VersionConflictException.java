@@ -0,0 +1,34 @@
+package com.people.api;
+
+public final class VersionConflictException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final String entity;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public VersionConflictException(String entity, long expectedVersion, long actualVersion) {
+        super(entity + " was modified concurrently (expected version " + expectedVersion
+                + ", found " + actualVersion + ")");
+        this.entity = entity;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String entity() {
+        return entity;
+    }
+
+    public long expectedVersion() {
+        return expectedVersion;
+    }
+
+    public long actualVersion() {
+        return actualVersion;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,17 @@
+package com.people.cluster;
+
+import com.people.api.PeopleApi;
+import com.people.domain.Person;
+import com.people.replication.Change;
+
+import java.util.List;
+
+public interface ClusterNode extends PeopleApi {
+    Person createPerson(Person person, String id);
+
+    void deleteRelationshipsRelatedTo(String personId);
+
+    void importChanges(List<Change> changes);
+
+    Person evictPerson(String personId);
+}
@@ -0,0 +1,604 @@
+package com.people.cluster;
+
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.NotFoundException;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.RowError;
+import com.people.api.SearchHit;
+import com.people.dedup.DuplicateDetector;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+import com.people.geo.GeoRollup;
+import com.people.household.HouseholdIndex;
+import com.people.interval.EmploymentIntervalIndex;
+import com.people.query.PlanStep;
+import com.people.query.Query;
+import com.people.query.QueryEngine;
+import com.people.query.QueryPlan;
+import com.people.replication.Change;
+import com.people.search.TextIndex;
+import com.people.service.ValidationException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+public final class ClusterPeopleService implements PeopleApi, AutoCloseable {
+    private static final int LOCK_STRIPES = 256;
+    private static final Comparator<Person> PEOPLE_ORDER = Comparator.comparing(Person::lastName)
+            .thenComparing(Person::firstName).thenComparing(Person::id);
+    private static final Comparator<Address> ADDRESS_ORDER = Comparator.comparing(Address::personId)
+            .thenComparing(Address::id);
+    private static final Comparator<Employment> EMPLOYMENT_ORDER = Comparator.comparing(Employment::personId)
+            .thenComparing(Employment::id);
+
+    private final Map<String, ClusterNode> nodes = new ConcurrentHashMap<>();
+    private final ReadWriteLock[] stripes = new ReadWriteLock[LOCK_STRIPES];
+    private final Set<String> moved = ConcurrentHashMap.newKeySet();
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile HashRing ring;
+    private volatile HashRing target;
+
+    public ClusterPeopleService(Map<String, ? extends ClusterNode> nodes) {
+        this(nodes, HashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ClusterPeopleService(Map<String, ? extends ClusterNode> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("cluster needs at least one node");
+        }
+        this.nodes.putAll(nodes);
+        this.ring = new HashRing(new LinkedHashMap<>(nodes).keySet(), virtualNodes);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public Set<String> nodeNames() {
+        HashRing next = target;
+        return next != null ? next.nodes() : ring.nodes();
+    }
+
+    public String ownerOf(String personId) {
+        HashRing next = target;
+        String current = ring.owner(personId);
+        if (next == null) {
+            return current;
+        }
+        String owner = next.owner(personId);
+        return owner.equals(current) || moved.contains(personId) ? owner : current;
+    }
+
+    public synchronized Rebalance addNode(String name, ClusterNode node) {
+        long started = System.nanoTime();
+        HashRing next = ring.withNode(name);
+        nodes.put(name, node);
+        moved.clear();
+        target = next;
+        for (ReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+            stripe.writeLock().unlock();
+        }
+        int count = 0;
+        for (String source : ring.nodes()) {
+            ClusterNode from = nodes.get(source);
+            for (Person person : from.listPeople()) {
+                if (name.equals(next.owner(person.id())) && move(person.id(), from, node)) {
+                    count++;
+                }
+            }
+        }
+        ring = next;
+        target = null;
+        moved.clear();
+        return new Rebalance(name, count, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public Person createPerson(Person person) {
+        String id = UUID.randomUUID().toString();
+        return onPerson(id, node -> node.createPerson(person, claim(id)));
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        List<String> ids = new ArrayList<>(people.size());
+        for (int i = 0; i < people.size(); i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return createAll(people, "person", ids::get,
+                (node, row, person) -> node.createPerson(person, claim(ids.get(row))));
+    }
+
+    @Override
+    public Person updatePerson(Person person) {
+        return onPerson(person.id(), node -> node.updatePerson(person));
+    }
+
+    @Override
+    public Person deletePerson(String id) {
+        Person deleted = onPerson(id, node -> node.deletePerson(id));
+        List<Future<Void>> pending = new ArrayList<>(nodes.size());
+        for (ClusterNode node : nodes.values()) {
+            pending.add(fanOut.submit(() -> {
+                node.deleteRelationshipsRelatedTo(id);
+                return null;
+            }));
+        }
+        for (Future<Void> future : pending) {
+            await(future);
+        }
+        return deleted;
+    }
+
+    @Override
+    public Person getPerson(String id) {
+        return onPerson(id, node -> node.getPerson(id));
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        return onPerson(id, node -> node.getPersonDetail(id, parts));
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return onPerson(id, node -> node.getPerson(id, asOf));
+    }
+
+    @Override
+    public List<Person> listPeople() {
+        return sorted(gather(PeopleApi::listPeople), PEOPLE_ORDER);
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        return onPerson(personId, node -> node.setPicture(personId, image));
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        return onPerson(personId, node -> node.getPicture(personId));
+    }
+
+    @Override
+    public Address createAddress(Address address) {
+        return onPerson(address.personId(), node -> node.createAddress(address));
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        return createAll(addresses, "address", row -> addresses.get(row).personId(),
+                (node, row, address) -> node.createAddress(address));
+    }
+
+    @Override
+    public Address updateAddress(Address address) {
+        return onPerson(address.personId(), node -> node.updateAddress(address));
+    }
+
+    @Override
+    public Address deleteAddress(String personId, String addressId) {
+        return onPerson(personId, node -> node.deleteAddress(personId, addressId));
+    }
+
+    @Override
+    public Address getAddress(String personId, String addressId) {
+        return onPerson(personId, node -> node.getAddress(personId, addressId));
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return child(node -> node.getAddress(addressId), "address not found");
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        return deleteAddress(getAddress(addressId).personId(), addressId);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId) {
+        return onPerson(personId, node -> node.listAddresses(personId));
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        return onPerson(personId, node -> node.listAddresses(personId, asOf));
+    }
+
+    @Override
+    public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
+        return sorted(gather(node -> node.listAddressesFiltered(street, town, state, streetContains)),
+                ADDRESS_ORDER);
+    }
+
+    @Override
+    public Employment createEmployment(Employment employment) {
+        return onPerson(employment.personId(), node -> node.createEmployment(employment));
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        return createAll(employments, "employment", row -> employments.get(row).personId(),
+                (node, row, employment) -> node.createEmployment(employment));
+    }
+
+    @Override
+    public Employment updateEmployment(Employment employment) {
+        return onPerson(employment.personId(), node -> node.updateEmployment(employment));
+    }
+
+    @Override
+    public Employment deleteEmployment(String personId, String employmentId) {
+        return onPerson(personId, node -> node.deleteEmployment(personId, employmentId));
+    }
+
+    @Override
+    public Employment getEmployment(String personId, String employmentId) {
+        return onPerson(personId, node -> node.getEmployment(personId, employmentId));
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return child(node -> node.getEmployment(employmentId), "employment not found");
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        return deleteEmployment(getEmployment(employmentId).personId(), employmentId);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId) {
+        return onPerson(personId, node -> node.listEmployments(personId));
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        return onPerson(personId, node -> node.listEmployments(personId, asOf));
+    }
+
+    @Override
+    public List<Employment> listAllEmployments() {
+        return sorted(gather(PeopleApi::listAllEmployments), EMPLOYMENT_ORDER);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        return sorted(gather(node -> node.listEmploymentsOn(date, companyId)), EmploymentIntervalIndex.BY_START);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        return sorted(gather(node -> node.listEmploymentsOverlapping(from, to, companyId)),
+                EmploymentIntervalIndex.BY_START);
+    }
+
+    @Override
+    public List<CompanySummary> listCompanies() {
+        Map<String, CompanySummary> merged = new HashMap<>();
+        for (CompanySummary company : gather(PeopleApi::listCompanies)) {
+            merged.merge(company.id(), company, (a, b) ->
+                    new CompanySummary(a.id(), a.name(), a.address(), a.employeeCount() + b.employeeCount()));
+        }
+        return sorted(new ArrayList<>(merged.values()), Comparator.comparing(CompanySummary::name));
+    }
+
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        List<List<Employment>> known = gather(node -> {
+            try {
+                return List.of(node.listCompanyEmployments(companyId));
+            } catch (NotFoundException ex) {
+                return List.of();
+            }
+        });
+        if (known.isEmpty()) {
+            throw new NotFoundException("company not found");
+        }
+        List<Employment> employments = new ArrayList<>();
+        known.forEach(employments::addAll);
+        return sorted(employments, EMPLOYMENT_ORDER);
+    }
+
+    @Override
+    public Relationship createRelationship(Relationship relationship) {
+        requireRelatedPerson(relationship, () -> new ValidationException(List.of("person not found")));
+        return onPerson(relationship.personId(), node -> node.createRelationship(relationship));
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        return createAll(relationships, "relationship", row -> relationships.get(row).personId(),
+                (node, row, relationship) -> {
+                    requireRelatedPerson(relationship, () -> new ValidationException(List.of("person not found")));
+                    return node.createRelationship(relationship);
+                });
+    }
+
+    @Override
+    public Relationship updateRelationship(Relationship relationship) {
+        requireRelatedPerson(relationship, () -> new NotFoundException("person not found"));
+        return onPerson(relationship.personId(), node -> node.updateRelationship(relationship));
+    }
+
+    @Override
+    public Relationship deleteRelationship(String personId, String relationshipId) {
+        return onPerson(personId, node -> node.deleteRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public Relationship getRelationship(String personId, String relationshipId) {
+        return onPerson(personId, node -> node.getRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return child(node -> node.getRelationship(relationshipId), "relationship not found");
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        return deleteRelationship(getRelationship(relationshipId).personId(), relationshipId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId) {
+        return onPerson(personId, node -> node.listRelationships(personId));
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        return onPerson(personId, node -> node.listRelationships(personId, asOf));
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        return QueryEngine.merge(query, gather(node -> node.query(query)));
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        Household local = onPerson(personId, node -> node.getHousehold(personId));
+        if (local.addresses().isEmpty()) {
+            return local;
+        }
+        return listHouseholds(1).stream().filter(household -> household.personIds().contains(personId))
+                .findFirst().orElse(local);
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        List<Household> households = HouseholdIndex.merge(gather(node -> node.listHouseholds(1)));
+        households.removeIf(household -> household.size() < minSize);
+        return households;
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return TextIndex.merge(gather(node -> node.search(text, limit)), limit);
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return GeoRollup.merge(gather(node -> node.listGeoStats()));
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return DuplicateDetector.find(gather(PeopleApi::listPeople), threshold);
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        QueryPlan nodePlan = nodes.get(ring.nodes().iterator().next()).explain(query);
+        List<PlanStep> steps = new ArrayList<>();
+        long total = nodePlan.steps().get(0).estimatedRows() * nodes.size();
+        if (query.limit() > 0) {
+            total = Math.min(total, query.limit());
+        }
+        boolean reorder = query.limit() > 0 || !query.orderBy().isEmpty();
+        steps.add(new PlanStep("Gather", nodes.size() + " nodes in parallel"
+                + (reorder ? ", then re-applies order and limit" : ""), total));
+        steps.addAll(nodePlan.steps());
+        return new QueryPlan(steps);
+    }
+
+    @Override
+    public void close() {
+        fanOut.close();
+        for (ClusterNode node : nodes.values()) {
+            if (node instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    throw new IllegalStateException("cannot close cluster node", ex);
+                }
+            }
+        }
+    }
+
+    private boolean move(String personId, ClusterNode from, ClusterNode to) {
+        Lock lock = stripe(personId).writeLock();
+        lock.lock();
+        try {
+            Person person;
+            try {
+                person = from.getPerson(personId);
+            } catch (NotFoundException ex) {
+                return false;
+            }
+            List<Change> changes = new ArrayList<>();
+            changes.add(Change.of(person));
+            from.listAddresses(personId).forEach(address -> changes.add(Change.of(address)));
+            from.listEmployments(personId).forEach(employment -> changes.add(Change.of(employment)));
+            from.listRelationships(personId).forEach(relationship -> changes.add(Change.of(relationship)));
+            to.importChanges(changes);
+            moved.add(personId);
+            from.evictPerson(personId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String claim(String personId) {
+        if (target != null) {
+            moved.add(personId);
+        }
+        return personId;
+    }
+
+    private void requireRelatedPerson(Relationship relationship,
+                                      Supplier<IllegalArgumentException> missing) {
+        String relatedId = relationship == null ? null : relationship.relatedPersonId();
+        if (relatedId == null) {
+            return;
+        }
+        try {
+            getPerson(relatedId);
+        } catch (NotFoundException ex) {
+            throw missing.get();
+        }
+    }
+
+    private <T> T onPerson(String personId, Function<ClusterNode, T> operation) {
+        Lock lock = stripe(personId).readLock();
+        lock.lock();
+        try {
+            return operation.apply(nodes.get(ownerOf(personId)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReadWriteLock stripe(String personId) {
+        int hash = personId == null ? 0 : personId.hashCode() * 0x9E3779B9;
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private <T> T child(Function<ClusterNode, T> lookup, String notFound) {
+        List<T> found = gather(node -> {
+            try {
+                return List.of(lookup.apply(node));
+            } catch (NotFoundException ex) {
+                return List.of();
+            }
+        });
+        if (found.isEmpty()) {
+            throw new NotFoundException(notFound);
+        }
+        return found.get(0);
+    }
+
+    private <T> List<T> gather(Function<ClusterNode, List<T>> query) {
+        List<Future<List<T>>> pending = new ArrayList<>(nodes.size());
+        for (ClusterNode node : nodes.values()) {
+            pending.add(fanOut.submit(() -> query.apply(node)));
+        }
+        List<T> all = new ArrayList<>();
+        for (Future<List<T>> future : pending) {
+            all.addAll(await(future));
+        }
+        return all;
+    }
+
+    private <T> BulkResult<T> createAll(List<T> values, String label, IntFunction<String> personIdOfRow,
+                                        RowCreator<T> create) {
+        Map<String, List<Integer>> rowsByNode = new HashMap<>();
+        List<List<String>> errors = new ArrayList<>(values.size());
+        List<T> results = new ArrayList<>(values.size());
+        for (int row = 0; row < values.size(); row++) {
+            errors.add(null);
+            results.add(null);
+            if (values.get(row) == null) {
+                errors.set(row, List.of(label + " must be provided"));
+            } else {
+                rowsByNode.computeIfAbsent(ownerOf(personIdOfRow.apply(row)), key -> new ArrayList<>()).add(row);
+            }
+        }
+        List<Future<Void>> pending = new ArrayList<>(rowsByNode.size());
+        for (List<Integer> rows : rowsByNode.values()) {
+            pending.add(fanOut.submit(() -> {
+                for (int row : rows) {
+                    T value = values.get(row);
+                    try {
+                        results.set(row, onPerson(personIdOfRow.apply(row), node -> create.create(node, row, value)));
+                    } catch (ValidationException ex) {
+                        errors.set(row, ex.violations());
+                    } catch (IllegalArgumentException ex) {
+                        errors.set(row, List.of(String.valueOf(ex.getMessage())));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<Void> future : pending) {
+            await(future);
+        }
+        List<T> created = new ArrayList<>(values.size());
+        List<RowError> rowErrors = new ArrayList<>();
+        for (int row = 0; row < values.size(); row++) {
+            if (errors.get(row) != null) {
+                rowErrors.add(new RowError(row, errors.get(row)));
+            } else {
+                created.add(results.get(row));
+            }
+        }
+        return new BulkResult<>(created, rowErrors);
+    }
+
+    private static <T> List<T> sorted(List<T> values, Comparator<? super T> order) {
+        values.sort(order);
+        return values;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for cluster node", ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowCreator<T> {
+        T create(ClusterNode node, int row, T value);
+    }
+}
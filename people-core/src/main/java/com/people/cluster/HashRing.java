@@ -0,0 +1,65 @@
+package com.people.cluster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+public final class HashRing {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+    private final Set<String> nodes;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtual nodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(new LinkedHashSet<>(nodes));
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + '#' + i), node);
+            }
+        }
+    }
+
+    public HashRing withNode(String node) {
+        if (nodes.contains(node)) {
+            throw new IllegalArgumentException("node already in ring: " + node);
+        }
+        List<String> next = new ArrayList<>(nodes);
+        next.add(node);
+        return new HashRing(next, virtualNodes);
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    public String owner(String key) {
+        if (points.isEmpty()) {
+            throw new IllegalStateException("ring has no nodes");
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key == null ? "" : key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        long z = hash + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
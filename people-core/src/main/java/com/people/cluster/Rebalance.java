@@ -0,0 +1,4 @@
+package com.people.cluster;
+
+public record Rebalance(String node, int movedPeople, long elapsedMillis) {
+}
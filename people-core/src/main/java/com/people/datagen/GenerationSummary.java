@@ -0,0 +1,13 @@
+package com.people.datagen;
+
+import java.time.Duration;
+
+public record GenerationSummary(
+        long people,
+        long addresses,
+        long employments,
+        long relationships,
+        long rejected,
+        Duration elapsed
+) {
+}
@@ -0,0 +1,75 @@
+package com.people.datagen;
+
+import java.time.LocalDate;
+
+public record GeneratorConfig(
+        long seed,
+        int people,
+        double[] addressCountWeights,
+        double[] employmentCountWeights,
+        double relationshipDegree,
+        int towns,
+        int companies,
+        double zipfExponent,
+        LocalDate earliestBirthDate,
+        LocalDate latestBirthDate,
+        LocalDate referenceDate,
+        int batchSize,
+        int threads
+) {
+    public static final long DEFAULT_SEED = 42L;
+    public static final LocalDate DEFAULT_REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+
+    public GeneratorConfig {
+        if (people < 0) {
+            throw new IllegalArgumentException("people must not be negative");
+        }
+        if (addressCountWeights.length == 0 || employmentCountWeights.length == 0) {
+            throw new IllegalArgumentException("count weights must not be empty");
+        }
+        if (relationshipDegree < 0) {
+            throw new IllegalArgumentException("relationship degree must not be negative");
+        }
+        if (towns <= 0 || companies <= 0) {
+            throw new IllegalArgumentException("towns and companies must be positive");
+        }
+        if (!earliestBirthDate.isBefore(latestBirthDate)) {
+            throw new IllegalArgumentException("earliest birth date must be before latest birth date");
+        }
+        if (referenceDate.isBefore(latestBirthDate)) {
+            throw new IllegalArgumentException("reference date must not be before latest birth date");
+        }
+        if (batchSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("batch size and threads must be positive");
+        }
+    }
+
+    public static GeneratorConfig forScale(int people, long seed) {
+        int towns = Math.max(20, Math.min(50_000, people / 200));
+        int companies = Math.max(10, Math.min(500_000, people / 20));
+        return new GeneratorConfig(
+                seed,
+                people,
+                new double[]{0.05, 0.55, 0.25, 0.10, 0.05},
+                new double[]{0.15, 0.45, 0.25, 0.10, 0.05},
+                1.5,
+                towns,
+                companies,
+                1.07,
+                LocalDate.of(1930, 1, 1),
+                LocalDate.of(2005, 12, 31),
+                DEFAULT_REFERENCE_DATE,
+                10_000,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public GeneratorConfig withThreads(int threads) {
+        return new GeneratorConfig(seed, people, addressCountWeights, employmentCountWeights, relationshipDegree,
+                towns, companies, zipfExponent, earliestBirthDate, latestBirthDate, referenceDate, batchSize, threads);
+    }
+
+    public GeneratorConfig withReferenceDate(LocalDate referenceDate) {
+        return new GeneratorConfig(seed, people, addressCountWeights, employmentCountWeights, relationshipDegree,
+                towns, companies, zipfExponent, earliestBirthDate, latestBirthDate, referenceDate, batchSize, threads);
+    }
+}
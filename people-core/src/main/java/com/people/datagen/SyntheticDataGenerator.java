@@ -0,0 +1,374 @@
+package com.people.datagen;
+
+import com.people.api.BulkResult;
+import com.people.api.PeopleApi;
+import com.people.api.RowError;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+public final class SyntheticDataGenerator {
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Grace", "Alan", "Katherine", "Edsger", "Barbara", "Donald", "Margaret", "Tim", "Linus",
+            "Claude", "Jean", "Hedy", "Niklaus", "Dorothy", "John", "Mary", "James", "Patricia", "Robert",
+            "Jennifer", "Michael", "Linda", "William", "Elizabeth", "David", "Susan", "Richard", "Jessica",
+            "Joseph", "Sarah", "Thomas", "Karen", "Charles", "Nancy", "Daniel", "Lisa", "Matthew", "Betty",
+            "Anthony", "Sandra", "Mark", "Ashley", "Steven", "Kimberly", "Andrew", "Emily", "Joshua", "Donna",
+            "Kenneth", "Michelle", "Kevin", "Carol", "Brian", "Amanda", "Wei", "Priya", "Mateo", "Aisha",
+            "Yuki", "Olga", "Kwame", "Sofia", "Arjun", "Fatima", "Lars", "Chloe", "Diego", "Noor"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore",
+            "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez",
+            "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+            "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell",
+            "Carter", "Roberts", "Lovelace", "Hopper", "Turing", "Dijkstra", "Liskov", "Knuth", "Hamilton",
+            "Torvalds", "Shannon", "Lamarr", "Wirth", "Vaughan", "Kim", "Patel", "Chen", "Wang", "Singh",
+            "Muller", "Schmidt", "Rossi", "Silva", "Kowalski", "Novak", "Ivanov", "Tanaka", "Okafor", "Haddad"
+    };
+    private static final String[] STATES = {
+            "CA", "TX", "FL", "NY", "PA", "IL", "OH", "GA", "NC", "MI", "NJ", "VA", "WA", "AZ", "MA", "TN",
+            "IN", "MD", "MO", "WI", "CO", "MN", "SC", "AL", "LA", "KY", "OR", "OK", "CT", "UT", "IA", "NV",
+            "AR", "MS", "KS", "NM", "NE", "ID", "WV", "HI", "NH", "ME", "RI", "MT", "DE", "SD", "ND", "AK",
+            "DC", "VT", "WY", "PR", "ON", "QC", "BC", "AB", "NSW", "VIC", "QLD", "Bavaria", "Ontario",
+            "Greater London", "Ile-de-France", "Lombardy", "Catalonia", "Tokyo", "Maharashtra", "Jalisco"
+    };
+    private static final String[] TOWN_PREFIXES = {
+            "Spring", "River", "Oak", "Maple", "Cedar", "Pine", "Lake", "Fair", "Green", "Clear", "Brook",
+            "Ash", "Elm", "Stone", "Mill", "North", "South", "East", "West", "Silver", "Red", "Black", "White",
+            "Rose", "Glen", "Hill", "Bay", "Wood", "Highland", "Summer"
+    };
+    private static final String[] TOWN_SUFFIXES = {
+            "field", "ton", "ville", "wood", "dale", "port", "view", "ford", "burg", "haven", "side", "mont",
+            "bridge", "crest", "water", " Falls", " Springs", " Heights", " Park", " City"
+    };
+    private static final String[] STREET_NAMES = {
+            "Main", "Oak", "Pine", "Maple", "Cedar", "Elm", "Washington", "Lake", "Hill", "Park", "Walnut",
+            "Sunset", "Lincoln", "Church", "Market", "Highland", "Meadow", "Forest", "Willow", "Jefferson"
+    };
+    private static final String[] STREET_TYPES = {"St", "Ave", "Rd", "Blvd", "Ln", "Dr", "Ct", "Way", "Pl"};
+    private static final String[] COMPANY_WORDS = {
+            "Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Wonka", "Hooli", "Vandelay", "Cyberdyne",
+            "Soylent", "Tyrell", "Aperture", "Massive", "Gringotts", "Oscorp", "Pied Piper", "Dunder", "Monarch",
+            "Nakatomi", "Blue Sun", "Virtucon", "Zorg", "Prestige", "Sterling", "Pearson", "Bluth", "Kramerica"
+    };
+    private static final String[] COMPANY_SUFFIXES = {
+            "Inc", "LLC", "Corp", "Group", "Holdings", "Labs", "Systems", "Partners", "Industries", "Co"
+    };
+    private static final String[] JOB_TITLES = {
+            "Engineer", "Senior Engineer", "Analyst", "Manager", "Director", "Nurse", "Teacher", "Accountant",
+            "Sales Associate", "Cashier", "Driver", "Electrician", "Designer", "Consultant", "Technician",
+            "Administrator", "Chef", "Pharmacist", "Paralegal", "Data Scientist"
+    };
+    private static final AddressType[] ADDRESS_TYPES = AddressType.values();
+    private static final RelationshipType[] RELATIONSHIP_TYPES = RelationshipType.values();
+    private static final int LOCAL_RELATIONSHIP_SPAN = 50;
+
+    private final PeopleApi api;
+    private final GeneratorConfig config;
+    private final LocalDate referenceDate;
+    private final ZipfSampler townSampler;
+    private final ZipfSampler companySampler;
+    private final ZipfSampler lastNameSampler;
+    private final String[] townStates;
+    private final double[] addressCounts;
+    private final double[] employmentCounts;
+
+    public SyntheticDataGenerator(PeopleApi api, GeneratorConfig config) {
+        this.api = api;
+        this.config = config;
+        this.referenceDate = config.referenceDate();
+        this.townSampler = new ZipfSampler(config.towns(), config.zipfExponent());
+        this.companySampler = new ZipfSampler(config.companies(), config.zipfExponent());
+        this.lastNameSampler = new ZipfSampler(LAST_NAMES.length, config.zipfExponent());
+        this.townStates = new String[config.towns()];
+        ZipfSampler stateSampler = new ZipfSampler(STATES.length, config.zipfExponent());
+        SplittableRandom stateRandom = new SplittableRandom(mix(config.seed(), 0, -1));
+        for (int town = 0; town < townStates.length; town++) {
+            townStates[town] = STATES[stateSampler.sample(stateRandom)];
+        }
+        this.addressCounts = cumulative(config.addressCountWeights());
+        this.employmentCounts = cumulative(config.employmentCountWeights());
+    }
+
+    public GenerationSummary generate() {
+        long start = System.nanoTime();
+        String[] ids = new String[config.people()];
+        Counters counters = new Counters();
+        int chunks = (config.people() + config.batchSize() - 1) / config.batchSize();
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try {
+            runChunks(executor, chunks, chunk -> generatePeople(chunk, ids, counters));
+            runChunks(executor, chunks, chunk -> generateRelationships(chunk, ids, counters));
+        } finally {
+            executor.shutdown();
+        }
+        return new GenerationSummary(counters.people.sum(), counters.addresses.sum(), counters.employments.sum(),
+                counters.relationships.sum(), counters.rejected.sum(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void runChunks(ExecutorService executor, int chunks, IntConsumer task) {
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            futures.add(executor.submit(() -> task.accept(index)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("data generation interrupted", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("data generation failed", ex.getCause());
+            }
+        }
+    }
+
+    private void generatePeople(int chunk, String[] ids, Counters counters) {
+        SplittableRandom random = new SplittableRandom(mix(config.seed(), 1, chunk));
+        int from = chunk * config.batchSize();
+        int to = Math.min(config.people(), from + config.batchSize());
+        List<Person> people = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            people.add(randomPerson(random));
+        }
+        BulkResult<Person> created = api.createPeople(people);
+        counters.rejected.add(created.errors().size());
+        boolean[] rejected = rejectedRows(created.errors(), people.size());
+        int next = 0;
+        List<Person> createdPeople = created.created();
+        for (int row = 0; row < people.size(); row++) {
+            if (!rejected[row]) {
+                ids[from + row] = createdPeople.get(next++).id();
+            }
+        }
+        counters.people.add(createdPeople.size());
+
+        List<Address> addresses = new ArrayList<>();
+        List<Employment> employments = new ArrayList<>();
+        for (Person person : createdPeople) {
+            int addressCount = weighted(addressCounts, random);
+            int homeTown = townSampler.sample(random);
+            for (int a = 0; a < addressCount; a++) {
+                int town = a == 0 ? homeTown : townSampler.sample(random);
+                addresses.add(address(person.id(), town, a == 0, random));
+            }
+            addEmployments(person, weighted(employmentCounts, random), employments, random);
+        }
+        record(api.createAddresses(addresses), counters.addresses, counters);
+        record(api.createEmployments(employments), counters.employments, counters);
+    }
+
+    private void generateRelationships(int chunk, String[] ids, Counters counters) {
+        SplittableRandom random = new SplittableRandom(mix(config.seed(), 2, chunk));
+        int from = chunk * config.batchSize();
+        int to = Math.min(config.people(), from + config.batchSize());
+        List<Relationship> relationships = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (ids[i] == null) {
+                continue;
+            }
+            int degree = poisson(config.relationshipDegree(), random);
+            for (int d = 0; d < degree; d++) {
+                int target;
+                if (random.nextInt(10) < 7) {
+                    target = i + random.nextInt(-LOCAL_RELATIONSHIP_SPAN, LOCAL_RELATIONSHIP_SPAN + 1);
+                } else {
+                    target = random.nextInt(ids.length);
+                }
+                if (target == i || target < 0 || target >= ids.length || ids[target] == null) {
+                    continue;
+                }
+                relationships.add(new Relationship(null, ids[i], ids[target],
+                        RELATIONSHIP_TYPES[random.nextInt(RELATIONSHIP_TYPES.length)]));
+            }
+        }
+        record(api.createRelationships(relationships), counters.relationships, counters);
+    }
+
+    public Person randomPerson(SplittableRandom random) {
+        Gender gender = random.nextInt(100) < 2 ? Gender.NON_BINARY
+                : (random.nextBoolean() ? Gender.FEMALE : Gender.MALE);
+        PreferredGender preferredGender = switch (gender) {
+            case MALE -> PreferredGender.of(PreferredGenderType.MALE);
+            case FEMALE -> PreferredGender.of(PreferredGenderType.FEMALE);
+            case NON_BINARY -> random.nextBoolean()
+                    ? PreferredGender.of(PreferredGenderType.NON_BINARY)
+                    : PreferredGender.other("genderfluid");
+        };
+        String middle = random.nextInt(3) == 0 ? FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] : null;
+        return new Person(null,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                middle,
+                LAST_NAMES[lastNameSampler.sample(random)],
+                randomDate(config.earliestBirthDate(), config.latestBirthDate(), random),
+                gender,
+                preferredGender,
+                null);
+    }
+
+    private Address address(String personId, int town, boolean primary, SplittableRandom random) {
+        boolean owns = random.nextInt(100) < (primary ? 60 : 25);
+        long paymentCents = owns
+                ? (random.nextInt(4) == 0 ? 0 : random.nextLong(80_000, 450_000))
+                : random.nextLong(60_000, 350_000);
+        String street = (1 + random.nextInt(9999)) + " " + STREET_NAMES[random.nextInt(STREET_NAMES.length)]
+                + " " + STREET_TYPES[random.nextInt(STREET_TYPES.length)];
+        if (random.nextInt(4) == 0) {
+            street += " Apt " + (1 + random.nextInt(40));
+        }
+        return new Address(null, personId, street, townName(town), townStates[town],
+                ADDRESS_TYPES[random.nextInt(ADDRESS_TYPES.length)],
+                random.nextInt(5) == 0 ? "Generated residence" : null,
+                owns,
+                primary,
+                BigDecimal.valueOf(paymentCents, 2),
+                random.nextInt(7),
+                1 + random.nextInt(4));
+    }
+
+    private void addEmployments(Person person, int count, List<Employment> employments, SplittableRandom random) {
+        LocalDate start = person.dateOfBirth().plusYears(18 + random.nextInt(8)).plusDays(random.nextInt(365));
+        for (int e = 0; e < count && !start.isAfter(referenceDate); e++) {
+            boolean last = e == count - 1;
+            LocalDate end = start.plusDays(180 + random.nextInt(3650));
+            boolean current = last && random.nextInt(10) < 7;
+            if (current || end.isAfter(referenceDate)) {
+                current = true;
+                end = null;
+            }
+            int company = companySampler.sample(random);
+            boolean salaried = random.nextInt(10) < 7;
+            long rateCents = salaried ? random.nextLong(3_000_000, 25_000_000) : random.nextLong(1_200, 9_000);
+            employments.add(new Employment(null, person.id(), companyName(company), null, companyAddress(company),
+                    JOB_TITLES[random.nextInt(JOB_TITLES.length)],
+                    salaried ? PayType.SALARY : PayType.HOURLY,
+                    BigDecimal.valueOf(rateCents, 2),
+                    current,
+                    start,
+                    end));
+            if (current) {
+                return;
+            }
+            start = end.plusDays(1 + random.nextInt(120));
+        }
+    }
+
+    private String townName(int town) {
+        int combinations = TOWN_PREFIXES.length * TOWN_SUFFIXES.length;
+        String name = TOWN_PREFIXES[town % TOWN_PREFIXES.length]
+                + TOWN_SUFFIXES[(town / TOWN_PREFIXES.length) % TOWN_SUFFIXES.length];
+        return town < combinations ? name : name + " " + (town / combinations + 1);
+    }
+
+    private String companyName(int company) {
+        int combinations = COMPANY_WORDS.length * COMPANY_SUFFIXES.length;
+        String name = COMPANY_WORDS[company % COMPANY_WORDS.length] + " "
+                + COMPANY_SUFFIXES[(company / COMPANY_WORDS.length) % COMPANY_SUFFIXES.length];
+        return company < combinations ? name : name + " " + (company / combinations + 1);
+    }
+
+    private String companyAddress(int company) {
+        int town = company % config.towns();
+        return (100 + company % 9000) + " " + STREET_NAMES[company % STREET_NAMES.length] + " "
+                + STREET_TYPES[company % STREET_TYPES.length] + ", " + townName(town) + ", " + townStates[town];
+    }
+
+    private static void record(BulkResult<?> result, LongAdder created, Counters counters) {
+        created.add(result.created().size());
+        counters.rejected.add(result.errors().size());
+    }
+
+    private static boolean[] rejectedRows(List<RowError> errors, int rows) {
+        boolean[] rejected = new boolean[rows];
+        for (RowError error : errors) {
+            rejected[error.row()] = true;
+        }
+        return rejected;
+    }
+
+    private static LocalDate randomDate(LocalDate from, LocalDate to, SplittableRandom random) {
+        return LocalDate.ofEpochDay(random.nextLong(from.toEpochDay(), to.toEpochDay() + 1));
+    }
+
+    private static int poisson(double mean, SplittableRandom random) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double limit = Math.exp(-mean);
+        int count = 0;
+        double product = random.nextDouble();
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+
+    private static int weighted(double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (target < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("weights must not be negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("weights must not all be zero");
+        }
+        double[] cumulative = new double[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i];
+            cumulative[i] = running / total;
+        }
+        return cumulative;
+    }
+
+    private static long mix(long seed, int phase, int chunk) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) phase << 32) ^ (chunk & 0xFFFFFFFFL));
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Counters {
+        private final LongAdder people = new LongAdder();
+        private final LongAdder addresses = new LongAdder();
+        private final LongAdder employments = new LongAdder();
+        private final LongAdder relationships = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+}
@@ -0,0 +1,44 @@
+package com.people.datagen;
+
+import java.util.SplittableRandom;
+
+public final class ZipfSampler {
+    private final double[] cumulative;
+
+    public ZipfSampler(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must not be negative");
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        double target = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
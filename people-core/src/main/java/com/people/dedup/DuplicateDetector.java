@@ -0,0 +1,144 @@
+package com.people.dedup;
+
+import com.people.api.DuplicateCluster;
+import com.people.domain.Person;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class DuplicateDetector {
+    public static final double DEFAULT_THRESHOLD = 0.9;
+    static final int MAX_BLOCK_SIZE = 256;
+    static final int WINDOW = 32;
+    private static final double NAME_WEIGHT = 0.8;
+    private static final Comparator<Person> PEOPLE_ORDER = Comparator.comparing(Person::lastName)
+            .thenComparing(Person::firstName).thenComparing(Person::id);
+
+    private DuplicateDetector() {
+    }
+
+    public static List<DuplicateCluster> find(List<Person> people, double threshold) {
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("threshold must be greater than 0 and at most 1");
+        }
+        Candidate[] candidates = people.parallelStream().map(Candidate::of).toArray(Candidate[]::new);
+        Map<String, List<Integer>> blocks = IntStream.range(0, candidates.length).parallel().boxed()
+                .flatMap(i -> candidates[i].keys().stream().map(key -> Map.entry(key, i)))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        List<Match> matches = blocks.values().parallelStream()
+                .filter(block -> block.size() > 1)
+                .flatMap(block -> compare(block, candidates, threshold).stream())
+                .toList();
+        return clusters(candidates, matches);
+    }
+
+    private static List<Match> compare(List<Integer> block, Candidate[] candidates, double threshold) {
+        List<Match> matches = new ArrayList<>();
+        if (block.size() <= MAX_BLOCK_SIZE) {
+            for (int i = 0; i < block.size(); i++) {
+                for (int j = i + 1; j < block.size(); j++) {
+                    addIfMatch(matches, block.get(i), block.get(j), candidates, threshold);
+                }
+            }
+            return matches;
+        }
+        Integer[] sorted = block.toArray(Integer[]::new);
+        Arrays.sort(sorted, Comparator.comparing((Integer index) -> candidates[index].sortKey()));
+        for (int i = 0; i < sorted.length; i++) {
+            for (int j = i + 1; j < Math.min(sorted.length, i + 1 + WINDOW); j++) {
+                addIfMatch(matches, sorted[i], sorted[j], candidates, threshold);
+            }
+        }
+        return matches;
+    }
+
+    private static void addIfMatch(List<Match> matches, int a, int b, Candidate[] candidates, double threshold) {
+        double score = score(candidates[a], candidates[b]);
+        if (score >= threshold) {
+            matches.add(new Match(a, b, score));
+        }
+    }
+
+    private static double score(Candidate a, Candidate b) {
+        double names = Similarity.jaroWinkler(a.first(), b.first()) * Similarity.jaroWinkler(a.last(), b.last());
+        double birth = a.dateOfBirth() == null || b.dateOfBirth() == null ? 0.5
+                : a.dateOfBirth().equals(b.dateOfBirth()) ? 1
+                : a.dateOfBirth().getYear() == b.dateOfBirth().getYear() ? 0.5 : 0;
+        return NAME_WEIGHT * names + (1 - NAME_WEIGHT) * birth;
+    }
+
+    private static List<DuplicateCluster> clusters(Candidate[] candidates, List<Match> matches) {
+        int[] parent = new int[candidates.length];
+        double[] best = new double[candidates.length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (Match match : matches) {
+            int a = root(parent, match.a());
+            int b = root(parent, match.b());
+            if (a != b) {
+                parent[b] = a;
+                best[a] = Math.max(best[a], best[b]);
+            }
+            best[a] = Math.max(best[a], match.score());
+        }
+        Map<Integer, List<Person>> groups = matches.stream()
+                .flatMap(match -> IntStream.of(match.a(), match.b()).boxed())
+                .distinct()
+                .collect(Collectors.groupingBy(index -> root(parent, index),
+                        Collectors.mapping(index -> candidates[index].person(), Collectors.toList())));
+        List<DuplicateCluster> clusters = new ArrayList<>(groups.size());
+        for (Map.Entry<Integer, List<Person>> group : groups.entrySet()) {
+            List<Person> members = new ArrayList<>(group.getValue());
+            members.sort(PEOPLE_ORDER);
+            clusters.add(new DuplicateCluster(Math.round(best[group.getKey()] * 1000) / 1000.0, members));
+        }
+        clusters.sort(Comparator.comparingDouble(DuplicateCluster::score).reversed()
+                .thenComparing(cluster -> -cluster.people().size())
+                .thenComparing(cluster -> cluster.people().get(0).id()));
+        return clusters;
+    }
+
+    private static int root(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private record Match(int a, int b, double score) {
+    }
+
+    private record Candidate(Person person, String first, String last, String firstCode, String lastCode) {
+        static Candidate of(Person person) {
+            String first = Similarity.normalize(person.firstName());
+            String last = Similarity.normalize(person.lastName());
+            return new Candidate(person, first, last, Similarity.soundex(first), Similarity.soundex(last));
+        }
+
+        LocalDate dateOfBirth() {
+            return person.dateOfBirth();
+        }
+
+        String sortKey() {
+            return last + ' ' + first;
+        }
+
+        List<String> keys() {
+            LocalDate birth = person.dateOfBirth();
+            if (birth == null) {
+                return List.of("f|" + firstCode + lastCode + "|");
+            }
+            return List.of("n|" + last + "|" + birth, "g|" + first + "|" + birth, "p|" + lastCode + "|" + birth,
+                    "f|" + firstCode + lastCode + "|" + birth.getYear());
+        }
+    }
+}
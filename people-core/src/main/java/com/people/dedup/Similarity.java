@@ -0,0 +1,95 @@
+package com.people.dedup;
+
+import java.text.Normalizer;
+
+final class Similarity {
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+    private static final double PREFIX_SCALE = 0.1;
+
+    private Similarity() {
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder letters = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            }
+        }
+        return letters.toString();
+    }
+
+    static String soundex(String normalized) {
+        if (normalized.isEmpty()) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder(4).append(Character.toUpperCase(normalized.charAt(0)));
+        char last = SOUNDEX_CODES.charAt(normalized.charAt(0) - 'a');
+        for (int i = 1; i < normalized.length() && code.length() < 4; i++) {
+            char c = normalized.charAt(i);
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (digit != '0' && digit != last) {
+                code.append(digit);
+            }
+            if (c != 'h' && c != 'w') {
+                last = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return a.isEmpty() ? 0 : 1;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length(), i + window + 1);
+            for (int j = from; j < to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * PREFIX_SCALE * (1 - jaro);
+    }
+}
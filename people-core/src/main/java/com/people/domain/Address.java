@@ -14,6 +14,17 @@ public record Address(
         boolean primary,
         BigDecimal monthlyPayment,
         int bedrooms,
-        int bathrooms
+        int bathrooms,
+        long version
 ) {
+    public Address(String id, String personId, String address, String town, String state, AddressType type,
+            String description, boolean owns, boolean primary, BigDecimal monthlyPayment, int bedrooms, int bathrooms) {
+        this(id, personId, address, town, state, type, description, owns, primary, monthlyPayment, bedrooms, bathrooms,
+                0);
+    }
+
+    public Address withVersion(long version) {
+        return new Address(id, personId, address, town, state, type, description, owns, primary, monthlyPayment,
+                bedrooms, bathrooms, version);
+    }
 }
@@ -0,0 +1,16 @@
+package com.people.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+public record Company(
+        String id,
+        String name,
+        String address
+) {
+    public static String idFor(String name, String address) {
+        String key = name.toLowerCase(Locale.ROOT) + '\n' + address.toLowerCase(Locale.ROOT);
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -6,6 +6,7 @@ import java.time.LocalDate;
 public record Employment(
         String id,
         String personId,
+        String companyId,
         String name,
         String description,
         String address,
@@ -14,6 +15,29 @@ public record Employment(
         BigDecimal rateOfPay,
         boolean currentEmployer,
         LocalDate startDate,
-        LocalDate endDate
+        LocalDate endDate,
+        long version
 ) {
+    public Employment(String id, String personId, String name, String description, String address, String jobTitle,
+            PayType payType, BigDecimal rateOfPay, boolean currentEmployer, LocalDate startDate, LocalDate endDate) {
+        this(id, personId, name, description, address, jobTitle, payType, rateOfPay, currentEmployer, startDate,
+                endDate, 0);
+    }
+
+    public Employment(String id, String personId, String name, String description, String address, String jobTitle,
+            PayType payType, BigDecimal rateOfPay, boolean currentEmployer, LocalDate startDate, LocalDate endDate,
+            long version) {
+        this(id, personId, null, name, description, address, jobTitle, payType, rateOfPay, currentEmployer,
+                startDate, endDate, version);
+    }
+
+    public Employment withVersion(long version) {
+        return new Employment(id, personId, companyId, name, description, address, jobTitle, payType, rateOfPay,
+                currentEmployer, startDate, endDate, version);
+    }
+
+    public Employment withCompany(Company company) {
+        return new Employment(id, personId, company.id(), company.name(), description, company.address(), jobTitle,
+                payType, rateOfPay, currentEmployer, startDate, endDate, version);
+    }
 }
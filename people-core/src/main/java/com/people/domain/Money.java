@@ -0,0 +1,89 @@
+package com.people.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money {
+    public static final int SCALE = 2;
+    public static final long CENTS_PER_UNIT = 100L;
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal value) {
+        if (value == null) {
+            throw new IllegalArgumentException("money must be provided");
+        }
+        if (value.scale() > SCALE && value.stripTrailingZeros().scale() > SCALE) {
+            throw new IllegalArgumentException("money must have at most " + SCALE + " decimal places");
+        }
+        try {
+            return value.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("money is out of range");
+        }
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long ofUnits(long units) {
+        return Math.multiplyExact(units, CENTS_PER_UNIT);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long multiply(long cents, long factor) {
+        return Math.multiplyExact(cents, factor);
+    }
+
+    public static long divide(long cents, long divisor, RoundingMode mode) {
+        if (divisor == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = (cents < 0) == (divisor < 0) ? 1 : -1;
+        boolean increment = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                long absRemainder = Math.abs(remainder);
+                long toNext = Math.abs(divisor) - absRemainder;
+                if (absRemainder != toNext) {
+                    yield absRemainder > toNext;
+                }
+                yield mode == RoundingMode.HALF_UP || (mode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+            }
+            case UNNECESSARY -> throw new ArithmeticException("rounding necessary");
+        };
+        return increment ? quotient + sign : quotient;
+    }
+
+    public static long mean(long totalCents, long count) {
+        if (count == 0) {
+            return 0;
+        }
+        return divide(totalCents, count, RoundingMode.HALF_EVEN);
+    }
+
+    public static long sum(long[] cents) {
+        long total = 0;
+        for (long value : cents) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+}
@@ -10,6 +10,16 @@ public record Person(
         LocalDate dateOfBirth,
         Gender gender,
         PreferredGender preferredGender,
-        String picturePath
+        String pictureHash,
+        long version
 ) {
+    public Person(String id, String firstName, String middleName, String lastName, LocalDate dateOfBirth, Gender gender,
+            PreferredGender preferredGender, String pictureHash) {
+        this(id, firstName, middleName, lastName, dateOfBirth, gender, preferredGender, pictureHash, 0);
+    }
+
+    public Person withVersion(long version) {
+        return new Person(id, firstName, middleName, lastName, dateOfBirth, gender, preferredGender, pictureHash,
+                version);
+    }
 }
@@ -27,6 +27,18 @@ public final class PreferredGender {
         return otherLabel;
     }
 
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PreferredGender that
+                && type == that.type
+                && Objects.equals(otherLabel, that.otherLabel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, otherLabel);
+    }
+
     @Override
     public String toString() {
         if (type == PreferredGenderType.OTHER) {
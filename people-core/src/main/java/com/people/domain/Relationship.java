@@ -4,6 +4,14 @@ public record Relationship(
         String id,
         String personId,
         String relatedPersonId,
-        RelationshipType type
+        RelationshipType type,
+        long version
 ) {
+    public Relationship(String id, String personId, String relatedPersonId, RelationshipType type) {
+        this(id, personId, relatedPersonId, type, 0);
+    }
+
+    public Relationship withVersion(long version) {
+        return new Relationship(id, personId, relatedPersonId, type, version);
+    }
 }
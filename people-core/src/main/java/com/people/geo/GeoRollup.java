@@ -0,0 +1,143 @@
+package com.people.geo;
+
+import com.people.api.GeoStats;
+import com.people.domain.Address;
+import com.people.domain.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class GeoRollup {
+    private static final Comparator<GeoStats> ORDER = Comparator.comparing(GeoStats::state)
+            .thenComparing(GeoStats::town, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, Map<String, Contribution>> contributions = new ConcurrentHashMap<>();
+    private final Map<String, Group> states = new ConcurrentHashMap<>();
+    private final Map<String, Group> towns = new ConcurrentHashMap<>();
+
+    public void put(Address address) {
+        Contribution next = new Contribution(address.state(), address.town(), address.owns(),
+                Money.toCents(address.monthlyPayment()), address.bedrooms());
+        Contribution[] previous = new Contribution[1];
+        contributions.compute(address.personId(), (personId, byAddress) -> {
+            Map<String, Contribution> owned = byAddress == null ? new ConcurrentHashMap<>() : byAddress;
+            previous[0] = owned.put(address.id(), next);
+            return owned;
+        });
+        apply(address.personId(), next, 1);
+        if (previous[0] != null) {
+            apply(address.personId(), previous[0], -1);
+        }
+    }
+
+    public void remove(String personId, String addressId) {
+        Contribution[] previous = new Contribution[1];
+        contributions.computeIfPresent(personId, (id, byAddress) -> {
+            previous[0] = byAddress.remove(addressId);
+            return byAddress.isEmpty() ? null : byAddress;
+        });
+        if (previous[0] != null) {
+            apply(personId, previous[0], -1);
+        }
+    }
+
+    public void clear() {
+        contributions.clear();
+        states.clear();
+        towns.clear();
+    }
+
+    public List<GeoStats> stats() {
+        return stats(List.of());
+    }
+
+    public List<GeoStats> stats(Collection<String> hiddenPeople) {
+        Map<String, Group> hiddenStates = new HashMap<>();
+        Map<String, Group> hiddenTowns = new HashMap<>();
+        for (String personId : hiddenPeople) {
+            for (Contribution contribution : contributions.getOrDefault(personId, Map.of()).values()) {
+                hiddenStates.computeIfAbsent(contribution.state(), state -> new Group())
+                        .apply(personId, contribution, 1);
+                hiddenTowns.computeIfAbsent(key(contribution.state(), contribution.town()), key -> new Group())
+                        .apply(personId, contribution, 1);
+            }
+        }
+        List<GeoStats> stats = new ArrayList<>(states.size() + towns.size());
+        states.forEach((state, group) -> group.addTo(stats, state, null, hiddenStates.get(state)));
+        towns.forEach((key, group) -> {
+            int split = key.indexOf('\n');
+            group.addTo(stats, key.substring(0, split), key.substring(split + 1), hiddenTowns.get(key));
+        });
+        stats.sort(ORDER);
+        return stats;
+    }
+
+    public static List<GeoStats> merge(Collection<GeoStats> parts) {
+        Map<List<String>, GeoStats> merged = new HashMap<>();
+        for (GeoStats part : parts) {
+            merged.merge(Arrays.asList(part.state(), part.town()), part, (a, b) -> new GeoStats(a.state(),
+                    a.town(), a.people() + b.people(), a.addresses() + b.addresses(), a.owners() + b.owners(),
+                    a.renters() + b.renters(), a.totalMonthlyPayment().add(b.totalMonthlyPayment()),
+                    a.totalBedrooms() + b.totalBedrooms()));
+        }
+        List<GeoStats> stats = new ArrayList<>(merged.values());
+        stats.sort(ORDER);
+        return stats;
+    }
+
+    private void apply(String personId, Contribution contribution, int sign) {
+        states.computeIfAbsent(contribution.state(), state -> new Group()).apply(personId, contribution, sign);
+        towns.computeIfAbsent(key(contribution.state(), contribution.town()), key -> new Group())
+                .apply(personId, contribution, sign);
+    }
+
+    private static String key(String first, String second) {
+        return first + "\n" + second;
+    }
+
+    private record Contribution(
+            String state,
+            String town,
+            boolean owns,
+            long paymentCents,
+            int bedrooms
+    ) {
+    }
+
+    private static final class Group {
+        private final LongAdder addresses = new LongAdder();
+        private final LongAdder owners = new LongAdder();
+        private final LongAdder paymentCents = new LongAdder();
+        private final LongAdder bedrooms = new LongAdder();
+        private final Map<String, Integer> residents = new ConcurrentHashMap<>();
+
+        void apply(String personId, Contribution contribution, int sign) {
+            addresses.add(sign);
+            if (contribution.owns()) {
+                owners.add(sign);
+            }
+            paymentCents.add(sign * contribution.paymentCents());
+            bedrooms.add(sign * contribution.bedrooms());
+            residents.merge(personId, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        void addTo(List<GeoStats> stats, String state, String town, Group hidden) {
+            long total = addresses.sum() - (hidden == null ? 0 : hidden.addresses.sum());
+            if (total <= 0) {
+                return;
+            }
+            long owned = owners.sum() - (hidden == null ? 0 : hidden.owners.sum());
+            long cents = paymentCents.sum() - (hidden == null ? 0 : hidden.paymentCents.sum());
+            long rooms = bedrooms.sum() - (hidden == null ? 0 : hidden.bedrooms.sum());
+            int people = residents.size() - (hidden == null ? 0 : hidden.residents.size());
+            stats.add(new GeoStats(state, town, people, total, owned, total - owned, Money.fromCents(cents), rooms));
+        }
+    }
+}
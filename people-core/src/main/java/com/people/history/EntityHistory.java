@@ -0,0 +1,96 @@
+package com.people.history;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public final class EntityHistory<T extends Record> {
+    private final RecordShape<T> shape;
+    private final Clock clock;
+    private final Consumer<String> onChange;
+    private final Map<String, Map<String, VersionChain<T>>> chainsByPerson = new ConcurrentHashMap<>();
+
+    EntityHistory(Class<T> type, Clock clock, Consumer<String> onChange) {
+        this.shape = new RecordShape<>(type);
+        this.clock = clock;
+        this.onChange = onChange;
+    }
+
+    public void record(String personId, String id, T value) {
+        long now = History.micros(clock.instant());
+        chainsByPerson.compute(personId, (key, chains) -> {
+            Map<String, VersionChain<T>> live = chains == null ? new ConcurrentHashMap<>() : chains;
+            live.computeIfAbsent(id, chainId -> new VersionChain<>(shape)).append(now, value);
+            return live;
+        });
+        onChange.accept(personId);
+    }
+
+    public void recordDeleted(String personId, String id) {
+        record(personId, id, null);
+    }
+
+    public Optional<T> asOf(String personId, String id, Instant at) {
+        Map<String, VersionChain<T>> chains = chainsByPerson.get(personId);
+        VersionChain<T> chain = chains == null ? null : chains.get(id);
+        return chain == null ? Optional.empty() : Optional.ofNullable(chain.asOf(History.micros(at)));
+    }
+
+    public List<T> listAsOf(String personId, Instant at) {
+        Map<String, VersionChain<T>> chains = chainsByPerson.get(personId);
+        if (chains == null) {
+            return List.of();
+        }
+        long time = History.micros(at);
+        List<T> result = new ArrayList<>();
+        for (VersionChain<T> chain : chains.values()) {
+            T value = chain.asOf(time);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    public long versionCount() {
+        long count = 0;
+        for (Map<String, VersionChain<T>> chains : chainsByPerson.values()) {
+            for (VersionChain<T> chain : chains.values()) {
+                count += chain.size();
+            }
+        }
+        return count;
+    }
+
+    boolean tracks(String personId) {
+        return chainsByPerson.containsKey(personId);
+    }
+
+    int prune(long horizon) {
+        int[] pruned = new int[1];
+        for (String personId : chainsByPerson.keySet()) {
+            chainsByPerson.computeIfPresent(personId, (key, chains) -> {
+                pruned[0] += prune(chains, horizon);
+                return chains.isEmpty() ? null : chains;
+            });
+        }
+        return pruned[0];
+    }
+
+    private int prune(Map<String, VersionChain<T>> chains, long horizon) {
+        int pruned = 0;
+        for (Map.Entry<String, VersionChain<T>> entry : chains.entrySet()) {
+            VersionChain<T> chain = entry.getValue();
+            pruned += chain.prune(horizon);
+            if (chain.deletedBefore(horizon) && chains.remove(entry.getKey(), chain)) {
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+}
@@ -0,0 +1,84 @@
+package com.people.history;
+
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class History {
+    public static final Duration DEFAULT_PRUNE_INTERVAL = Duration.ofMinutes(5);
+
+    private final Clock clock;
+    private final EntityHistory<Person> people;
+    private final EntityHistory<Address> addresses;
+    private final EntityHistory<Employment> employments;
+    private final EntityHistory<Relationship> relationships;
+    private final Map<String, Long> changes = new ConcurrentHashMap<>();
+
+    public History(Clock clock) {
+        this.clock = clock;
+        this.people = new EntityHistory<>(Person.class, clock, this::changed);
+        this.addresses = new EntityHistory<>(Address.class, clock, this::changed);
+        this.employments = new EntityHistory<>(Employment.class, clock, this::changed);
+        this.relationships = new EntityHistory<>(Relationship.class, clock, this::changed);
+    }
+
+    public Clock clock() {
+        return clock;
+    }
+
+    public EntityHistory<Person> people() {
+        return people;
+    }
+
+    public EntityHistory<Address> addresses() {
+        return addresses;
+    }
+
+    public EntityHistory<Employment> employments() {
+        return employments;
+    }
+
+    public EntityHistory<Relationship> relationships() {
+        return relationships;
+    }
+
+    public long changes(String personId) {
+        return changes.getOrDefault(personId, 0L);
+    }
+
+    public void forget(String personId) {
+        changes.remove(personId);
+    }
+
+    public int prune(Instant horizon) {
+        long time = micros(horizon);
+        int pruned = people.prune(time) + addresses.prune(time) + employments.prune(time)
+                + relationships.prune(time);
+        changes.keySet().removeIf(personId -> !people.tracks(personId) && !addresses.tracks(personId)
+                && !employments.tracks(personId) && !relationships.tracks(personId));
+        return pruned;
+    }
+
+    public HistoryPruner startPruning(Duration retention) {
+        return HistoryPruner.start(this::prune, clock, retention, DEFAULT_PRUNE_INTERVAL);
+    }
+
+    private void changed(String personId) {
+        changes.merge(personId, 1L, Long::sum);
+    }
+
+    static long micros(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+        } catch (ArithmeticException ex) {
+            return instant.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.people.history;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+public final class HistoryPruner implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    private HistoryPruner(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public static HistoryPruner start(ToIntFunction<Instant> prune, Clock clock, Duration retention,
+                                      Duration interval) {
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("history retention must be positive");
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("prune interval must be positive");
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "people-history-pruner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> prune.applyAsInt(clock.instant().minus(retention)), period, period,
+                TimeUnit.MILLISECONDS);
+        return new HistoryPruner(scheduler);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package com.people.history;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+
+final class RecordShape<T extends Record> {
+    private static final MethodType ACCESSOR = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+
+    private final Class<T> type;
+    private final MethodHandle[] accessors;
+    private final MethodHandle constructor;
+
+    RecordShape(Class<T> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        if (components.length > Integer.SIZE) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has more than " + Integer.SIZE + " fields");
+        }
+        this.type = type;
+        this.accessors = new MethodHandle[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            for (int i = 0; i < components.length; i++) {
+                accessors[i] = lookup.unreflect(components[i].getAccessor()).asType(ACCESSOR);
+                types[i] = components[i].getType();
+            }
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types))
+                    .asSpreader(Object[].class, types.length)
+                    .asType(CONSTRUCTOR);
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalStateException("no accessible canonical constructor for " + type.getSimpleName(), ex);
+        }
+    }
+
+    Object[] values(T record) {
+        Object[] values = new Object[accessors.length];
+        try {
+            for (int i = 0; i < accessors.length; i++) {
+                values[i] = (Object) accessors[i].invokeExact((Object) record);
+            }
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("cannot read " + type.getSimpleName(), ex);
+        }
+        return values;
+    }
+
+    T create(Object[] values) {
+        try {
+            return type.cast((Object) constructor.invokeExact(values));
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("cannot rebuild " + type.getSimpleName(), ex);
+        }
+    }
+}
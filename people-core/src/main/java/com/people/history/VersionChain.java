@@ -0,0 +1,128 @@
+package com.people.history;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+final class VersionChain<T extends Record> {
+    static final int KEYFRAME_INTERVAL = 16;
+    private static final Object TOMBSTONE = new Object();
+
+    private final RecordShape<T> shape;
+    private long[] times = new long[2];
+    private Object[] entries = new Object[2];
+    private int size;
+    private Object[] latest;
+    private int sinceKeyframe;
+
+    VersionChain(RecordShape<T> shape) {
+        this.shape = shape;
+    }
+
+    synchronized void append(long time, T value) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        times[size] = size == 0 ? time : Math.max(time, times[size - 1]);
+        if (value == null) {
+            entries[size] = TOMBSTONE;
+            latest = null;
+        } else {
+            Object[] values = shape.values(value);
+            if (latest == null || sinceKeyframe >= KEYFRAME_INTERVAL) {
+                entries[size] = values;
+                sinceKeyframe = 0;
+            } else {
+                entries[size] = Delta.between(latest, values);
+                sinceKeyframe++;
+            }
+            latest = values;
+        }
+        size++;
+    }
+
+    synchronized T asOf(long time) {
+        int index = floor(time);
+        if (index < 0 || entries[index] == TOMBSTONE) {
+            return null;
+        }
+        return shape.create(materialize(index));
+    }
+
+    synchronized int prune(long horizon) {
+        int keep = floor(horizon);
+        if (keep <= 0) {
+            return 0;
+        }
+        if (entries[keep] instanceof Delta) {
+            entries[keep] = materialize(keep);
+        }
+        System.arraycopy(times, keep, times, 0, size - keep);
+        System.arraycopy(entries, keep, entries, 0, size - keep);
+        Arrays.fill(entries, size - keep, size, null);
+        size -= keep;
+        return keep;
+    }
+
+    synchronized boolean deletedBefore(long horizon) {
+        return size == 1 && entries[0] == TOMBSTONE && times[0] <= horizon;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private int floor(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private Object[] materialize(int index) {
+        int keyframe = index;
+        while (!(entries[keyframe] instanceof Object[])) {
+            keyframe--;
+        }
+        Object[] values = ((Object[]) entries[keyframe]).clone();
+        for (int i = keyframe + 1; i <= index; i++) {
+            ((Delta) entries[i]).applyTo(values);
+        }
+        return values;
+    }
+
+    private record Delta(int changed, Object[] values) {
+        static Delta between(Object[] previous, Object[] next) {
+            int changed = 0;
+            int count = 0;
+            for (int i = 0; i < next.length; i++) {
+                if (!Objects.equals(previous[i], next[i])) {
+                    changed |= 1 << i;
+                    count++;
+                }
+            }
+            Object[] values = new Object[count];
+            for (int i = 0, j = 0; i < next.length; i++) {
+                if ((changed & (1 << i)) != 0) {
+                    values[j++] = next[i];
+                }
+            }
+            return new Delta(changed, values);
+        }
+
+        void applyTo(Object[] target) {
+            for (int i = 0, j = 0; i < target.length; i++) {
+                if ((changed & (1 << i)) != 0) {
+                    target[i] = values[j++];
+                }
+            }
+        }
+    }
+}
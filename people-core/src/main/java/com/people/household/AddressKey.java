@@ -0,0 +1,44 @@
+package com.people.household;
+
+import com.people.domain.Address;
+
+import java.text.Normalizer;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+public final class AddressKey {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern APOSTROPHES = Pattern.compile("['\u2019](s\\b)?");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("street", "st"), Map.entry("saint", "st"), Map.entry("avenue", "ave"), Map.entry("av", "ave"),
+            Map.entry("road", "rd"), Map.entry("drive", "dr"), Map.entry("lane", "ln"),
+            Map.entry("boulevard", "blvd"), Map.entry("court", "ct"), Map.entry("place", "pl"),
+            Map.entry("square", "sq"), Map.entry("terrace", "ter"), Map.entry("highway", "hwy"),
+            Map.entry("parkway", "pkwy"), Map.entry("circle", "cir"), Map.entry("north", "n"),
+            Map.entry("south", "s"), Map.entry("east", "e"), Map.entry("west", "w"),
+            Map.entry("apartment", "apt"), Map.entry("suite", "ste"));
+
+    private AddressKey() {
+    }
+
+    public static String of(Address address) {
+        return canonical(address.address()) + '|' + canonical(address.town()) + '|' + canonical(address.state());
+    }
+
+    static String canonical(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        folded = APOSTROPHES.matcher(folded).replaceAll("");
+        StringJoiner tokens = new StringJoiner(" ");
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(ABBREVIATIONS.getOrDefault(token, token));
+            }
+        }
+        return tokens.toString();
+    }
+}
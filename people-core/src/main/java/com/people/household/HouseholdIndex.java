@@ -0,0 +1,343 @@
+package com.people.household;
+
+import com.people.api.Household;
+import com.people.domain.Address;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public final class HouseholdIndex {
+    private static final Comparator<Household> LARGEST_FIRST = Comparator.comparingInt(Household::size).reversed()
+            .thenComparing(household -> household.addresses().get(0));
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Map<String, String>> addressKeys = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> residents = new ConcurrentHashMap<>();
+    private final Map<String, String> parent = new ConcurrentHashMap<>();
+    private final Map<String, Component> components = new ConcurrentHashMap<>();
+    private final NavigableMap<Integer, Set<String>> bySize = new ConcurrentSkipListMap<>();
+    private final Consumer<String> onKeyAdded;
+    private final Consumer<String> onKeyRemoved;
+
+    public HouseholdIndex() {
+        this(key -> { }, key -> { });
+    }
+
+    public HouseholdIndex(Consumer<String> onKeyAdded, Consumer<String> onKeyRemoved) {
+        this.onKeyAdded = onKeyAdded;
+        this.onKeyRemoved = onKeyRemoved;
+    }
+
+    public void put(Address address) {
+        String key = AddressKey.of(address);
+        long stamp = lock.writeLock();
+        try {
+            Map<String, String> keys = addressKeys.computeIfAbsent(address.personId(),
+                    id -> new ConcurrentHashMap<>());
+            String previous = keys.put(address.id(), key);
+            if (key.equals(previous)) {
+                return;
+            }
+            link(address.personId(), key, keys.values());
+            if (previous != null) {
+                unlink(address.personId(), previous, keys);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String personId, String addressId) {
+        long stamp = lock.writeLock();
+        try {
+            removeAddress(personId, addressId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void removePerson(String personId) {
+        long stamp = lock.writeLock();
+        try {
+            Map<String, String> keys = addressKeys.get(personId);
+            if (keys != null) {
+                for (String addressId : List.copyOf(keys.keySet())) {
+                    removeAddress(personId, addressId);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            residents.keySet().forEach(onKeyRemoved);
+            addressKeys.clear();
+            residents.clear();
+            parent.clear();
+            components.clear();
+            bySize.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Household household(String personId, Predicate<String> hidden) {
+        return read(() -> {
+            Map<String, String> keys = addressKeys.get(personId);
+            if (keys != null) {
+                for (String key : keys.values()) {
+                    Component component = components.get(find(key));
+                    if (component != null) {
+                        return component.toHousehold(hidden);
+                    }
+                }
+            }
+            return new Household(List.of(personId), List.of());
+        });
+    }
+
+    public Household householdAt(String key, Predicate<String> hidden) {
+        return read(() -> {
+            Component component = components.get(find(key));
+            return component == null ? null : component.toHousehold(hidden);
+        });
+    }
+
+    public List<Household> households(int minSize, Predicate<String> hidden) {
+        if (minSize < 1) {
+            throw new IllegalArgumentException("minSize must be at least 1");
+        }
+        List<Household> households = read(() -> {
+            List<Household> found = new ArrayList<>();
+            for (Set<String> roots : bySize.tailMap(minSize, true).values()) {
+                for (String root : roots) {
+                    Component component = components.get(root);
+                    if (component != null) {
+                        found.add(component.toHousehold(hidden));
+                    }
+                }
+            }
+            return found;
+        });
+        households.removeIf(household -> household.size() < minSize);
+        households.sort(LARGEST_FIRST);
+        return households;
+    }
+
+    public static List<Household> merge(Collection<Household> parts) {
+        Map<String, String> roots = new HashMap<>();
+        for (Household part : parts) {
+            String first = part.addresses().get(0);
+            for (String key : part.addresses()) {
+                union(roots, first, key);
+            }
+        }
+        Map<String, Set<String>> people = new HashMap<>();
+        Map<String, Set<String>> keys = new HashMap<>();
+        for (Household part : parts) {
+            String root = root(roots, part.addresses().get(0));
+            people.computeIfAbsent(root, r -> new TreeSet<>()).addAll(part.personIds());
+            keys.computeIfAbsent(root, r -> new TreeSet<>()).addAll(part.addresses());
+        }
+        List<Household> households = new ArrayList<>(people.size());
+        for (Map.Entry<String, Set<String>> entry : people.entrySet()) {
+            households.add(new Household(List.copyOf(entry.getValue()), List.copyOf(keys.get(entry.getKey()))));
+        }
+        households.sort(LARGEST_FIRST);
+        return households;
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException ex) {
+                if (lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void removeAddress(String personId, String addressId) {
+        Map<String, String> keys = addressKeys.get(personId);
+        String previous = keys == null ? null : keys.remove(addressId);
+        if (previous == null) {
+            return;
+        }
+        if (keys.isEmpty()) {
+            addressKeys.remove(personId);
+        }
+        unlink(personId, previous, keys);
+    }
+
+    private void link(String personId, String key, Collection<String> personKeys) {
+        Set<String> atKey = residents.get(key);
+        if (atKey == null) {
+            atKey = ConcurrentHashMap.newKeySet();
+            residents.put(key, atKey);
+            onKeyAdded.accept(key);
+        }
+        atKey.add(personId);
+        if (parent.putIfAbsent(key, key) == null) {
+            Component component = new Component();
+            component.keys.add(key);
+            components.put(key, component);
+            resize(key, -1, 0);
+        }
+        String root = find(key);
+        Component component = components.get(root);
+        int before = component.people.size();
+        component.people.add(personId);
+        resize(root, before, component.people.size());
+        for (String other : personKeys) {
+            union(key, other);
+        }
+    }
+
+    private void unlink(String personId, String key, Map<String, String> personKeys) {
+        if (personKeys.containsValue(key)) {
+            return;
+        }
+        Set<String> atKey = residents.get(key);
+        atKey.remove(personId);
+        String root = find(key);
+        Component component = components.remove(root);
+        resize(root, component.people.size(), -1);
+        List<String> keys = new ArrayList<>(component.keys);
+        for (String member : keys) {
+            parent.put(member, member);
+        }
+        List<String> live = new ArrayList<>(keys.size());
+        for (String member : keys) {
+            Set<String> people = residents.get(member);
+            if (people.isEmpty()) {
+                residents.remove(member);
+                parent.remove(member);
+                onKeyRemoved.accept(member);
+                continue;
+            }
+            Component single = new Component();
+            single.keys.add(member);
+            single.people.addAll(people);
+            components.put(member, single);
+            resize(member, -1, single.people.size());
+            live.add(member);
+        }
+        for (String member : live) {
+            for (String resident : residents.get(member)) {
+                for (String other : addressKeys.getOrDefault(resident, Map.of()).values()) {
+                    union(member, other);
+                }
+            }
+        }
+    }
+
+    private void union(String a, String b) {
+        String rootA = find(a);
+        String rootB = find(b);
+        if (rootA.equals(rootB)) {
+            return;
+        }
+        Component big = components.get(rootA);
+        Component small = components.get(rootB);
+        if (big.keys.size() < small.keys.size()) {
+            String swapRoot = rootA;
+            rootA = rootB;
+            rootB = swapRoot;
+            Component swap = big;
+            big = small;
+            small = swap;
+        }
+        int before = big.people.size();
+        big.keys.addAll(small.keys);
+        big.people.addAll(small.people);
+        parent.put(rootB, rootA);
+        components.remove(rootB);
+        resize(rootB, small.people.size(), -1);
+        resize(rootA, before, big.people.size());
+    }
+
+    private String find(String key) {
+        String current = key;
+        while (true) {
+            String up = parent.get(current);
+            if (up == null || up.equals(current)) {
+                return current;
+            }
+            current = up;
+        }
+    }
+
+    private void resize(String root, int before, int after) {
+        if (before == after) {
+            return;
+        }
+        if (before >= 0) {
+            Set<String> roots = bySize.get(before);
+            if (roots != null) {
+                roots.remove(root);
+                if (roots.isEmpty()) {
+                    bySize.remove(before);
+                }
+            }
+        }
+        if (after >= 0) {
+            bySize.computeIfAbsent(after, size -> ConcurrentHashMap.newKeySet()).add(root);
+        }
+    }
+
+    private static void union(Map<String, String> roots, String a, String b) {
+        String rootA = root(roots, a);
+        String rootB = root(roots, b);
+        if (!rootA.equals(rootB)) {
+            roots.put(rootB, rootA);
+        }
+    }
+
+    private static String root(Map<String, String> roots, String key) {
+        String current = key;
+        String up;
+        while ((up = roots.get(current)) != null && !up.equals(current)) {
+            current = up;
+        }
+        return current;
+    }
+
+    private static final class Component {
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private final Set<String> people = ConcurrentHashMap.newKeySet();
+
+        Household toHousehold(Predicate<String> hidden) {
+            Set<String> visible = new TreeSet<>(people);
+            visible.removeIf(hidden);
+            return new Household(new ArrayList<>(visible), new ArrayList<>(new TreeSet<>(keys)));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.people.interval;
+
+import com.people.domain.Employment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+public final class EmploymentIntervalIndex {
+    public static final Comparator<Employment> BY_START = Comparator.comparing(Employment::startDate)
+            .thenComparing(Employment::personId).thenComparing(Employment::id);
+
+    private final BiFunction<String, String, Optional<Employment>> rows;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Span> spans = new HashMap<>();
+    private final IntervalTree<Ref> all = new IntervalTree<>();
+    private final Map<String, IntervalTree<Ref>> byCompany = new HashMap<>();
+
+    public EmploymentIntervalIndex(BiFunction<String, String, Optional<Employment>> rows) {
+        this.rows = rows;
+    }
+
+    public void put(Employment employment) {
+        String key = key(employment.personId(), employment.id());
+        long start = employment.startDate().toEpochDay();
+        Ref ref = new Ref(employment.personId(), employment.id());
+        lock.writeLock().lock();
+        try {
+            Span previous = spans.put(key, new Span(start, employment.companyId()));
+            if (previous != null) {
+                unlink(key, previous);
+            }
+            long end = end(employment);
+            all.insert(start, end, key, ref);
+            if (employment.companyId() != null) {
+                byCompany.computeIfAbsent(employment.companyId(), id -> new IntervalTree<>())
+                        .insert(start, end, key, ref);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String personId, String employmentId) {
+        String key = key(personId, employmentId);
+        lock.writeLock().lock();
+        try {
+            Span previous = spans.remove(key);
+            if (previous != null) {
+                unlink(key, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            spans.clear();
+            all.clear();
+            byCompany.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Employment> employedOn(LocalDate date, String companyId) {
+        if (date == null) {
+            throw new IllegalArgumentException("date is required");
+        }
+        return overlapping(date, date, companyId);
+    }
+
+    public List<Employment> overlapping(LocalDate from, LocalDate to, String companyId) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to date must be on or after from date");
+        }
+        List<Ref> refs = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree<Ref> tree = companyId == null ? all : byCompany.get(companyId);
+            if (tree != null) {
+                tree.overlapping(from.toEpochDay(), to.toEpochDay(), refs);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Employment> matches = new ArrayList<>(refs.size());
+        for (Ref ref : refs) {
+            rows.apply(ref.personId(), ref.id()).ifPresent(matches::add);
+        }
+        return matches;
+    }
+
+    private void unlink(String key, Span previous) {
+        all.delete(previous.start(), key);
+        if (previous.companyId() != null) {
+            IntervalTree<Ref> tree = byCompany.get(previous.companyId());
+            tree.delete(previous.start(), key);
+            if (tree.size() == 0) {
+                byCompany.remove(previous.companyId());
+            }
+        }
+    }
+
+    private static long end(Employment employment) {
+        return employment.endDate() == null ? Long.MAX_VALUE : employment.endDate().toEpochDay();
+    }
+
+    private static String key(String personId, String employmentId) {
+        return personId + "\n" + employmentId;
+    }
+
+    private record Span(
+            long start,
+            String companyId
+    ) {
+    }
+
+    private record Ref(
+            String personId,
+            String id
+    ) {
+    }
+}
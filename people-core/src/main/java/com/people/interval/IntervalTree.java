@@ -0,0 +1,144 @@
+package com.people.interval;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class IntervalTree<T> {
+    private Node<T> root;
+    private int size;
+
+    void insert(long start, long end, String key, T value) {
+        root = insert(root, new Node<>(start, end, key, value, ThreadLocalRandom.current().nextInt()));
+        size++;
+    }
+
+    void delete(long start, String key) {
+        int before = size;
+        root = delete(root, start, key);
+        if (before == size) {
+            throw new IllegalArgumentException("interval not found: " + key);
+        }
+    }
+
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void overlapping(long from, long to, List<T> out) {
+        collect(root, from, to, out);
+    }
+
+    private static <T> void collect(Node<T> node, long from, long to, List<T> out) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, out);
+        if (node.start > to) {
+            return;
+        }
+        if (node.end >= from) {
+            out.add(node.value);
+        }
+        collect(node.right, from, to, out);
+    }
+
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.key, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, long start, String key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, key, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, key);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, key);
+        } else if (node.left == null || node.right == null) {
+            size--;
+            return node.left == null ? node.right : node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, start, key);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, start, key);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int compare(long start, String key, Node<?> node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : key.compareTo(node.key);
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static final class Node<T> {
+        private final long start;
+        private final long end;
+        private final String key;
+        private final T value;
+        private final int priority;
+        private long maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(long start, long end, String key, T value, int priority) {
+            this.start = start;
+            this.end = end;
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.people.ownership;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+public final class OwnerIndex {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, String> others = new ConcurrentHashMap<>();
+    private Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    public void put(String id, String owner) {
+        long[] key = key(id);
+        if (key == null) {
+            others.put(id, owner);
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4L > table.owners.length * 3L) {
+                resize(table.owners.length * 2);
+            }
+            if (table.put(key[0], key[1], owner)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String id) {
+        long[] key = key(id);
+        if (key == null) {
+            others.remove(id);
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (table.remove(key[0], key[1])) {
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public String owner(String id) {
+        long[] key = key(id);
+        if (key == null) {
+            return id == null ? null : others.get(id);
+        }
+        long stamp = lock.tryOptimisticRead();
+        String owner = table.get(key[0], key[1]);
+        if (lock.validate(stamp)) {
+            return owner;
+        }
+        stamp = lock.readLock();
+        try {
+            return table.get(key[0], key[1]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size + others.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(INITIAL_CAPACITY);
+            size = 0;
+            others.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void resize(int capacity) {
+        Table resized = new Table(capacity);
+        Table old = table;
+        for (int slot = 0; slot < old.owners.length; slot++) {
+            if (old.owners[slot] != null) {
+                resized.put(old.high[slot], old.low[slot], old.owners[slot]);
+            }
+        }
+        table = resized;
+    }
+
+    private static long[] key(String id) {
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                value = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            if (digits++ < 16) {
+                high = high << 4 | value;
+            } else {
+                low = low << 4 | value;
+            }
+        }
+        return new long[] {high, low};
+    }
+
+    private static final class Table {
+        private final long[] high;
+        private final long[] low;
+        private final String[] owners;
+        private final int mask;
+
+        Table(int capacity) {
+            high = new long[capacity];
+            low = new long[capacity];
+            owners = new String[capacity];
+            mask = capacity - 1;
+        }
+
+        String get(long h, long l) {
+            for (int slot = slot(h, l); ; slot = (slot + 1) & mask) {
+                String owner = owners[slot];
+                if (owner == null) {
+                    return null;
+                }
+                if (high[slot] == h && low[slot] == l) {
+                    return owner;
+                }
+            }
+        }
+
+        boolean put(long h, long l, String owner) {
+            for (int slot = slot(h, l); ; slot = (slot + 1) & mask) {
+                if (owners[slot] == null) {
+                    high[slot] = h;
+                    low[slot] = l;
+                    owners[slot] = owner;
+                    return true;
+                }
+                if (high[slot] == h && low[slot] == l) {
+                    owners[slot] = owner;
+                    return false;
+                }
+            }
+        }
+
+        boolean remove(long h, long l) {
+            int slot = slot(h, l);
+            while (owners[slot] != null && (high[slot] != h || low[slot] != l)) {
+                slot = (slot + 1) & mask;
+            }
+            if (owners[slot] == null) {
+                return false;
+            }
+            int hole = slot;
+            for (int next = (hole + 1) & mask; owners[next] != null; next = (next + 1) & mask) {
+                int home = slot(high[next], low[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    high[hole] = high[next];
+                    low[hole] = low[next];
+                    owners[hole] = owners[next];
+                    hole = next;
+                }
+            }
+            owners[hole] = null;
+            return true;
+        }
+
+        private int slot(long h, long l) {
+            long mixed = (h ^ Long.rotateLeft(l, 32)) * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ mixed >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.people.ownership;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class RelatedIndex {
+    private final Map<String, Map<String, String>> ownersByRelated = new HashMap<>();
+    private final Map<String, String> relatedById = new HashMap<>();
+
+    public synchronized void put(String id, String owner, String related) {
+        remove(id);
+        relatedById.put(id, related);
+        ownersByRelated.computeIfAbsent(related, r -> new LinkedHashMap<>()).put(id, owner);
+    }
+
+    public synchronized void remove(String id) {
+        String related = relatedById.remove(id);
+        if (related == null) {
+            return;
+        }
+        Map<String, String> owners = ownersByRelated.get(related);
+        owners.remove(id);
+        if (owners.isEmpty()) {
+            ownersByRelated.remove(related);
+        }
+    }
+
+    public synchronized Map<String, String> relatedTo(String related, int limit) {
+        Map<String, String> owners = ownersByRelated.getOrDefault(related, Map.of());
+        Map<String, String> head = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : owners.entrySet()) {
+            if (head.size() >= limit) {
+                break;
+            }
+            head.put(entry.getKey(), entry.getValue());
+        }
+        return head;
+    }
+}
@@ -0,0 +1,8 @@
+package com.people.picture;
+
+public record PictureGcSummary(
+        int blobsRemoved,
+        long bytesReclaimed,
+        int segmentsCompacted
+) {
+}
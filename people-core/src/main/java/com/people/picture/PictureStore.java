@@ -0,0 +1,386 @@
+package com.people.picture;
+
+import com.people.api.NotFoundException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public final class PictureStore implements AutoCloseable {
+    public static final int MAX_PICTURE_BYTES = 16 * 1024 * 1024;
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final long MAX_SEGMENT_BYTES = 1024L * 1024 * 1024;
+    private static final int MAGIC = 0x50494331;
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + HASH_BYTES;
+    private static final double COMPACT_DEAD_RATIO = 0.5;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".blob";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final Map<String, Blob> blobs = new ConcurrentHashMap<>();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private boolean closed;
+
+    private PictureStore(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public static PictureStore open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public static PictureStore open(Path directory, long segmentBytes) {
+        if (segmentBytes <= HEADER_BYTES || segmentBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("segment size must be between " + HEADER_BYTES + " and "
+                    + MAX_SEGMENT_BYTES + " bytes");
+        }
+        PictureStore store = new PictureStore(directory, segmentBytes);
+        try {
+            Files.createDirectories(directory);
+            store.recover();
+        } catch (IOException ex) {
+            store.close();
+            throw new UncheckedIOException("cannot open picture store at " + directory, ex);
+        }
+        return store;
+    }
+
+    public String put(byte[] image) {
+        if (image == null || image.length == 0) {
+            throw new IllegalArgumentException("picture must be provided");
+        }
+        if (image.length > MAX_PICTURE_BYTES) {
+            throw new IllegalArgumentException("picture must be at most " + MAX_PICTURE_BYTES + " bytes");
+        }
+        byte[] digest = sha256(image);
+        String hash = HEX.formatHex(digest);
+        synchronized (this) {
+            ensureOpen();
+            Blob existing = blobs.get(hash);
+            if (existing != null) {
+                existing.refs++;
+                return hash;
+            }
+            Blob blob = append(hash, digest, ByteBuffer.wrap(image));
+            blob.refs = 1;
+            return hash;
+        }
+    }
+
+    public ByteBuffer read(String hash) {
+        Blob blob = hash == null ? null : blobs.get(hash);
+        if (blob == null) {
+            throw new NotFoundException("picture not found");
+        }
+        return blob.segment.slice(blob.offset, blob.length);
+    }
+
+    public boolean contains(String hash) {
+        return hash != null && blobs.containsKey(hash);
+    }
+
+    public synchronized void retain(String hash) {
+        ensureOpen();
+        Blob blob = hash == null ? null : blobs.get(hash);
+        if (blob == null) {
+            throw new NotFoundException("picture not found");
+        }
+        blob.refs++;
+    }
+
+    public synchronized void release(String hash) {
+        Blob blob = hash == null || closed ? null : blobs.get(hash);
+        if (blob == null || blob.refs == 0) {
+            return;
+        }
+        if (--blob.refs == 0) {
+            retire(blob);
+            Segment segment = blob.segment;
+            if (segment != active && segment.deadBytes >= segment.size * COMPACT_DEAD_RATIO) {
+                compact(segment);
+            }
+        }
+    }
+
+    public synchronized int references(String hash) {
+        Blob blob = hash == null ? null : blobs.get(hash);
+        return blob == null ? 0 : blob.refs;
+    }
+
+    public synchronized PictureGcSummary collectGarbage() {
+        ensureOpen();
+        int removed = 0;
+        for (Blob blob : List.copyOf(blobs.values())) {
+            if (blob.refs == 0) {
+                retire(blob);
+                removed++;
+            }
+        }
+        if (active.deadBytes > 0) {
+            rotate();
+        }
+        long reclaimed = 0;
+        int compacted = 0;
+        for (Segment segment : List.copyOf(segments.values())) {
+            if (segment != active && segment.deadBytes > 0) {
+                reclaimed += compact(segment);
+                compacted++;
+            }
+        }
+        return new PictureGcSummary(removed, reclaimed, compacted);
+    }
+
+    public int blobCount() {
+        return blobs.size();
+    }
+
+    public synchronized long storedBytes() {
+        return segments.values().stream().mapToLong(segment -> segment.size).sum();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Segment segment : segments.values()) {
+            segment.closeChannel();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(PictureStore::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = new Segment(segmentId(file), file);
+            segments.put(segment.id, segment);
+            scan(segment);
+        }
+        for (Segment segment : segments.values()) {
+            if (segment != segments.lastEntry().getValue()) {
+                segment.seal();
+            }
+        }
+        active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+    }
+
+    private void scan(Segment segment) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        byte[] digest = new byte[HASH_BYTES];
+        long fileSize = segment.channel.size();
+        long position = 0;
+        while (position + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(segment.channel, header, position);
+            header.flip();
+            int magic = header.getInt();
+            int length = header.getInt();
+            if (magic != MAGIC || length <= 0 || length > MAX_PICTURE_BYTES
+                    || position + HEADER_BYTES + length > fileSize) {
+                break;
+            }
+            header.get(digest);
+            String hash = HEX.formatHex(digest);
+            Blob blob = new Blob(hash, segment, position + HEADER_BYTES, length);
+            if (blobs.putIfAbsent(hash, blob) == null) {
+                segment.blobs.add(blob);
+            } else {
+                segment.deadBytes += HEADER_BYTES + length;
+            }
+            position += HEADER_BYTES + length;
+        }
+        if (position < fileSize) {
+            segment.channel.truncate(position);
+        }
+        segment.size = position;
+    }
+
+    private Blob append(String hash, byte[] digest, ByteBuffer data) {
+        int length = data.remaining();
+        if (active.size > 0 && active.size + HEADER_BYTES + length > segmentBytes) {
+            rotate();
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(length).put(digest).flip();
+        long position = active.size;
+        try {
+            writeFully(active.channel, header, position);
+            writeFully(active.channel, data, position + HEADER_BYTES);
+            active.channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot write picture to " + active.path, ex);
+        }
+        active.size = position + HEADER_BYTES + length;
+        Blob blob = new Blob(hash, active, position + HEADER_BYTES, length);
+        active.blobs.add(blob);
+        blobs.put(hash, blob);
+        return blob;
+    }
+
+    private void retire(Blob blob) {
+        blobs.remove(blob.hash, blob);
+        blob.segment.blobs.remove(blob);
+        blob.segment.deadBytes += HEADER_BYTES + blob.length;
+    }
+
+    private long compact(Segment segment) {
+        long copied = 0;
+        for (Blob blob : List.copyOf(segment.blobs)) {
+            Blob moved = append(blob.hash, HEX.parseHex(blob.hash), segment.slice(blob.offset, blob.length));
+            moved.refs = blob.refs;
+            copied += HEADER_BYTES + blob.length;
+        }
+        segments.remove(segment.id);
+        segment.closeChannel();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot delete picture segment " + segment.path, ex);
+        }
+        return segment.size - copied;
+    }
+
+    private void rotate() {
+        active.seal();
+        active = newSegment(active.id + 1);
+    }
+
+    private Segment newSegment(long id) {
+        Path file = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        try {
+            Segment segment = new Segment(id, file);
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot create picture segment " + file, ex);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("picture store is closed");
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of segment");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    private static final class Blob {
+        private final String hash;
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+        private int refs;
+
+        private Blob(String hash, Segment segment, long offset, int length) {
+            this.hash = hash;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final Set<Blob> blobs = new HashSet<>();
+        private long size;
+        private long deadBytes;
+        private volatile MappedByteBuffer mapping;
+
+        private Segment(long id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        private void seal() {
+            map(size);
+        }
+
+        private ByteBuffer slice(long offset, int length) {
+            MappedByteBuffer current = mapping;
+            if (current == null || offset + length > current.capacity()) {
+                current = map(offset + length);
+            }
+            return current.slice((int) offset, length);
+        }
+
+        private synchronized MappedByteBuffer map(long required) {
+            MappedByteBuffer current = mapping;
+            if (current != null && required <= current.capacity()) {
+                return current;
+            }
+            try {
+                current = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.max(required, channel.size()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("cannot map picture segment " + path, ex);
+            }
+            mapping = current;
+            return current;
+        }
+
+        private void closeChannel() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.people.picture;
+
+import java.nio.ByteBuffer;
+
+public enum PictureType {
+    PNG("image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+    JPEG("image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+
+    private final String mediaType;
+    private final byte[] signature;
+
+    PictureType(String mediaType, byte[] signature) {
+        this.mediaType = mediaType;
+        this.signature = signature;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static PictureType detect(ByteBuffer image) {
+        for (PictureType type : values()) {
+            if (type.matches(image)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("picture must be a PNG or JPEG image");
+    }
+
+    private boolean matches(ByteBuffer image) {
+        if (image.remaining() < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (image.get(image.position() + i) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
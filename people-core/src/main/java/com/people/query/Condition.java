@@ -0,0 +1,99 @@
+package com.people.query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public sealed interface Condition permits Condition.Comparison, Condition.And, Condition.Or, Condition.Not {
+
+    static Condition eq(String field, Object value) {
+        return new Comparison(field, Operator.EQ, value);
+    }
+
+    static Condition ne(String field, Object value) {
+        return new Comparison(field, Operator.NE, value);
+    }
+
+    static Condition lt(String field, Object value) {
+        return new Comparison(field, Operator.LT, value);
+    }
+
+    static Condition le(String field, Object value) {
+        return new Comparison(field, Operator.LE, value);
+    }
+
+    static Condition gt(String field, Object value) {
+        return new Comparison(field, Operator.GT, value);
+    }
+
+    static Condition ge(String field, Object value) {
+        return new Comparison(field, Operator.GE, value);
+    }
+
+    static Condition contains(String field, String value) {
+        return new Comparison(field, Operator.CONTAINS, value);
+    }
+
+    static Condition and(Condition... terms) {
+        return new And(List.of(terms));
+    }
+
+    static Condition or(Condition... terms) {
+        return new Or(List.of(terms));
+    }
+
+    static Condition not(Condition term) {
+        return new Not(term);
+    }
+
+    record Comparison(String field, Operator operator, Object value) implements Condition {
+        @Override
+        public String toString() {
+            return field + " " + operator.symbol() + " " + literal(value);
+        }
+    }
+
+    record And(List<Condition> terms) implements Condition {
+        public And {
+            terms = List.copyOf(terms);
+        }
+
+        @Override
+        public String toString() {
+            return terms.stream().map(term -> term instanceof Or ? "(" + term + ")" : term.toString())
+                    .collect(Collectors.joining(" and "));
+        }
+    }
+
+    record Or(List<Condition> terms) implements Condition {
+        public Or {
+            terms = List.copyOf(terms);
+        }
+
+        @Override
+        public String toString() {
+            return terms.stream().map(Condition::toString).collect(Collectors.joining(" or "));
+        }
+    }
+
+    record Not(Condition term) implements Condition {
+        @Override
+        public String toString() {
+            return term instanceof Comparison ? "not " + term : "not (" + term + ")";
+        }
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+        return "'" + text.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,115 @@
+package com.people.query;
+
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGenderType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class Entity<T> {
+    public static final Entity<Person> PERSON = new Entity<>("person", "people", Person.class, List.of(
+            Field.id("id", Person::id),
+            Field.text("firstName", Person::firstName),
+            Field.text("middleName", Person::middleName),
+            Field.text("lastName", Person::lastName),
+            Field.of("dateOfBirth", LocalDate.class, Person::dateOfBirth),
+            Field.of("gender", Gender.class, Person::gender),
+            Field.of("preferredGender", PreferredGenderType.class,
+                    person -> person.preferredGender() == null ? null : person.preferredGender().type()),
+            Field.of("version", Long.class, Person::version)));
+
+    public static final Entity<Address> ADDRESS = new Entity<>("address", "addresses", Address.class, List.of(
+            Field.id("id", Address::id),
+            Field.id("personId", Address::personId),
+            Field.text("street", Address::address),
+            Field.text("town", Address::town),
+            Field.text("state", Address::state),
+            Field.of("type", AddressType.class, Address::type),
+            Field.text("description", Address::description),
+            Field.of("owns", Boolean.class, Address::owns),
+            Field.of("primary", Boolean.class, Address::primary),
+            Field.of("monthlyPayment", BigDecimal.class, Address::monthlyPayment),
+            Field.of("bedrooms", Integer.class, Address::bedrooms),
+            Field.of("bathrooms", Integer.class, Address::bathrooms),
+            Field.of("version", Long.class, Address::version)));
+
+    public static final Entity<Employment> EMPLOYMENT = new Entity<>("employment", "employments", Employment.class,
+            List.of(
+                    Field.id("id", Employment::id),
+                    Field.id("personId", Employment::personId),
+                    Field.id("companyId", Employment::companyId),
+                    Field.text("company", Employment::name),
+                    Field.text("description", Employment::description),
+                    Field.text("address", Employment::address),
+                    Field.text("jobTitle", Employment::jobTitle),
+                    Field.of("payType", PayType.class, Employment::payType),
+                    Field.of("rateOfPay", BigDecimal.class, Employment::rateOfPay),
+                    Field.of("currentEmployer", Boolean.class, Employment::currentEmployer),
+                    Field.of("startDate", LocalDate.class, Employment::startDate),
+                    Field.of("endDate", LocalDate.class, Employment::endDate),
+                    Field.of("version", Long.class, Employment::version)));
+
+    private static final List<Entity<?>> ALL = List.of(PERSON, ADDRESS, EMPLOYMENT);
+
+    private final String name;
+    private final String plural;
+    private final Class<T> type;
+    private final Map<String, Field<T>> fields = new LinkedHashMap<>();
+
+    private Entity(String name, String plural, Class<T> type, List<Field<T>> fields) {
+        this.name = name;
+        this.plural = plural;
+        this.type = type;
+        for (Field<T> field : fields) {
+            this.fields.put(field.name().toLowerCase(Locale.ROOT), field);
+        }
+    }
+
+    public static List<Entity<?>> all() {
+        return ALL;
+    }
+
+    public static Entity<?> parse(String name) {
+        for (Entity<?> entity : ALL) {
+            if (entity.name.equalsIgnoreCase(name) || entity.plural.equalsIgnoreCase(name)) {
+                return entity;
+            }
+        }
+        throw new IllegalArgumentException("unknown entity: " + name + " (expected person, address or employment)");
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public Collection<Field<T>> fields() {
+        return fields.values();
+    }
+
+    public Field<T> field(String name) {
+        Field<T> field = fields.get(name.toLowerCase(Locale.ROOT));
+        if (field == null) {
+            throw new IllegalArgumentException("unknown " + this.name + " field: " + name);
+        }
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,111 @@
+package com.people.query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Function;
+
+public record Field<T>(
+        String name,
+        Class<?> type,
+        boolean caseSensitive,
+        Function<T, Object> accessor
+) {
+    public static <T> Field<T> id(String name, Function<T, String> accessor) {
+        return new Field<>(name, String.class, true, accessor::apply);
+    }
+
+    public static <T> Field<T> text(String name, Function<T, String> accessor) {
+        return new Field<>(name, String.class, false, accessor::apply);
+    }
+
+    public static <T, V> Field<T> of(String name, Class<V> type, Function<T, V> accessor) {
+        return new Field<>(name, type, true, accessor::apply);
+    }
+
+    public Object get(T value) {
+        return accessor.apply(value);
+    }
+
+    public Object coerce(Object literal) {
+        if (literal == null) {
+            return null;
+        }
+        if (type == String.class && literal instanceof String) {
+            return literal;
+        }
+        if (type == Boolean.class && literal instanceof Boolean) {
+            return literal;
+        }
+        if (literal instanceof Number number && Number.class.isAssignableFrom(type)) {
+            BigDecimal decimal = number instanceof BigDecimal exact ? exact : new BigDecimal(number.toString());
+            try {
+                if (type == Integer.class) {
+                    return decimal.intValueExact();
+                }
+                if (type == Long.class) {
+                    return decimal.longValueExact();
+                }
+            } catch (ArithmeticException ex) {
+                throw mismatch("an integer");
+            }
+            return decimal;
+        }
+        if (type == LocalDate.class) {
+            if (literal instanceof LocalDate) {
+                return literal;
+            }
+            if (literal instanceof String text) {
+                try {
+                    return LocalDate.parse(text);
+                } catch (DateTimeParseException ex) {
+                    throw mismatch("an ISO date (yyyy-MM-dd)");
+                }
+            }
+        }
+        if (type.isEnum()) {
+            if (type.isInstance(literal)) {
+                return literal;
+            }
+            if (literal instanceof String text) {
+                String normalized = text.trim().replace('-', '_').replace(' ', '_');
+                for (Object constant : type.getEnumConstants()) {
+                    if (((Enum<?>) constant).name().equalsIgnoreCase(normalized)) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("invalid " + name + ": " + text);
+            }
+        }
+        throw mismatch(describeType());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compare(Object left, Object right) {
+        if (left instanceof String a && right instanceof String b && !caseSensitive) {
+            return a.compareToIgnoreCase(b);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private String describeType() {
+        if (type == String.class) {
+            return "text";
+        }
+        if (type == Boolean.class) {
+            return "true or false";
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return "a number";
+        }
+        if (type == LocalDate.class) {
+            return "an ISO date (yyyy-MM-dd)";
+        }
+        return "one of " + Arrays.toString(type.getEnumConstants());
+    }
+
+    private IllegalArgumentException mismatch(String expected) {
+        return new IllegalArgumentException(name + " expects " + expected);
+    }
+}
@@ -0,0 +1,12 @@
+package com.people.query;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public record Index<T>(
+        String field,
+        Function<String, List<T>> lookup,
+        LongSupplier distinctKeys
+) {
+}
@@ -0,0 +1,19 @@
+package com.people.query;
+
+public record Ordering(
+        String field,
+        boolean descending
+) {
+    public static Ordering asc(String field) {
+        return new Ordering(field, false);
+    }
+
+    public static Ordering desc(String field) {
+        return new Ordering(field, true);
+    }
+
+    @Override
+    public String toString() {
+        return descending ? field + " desc" : field;
+    }
+}
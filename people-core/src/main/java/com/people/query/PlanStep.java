@@ -0,0 +1,8 @@
+package com.people.query;
+
+public record PlanStep(
+        String operator,
+        String detail,
+        long estimatedRows
+) {
+}
@@ -0,0 +1,51 @@
+package com.people.query;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public record Query<T>(
+        Entity<T> entity,
+        Condition where,
+        List<Ordering> orderBy,
+        int limit
+) {
+    public Query {
+        Objects.requireNonNull(entity, "entity");
+        orderBy = orderBy == null ? List.of() : List.copyOf(orderBy);
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+    }
+
+    public static <T> Query<T> of(Entity<T> entity, Condition where) {
+        return new Query<>(entity, where, List.of(), 0);
+    }
+
+    public static Query<?> parse(String text) {
+        return new QueryParser(text).parse();
+    }
+
+    public Query<T> orderBy(Ordering... orderings) {
+        return new Query<>(entity, where, List.of(orderings), limit);
+    }
+
+    public Query<T> limit(int limit) {
+        return new Query<>(entity, where, orderBy, limit);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(entity.name());
+        if (where != null) {
+            sb.append(" where ").append(where);
+        }
+        if (!orderBy.isEmpty()) {
+            sb.append(" order by ").append(orderBy.stream().map(Ordering::toString).collect(Collectors.joining(", ")));
+        }
+        if (limit > 0) {
+            sb.append(" limit ").append(limit);
+        }
+        return sb.toString();
+    }
+}
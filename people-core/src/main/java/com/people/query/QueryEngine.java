@@ -0,0 +1,361 @@
+package com.people.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public final class QueryEngine {
+    public static final int PARALLEL_THRESHOLD = 8_192;
+
+    private static final double EQUALITY_SELECTIVITY = 0.05;
+    private static final double RANGE_SELECTIVITY = 0.3;
+    private static final double CONTAINS_SELECTIVITY = 0.2;
+    private static final double NULL_SELECTIVITY = 0.1;
+
+    private final Map<Entity<?>, Table<?>> tables = new HashMap<>();
+
+    public QueryEngine(List<Table<?>> tables) {
+        for (Table<?> table : tables) {
+            this.tables.put(table.entity(), table);
+        }
+    }
+
+    public <T> List<T> execute(Query<T> query) {
+        return plan(query).run();
+    }
+
+    public QueryPlan explain(Query<?> query) {
+        return plan(query).description();
+    }
+
+    public static <T> List<T> merge(Query<T> query, List<T> rows) {
+        return finish(rows, comparator(query), query.limit());
+    }
+
+    private <T> Plan<T> plan(Query<T> query) {
+        Table<T> table = table(query.entity());
+        long rowCount = Math.max(0, table.rowCount().getAsLong());
+        List<Condition> conjuncts = conjuncts(query.where());
+
+        Access<T> access = new Access<>("FullScan", table.entity().name() + " (" + rowCount + " rows)", rowCount,
+                table.scan(), null);
+        for (Condition conjunct : conjuncts) {
+            Access<T> candidate = indexAccess(table, conjunct, rowCount);
+            if (candidate != null && candidate.estimatedRows() < access.estimatedRows()) {
+                access = candidate;
+            }
+        }
+
+        List<Condition> residual = new ArrayList<>(conjuncts);
+        residual.remove(access.consumed());
+        Map<Condition, Double> selectivity = new HashMap<>();
+        for (Condition condition : residual) {
+            selectivity.put(condition, selectivity(table, condition, rowCount));
+        }
+        residual.sort(Comparator.comparingDouble(selectivity::get));
+        List<Predicate<T>> filters = new ArrayList<>(residual.size());
+        double matched = access.estimatedRows();
+        for (Condition condition : residual) {
+            filters.add(compile(table.entity(), condition));
+            matched *= selectivity.get(condition);
+        }
+        Comparator<T> comparator = comparator(query);
+
+        List<PlanStep> steps = new ArrayList<>();
+        long estimated = Math.round(Math.ceil(matched));
+        int limit = query.limit();
+        String ordering = query.orderBy().stream().map(Ordering::toString).collect(Collectors.joining(", "));
+        if (comparator != null && limit > 0) {
+            steps.add(new PlanStep("TopN", limit + " by " + ordering, Math.min(limit, estimated)));
+        } else if (comparator != null) {
+            steps.add(new PlanStep("Sort", ordering, estimated));
+        } else if (limit > 0) {
+            steps.add(new PlanStep("Limit", Integer.toString(limit), Math.min(limit, estimated)));
+        }
+        boolean parallel = !filters.isEmpty() && access.estimatedRows() >= PARALLEL_THRESHOLD;
+        if (!filters.isEmpty()) {
+            String detail = residual.stream().map(condition -> condition instanceof Condition.Or
+                    ? "(" + condition + ")" : condition.toString()).collect(Collectors.joining(" and "));
+            steps.add(new PlanStep(parallel ? "ParallelFilter" : "Filter", detail, estimated));
+        }
+        steps.add(new PlanStep(access.operator(), access.detail(), access.estimatedRows()));
+
+        return new Plan<>(access.rows(), filters, parallel, comparator, limit, new QueryPlan(steps));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Table<T> table(Entity<T> entity) {
+        Table<T> table = (Table<T>) tables.get(entity);
+        if (table == null) {
+            throw new IllegalArgumentException("no table registered for " + entity);
+        }
+        return table;
+    }
+
+    private static List<Condition> conjuncts(Condition where) {
+        if (where == null) {
+            return List.of();
+        }
+        if (where instanceof Condition.And and) {
+            List<Condition> flattened = new ArrayList<>();
+            for (Condition term : and.terms()) {
+                flattened.addAll(conjuncts(term));
+            }
+            return flattened;
+        }
+        return List.of(where);
+    }
+
+    private static <T> Access<T> indexAccess(Table<T> table, Condition condition, long rowCount) {
+        List<Condition.Comparison> lookups = new ArrayList<>();
+        if (condition instanceof Condition.Comparison comparison) {
+            lookups.add(comparison);
+        } else if (condition instanceof Condition.Or or) {
+            for (Condition term : or.terms()) {
+                if (!(term instanceof Condition.Comparison comparison)) {
+                    return null;
+                }
+                lookups.add(comparison);
+            }
+        } else {
+            return null;
+        }
+        Field<T> field = table.entity().field(lookups.get(0).field());
+        Index<T> index = table.index(field.name());
+        if (index == null) {
+            return null;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (Condition.Comparison lookup : lookups) {
+            if (lookup.operator() != Operator.EQ || !table.entity().field(lookup.field()).equals(field)) {
+                return null;
+            }
+            Object key = field.coerce(lookup.value());
+            if (!(key instanceof String text)) {
+                return null;
+            }
+            keys.add(text);
+        }
+        long perKey = perKey(index, rowCount);
+        String target = table.entity().name() + "." + field.name();
+        if (keys.size() == 1) {
+            String key = keys.iterator().next();
+            return new Access<>("IndexLookup", target + " = " + quote(key), perKey,
+                    () -> index.lookup().apply(key), condition);
+        }
+        return new Access<>("IndexUnion", target + " in (" + keys.stream().map(QueryEngine::quote)
+                .collect(Collectors.joining(", ")) + ")", perKey * keys.size(), () -> {
+            List<T> rows = new ArrayList<>();
+            for (String key : keys) {
+                rows.addAll(index.lookup().apply(key));
+            }
+            return rows;
+        }, condition);
+    }
+
+    private static long perKey(Index<?> index, long rowCount) {
+        long distinct = Math.max(1, index.distinctKeys().getAsLong());
+        return Math.max(1, (rowCount + distinct - 1) / distinct);
+    }
+
+    private static double selectivity(Table<?> table, Condition condition, long rowCount) {
+        return switch (condition) {
+            case Condition.And and -> {
+                double product = 1;
+                for (Condition term : and.terms()) {
+                    product *= selectivity(table, term, rowCount);
+                }
+                yield product;
+            }
+            case Condition.Or or -> {
+                double none = 1;
+                for (Condition term : or.terms()) {
+                    none *= 1 - selectivity(table, term, rowCount);
+                }
+                yield 1 - none;
+            }
+            case Condition.Not not -> 1 - selectivity(table, not.term(), rowCount);
+            case Condition.Comparison comparison -> comparisonSelectivity(table, comparison, rowCount);
+        };
+    }
+
+    private static double comparisonSelectivity(Table<?> table, Condition.Comparison comparison, long rowCount) {
+        Field<?> field = table.entity().field(comparison.field());
+        double equality;
+        if (comparison.value() == null) {
+            equality = NULL_SELECTIVITY;
+        } else if (field.type() == Boolean.class) {
+            equality = 0.5;
+        } else if (field.type().isEnum()) {
+            equality = 1.0 / field.type().getEnumConstants().length;
+        } else if (table.index(field.name()) != null && rowCount > 0) {
+            equality = (double) perKey(table.index(field.name()), rowCount) / rowCount;
+        } else {
+            equality = EQUALITY_SELECTIVITY;
+        }
+        return switch (comparison.operator()) {
+            case EQ -> equality;
+            case NE -> 1 - equality;
+            case LT, LE, GT, GE -> RANGE_SELECTIVITY;
+            case CONTAINS -> CONTAINS_SELECTIVITY;
+        };
+    }
+
+    private static <T> Predicate<T> compile(Entity<T> entity, Condition condition) {
+        return switch (condition) {
+            case Condition.And and -> {
+                List<Predicate<T>> terms = and.terms().stream().map(term -> compile(entity, term)).toList();
+                yield value -> {
+                    for (Predicate<T> term : terms) {
+                        if (!term.test(value)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+            case Condition.Or or -> {
+                List<Predicate<T>> terms = or.terms().stream().map(term -> compile(entity, term)).toList();
+                yield value -> {
+                    for (Predicate<T> term : terms) {
+                        if (term.test(value)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+            }
+            case Condition.Not not -> compile(entity, not.term()).negate();
+            case Condition.Comparison comparison -> compileComparison(entity, comparison);
+        };
+    }
+
+    private static <T> Predicate<T> compileComparison(Entity<T> entity, Condition.Comparison comparison) {
+        Field<T> field = entity.field(comparison.field());
+        Object expected = field.coerce(comparison.value());
+        Operator operator = comparison.operator();
+        if (expected == null) {
+            return switch (operator) {
+                case EQ -> value -> field.get(value) == null;
+                case NE -> value -> field.get(value) != null;
+                default -> throw new IllegalArgumentException(
+                        comparison.field() + " can only be compared to null with = or !=");
+            };
+        }
+        if (operator == Operator.CONTAINS) {
+            if (field.type() != String.class) {
+                throw new IllegalArgumentException("contains requires a text field: " + comparison.field());
+            }
+            String needle = field.caseSensitive() ? (String) expected : ((String) expected).toLowerCase(Locale.ROOT);
+            return value -> {
+                Object actual = field.get(value);
+                if (actual == null) {
+                    return false;
+                }
+                String haystack = field.caseSensitive() ? (String) actual : ((String) actual).toLowerCase(Locale.ROOT);
+                return haystack.contains(needle);
+            };
+        }
+        return value -> {
+            Object actual = field.get(value);
+            if (actual == null) {
+                return operator == Operator.NE;
+            }
+            int order = field.compare(actual, expected);
+            return switch (operator) {
+                case EQ -> order == 0;
+                case NE -> order != 0;
+                case LT -> order < 0;
+                case LE -> order <= 0;
+                case GT -> order > 0;
+                case GE -> order >= 0;
+                case CONTAINS -> throw new IllegalStateException();
+            };
+        };
+    }
+
+    private static <T> Comparator<T> comparator(Query<T> query) {
+        Comparator<T> combined = null;
+        for (Ordering ordering : query.orderBy()) {
+            Field<T> field = query.entity().field(ordering.field());
+            Comparator<Object> values = Comparator.nullsLast(field::compare);
+            Comparator<T> next = (a, b) -> values.compare(field.get(a), field.get(b));
+            if (ordering.descending()) {
+                next = next.reversed();
+            }
+            combined = combined == null ? next : combined.thenComparing(next);
+        }
+        return combined;
+    }
+
+    private static <T> List<T> finish(List<T> rows, Comparator<T> comparator, int limit) {
+        if (comparator == null) {
+            return limit > 0 && rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        }
+        if (limit > 0 && limit < rows.size()) {
+            PriorityQueue<T> top = new PriorityQueue<>(limit + 1, comparator.reversed());
+            for (T row : rows) {
+                top.offer(row);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<T> result = new ArrayList<>(top);
+            result.sort(comparator);
+            return result;
+        }
+        List<T> sorted = new ArrayList<>(rows);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private record Access<T>(String operator, String detail, long estimatedRows, Supplier<List<T>> rows,
+                             Condition consumed) {
+    }
+
+    private record Plan<T>(Supplier<List<T>> source, List<Predicate<T>> filters, boolean parallel,
+                           Comparator<T> comparator, int limit, QueryPlan description) {
+        List<T> run() {
+            List<T> rows = source.get();
+            if (filters.isEmpty()) {
+                return finish(rows instanceof ArrayList<T> ? rows : new ArrayList<>(rows), comparator, limit);
+            }
+            Predicate<T> matches = filters.size() == 1 ? filters.get(0) : value -> {
+                for (Predicate<T> filter : filters) {
+                    if (!filter.test(value)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            if (parallel) {
+                return finish(rows.parallelStream().filter(matches).collect(Collectors.toCollection(ArrayList::new)),
+                        comparator, limit);
+            }
+            boolean stopEarly = comparator == null && limit > 0;
+            List<T> matched = new ArrayList<>();
+            for (T row : rows) {
+                if (matches.test(row)) {
+                    matched.add(row);
+                    if (stopEarly && matched.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return finish(matched, comparator, limit);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.people.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+final class QueryParser {
+    private final String text;
+    private int position;
+
+    QueryParser(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("query must be provided");
+        }
+        this.text = text;
+    }
+
+    Query<?> parse() {
+        Entity<?> entity = Entity.parse(identifier("entity"));
+        Condition where = null;
+        List<Ordering> orderBy = new ArrayList<>();
+        int limit = 0;
+        if (keyword("where")) {
+            where = expression();
+        }
+        if (keyword("order")) {
+            expectKeyword("by");
+            do {
+                String field = identifier("field");
+                boolean descending = keyword("desc");
+                if (!descending) {
+                    keyword("asc");
+                }
+                orderBy.add(new Ordering(field, descending));
+            } while (symbol(","));
+        }
+        if (keyword("limit")) {
+            skipWhitespace();
+            int start = position;
+            while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw error("expected a row count after limit");
+            }
+            try {
+                limit = Integer.parseInt(text, start, position, 10);
+            } catch (NumberFormatException ex) {
+                throw error("limit is too large");
+            }
+        }
+        skipWhitespace();
+        if (position != text.length()) {
+            throw error("unexpected '" + text.substring(position) + "'");
+        }
+        return new Query<>(entity, where, orderBy, limit);
+    }
+
+    private Condition expression() {
+        List<Condition> terms = new ArrayList<>();
+        terms.add(conjunction());
+        while (keyword("or")) {
+            terms.add(conjunction());
+        }
+        return terms.size() == 1 ? terms.get(0) : new Condition.Or(terms);
+    }
+
+    private Condition conjunction() {
+        List<Condition> terms = new ArrayList<>();
+        terms.add(factor());
+        while (keyword("and")) {
+            terms.add(factor());
+        }
+        return terms.size() == 1 ? terms.get(0) : new Condition.And(terms);
+    }
+
+    private Condition factor() {
+        if (keyword("not")) {
+            return new Condition.Not(factor());
+        }
+        if (symbol("(")) {
+            Condition inner = expression();
+            if (!symbol(")")) {
+                throw error("expected ')'");
+            }
+            return inner;
+        }
+        String field = identifier("field");
+        Operator operator = operator();
+        return new Condition.Comparison(field, operator, literal());
+    }
+
+    private Operator operator() {
+        if (keyword("contains")) {
+            return Operator.CONTAINS;
+        }
+        if (symbol("!=") || symbol("<>")) {
+            return Operator.NE;
+        }
+        if (symbol("<=")) {
+            return Operator.LE;
+        }
+        if (symbol(">=")) {
+            return Operator.GE;
+        }
+        if (symbol("<")) {
+            return Operator.LT;
+        }
+        if (symbol(">")) {
+            return Operator.GT;
+        }
+        if (symbol("=")) {
+            return Operator.EQ;
+        }
+        throw error("expected an operator (=, !=, <, <=, >, >=, contains)");
+    }
+
+    private Object literal() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("expected a value");
+        }
+        char c = text.charAt(position);
+        if (c == '\'' || c == '"') {
+            return quoted(c);
+        }
+        if (keyword("true")) {
+            return Boolean.TRUE;
+        }
+        if (keyword("false")) {
+            return Boolean.FALSE;
+        }
+        if (keyword("null")) {
+            return null;
+        }
+        int start = position;
+        while (position < text.length()
+                && (Character.isDigit(text.charAt(position)) || "-+.".indexOf(text.charAt(position)) >= 0)) {
+            position++;
+        }
+        if (start == position) {
+            throw error("expected a quoted string, number, true, false or null");
+        }
+        try {
+            return new BigDecimal(text.substring(start, position));
+        } catch (NumberFormatException ex) {
+            position = start;
+            throw error("invalid number");
+        }
+    }
+
+    private String quoted(char quote) {
+        position++;
+        StringBuilder sb = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c != quote) {
+                sb.append(c);
+            } else if (position < text.length() && text.charAt(position) == quote) {
+                sb.append(quote);
+                position++;
+            } else {
+                return sb.toString();
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private String identifier(String what) {
+        skipWhitespace();
+        int start = position;
+        while (position < text.length()
+                && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+            position++;
+        }
+        if (start == position) {
+            throw error("expected " + what);
+        }
+        return text.substring(start, position);
+    }
+
+    private boolean keyword(String keyword) {
+        skipWhitespace();
+        int end = position + keyword.length();
+        if (end > text.length() || !text.regionMatches(true, position, keyword, 0, keyword.length())) {
+            return false;
+        }
+        if (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+            return false;
+        }
+        position = end;
+        return true;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!keyword(keyword)) {
+            throw error("expected '" + keyword.toLowerCase(Locale.ROOT) + "'");
+        }
+    }
+
+    private boolean symbol(String symbol) {
+        skipWhitespace();
+        if (text.startsWith(symbol, position)) {
+            position += symbol.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("invalid query at position " + position + ": " + message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.people.query;
+
+import java.util.List;
+
+public record QueryPlan(
+        List<PlanStep> steps
+) {
+    public QueryPlan {
+        steps = List.copyOf(steps);
+    }
+
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int depth = 0; depth < steps.size(); depth++) {
+            PlanStep step = steps.get(depth);
+            sb.append("  ".repeat(depth)).append(depth == 0 ? "" : "-> ")
+                    .append(step.operator()).append(' ').append(step.detail())
+                    .append("  (est. ").append(step.estimatedRows()).append(" rows)")
+                    .append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
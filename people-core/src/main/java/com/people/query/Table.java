@@ -0,0 +1,25 @@
+package com.people.query;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public record Table<T>(
+        Entity<T> entity,
+        Supplier<List<T>> scan,
+        LongSupplier rowCount,
+        List<Index<T>> indexes
+) {
+    public Table {
+        indexes = List.copyOf(indexes);
+    }
+
+    Index<T> index(String field) {
+        for (Index<T> index : indexes) {
+            if (index.field().equals(field)) {
+                return index;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.people.reclaim;
+
+public record ReclaimStats(
+        int pendingPeople,
+        long reclaimedPeople,
+        long reclaimedRecords,
+        long batches,
+        long failures
+) {
+}
@@ -0,0 +1,46 @@
+package com.people.reclaim;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+public final class Reclaimer implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+    private static final System.Logger LOG = System.getLogger(Reclaimer.class.getName());
+
+    private final ScheduledExecutorService scheduler;
+
+    private Reclaimer(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public static Reclaimer start(IntUnaryOperator reclaim, int batchSize, Duration interval) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("reclaim batch size must be positive");
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("reclaim interval must be positive");
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "people-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reclaim.applyAsInt(batchSize);
+            } catch (RuntimeException ex) {
+                LOG.log(System.Logger.Level.WARNING, "reclaim batch failed", ex);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        return new Reclaimer(scheduler);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
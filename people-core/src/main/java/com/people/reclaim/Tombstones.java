@@ -0,0 +1,71 @@
+package com.people.reclaim;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Tombstones {
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private final LongAdder reclaimedPeople = new LongAdder();
+    private final LongAdder reclaimedRecords = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public void add(String personId) {
+        if (members.add(personId)) {
+            order.add(personId);
+        }
+    }
+
+    public boolean contains(String personId) {
+        return !members.isEmpty() && members.contains(personId);
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public Set<String> pending() {
+        return Collections.unmodifiableSet(members);
+    }
+
+    public String next() {
+        while (true) {
+            String personId = order.peek();
+            if (personId == null || members.contains(personId)) {
+                return personId;
+            }
+            order.remove(personId);
+        }
+    }
+
+    public void reclaimed(String personId) {
+        if (members.remove(personId)) {
+            order.remove(personId);
+            reclaimedPeople.increment();
+        }
+    }
+
+    public void failed(String personId) {
+        failures.increment();
+        if (order.remove(personId)) {
+            order.add(personId);
+        }
+    }
+
+    public void recordBatch(int records) {
+        if (records > 0) {
+            reclaimedRecords.add(records);
+            batches.increment();
+        }
+    }
+
+    public ReclaimStats stats() {
+        return new ReclaimStats(members.size(), reclaimedPeople.sum(), reclaimedRecords.sum(), batches.sum(),
+                failures.sum());
+    }
+}
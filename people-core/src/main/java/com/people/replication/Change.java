@@ -0,0 +1,39 @@
+package com.people.replication;
+
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+
+public record Change(Kind kind, String personId, String id, Record value) {
+    public enum Kind {
+        PERSON,
+        ADDRESS,
+        EMPLOYMENT,
+        RELATIONSHIP
+    }
+
+    public static Change of(Person person) {
+        return new Change(Kind.PERSON, person.id(), person.id(), person);
+    }
+
+    public static Change of(Address address) {
+        return new Change(Kind.ADDRESS, address.personId(), address.id(), address);
+    }
+
+    public static Change of(Employment employment) {
+        return new Change(Kind.EMPLOYMENT, employment.personId(), employment.id(), employment);
+    }
+
+    public static Change of(Relationship relationship) {
+        return new Change(Kind.RELATIONSHIP, relationship.personId(), relationship.id(), relationship);
+    }
+
+    public static Change removed(Kind kind, String personId, String id) {
+        return new Change(kind, personId, id, null);
+    }
+
+    public boolean isRemoval() {
+        return value == null;
+    }
+}
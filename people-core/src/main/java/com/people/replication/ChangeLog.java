@@ -0,0 +1,67 @@
+package com.people.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class ChangeLog {
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private final String id = UUID.randomUUID().toString();
+    private final LogEntry[] entries;
+    private long head;
+
+    public ChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChangeLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.entries = new LogEntry[capacity];
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public synchronized long append(Change change) {
+        head++;
+        entries[slot(head)] = new LogEntry(head, System.currentTimeMillis(), change);
+        notifyAll();
+        return head;
+    }
+
+    public synchronized long head() {
+        return head;
+    }
+
+    public synchronized boolean covers(long after) {
+        return after >= head - entries.length && after <= head;
+    }
+
+    public synchronized List<LogEntry> read(long after, int max, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (head == after) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return List.of();
+            }
+            wait(remaining);
+        }
+        if (!covers(after)) {
+            throw new IllegalStateException("position " + after + " is no longer in the log");
+        }
+        int count = (int) Math.min(max, head - after);
+        List<LogEntry> result = new ArrayList<>(count);
+        for (long position = after + 1; position <= after + count; position++) {
+            result.add(entries[slot(position)]);
+        }
+        return result;
+    }
+
+    private int slot(long position) {
+        return (int) (position % entries.length);
+    }
+}
@@ -0,0 +1,4 @@
+package com.people.replication;
+
+public record LogEntry(long position, long timeMillis, Change change) {
+}
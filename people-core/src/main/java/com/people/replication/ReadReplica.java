@@ -0,0 +1,356 @@
+package com.people.replication;
+
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+import com.people.query.Query;
+import com.people.query.QueryPlan;
+import com.people.service.PeopleService;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+public final class ReadReplica implements PeopleApi {
+    private final PeopleService replica;
+    private volatile String logId;
+    private volatile long position;
+    private volatile long primaryPosition;
+    private volatile long appliedTimeMillis;
+    private volatile boolean connected;
+    private volatile long failures;
+    private volatile String lastFailure;
+
+    public ReadReplica(PeopleService replica) {
+        this(replica, null, 0);
+    }
+
+    public ReadReplica(PeopleService replica, String logId, long position) {
+        this.replica = replica;
+        this.logId = logId;
+        this.position = position;
+        this.primaryPosition = position;
+    }
+
+    public String logId() {
+        return logId;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public synchronized void reset(String logId) {
+        replica.clear();
+        this.logId = logId;
+        this.position = 0;
+    }
+
+    public synchronized void apply(LogEntry entry) {
+        if (entry.position() != 0 && entry.position() <= position) {
+            return;
+        }
+        replica.apply(entry.change());
+        if (entry.position() != 0) {
+            position = entry.position();
+            primaryPosition = Math.max(primaryPosition, position);
+            appliedTimeMillis = entry.timeMillis();
+        }
+    }
+
+    public synchronized void completeSnapshot(long position, long timeMillis) {
+        this.position = position;
+        this.primaryPosition = Math.max(primaryPosition, position);
+        this.appliedTimeMillis = timeMillis;
+    }
+
+    public void heartbeat(long primaryPosition, long timeMillis) {
+        this.primaryPosition = primaryPosition;
+        if (position >= primaryPosition) {
+            appliedTimeMillis = timeMillis;
+        }
+    }
+
+    public void connected(boolean connected) {
+        this.connected = connected;
+    }
+
+    public synchronized void failed(Throwable failure) {
+        failures++;
+        lastFailure = failure.getMessage() == null ? failure.getClass().getName()
+                : failure.getClass().getName() + ": " + failure.getMessage();
+    }
+
+    public ReplicationStatus status() {
+        long applied = position;
+        long head = Math.max(primaryPosition, applied);
+        long lag = applied >= head || appliedTimeMillis == 0 ? 0
+                : Math.max(0, System.currentTimeMillis() - appliedTimeMillis);
+        return new ReplicationStatus("replica", logId, applied, head, lag, 0, connected, failures, lastFailure);
+    }
+
+    @Override
+    public Person createPerson(Person person) {
+        throw readOnly();
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        throw readOnly();
+    }
+
+    @Override
+    public Person updatePerson(Person person) {
+        throw readOnly();
+    }
+
+    @Override
+    public Person deletePerson(String id) {
+        throw readOnly();
+    }
+
+    @Override
+    public Person getPerson(String id) {
+        return replica.getPerson(id);
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        return replica.getPersonDetail(id, parts);
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return replica.getPerson(id, asOf);
+    }
+
+    @Override
+    public List<Person> listPeople() {
+        return replica.listPeople();
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        throw readOnly();
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        return replica.getPicture(personId);
+    }
+
+    @Override
+    public Address createAddress(Address address) {
+        throw readOnly();
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        throw readOnly();
+    }
+
+    @Override
+    public Address updateAddress(Address address) {
+        throw readOnly();
+    }
+
+    @Override
+    public Address deleteAddress(String personId, String addressId) {
+        throw readOnly();
+    }
+
+    @Override
+    public Address getAddress(String personId, String addressId) {
+        return replica.getAddress(personId, addressId);
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return replica.getAddress(addressId);
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId) {
+        return replica.listAddresses(personId);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        return replica.listAddresses(personId, asOf);
+    }
+
+    @Override
+    public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
+        return replica.listAddressesFiltered(street, town, state, streetContains);
+    }
+
+    @Override
+    public Employment createEmployment(Employment employment) {
+        throw readOnly();
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        throw readOnly();
+    }
+
+    @Override
+    public Employment updateEmployment(Employment employment) {
+        throw readOnly();
+    }
+
+    @Override
+    public Employment deleteEmployment(String personId, String employmentId) {
+        throw readOnly();
+    }
+
+    @Override
+    public Employment getEmployment(String personId, String employmentId) {
+        return replica.getEmployment(personId, employmentId);
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return replica.getEmployment(employmentId);
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId) {
+        return replica.listEmployments(personId);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        return replica.listEmployments(personId, asOf);
+    }
+
+    @Override
+    public List<Employment> listAllEmployments() {
+        return replica.listAllEmployments();
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        return replica.listEmploymentsOn(date, companyId);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        return replica.listEmploymentsOverlapping(from, to, companyId);
+    }
+
+    @Override
+    public List<CompanySummary> listCompanies() {
+        return replica.listCompanies();
+    }
+
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        return replica.listCompanyEmployments(companyId);
+    }
+
+    @Override
+    public Relationship createRelationship(Relationship relationship) {
+        throw readOnly();
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        throw readOnly();
+    }
+
+    @Override
+    public Relationship updateRelationship(Relationship relationship) {
+        throw readOnly();
+    }
+
+    @Override
+    public Relationship deleteRelationship(String personId, String relationshipId) {
+        throw readOnly();
+    }
+
+    @Override
+    public Relationship getRelationship(String personId, String relationshipId) {
+        return replica.getRelationship(personId, relationshipId);
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return replica.getRelationship(relationshipId);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId) {
+        return replica.listRelationships(personId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        return replica.listRelationships(personId, asOf);
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        return replica.query(query);
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        return replica.explain(query);
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        return replica.getHousehold(personId);
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        return replica.listHouseholds(minSize);
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return replica.search(text, limit);
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return replica.listGeoStats();
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return replica.findDuplicates(threshold);
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("read-only replica");
+    }
+}
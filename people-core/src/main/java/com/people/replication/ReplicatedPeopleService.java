@@ -0,0 +1,359 @@
+package com.people.replication;
+
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+import com.people.query.Query;
+import com.people.query.QueryPlan;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class ReplicatedPeopleService implements PeopleApi {
+    private final PeopleApi delegate;
+    private final ChangeLog log;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicInteger followers = new AtomicInteger();
+
+    public ReplicatedPeopleService(PeopleApi delegate) {
+        this(delegate, new ChangeLog());
+    }
+
+    public ReplicatedPeopleService(PeopleApi delegate, ChangeLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    public ChangeLog log() {
+        return log;
+    }
+
+    public Snapshot snapshot() {
+        writeLock.lock();
+        try {
+            List<Change> changes = new ArrayList<>();
+            List<Person> people = delegate.listPeople();
+            for (Person person : people) {
+                changes.add(Change.of(person));
+            }
+            for (Person person : people) {
+                delegate.listAddresses(person.id()).forEach(address -> changes.add(Change.of(address)));
+                delegate.listEmployments(person.id()).forEach(employment -> changes.add(Change.of(employment)));
+                delegate.listRelationships(person.id())
+                        .forEach(relationship -> changes.add(Change.of(relationship)));
+            }
+            return new Snapshot(log.head(), changes);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void followerConnected() {
+        followers.incrementAndGet();
+    }
+
+    public void followerDisconnected() {
+        followers.decrementAndGet();
+    }
+
+    public ReplicationStatus status() {
+        long head = log.head();
+        return new ReplicationStatus("primary", log.id(), head, head, 0, followers.get(), true, 0, null);
+    }
+
+    @Override
+    public Person createPerson(Person person) {
+        return write(() -> delegate.createPerson(person), Change::of);
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        return writeAll(() -> delegate.createPeople(people), Change::of);
+    }
+
+    @Override
+    public Person updatePerson(Person person) {
+        return write(() -> delegate.updatePerson(person), Change::of);
+    }
+
+    @Override
+    public Person deletePerson(String id) {
+        return write(() -> delegate.deletePerson(id), deleted -> Change.removed(Change.Kind.PERSON, id, id));
+    }
+
+    @Override
+    public Person getPerson(String id) {
+        return delegate.getPerson(id);
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        return delegate.getPersonDetail(id, parts);
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return delegate.getPerson(id, asOf);
+    }
+
+    @Override
+    public List<Person> listPeople() {
+        return delegate.listPeople();
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        return write(() -> delegate.setPicture(personId, image), Change::of);
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        return delegate.getPicture(personId);
+    }
+
+    @Override
+    public Address createAddress(Address address) {
+        return write(() -> delegate.createAddress(address), Change::of);
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        return writeAll(() -> delegate.createAddresses(addresses), Change::of);
+    }
+
+    @Override
+    public Address updateAddress(Address address) {
+        return write(() -> delegate.updateAddress(address), Change::of);
+    }
+
+    @Override
+    public Address deleteAddress(String personId, String addressId) {
+        return write(() -> delegate.deleteAddress(personId, addressId),
+                deleted -> Change.removed(Change.Kind.ADDRESS, personId, addressId));
+    }
+
+    @Override
+    public Address getAddress(String personId, String addressId) {
+        return delegate.getAddress(personId, addressId);
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return delegate.getAddress(addressId);
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        return deleteAddress(delegate.getAddress(addressId).personId(), addressId);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId) {
+        return delegate.listAddresses(personId);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        return delegate.listAddresses(personId, asOf);
+    }
+
+    @Override
+    public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
+        return delegate.listAddressesFiltered(street, town, state, streetContains);
+    }
+
+    @Override
+    public Employment createEmployment(Employment employment) {
+        return write(() -> delegate.createEmployment(employment), Change::of);
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        return writeAll(() -> delegate.createEmployments(employments), Change::of);
+    }
+
+    @Override
+    public Employment updateEmployment(Employment employment) {
+        return write(() -> delegate.updateEmployment(employment), Change::of);
+    }
+
+    @Override
+    public Employment deleteEmployment(String personId, String employmentId) {
+        return write(() -> delegate.deleteEmployment(personId, employmentId),
+                deleted -> Change.removed(Change.Kind.EMPLOYMENT, personId, employmentId));
+    }
+
+    @Override
+    public Employment getEmployment(String personId, String employmentId) {
+        return delegate.getEmployment(personId, employmentId);
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return delegate.getEmployment(employmentId);
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        return deleteEmployment(delegate.getEmployment(employmentId).personId(), employmentId);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId) {
+        return delegate.listEmployments(personId);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        return delegate.listEmployments(personId, asOf);
+    }
+
+    @Override
+    public List<Employment> listAllEmployments() {
+        return delegate.listAllEmployments();
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        return delegate.listEmploymentsOn(date, companyId);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        return delegate.listEmploymentsOverlapping(from, to, companyId);
+    }
+
+    @Override
+    public List<CompanySummary> listCompanies() {
+        return delegate.listCompanies();
+    }
+
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        return delegate.listCompanyEmployments(companyId);
+    }
+
+    @Override
+    public Relationship createRelationship(Relationship relationship) {
+        return write(() -> delegate.createRelationship(relationship), Change::of);
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        return writeAll(() -> delegate.createRelationships(relationships), Change::of);
+    }
+
+    @Override
+    public Relationship updateRelationship(Relationship relationship) {
+        return write(() -> delegate.updateRelationship(relationship), Change::of);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String personId, String relationshipId) {
+        return write(() -> delegate.deleteRelationship(personId, relationshipId),
+                deleted -> Change.removed(Change.Kind.RELATIONSHIP, personId, relationshipId));
+    }
+
+    @Override
+    public Relationship getRelationship(String personId, String relationshipId) {
+        return delegate.getRelationship(personId, relationshipId);
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return delegate.getRelationship(relationshipId);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        return deleteRelationship(delegate.getRelationship(relationshipId).personId(), relationshipId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId) {
+        return delegate.listRelationships(personId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        return delegate.listRelationships(personId, asOf);
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        return delegate.explain(query);
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        return delegate.getHousehold(personId);
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        return delegate.listHouseholds(minSize);
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return delegate.search(text, limit);
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return delegate.listGeoStats();
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return delegate.findDuplicates(threshold);
+    }
+
+    private <T> T write(Supplier<T> operation, Function<T, Change> change) {
+        writeLock.lock();
+        try {
+            T result = operation.get();
+            if (result != null) {
+                log.append(change.apply(result));
+            }
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private <T> BulkResult<T> writeAll(Supplier<BulkResult<T>> operation, Function<T, Change> change) {
+        writeLock.lock();
+        try {
+            BulkResult<T> result = operation.get();
+            for (T created : result.created()) {
+                log.append(change.apply(created));
+            }
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
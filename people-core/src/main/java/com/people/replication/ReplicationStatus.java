@@ -0,0 +1,17 @@
+package com.people.replication;
+
+public record ReplicationStatus(
+        String role,
+        String logId,
+        long position,
+        long primaryPosition,
+        long lagMillis,
+        int followers,
+        boolean connected,
+        long failures,
+        String lastFailure
+) {
+    public long lagEntries() {
+        return Math.max(0, primaryPosition - position);
+    }
+}
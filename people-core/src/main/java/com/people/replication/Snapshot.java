@@ -0,0 +1,6 @@
+package com.people.replication;
+
+import java.util.List;
+
+public record Snapshot(long position, List<Change> changes) {
+}
@@ -8,7 +8,7 @@ import java.util.Optional;
 public interface AddressRepository {
     void create(Address address);
 
-    void update(Address address);
+    Address update(Address address);
 
     Address delete(String personId, String addressId);
 
@@ -18,7 +18,9 @@ public interface AddressRepository {
 
     List<Address> listAll();
 
-    void deleteAllForPerson(String personId);
+    List<Address> deleteAllForPerson(String personId);
 
     boolean exists(String personId, String addressId);
+
+    int count();
 }
@@ -0,0 +1,32 @@
+package com.people.repo;
+
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Money;
+
+record AddressRow(
+        String id,
+        String personId,
+        String address,
+        String town,
+        String state,
+        AddressType type,
+        String description,
+        boolean owns,
+        boolean primary,
+        long monthlyPaymentCents,
+        int bedrooms,
+        int bathrooms,
+        long version
+) {
+    static AddressRow of(Address address) {
+        return new AddressRow(address.id(), address.personId(), address.address(), address.town(),
+                address.state(), address.type(), address.description(), address.owns(), address.primary(),
+                Money.toCents(address.monthlyPayment()), address.bedrooms(), address.bathrooms(), address.version());
+    }
+
+    Address toAddress() {
+        return new Address(id, personId, address, town, state, type, description, owns, primary,
+                Money.fromCents(monthlyPaymentCents), bedrooms, bathrooms, version);
+    }
+}
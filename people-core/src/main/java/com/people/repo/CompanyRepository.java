@@ -0,0 +1,16 @@
+package com.people.repo;
+
+import com.people.domain.Company;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CompanyRepository {
+    Company findOrCreate(String name, String address);
+
+    void register(Company company);
+
+    Optional<Company> find(String id);
+
+    List<Company> list();
+}
@@ -0,0 +1,87 @@
+package com.people.repo;
+
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
+import com.people.domain.Address;
+import com.people.storage.BTree;
+import com.people.storage.BTreeStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public final class DiskAddressRepository implements AddressRepository {
+    private final BTree addresses;
+
+    public DiskAddressRepository(BTreeStore store) {
+        this.addresses = store.tree("addresses");
+    }
+
+    @Override
+    public void create(Address address) {
+        addresses.put(DiskRecords.key(address.personId(), address.id()), DiskRecords.encode(address));
+    }
+
+    @Override
+    public Address update(Address address) {
+        Address next = address.withVersion(address.version() + 1);
+        byte[] stored = addresses.update(DiskRecords.key(address.personId(), address.id()), bytes -> {
+            if (bytes == null) {
+                throw new NotFoundException("address not found");
+            }
+            Address current = DiskRecords.decodeAddress(bytes);
+            if (current.version() != address.version()) {
+                throw new VersionConflictException("address", address.version(), current.version());
+            }
+            return DiskRecords.encode(next);
+        });
+        return DiskRecords.decodeAddress(stored);
+    }
+
+    @Override
+    public Address delete(String personId, String addressId) {
+        byte[] removed = addresses.remove(DiskRecords.key(personId, addressId));
+        return removed == null ? null : DiskRecords.decodeAddress(removed);
+    }
+
+    @Override
+    public Optional<Address> find(String personId, String addressId) {
+        return Optional.ofNullable(addresses.get(DiskRecords.key(personId, addressId)))
+                .map(DiskRecords::decodeAddress);
+    }
+
+    @Override
+    public List<Address> list(String personId) {
+        return decode(DiskRecords.prefix(personId));
+    }
+
+    @Override
+    public List<Address> listAll() {
+        return decode(DiskRecords.empty());
+    }
+
+    @Override
+    public List<Address> deleteAllForPerson(String personId) {
+        List<Address> removed = new ArrayList<>();
+        for (byte[] value : addresses.removePrefix(DiskRecords.prefix(personId))) {
+            removed.add(DiskRecords.decodeAddress(value));
+        }
+        return removed;
+    }
+
+    @Override
+    public int count() {
+        return (int) addresses.size();
+    }
+
+    @Override
+    public boolean exists(String personId, String addressId) {
+        return addresses.contains(DiskRecords.key(personId, addressId));
+    }
+
+    private List<Address> decode(byte[] prefix) {
+        List<Address> result = new ArrayList<>();
+        addresses.scan(prefix, (key, value) -> result.add(DiskRecords.decodeAddress(value)));
+        return result;
+    }
+}
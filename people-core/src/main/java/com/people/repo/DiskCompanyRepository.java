@@ -0,0 +1,64 @@
+package com.people.repo;
+
+import com.people.domain.Company;
+import com.people.storage.BTree;
+import com.people.storage.BTreeStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class DiskCompanyRepository implements CompanyRepository {
+    private final BTree tree;
+    private final Map<String, Company> companies = new ConcurrentHashMap<>();
+    private final Map<String, Company> companiesByKey = new ConcurrentHashMap<>();
+
+    public DiskCompanyRepository(BTreeStore store) {
+        this.tree = store.tree("companies");
+        tree.scan(DiskRecords.empty(), (key, value) -> {
+            Company company = DiskRecords.decodeCompany(value);
+            companies.put(company.id(), company);
+            companiesByKey.put(key(company.name(), company.address()), company);
+        });
+    }
+
+    @Override
+    public Company findOrCreate(String name, String address) {
+        Company existing = companiesByKey.get(key(name, address));
+        if (existing != null) {
+            return existing;
+        }
+        return companiesByKey.computeIfAbsent(key(name, address), key -> {
+            Company company = new Company(Company.idFor(name, address), name, address);
+            tree.put(DiskRecords.key(company.id()), DiskRecords.encode(company));
+            companies.put(company.id(), company);
+            return company;
+        });
+    }
+
+    @Override
+    public void register(Company company) {
+        companiesByKey.computeIfAbsent(key(company.name(), company.address()), key -> company);
+        companies.computeIfAbsent(company.id(), id -> {
+            tree.put(DiskRecords.key(id), DiskRecords.encode(company));
+            return company;
+        });
+    }
+
+    @Override
+    public Optional<Company> find(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(companies.get(id));
+    }
+
+    @Override
+    public List<Company> list() {
+        return new ArrayList<>(companies.values());
+    }
+
+    private static String key(String name, String address) {
+        return name.toLowerCase(Locale.ROOT) + '\n' + address.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,169 @@
+package com.people.repo;
+
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
+import com.people.domain.Company;
+import com.people.domain.Employment;
+import com.people.storage.BTree;
+import com.people.storage.BTreeStore;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public final class DiskEmploymentRepository implements EmploymentRepository {
+    private final CompanyRepository companies;
+    private final BTree employment;
+    private final BTree employmentByCompany;
+
+    public DiskEmploymentRepository(BTreeStore store, CompanyRepository companies) {
+        this.companies = companies;
+        this.employment = store.tree("employment");
+        this.employmentByCompany = store.tree("employment-by-company");
+    }
+
+    @Override
+    public void create(Employment employment) {
+        Employment row = normalize(employment);
+        index(row);
+        byte[] previous = this.employment.put(DiskRecords.key(row.personId(), row.id()), DiskRecords.encode(row));
+        if (previous != null) {
+            Employment replaced = decode(previous);
+            if (!replaced.companyId().equals(row.companyId())) {
+                unindex(replaced);
+            }
+        }
+    }
+
+    @Override
+    public Employment update(Employment employment) {
+        Employment next = normalize(employment.withVersion(employment.version() + 1));
+        Employment[] previous = new Employment[1];
+        index(next);
+        byte[] stored;
+        try {
+            stored = this.employment.update(DiskRecords.key(employment.personId(), employment.id()), bytes -> {
+                if (bytes == null) {
+                    throw new NotFoundException("employment not found");
+                }
+                previous[0] = decode(bytes);
+                if (previous[0].version() != employment.version()) {
+                    throw new VersionConflictException("employment", employment.version(), previous[0].version());
+                }
+                return DiskRecords.encode(next);
+            });
+        } catch (IllegalArgumentException ex) {
+            if (previous[0] == null || !previous[0].companyId().equals(next.companyId())) {
+                unindex(next);
+            }
+            throw ex;
+        }
+        if (!previous[0].companyId().equals(next.companyId())) {
+            unindex(previous[0]);
+        }
+        return decode(stored);
+    }
+
+    @Override
+    public Employment delete(String personId, String employmentId) {
+        byte[] removed = employment.remove(DiskRecords.key(personId, employmentId));
+        if (removed == null) {
+            return null;
+        }
+        Employment row = decode(removed);
+        unindex(row);
+        return row;
+    }
+
+    @Override
+    public Optional<Employment> find(String personId, String employmentId) {
+        return Optional.ofNullable(employment.get(DiskRecords.key(personId, employmentId))).map(this::decode);
+    }
+
+    @Override
+    public List<Employment> list(String personId) {
+        return scan(DiskRecords.prefix(personId));
+    }
+
+    @Override
+    public List<Employment> listAll() {
+        return scan(DiskRecords.empty());
+    }
+
+    @Override
+    public List<Employment> listByCompany(String companyId) {
+        if (companyId == null) {
+            return List.of();
+        }
+        List<Employment> result = new ArrayList<>();
+        for (byte[] key : employmentByCompany.keys(DiskRecords.prefix(companyId))) {
+            List<String> parts = DiskRecords.parts(key);
+            byte[] row = employment.get(DiskRecords.key(parts.get(1), parts.get(2)));
+            if (row != null) {
+                Employment found = decode(row);
+                if (found.companyId().equals(companyId)) {
+                    result.add(found);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int countEmployees(String companyId) {
+        Set<String> personIds = new HashSet<>();
+        for (Employment row : listByCompany(companyId)) {
+            personIds.add(row.personId());
+        }
+        return personIds.size();
+    }
+
+    @Override
+    public List<Employment> deleteAllForPerson(String personId) {
+        List<Employment> removed = new ArrayList<>();
+        for (byte[] value : employment.removePrefix(DiskRecords.prefix(personId))) {
+            Employment row = decode(value);
+            unindex(row);
+            removed.add(row);
+        }
+        return removed;
+    }
+
+    @Override
+    public int count() {
+        return (int) employment.size();
+    }
+
+    @Override
+    public boolean exists(String personId, String employmentId) {
+        return employment.contains(DiskRecords.key(personId, employmentId));
+    }
+
+    private List<Employment> scan(byte[] prefix) {
+        List<Employment> result = new ArrayList<>();
+        employment.scan(prefix, (key, value) -> result.add(decode(value)));
+        return result;
+    }
+
+    private Employment normalize(Employment employment) {
+        return employment.withCompany(company(employment.companyId()));
+    }
+
+    private Employment decode(byte[] bytes) {
+        return DiskRecords.decodeEmployment(bytes, this::company);
+    }
+
+    private Company company(String companyId) {
+        return companies.find(companyId).orElseThrow(() -> new NotFoundException("company not found"));
+    }
+
+    private void index(Employment row) {
+        employmentByCompany.put(DiskRecords.key(row.companyId(), row.personId(), row.id()), DiskRecords.empty());
+    }
+
+    private void unindex(Employment row) {
+        employmentByCompany.remove(DiskRecords.key(row.companyId(), row.personId(), row.id()));
+    }
+}
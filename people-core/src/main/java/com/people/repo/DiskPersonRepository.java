@@ -0,0 +1,68 @@
+package com.people.repo;
+
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
+import com.people.domain.Person;
+import com.people.storage.BTree;
+import com.people.storage.BTreeStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public final class DiskPersonRepository implements PersonRepository {
+    private final BTree people;
+
+    public DiskPersonRepository(BTreeStore store) {
+        this.people = store.tree("people");
+    }
+
+    @Override
+    public void create(Person person) {
+        people.put(DiskRecords.key(person.id()), DiskRecords.encode(person));
+    }
+
+    @Override
+    public Person update(Person person) {
+        Person next = person.withVersion(person.version() + 1);
+        byte[] stored = people.update(DiskRecords.key(person.id()), bytes -> {
+            if (bytes == null) {
+                throw new NotFoundException("person not found");
+            }
+            Person current = DiskRecords.decodePerson(bytes);
+            if (current.version() != person.version()) {
+                throw new VersionConflictException("person", person.version(), current.version());
+            }
+            return DiskRecords.encode(next);
+        });
+        return DiskRecords.decodePerson(stored);
+    }
+
+    @Override
+    public Person delete(String id) {
+        byte[] removed = people.remove(DiskRecords.key(id));
+        return removed == null ? null : DiskRecords.decodePerson(removed);
+    }
+
+    @Override
+    public Optional<Person> find(String id) {
+        return Optional.ofNullable(people.get(DiskRecords.key(id))).map(DiskRecords::decodePerson);
+    }
+
+    @Override
+    public List<Person> list() {
+        List<Person> result = new ArrayList<>();
+        people.scan(DiskRecords.empty(), (key, value) -> result.add(DiskRecords.decodePerson(value)));
+        return result;
+    }
+
+    @Override
+    public int count() {
+        return (int) people.size();
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return people.contains(DiskRecords.key(id));
+    }
+}
@@ -0,0 +1,272 @@
+package com.people.repo;
+
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Company;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.Money;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+final class DiskRecords {
+    private static final byte SEPARATOR = 0;
+    private static final byte[] EMPTY = new byte[0];
+
+    private DiskRecords() {
+    }
+
+    static byte[] key(String... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                out.write(SEPARATOR);
+            }
+            out.writeBytes(parts[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] prefix(String... parts) {
+        return key(append(parts, ""));
+    }
+
+    static List<String> parts(byte[] key) {
+        List<String> parts = new ArrayList<>(3);
+        int start = 0;
+        for (int i = 0; i <= key.length; i++) {
+            if (i == key.length || key[i] == SEPARATOR) {
+                parts.add(new String(key, start, i - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        return parts;
+    }
+
+    static byte[] empty() {
+        return EMPTY;
+    }
+
+    static byte[] encode(Person person) {
+        Writer out = new Writer();
+        out.string(person.id());
+        out.string(person.firstName());
+        out.string(person.middleName());
+        out.string(person.lastName());
+        out.date(person.dateOfBirth());
+        out.constant(person.gender());
+        out.constant(person.preferredGender() == null ? null : person.preferredGender().type());
+        out.string(person.preferredGender() == null ? null : person.preferredGender().otherLabel());
+        out.string(person.pictureHash());
+        out.number(person.version());
+        return out.bytes();
+    }
+
+    static Person decodePerson(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        String id = in.string();
+        String firstName = in.string();
+        String middleName = in.string();
+        String lastName = in.string();
+        LocalDate dateOfBirth = in.date();
+        Gender gender = in.constant(Gender.class);
+        PreferredGenderType preferredType = in.constant(PreferredGenderType.class);
+        String otherLabel = in.string();
+        PreferredGender preferredGender = preferredType == null ? null
+                : preferredType == PreferredGenderType.OTHER ? PreferredGender.other(otherLabel)
+                : PreferredGender.of(preferredType);
+        return new Person(id, firstName, middleName, lastName, dateOfBirth, gender, preferredGender, in.string(),
+                in.number());
+    }
+
+    static byte[] encode(Address address) {
+        Writer out = new Writer();
+        out.string(address.id());
+        out.string(address.personId());
+        out.string(address.address());
+        out.string(address.town());
+        out.string(address.state());
+        out.constant(address.type());
+        out.string(address.description());
+        out.flag(address.owns());
+        out.flag(address.primary());
+        out.number(Money.toCents(address.monthlyPayment()));
+        out.number(address.bedrooms());
+        out.number(address.bathrooms());
+        out.number(address.version());
+        return out.bytes();
+    }
+
+    static Address decodeAddress(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        return new Address(in.string(), in.string(), in.string(), in.string(), in.string(),
+                in.constant(AddressType.class), in.string(), in.flag(), in.flag(), Money.fromCents(in.number()),
+                (int) in.number(), (int) in.number(), in.number());
+    }
+
+    static byte[] encode(Employment employment) {
+        Writer out = new Writer();
+        out.string(employment.id());
+        out.string(employment.personId());
+        out.string(employment.companyId());
+        out.string(employment.description());
+        out.string(employment.jobTitle());
+        out.constant(employment.payType());
+        out.number(Money.toCents(employment.rateOfPay()));
+        out.flag(employment.currentEmployer());
+        out.date(employment.startDate());
+        out.date(employment.endDate());
+        out.number(employment.version());
+        return out.bytes();
+    }
+
+    static Employment decodeEmployment(byte[] bytes, Function<String, Company> companies) {
+        Reader in = new Reader(bytes);
+        String id = in.string();
+        String personId = in.string();
+        Company company = companies.apply(in.string());
+        return new Employment(id, personId, company.id(), company.name(), in.string(), company.address(),
+                in.string(), in.constant(PayType.class), Money.fromCents(in.number()), in.flag(), in.date(),
+                in.date(), in.number());
+    }
+
+    static byte[] encode(Relationship relationship) {
+        Writer out = new Writer();
+        out.string(relationship.id());
+        out.string(relationship.personId());
+        out.string(relationship.relatedPersonId());
+        out.constant(relationship.type());
+        out.number(relationship.version());
+        return out.bytes();
+    }
+
+    static Relationship decodeRelationship(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        return new Relationship(in.string(), in.string(), in.string(), in.constant(RelationshipType.class),
+                in.number());
+    }
+
+    static byte[] encode(Company company) {
+        Writer out = new Writer();
+        out.string(company.id());
+        out.string(company.name());
+        out.string(company.address());
+        return out.bytes();
+    }
+
+    static Company decodeCompany(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        return new Company(in.string(), in.string(), in.string());
+    }
+
+    private static String[] append(String[] parts, String last) {
+        String[] all = new String[parts.length + 1];
+        System.arraycopy(parts, 0, all, 0, parts.length);
+        all[parts.length] = last;
+        return all;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        void string(String value) {
+            try {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeUTF(value);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        void constant(Enum<?> value) {
+            string(value == null ? null : value.name());
+        }
+
+        void date(LocalDate value) {
+            flag(value != null);
+            if (value != null) {
+                number(value.toEpochDay());
+            }
+        }
+
+        void flag(boolean value) {
+            try {
+                out.writeBoolean(value);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        void number(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        byte[] bytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+
+        Reader(byte[] bytes) {
+            this.in = new DataInputStream(new ByteArrayInputStream(bytes));
+        }
+
+        String string() {
+            try {
+                return in.readBoolean() ? in.readUTF() : null;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("corrupt record", ex);
+            }
+        }
+
+        <E extends Enum<E>> E constant(Class<E> type) {
+            String name = string();
+            return name == null ? null : Enum.valueOf(type, name);
+        }
+
+        LocalDate date() {
+            return flag() ? LocalDate.ofEpochDay(number()) : null;
+        }
+
+        boolean flag() {
+            try {
+                return in.readBoolean();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("corrupt record", ex);
+            }
+        }
+
+        long number() {
+            try {
+                return in.readLong();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("corrupt record", ex);
+            }
+        }
+    }
+}
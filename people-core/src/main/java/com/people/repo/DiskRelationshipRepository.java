@@ -0,0 +1,140 @@
+package com.people.repo;
+
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
+import com.people.domain.Relationship;
+import com.people.storage.BTree;
+import com.people.storage.BTreeStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public final class DiskRelationshipRepository implements RelationshipRepository {
+    private final BTree relationships;
+    private final BTree relationshipsByRelated;
+
+    public DiskRelationshipRepository(BTreeStore store) {
+        this.relationships = store.tree("relationships");
+        this.relationshipsByRelated = store.tree("relationships-by-related");
+    }
+
+    @Override
+    public void create(Relationship relationship) {
+        index(relationship);
+        byte[] previous = relationships.put(DiskRecords.key(relationship.personId(), relationship.id()),
+                DiskRecords.encode(relationship));
+        if (previous != null) {
+            Relationship replaced = DiskRecords.decodeRelationship(previous);
+            if (!replaced.relatedPersonId().equals(relationship.relatedPersonId())) {
+                unindex(replaced);
+            }
+        }
+    }
+
+    @Override
+    public Relationship update(Relationship relationship) {
+        Relationship next = relationship.withVersion(relationship.version() + 1);
+        Relationship[] previous = new Relationship[1];
+        index(next);
+        try {
+            relationships.update(DiskRecords.key(relationship.personId(), relationship.id()), bytes -> {
+                if (bytes == null) {
+                    throw new NotFoundException("relationship not found");
+                }
+                previous[0] = DiskRecords.decodeRelationship(bytes);
+                if (previous[0].version() != relationship.version()) {
+                    throw new VersionConflictException("relationship", relationship.version(),
+                            previous[0].version());
+                }
+                return DiskRecords.encode(next);
+            });
+        } catch (IllegalArgumentException ex) {
+            if (previous[0] == null || !previous[0].relatedPersonId().equals(next.relatedPersonId())) {
+                unindex(next);
+            }
+            throw ex;
+        }
+        if (!previous[0].relatedPersonId().equals(next.relatedPersonId())) {
+            unindex(previous[0]);
+        }
+        return next;
+    }
+
+    @Override
+    public Relationship delete(String personId, String relationshipId) {
+        byte[] removed = relationships.remove(DiskRecords.key(personId, relationshipId));
+        if (removed == null) {
+            return null;
+        }
+        Relationship relationship = DiskRecords.decodeRelationship(removed);
+        unindex(relationship);
+        return relationship;
+    }
+
+    @Override
+    public Optional<Relationship> find(String personId, String relationshipId) {
+        return Optional.ofNullable(relationships.get(DiskRecords.key(personId, relationshipId)))
+                .map(DiskRecords::decodeRelationship);
+    }
+
+    @Override
+    public List<Relationship> list(String personId) {
+        return decode(DiskRecords.prefix(personId));
+    }
+
+    @Override
+    public List<Relationship> listAll() {
+        return decode(DiskRecords.empty());
+    }
+
+    @Override
+    public List<Relationship> deleteAllForPerson(String personId) {
+        List<Relationship> removed = new ArrayList<>();
+        for (byte[] value : relationships.removePrefix(DiskRecords.prefix(personId))) {
+            Relationship relationship = DiskRecords.decodeRelationship(value);
+            unindex(relationship);
+            removed.add(relationship);
+        }
+        return removed;
+    }
+
+    @Override
+    public List<Relationship> deleteAllRelatedTo(String personId) {
+        List<Relationship> removed = new ArrayList<>();
+        for (byte[] key : relationshipsByRelated.keys(DiskRecords.prefix(personId))) {
+            List<String> parts = DiskRecords.parts(key);
+            byte[] primary = DiskRecords.key(parts.get(1), parts.get(2));
+            byte[] value = relationships.get(primary);
+            if (value != null && DiskRecords.decodeRelationship(value).relatedPersonId().equals(personId)) {
+                byte[] deleted = relationships.remove(primary);
+                if (deleted != null) {
+                    removed.add(DiskRecords.decodeRelationship(deleted));
+                }
+            }
+            relationshipsByRelated.remove(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean exists(String personId, String relationshipId) {
+        return relationships.contains(DiskRecords.key(personId, relationshipId));
+    }
+
+    private List<Relationship> decode(byte[] prefix) {
+        List<Relationship> result = new ArrayList<>();
+        relationships.scan(prefix, (key, value) -> result.add(DiskRecords.decodeRelationship(value)));
+        return result;
+    }
+
+    private void index(Relationship relationship) {
+        relationshipsByRelated.put(DiskRecords.key(relationship.relatedPersonId(), relationship.personId(),
+                relationship.id()), DiskRecords.empty());
+    }
+
+    private void unindex(Relationship relationship) {
+        relationshipsByRelated.remove(DiskRecords.key(relationship.relatedPersonId(), relationship.personId(),
+                relationship.id()));
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Optional;
 public interface EmploymentRepository {
     void create(Employment employment);
 
-    void update(Employment employment);
+    Employment update(Employment employment);
 
     Employment delete(String personId, String employmentId);
 
@@ -18,7 +18,13 @@ public interface EmploymentRepository {
 
     List<Employment> listAll();
 
-    void deleteAllForPerson(String personId);
+    List<Employment> listByCompany(String companyId);
+
+    int countEmployees(String companyId);
+
+    List<Employment> deleteAllForPerson(String personId);
 
     boolean exists(String personId, String employmentId);
+
+    int count();
 }
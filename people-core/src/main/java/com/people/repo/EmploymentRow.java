@@ -0,0 +1,33 @@
+package com.people.repo;
+
+import com.people.domain.Company;
+import com.people.domain.Employment;
+import com.people.domain.Money;
+import com.people.domain.PayType;
+
+import java.time.LocalDate;
+
+record EmploymentRow(
+        String id,
+        String personId,
+        Company company,
+        String description,
+        String jobTitle,
+        PayType payType,
+        long rateOfPayCents,
+        boolean currentEmployer,
+        LocalDate startDate,
+        LocalDate endDate,
+        long version
+) {
+    static EmploymentRow of(Employment employment, Company company) {
+        return new EmploymentRow(employment.id(), employment.personId(), company, employment.description(),
+                employment.jobTitle(), employment.payType(), Money.toCents(employment.rateOfPay()),
+                employment.currentEmployer(), employment.startDate(), employment.endDate(), employment.version());
+    }
+
+    Employment toEmployment() {
+        return new Employment(id, personId, company.id(), company.name(), description, company.address(), jobTitle,
+                payType, Money.fromCents(rateOfPayCents), currentEmployer, startDate, endDate, version);
+    }
+}
@@ -0,0 +1,93 @@
+package com.people.repo;
+
+import com.people.storage.CuckooFilter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+final class ExistenceFilter {
+    private static final int MIN_CAPACITY = 1024;
+
+    private final String name;
+    private final Supplier<List<String>> storedKeys;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile CuckooFilter filter;
+
+    ExistenceFilter(String name, Supplier<List<String>> storedKeys) {
+        this.name = name;
+        this.storedKeys = storedKeys;
+        rebuild(null);
+    }
+
+    static String key(String personId, String childId) {
+        return personId + '\0' + childId;
+    }
+
+    boolean mightContain(String key) {
+        return key != null && filter.mightContain(key);
+    }
+
+    boolean exists(String key, BooleanSupplier storage) {
+        probes.increment();
+        if (!mightContain(key)) {
+            skipped.increment();
+            return false;
+        }
+        if (storage.getAsBoolean()) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    synchronized void insert(String key, Runnable write) {
+        if (!filter.add(key)) {
+            rebuild(key);
+        }
+        write.run();
+    }
+
+    synchronized <T> T delete(String key, Supplier<T> write) {
+        T removed = write.get();
+        if (removed != null) {
+            filter.remove(key);
+        }
+        return removed;
+    }
+
+    synchronized <T> List<T> deleteAll(Supplier<List<T>> write, Function<List<T>, List<String>> keys) {
+        List<T> removed = write.get();
+        for (String key : keys.apply(removed)) {
+            filter.remove(key);
+        }
+        return removed;
+    }
+
+    FilterStats stats() {
+        CuckooFilter current = filter;
+        return new FilterStats(name, current.size(), current.capacity(), current.memoryBytes(),
+                current.expectedFalsePositiveRate(), probes.sum(), skipped.sum(), falsePositives.sum());
+    }
+
+    private void rebuild(String extra) {
+        List<String> keys = storedKeys.get();
+        int capacity = Math.max(MIN_CAPACITY, (keys.size() + 1) * 2);
+        while (true) {
+            CuckooFilter next = new CuckooFilter(capacity);
+            boolean complete = extra == null || next.add(extra);
+            for (int i = 0; complete && i < keys.size(); i++) {
+                complete = next.add(keys.get(i));
+            }
+            if (complete) {
+                filter = next;
+                return;
+            }
+            capacity *= 2;
+        }
+    }
+}
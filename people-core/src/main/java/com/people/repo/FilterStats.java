@@ -0,0 +1,17 @@
+package com.people.repo;
+
+public record FilterStats(
+        String name,
+        int entries,
+        int capacity,
+        long memoryBytes,
+        double expectedFalsePositiveRate,
+        long probes,
+        long skipped,
+        long falsePositives
+) {
+    public double observedFalsePositiveRate() {
+        long negatives = skipped + falsePositives;
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+}
@@ -0,0 +1,72 @@
+package com.people.repo;
+
+import com.people.domain.Address;
+
+import java.util.List;
+import java.util.Optional;
+
+public final class FilteredAddressRepository implements AddressRepository, FilteredRepository {
+    private final AddressRepository delegate;
+    private final ExistenceFilter filter;
+
+    public FilteredAddressRepository(AddressRepository delegate) {
+        this.delegate = delegate;
+        this.filter = new ExistenceFilter("addresses", () -> keys(delegate.listAll()));
+    }
+
+    @Override
+    public void create(Address address) {
+        filter.insert(ExistenceFilter.key(address.personId(), address.id()), () -> delegate.create(address));
+    }
+
+    @Override
+    public Address update(Address address) {
+        return delegate.update(address);
+    }
+
+    @Override
+    public Address delete(String personId, String addressId) {
+        return filter.delete(ExistenceFilter.key(personId, addressId), () -> delegate.delete(personId, addressId));
+    }
+
+    @Override
+    public Optional<Address> find(String personId, String addressId) {
+        return filter.mightContain(ExistenceFilter.key(personId, addressId))
+                ? delegate.find(personId, addressId)
+                : Optional.empty();
+    }
+
+    @Override
+    public List<Address> list(String personId) {
+        return delegate.list(personId);
+    }
+
+    @Override
+    public List<Address> listAll() {
+        return delegate.listAll();
+    }
+
+    @Override
+    public List<Address> deleteAllForPerson(String personId) {
+        return filter.deleteAll(() -> delegate.deleteAllForPerson(personId), FilteredAddressRepository::keys);
+    }
+
+    @Override
+    public boolean exists(String personId, String addressId) {
+        return filter.exists(ExistenceFilter.key(personId, addressId), () -> delegate.exists(personId, addressId));
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public FilterStats filterStats() {
+        return filter.stats();
+    }
+
+    private static List<String> keys(List<Address> addresses) {
+        return addresses.stream().map(address -> ExistenceFilter.key(address.personId(), address.id())).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.people.repo;
+
+import com.people.domain.Employment;
+
+import java.util.List;
+import java.util.Optional;
+
+public final class FilteredEmploymentRepository implements EmploymentRepository, FilteredRepository {
+    private final EmploymentRepository delegate;
+    private final ExistenceFilter filter;
+
+    public FilteredEmploymentRepository(EmploymentRepository delegate) {
+        this.delegate = delegate;
+        this.filter = new ExistenceFilter("employment", () -> keys(delegate.listAll()));
+    }
+
+    @Override
+    public void create(Employment employment) {
+        filter.insert(ExistenceFilter.key(employment.personId(), employment.id()), () -> delegate.create(employment));
+    }
+
+    @Override
+    public Employment update(Employment employment) {
+        return delegate.update(employment);
+    }
+
+    @Override
+    public Employment delete(String personId, String employmentId) {
+        return filter.delete(ExistenceFilter.key(personId, employmentId),
+                () -> delegate.delete(personId, employmentId));
+    }
+
+    @Override
+    public Optional<Employment> find(String personId, String employmentId) {
+        return filter.mightContain(ExistenceFilter.key(personId, employmentId))
+                ? delegate.find(personId, employmentId)
+                : Optional.empty();
+    }
+
+    @Override
+    public List<Employment> list(String personId) {
+        return delegate.list(personId);
+    }
+
+    @Override
+    public List<Employment> listAll() {
+        return delegate.listAll();
+    }
+
+    @Override
+    public List<Employment> listByCompany(String companyId) {
+        return delegate.listByCompany(companyId);
+    }
+
+    @Override
+    public int countEmployees(String companyId) {
+        return delegate.countEmployees(companyId);
+    }
+
+    @Override
+    public List<Employment> deleteAllForPerson(String personId) {
+        return filter.deleteAll(() -> delegate.deleteAllForPerson(personId), FilteredEmploymentRepository::keys);
+    }
+
+    @Override
+    public boolean exists(String personId, String employmentId) {
+        return filter.exists(ExistenceFilter.key(personId, employmentId),
+                () -> delegate.exists(personId, employmentId));
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public FilterStats filterStats() {
+        return filter.stats();
+    }
+
+    private static List<String> keys(List<Employment> employments) {
+        return employments.stream()
+                .map(employment -> ExistenceFilter.key(employment.personId(), employment.id()))
+                .toList();
+    }
+}
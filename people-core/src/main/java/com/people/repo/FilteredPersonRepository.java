@@ -0,0 +1,56 @@
+package com.people.repo;
+
+import com.people.domain.Person;
+
+import java.util.List;
+import java.util.Optional;
+
+public final class FilteredPersonRepository implements PersonRepository, FilteredRepository {
+    private final PersonRepository delegate;
+    private final ExistenceFilter filter;
+
+    public FilteredPersonRepository(PersonRepository delegate) {
+        this.delegate = delegate;
+        this.filter = new ExistenceFilter("people", () -> delegate.list().stream().map(Person::id).toList());
+    }
+
+    @Override
+    public void create(Person person) {
+        filter.insert(person.id(), () -> delegate.create(person));
+    }
+
+    @Override
+    public Person update(Person person) {
+        return delegate.update(person);
+    }
+
+    @Override
+    public Person delete(String id) {
+        return filter.delete(id, () -> delegate.delete(id));
+    }
+
+    @Override
+    public Optional<Person> find(String id) {
+        return filter.mightContain(id) ? delegate.find(id) : Optional.empty();
+    }
+
+    @Override
+    public List<Person> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return filter.exists(id, () -> delegate.exists(id));
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public FilterStats filterStats() {
+        return filter.stats();
+    }
+}
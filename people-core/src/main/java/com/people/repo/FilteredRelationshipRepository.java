@@ -0,0 +1,77 @@
+package com.people.repo;
+
+import com.people.domain.Relationship;
+
+import java.util.List;
+import java.util.Optional;
+
+public final class FilteredRelationshipRepository implements RelationshipRepository, FilteredRepository {
+    private final RelationshipRepository delegate;
+    private final ExistenceFilter filter;
+
+    public FilteredRelationshipRepository(RelationshipRepository delegate) {
+        this.delegate = delegate;
+        this.filter = new ExistenceFilter("relationships", () -> keys(delegate.listAll()));
+    }
+
+    @Override
+    public void create(Relationship relationship) {
+        filter.insert(ExistenceFilter.key(relationship.personId(), relationship.id()),
+                () -> delegate.create(relationship));
+    }
+
+    @Override
+    public Relationship update(Relationship relationship) {
+        return delegate.update(relationship);
+    }
+
+    @Override
+    public Relationship delete(String personId, String relationshipId) {
+        return filter.delete(ExistenceFilter.key(personId, relationshipId),
+                () -> delegate.delete(personId, relationshipId));
+    }
+
+    @Override
+    public Optional<Relationship> find(String personId, String relationshipId) {
+        return filter.mightContain(ExistenceFilter.key(personId, relationshipId))
+                ? delegate.find(personId, relationshipId)
+                : Optional.empty();
+    }
+
+    @Override
+    public List<Relationship> list(String personId) {
+        return delegate.list(personId);
+    }
+
+    @Override
+    public List<Relationship> listAll() {
+        return delegate.listAll();
+    }
+
+    @Override
+    public List<Relationship> deleteAllForPerson(String personId) {
+        return filter.deleteAll(() -> delegate.deleteAllForPerson(personId), FilteredRelationshipRepository::keys);
+    }
+
+    @Override
+    public List<Relationship> deleteAllRelatedTo(String personId) {
+        return filter.deleteAll(() -> delegate.deleteAllRelatedTo(personId), FilteredRelationshipRepository::keys);
+    }
+
+    @Override
+    public boolean exists(String personId, String relationshipId) {
+        return filter.exists(ExistenceFilter.key(personId, relationshipId),
+                () -> delegate.exists(personId, relationshipId));
+    }
+
+    @Override
+    public FilterStats filterStats() {
+        return filter.stats();
+    }
+
+    private static List<String> keys(List<Relationship> relationships) {
+        return relationships.stream()
+                .map(relationship -> ExistenceFilter.key(relationship.personId(), relationship.id()))
+                .toList();
+    }
+}
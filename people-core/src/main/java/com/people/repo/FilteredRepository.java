@@ -0,0 +1,5 @@
+package com.people.repo;
+
+public interface FilteredRepository {
+    FilterStats filterStats();
+}
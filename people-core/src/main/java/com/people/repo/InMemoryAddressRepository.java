@@ -1,5 +1,7 @@
 package com.people.repo;
 
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
 import com.people.domain.Address;
 
 import java.util.ArrayList;
@@ -7,68 +9,110 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class InMemoryAddressRepository implements AddressRepository {
-    private final Map<String, Map<String, Address>> addressesByPerson = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AddressRow>> addressesByPerson = new ConcurrentHashMap<>();
+    private final LongAdder rowCount = new LongAdder();
 
     @Override
     public void create(Address address) {
-        addressesByPerson
+        AddressRow previous = addressesByPerson
                 .computeIfAbsent(address.personId(), key -> new ConcurrentHashMap<>())
-                .put(address.id(), address);
+                .put(address.id(), AddressRow.of(address));
+        if (previous == null) {
+            rowCount.increment();
+        }
     }
 
     @Override
-    public void update(Address address) {
-        addressesByPerson
-                .computeIfAbsent(address.personId(), key -> new ConcurrentHashMap<>())
-                .put(address.id(), address);
+    public Address update(Address address) {
+        Map<String, AddressRow> rows = addressesByPerson.get(address.personId());
+        AddressRow next = AddressRow.of(address.withVersion(address.version() + 1));
+        while (true) {
+            AddressRow current = rows == null ? null : rows.get(address.id());
+            if (current == null) {
+                throw new NotFoundException("address not found");
+            }
+            if (current.version() != address.version()) {
+                throw new VersionConflictException("address", address.version(), current.version());
+            }
+            if (rows.replace(address.id(), current, next)) {
+                return next.toAddress();
+            }
+        }
     }
 
     @Override
     public Address delete(String personId, String addressId) {
-        Map<String, Address> addresses = addressesByPerson.get(personId);
+        Map<String, AddressRow> addresses = addressesByPerson.get(personId);
         if (addresses == null) {
             return null;
         }
-        return addresses.remove(addressId);
+        AddressRow removed = addresses.remove(addressId);
+        if (removed == null) {
+            return null;
+        }
+        rowCount.decrement();
+        return removed.toAddress();
     }
 
     @Override
     public Optional<Address> find(String personId, String addressId) {
-        Map<String, Address> addresses = addressesByPerson.get(personId);
+        Map<String, AddressRow> addresses = addressesByPerson.get(personId);
         if (addresses == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(addresses.get(addressId));
+        AddressRow row = addresses.get(addressId);
+        return row == null ? Optional.empty() : Optional.of(row.toAddress());
     }
 
     @Override
     public List<Address> list(String personId) {
-        Map<String, Address> addresses = addressesByPerson.get(personId);
+        Map<String, AddressRow> addresses = addressesByPerson.get(personId);
         if (addresses == null) {
             return List.of();
         }
-        return new ArrayList<>(addresses.values());
+        List<Address> result = new ArrayList<>(addresses.size());
+        for (AddressRow row : addresses.values()) {
+            result.add(row.toAddress());
+        }
+        return result;
     }
 
     @Override
     public List<Address> listAll() {
         List<Address> all = new ArrayList<>();
-        for (Map<String, Address> addresses : addressesByPerson.values()) {
-            all.addAll(addresses.values());
+        for (Map<String, AddressRow> addresses : addressesByPerson.values()) {
+            for (AddressRow row : addresses.values()) {
+                all.add(row.toAddress());
+            }
         }
         return all;
     }
 
     @Override
-    public void deleteAllForPerson(String personId) {
-        addressesByPerson.remove(personId);
+    public List<Address> deleteAllForPerson(String personId) {
+        Map<String, AddressRow> removed = addressesByPerson.remove(personId);
+        if (removed == null) {
+            return List.of();
+        }
+        rowCount.add(-removed.size());
+        List<Address> result = new ArrayList<>(removed.size());
+        for (AddressRow row : removed.values()) {
+            result.add(row.toAddress());
+        }
+        return result;
+    }
+
+    @Override
+    public int count() {
+        return (int) rowCount.sum();
     }
 
     @Override
     public boolean exists(String personId, String addressId) {
-        Map<String, Address> addresses = addressesByPerson.get(personId);
+        Map<String, AddressRow> addresses = addressesByPerson.get(personId);
         return addresses != null && addresses.containsKey(addressId);
     }
 }
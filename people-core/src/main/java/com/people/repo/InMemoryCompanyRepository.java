@@ -0,0 +1,48 @@
+package com.people.repo;
+
+import com.people.domain.Company;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class InMemoryCompanyRepository implements CompanyRepository {
+    private final Map<String, Company> companies = new ConcurrentHashMap<>();
+    private final Map<String, Company> companiesByKey = new ConcurrentHashMap<>();
+
+    @Override
+    public Company findOrCreate(String name, String address) {
+        Company existing = companiesByKey.get(key(name, address));
+        if (existing != null) {
+            return existing;
+        }
+        return companiesByKey.computeIfAbsent(key(name, address), key -> {
+            Company company = new Company(Company.idFor(name, address), name, address);
+            companies.put(company.id(), company);
+            return company;
+        });
+    }
+
+    @Override
+    public void register(Company company) {
+        companiesByKey.putIfAbsent(key(company.name(), company.address()), company);
+        companies.putIfAbsent(company.id(), company);
+    }
+
+    @Override
+    public Optional<Company> find(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(companies.get(id));
+    }
+
+    @Override
+    public List<Company> list() {
+        return new ArrayList<>(companies.values());
+    }
+
+    private static String key(String name, String address) {
+        return name.toLowerCase(Locale.ROOT) + '\n' + address.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,74 +1,193 @@
 package com.people.repo;
 
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
+import com.people.domain.Company;
 import com.people.domain.Employment;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class InMemoryEmploymentRepository implements EmploymentRepository {
-    private final Map<String, Map<String, Employment>> employmentByPerson = new ConcurrentHashMap<>();
+    private final CompanyRepository companies;
+    private final Map<String, Map<String, EmploymentRow>> employmentByPerson = new ConcurrentHashMap<>();
+    private final Map<String, Set<EmploymentKey>> employmentByCompany = new ConcurrentHashMap<>();
+    private final LongAdder rowCount = new LongAdder();
+
+    public InMemoryEmploymentRepository(CompanyRepository companies) {
+        this.companies = companies;
+    }
 
     @Override
     public void create(Employment employment) {
-        employmentByPerson
+        EmploymentRow row = EmploymentRow.of(employment, company(employment));
+        index(row);
+        EmploymentRow previous = employmentByPerson
                 .computeIfAbsent(employment.personId(), key -> new ConcurrentHashMap<>())
-                .put(employment.id(), employment);
+                .put(employment.id(), row);
+        if (previous == null) {
+            rowCount.increment();
+        }
     }
 
     @Override
-    public void update(Employment employment) {
-        employmentByPerson
-                .computeIfAbsent(employment.personId(), key -> new ConcurrentHashMap<>())
-                .put(employment.id(), employment);
+    public Employment update(Employment employment) {
+        Map<String, EmploymentRow> rows = employmentByPerson.get(employment.personId());
+        EmploymentRow next = EmploymentRow.of(employment.withVersion(employment.version() + 1), company(employment));
+        while (true) {
+            EmploymentRow current = rows == null ? null : rows.get(employment.id());
+            if (current == null) {
+                unindex(next);
+                throw new NotFoundException("employment not found");
+            }
+            if (current.version() != employment.version()) {
+                if (current.company() != next.company()) {
+                    unindex(next);
+                }
+                throw new VersionConflictException("employment", employment.version(), current.version());
+            }
+            index(next);
+            if (rows.replace(employment.id(), current, next)) {
+                if (current.company() != next.company()) {
+                    unindex(current);
+                }
+                return next.toEmployment();
+            }
+        }
     }
 
     @Override
     public Employment delete(String personId, String employmentId) {
-        Map<String, Employment> employment = employmentByPerson.get(personId);
+        Map<String, EmploymentRow> employment = employmentByPerson.get(personId);
         if (employment == null) {
             return null;
         }
-        return employment.remove(employmentId);
+        EmploymentRow removed = employment.remove(employmentId);
+        if (removed == null) {
+            return null;
+        }
+        unindex(removed);
+        rowCount.decrement();
+        return removed.toEmployment();
     }
 
     @Override
     public Optional<Employment> find(String personId, String employmentId) {
-        Map<String, Employment> employment = employmentByPerson.get(personId);
+        Map<String, EmploymentRow> employment = employmentByPerson.get(personId);
         if (employment == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(employment.get(employmentId));
+        EmploymentRow row = employment.get(employmentId);
+        return row == null ? Optional.empty() : Optional.of(row.toEmployment());
     }
 
     @Override
     public List<Employment> list(String personId) {
-        Map<String, Employment> employment = employmentByPerson.get(personId);
+        Map<String, EmploymentRow> employment = employmentByPerson.get(personId);
         if (employment == null) {
             return List.of();
         }
-        return new ArrayList<>(employment.values());
+        List<Employment> result = new ArrayList<>(employment.size());
+        for (EmploymentRow row : employment.values()) {
+            result.add(row.toEmployment());
+        }
+        return result;
     }
 
     @Override
     public List<Employment> listAll() {
         List<Employment> all = new ArrayList<>();
-        for (Map<String, Employment> employment : employmentByPerson.values()) {
-            all.addAll(employment.values());
+        for (Map<String, EmploymentRow> employment : employmentByPerson.values()) {
+            for (EmploymentRow row : employment.values()) {
+                all.add(row.toEmployment());
+            }
         }
         return all;
     }
 
     @Override
-    public void deleteAllForPerson(String personId) {
-        employmentByPerson.remove(personId);
+    public List<Employment> listByCompany(String companyId) {
+        List<Employment> result = new ArrayList<>();
+        for (EmploymentRow row : rowsForCompany(companyId)) {
+            result.add(row.toEmployment());
+        }
+        return result;
+    }
+
+    @Override
+    public int countEmployees(String companyId) {
+        Set<String> personIds = new HashSet<>();
+        for (EmploymentRow row : rowsForCompany(companyId)) {
+            personIds.add(row.personId());
+        }
+        return personIds.size();
+    }
+
+    @Override
+    public List<Employment> deleteAllForPerson(String personId) {
+        Map<String, EmploymentRow> removed = employmentByPerson.remove(personId);
+        if (removed == null) {
+            return List.of();
+        }
+        List<Employment> result = new ArrayList<>(removed.size());
+        for (EmploymentRow row : removed.values()) {
+            unindex(row);
+            result.add(row.toEmployment());
+        }
+        rowCount.add(-removed.size());
+        return result;
+    }
+
+    @Override
+    public int count() {
+        return (int) rowCount.sum();
     }
 
     @Override
     public boolean exists(String personId, String employmentId) {
-        Map<String, Employment> employment = employmentByPerson.get(personId);
+        Map<String, EmploymentRow> employment = employmentByPerson.get(personId);
         return employment != null && employment.containsKey(employmentId);
     }
+
+    private List<EmploymentRow> rowsForCompany(String companyId) {
+        Set<EmploymentKey> keys = companyId == null ? null : employmentByCompany.get(companyId);
+        if (keys == null) {
+            return List.of();
+        }
+        List<EmploymentRow> rows = new ArrayList<>(keys.size());
+        for (EmploymentKey key : keys) {
+            Map<String, EmploymentRow> employment = employmentByPerson.get(key.personId());
+            EmploymentRow row = employment == null ? null : employment.get(key.employmentId());
+            if (row != null && row.company().id().equals(companyId)) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Company company(Employment employment) {
+        return companies.find(employment.companyId())
+                .orElseThrow(() -> new NotFoundException("company not found"));
+    }
+
+    private void index(EmploymentRow row) {
+        employmentByCompany.computeIfAbsent(row.company().id(), key -> ConcurrentHashMap.newKeySet())
+                .add(new EmploymentKey(row.personId(), row.id()));
+    }
+
+    private void unindex(EmploymentRow row) {
+        Set<EmploymentKey> keys = employmentByCompany.get(row.company().id());
+        if (keys != null) {
+            keys.remove(new EmploymentKey(row.personId(), row.id()));
+        }
+    }
+
+    private record EmploymentKey(String personId, String employmentId) {
+    }
 }
@@ -1,5 +1,7 @@
 package com.people.repo;
 
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
 import com.people.domain.Person;
 
 import java.util.ArrayList;
@@ -17,8 +19,20 @@ public final class InMemoryPersonRepository implements PersonRepository {
     }
 
     @Override
-    public void update(Person person) {
-        people.put(person.id(), person);
+    public Person update(Person person) {
+        Person next = person.withVersion(person.version() + 1);
+        while (true) {
+            Person current = people.get(person.id());
+            if (current == null) {
+                throw new NotFoundException("person not found");
+            }
+            if (current.version() != person.version()) {
+                throw new VersionConflictException("person", person.version(), current.version());
+            }
+            if (people.replace(person.id(), current, next)) {
+                return next;
+            }
+        }
     }
 
     @Override
@@ -36,6 +50,11 @@ public final class InMemoryPersonRepository implements PersonRepository {
         return new ArrayList<>(people.values());
     }
 
+    @Override
+    public int count() {
+        return people.size();
+    }
+
     @Override
     public boolean exists(String id) {
         return people.containsKey(id);
@@ -1,5 +1,7 @@
 package com.people.repo;
 
+import com.people.api.NotFoundException;
+import com.people.api.VersionConflictException;
 import com.people.domain.Relationship;
 
 import java.util.ArrayList;
@@ -19,10 +21,21 @@ public final class InMemoryRelationshipRepository implements RelationshipReposit
     }
 
     @Override
-    public void update(Relationship relationship) {
-        relationshipsByPerson
-                .computeIfAbsent(relationship.personId(), key -> new ConcurrentHashMap<>())
-                .put(relationship.id(), relationship);
+    public Relationship update(Relationship relationship) {
+        Map<String, Relationship> rows = relationshipsByPerson.get(relationship.personId());
+        Relationship next = relationship.withVersion(relationship.version() + 1);
+        while (true) {
+            Relationship current = rows == null ? null : rows.get(relationship.id());
+            if (current == null) {
+                throw new NotFoundException("relationship not found");
+            }
+            if (current.version() != relationship.version()) {
+                throw new VersionConflictException("relationship", relationship.version(), current.version());
+            }
+            if (rows.replace(relationship.id(), current, next)) {
+                return next;
+            }
+        }
     }
 
     @Override
@@ -53,15 +66,32 @@ public final class InMemoryRelationshipRepository implements RelationshipReposit
     }
 
     @Override
-    public void deleteAllForPerson(String personId) {
-        relationshipsByPerson.remove(personId);
+    public List<Relationship> listAll() {
+        List<Relationship> all = new ArrayList<>();
+        for (Map<String, Relationship> relationships : relationshipsByPerson.values()) {
+            all.addAll(relationships.values());
+        }
+        return all;
+    }
+
+    @Override
+    public List<Relationship> deleteAllForPerson(String personId) {
+        Map<String, Relationship> removed = relationshipsByPerson.remove(personId);
+        return removed == null ? List.of() : new ArrayList<>(removed.values());
     }
 
     @Override
-    public void deleteAllRelatedTo(String personId) {
+    public List<Relationship> deleteAllRelatedTo(String personId) {
+        List<Relationship> removed = new ArrayList<>();
         for (Map<String, Relationship> relationships : relationshipsByPerson.values()) {
-            relationships.values().removeIf(rel -> rel.relatedPersonId().equals(personId));
+            for (Relationship relationship : relationships.values()) {
+                if (relationship.relatedPersonId().equals(personId)
+                        && relationships.remove(relationship.id(), relationship)) {
+                    removed.add(relationship);
+                }
+            }
         }
+        return removed;
     }
 
     @Override
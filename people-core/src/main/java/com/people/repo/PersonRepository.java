@@ -8,7 +8,7 @@ import java.util.Optional;
 public interface PersonRepository {
     void create(Person person);
 
-    void update(Person person);
+    Person update(Person person);
 
     Person delete(String id);
 
@@ -17,4 +17,6 @@ public interface PersonRepository {
     List<Person> list();
 
     boolean exists(String id);
+
+    int count();
 }
@@ -8,7 +8,7 @@ import java.util.Optional;
 public interface RelationshipRepository {
     void create(Relationship relationship);
 
-    void update(Relationship relationship);
+    Relationship update(Relationship relationship);
 
     Relationship delete(String personId, String relationshipId);
 
@@ -16,9 +16,11 @@ public interface RelationshipRepository {
 
     List<Relationship> list(String personId);
 
-    void deleteAllForPerson(String personId);
+    List<Relationship> listAll();
 
-    void deleteAllRelatedTo(String personId);
+    List<Relationship> deleteAllForPerson(String personId);
+
+    List<Relationship> deleteAllRelatedTo(String personId);
 
     boolean exists(String personId, String relationshipId);
 }
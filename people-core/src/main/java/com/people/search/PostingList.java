@@ -0,0 +1,91 @@
+package com.people.search;
+
+import java.util.Arrays;
+
+final class PostingList {
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int count;
+    private int live;
+    private int lastDocument = -1;
+
+    void add(int document, int frequency) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("documents must be added in increasing order");
+        }
+        writeVarInt(document - lastDocument);
+        writeVarInt(frequency);
+        lastDocument = document;
+        count++;
+        live++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int documentFrequency() {
+        return live;
+    }
+
+    void removed() {
+        live--;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    PostingList renumbered(int[] documents) {
+        PostingList kept = new PostingList();
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            int document = documents[cursor.document];
+            if (document >= 0) {
+                kept.add(document, cursor.frequency);
+            }
+        }
+        kept.bytes = Arrays.copyOf(kept.bytes, Math.max(kept.length, 1));
+        return kept;
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    final class Cursor {
+        int document = -1;
+        int frequency;
+        private int position;
+        private int remaining = count;
+
+        boolean next() {
+            if (remaining == 0) {
+                document = Integer.MAX_VALUE;
+                return false;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            remaining--;
+            return true;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.people.search;
+
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+public final class TextIndex {
+    public static final String ADDRESS = "address";
+    public static final String EMPLOYMENT = "employment";
+    public static final Comparator<SearchHit> BEST_FIRST = Comparator.comparingDouble(SearchHit::score).reversed()
+            .thenComparing(SearchHit::type).thenComparing(SearchHit::id);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int COMPACT_AFTER = 1_024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private List<Document> documents = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private long totalLength;
+    private int live;
+    private int dead;
+
+    public void index(Address address) {
+        put(ADDRESS, address.personId(), address.id(), address.description());
+    }
+
+    public void index(Employment employment) {
+        String title = employment.jobTitle() == null ? "" : employment.jobTitle();
+        String description = employment.description() == null ? "" : employment.description();
+        put(EMPLOYMENT, employment.personId(), employment.id(), (title + " " + description).strip());
+    }
+
+    public void remove(String type, String personId, String id) {
+        lock.writeLock().lock();
+        try {
+            delete(key(type, personId, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentIds.clear();
+            documents.clear();
+            deleted.clear();
+            totalLength = 0;
+            live = 0;
+            dead = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SearchHit> search(String text, int limit) {
+        return search(text, limit, personId -> false);
+    }
+
+    public List<SearchHit> search(String text, int limit, Predicate<String> hiddenPerson) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("search text is required");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        lock.readLock().lock();
+        try {
+            if (live == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / live;
+            PriorityQueue<Term> terms = new PriorityQueue<>(
+                    Comparator.<Term>comparingInt(term -> term.cursor().document).thenComparingInt(Term::order));
+            for (String token : new LinkedHashSet<>(Tokenizer.tokens(text))) {
+                PostingList list = postings.get(token);
+                if (list == null) {
+                    continue;
+                }
+                double documentFrequency = list.documentFrequency();
+                Term term = new Term(list.cursor(), Math.log(1 + (live - documentFrequency + 0.5)
+                        / (documentFrequency + 0.5)), terms.size());
+                if (term.cursor().next()) {
+                    terms.add(term);
+                }
+            }
+            PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score)
+                    .thenComparing((Scored scored) -> documents.get(scored.document()).type(),
+                            Comparator.reverseOrder())
+                    .thenComparing(scored -> documents.get(scored.document()).id(), Comparator.reverseOrder()));
+            while (!terms.isEmpty()) {
+                int document = terms.peek().cursor().document;
+                double score = 0;
+                while (!terms.isEmpty() && terms.peek().cursor().document == document) {
+                    Term term = terms.poll();
+                    if (!deleted.get(document) && !hiddenPerson.test(documents.get(document).personId())) {
+                        double frequency = term.cursor().frequency;
+                        double norm = K1 * (1 - B + B * documents.get(document).length() / averageLength);
+                        score += term.idf() * frequency * (K1 + 1) / (frequency + norm);
+                    }
+                    if (term.cursor().next()) {
+                        terms.add(term);
+                    }
+                }
+                if (score > 0) {
+                    top.add(new Scored(document, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top.size());
+            for (Scored scored : top) {
+                Document document = documents.get(scored.document());
+                hits.add(new SearchHit(document.type(), document.personId(), document.id(), document.text(),
+                        scored.score()));
+            }
+            hits.sort(BEST_FIRST);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<SearchHit> merge(Collection<SearchHit> parts, int limit) {
+        List<SearchHit> hits = new ArrayList<>(parts);
+        hits.sort(BEST_FIRST);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private void put(String type, String personId, String id, String text) {
+        List<String> tokens = Tokenizer.tokens(text);
+        String key = key(type, personId, id);
+        lock.writeLock().lock();
+        try {
+            delete(key);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            int document = documents.size();
+            documents.add(new Document(type, personId, id, text, tokens.size()));
+            documentIds.put(key, document);
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : tokens) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            frequencies.forEach((token, frequency) ->
+                    postings.computeIfAbsent(token, t -> new PostingList()).add(document, frequency));
+            totalLength += tokens.size();
+            live++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(String key) {
+        Integer document = documentIds.remove(key);
+        if (document == null) {
+            return;
+        }
+        deleted.set(document);
+        Document removed = documents.get(document);
+        for (String token : new HashSet<>(Tokenizer.tokens(removed.text()))) {
+            postings.get(token).removed();
+        }
+        totalLength -= removed.length();
+        live--;
+        dead++;
+        if (dead >= COMPACT_AFTER && dead > live) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] renumbered = new int[documents.size()];
+        List<Document> kept = new ArrayList<>(live);
+        for (int document = 0; document < renumbered.length; document++) {
+            if (deleted.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = kept.size();
+                kept.add(documents.get(document));
+            }
+        }
+        postings.replaceAll((token, list) -> list.renumbered(renumbered));
+        postings.values().removeIf(list -> list.count() == 0);
+        documentIds.replaceAll((key, document) -> renumbered[document]);
+        documents = kept;
+        deleted.clear();
+        dead = 0;
+    }
+
+    private static String key(String type, String personId, String id) {
+        return type + "\n" + personId + "\n" + id;
+    }
+
+    private record Document(
+            String type,
+            String personId,
+            String id,
+            String text,
+            int length
+    ) {
+    }
+
+    private record Term(
+            PostingList.Cursor cursor,
+            double idf,
+            int order
+    ) {
+    }
+
+    private record Scored(
+            int document,
+            double score
+    ) {
+    }
+}
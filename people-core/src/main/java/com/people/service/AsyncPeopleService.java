@@ -0,0 +1,232 @@
+package com.people.service;
+
+import com.people.api.AsyncPeopleApi;
+import com.people.api.CompanySummary;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+public final class AsyncPeopleService implements AsyncPeopleApi, AutoCloseable {
+    public static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+    public enum Backend {
+        PEOPLE,
+        ADDRESSES,
+        EMPLOYMENTS,
+        RELATIONSHIPS
+    }
+
+    private final PeopleApi delegate;
+    private final ExecutorService executor;
+    private final Map<Backend, Semaphore> permits = new EnumMap<>(Backend.class);
+
+    public AsyncPeopleService(PeopleApi delegate) {
+        this(delegate, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public AsyncPeopleService(PeopleApi delegate, int maxConcurrencyPerBackend) {
+        this(delegate, uniformLimits(maxConcurrencyPerBackend));
+    }
+
+    public AsyncPeopleService(PeopleApi delegate, Map<Backend, Integer> maxConcurrency) {
+        this.delegate = delegate;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (Backend backend : Backend.values()) {
+            int limit = maxConcurrency.getOrDefault(backend, DEFAULT_MAX_CONCURRENCY);
+            if (limit <= 0) {
+                throw new IllegalArgumentException("max concurrency must be positive for " + backend);
+            }
+            permits.put(backend, new Semaphore(limit, true));
+        }
+    }
+
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public int availablePermits(Backend backend) {
+        return permits.get(backend).availablePermits();
+    }
+
+    @Override
+    public CompletableFuture<Person> createPerson(Person person) {
+        return submit(Backend.PEOPLE, () -> delegate.createPerson(person));
+    }
+
+    @Override
+    public CompletableFuture<Person> updatePerson(Person person) {
+        return submit(Backend.PEOPLE, () -> delegate.updatePerson(person));
+    }
+
+    @Override
+    public CompletableFuture<Person> deletePerson(String id) {
+        return submit(Backend.PEOPLE, () -> delegate.deletePerson(id));
+    }
+
+    @Override
+    public CompletableFuture<Person> getPerson(String id) {
+        return submit(Backend.PEOPLE, () -> delegate.getPerson(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Person>> getPeople(List<String> ids) {
+        List<CompletableFuture<Person>> lookups = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            lookups.add(getPerson(id));
+        }
+        return allOf(lookups);
+    }
+
+    @Override
+    public CompletableFuture<List<Person>> listPeople() {
+        return submit(Backend.PEOPLE, delegate::listPeople);
+    }
+
+    @Override
+    public CompletableFuture<PersonDetail> getPersonDetail(String id) {
+        return submit(Backend.PEOPLE, () -> delegate.getPersonDetail(id, PersonDetail.Part.ALL));
+    }
+
+    @Override
+    public CompletableFuture<Address> createAddress(Address address) {
+        return submit(Backend.ADDRESSES, () -> delegate.createAddress(address));
+    }
+
+    @Override
+    public CompletableFuture<Address> updateAddress(Address address) {
+        return submit(Backend.ADDRESSES, () -> delegate.updateAddress(address));
+    }
+
+    @Override
+    public CompletableFuture<Address> deleteAddress(String personId, String addressId) {
+        return submit(Backend.ADDRESSES, () -> delegate.deleteAddress(personId, addressId));
+    }
+
+    @Override
+    public CompletableFuture<Address> getAddress(String personId, String addressId) {
+        return submit(Backend.ADDRESSES, () -> delegate.getAddress(personId, addressId));
+    }
+
+    @Override
+    public CompletableFuture<List<Address>> listAddresses(String personId) {
+        return submit(Backend.ADDRESSES, () -> delegate.listAddresses(personId));
+    }
+
+    @Override
+    public CompletableFuture<List<Address>> listAddressesFiltered(String street, String town, String state,
+                                                                  String streetContains) {
+        return submit(Backend.ADDRESSES, () -> delegate.listAddressesFiltered(street, town, state, streetContains));
+    }
+
+    @Override
+    public CompletableFuture<Employment> createEmployment(Employment employment) {
+        return submit(Backend.EMPLOYMENTS, () -> delegate.createEmployment(employment));
+    }
+
+    @Override
+    public CompletableFuture<Employment> updateEmployment(Employment employment) {
+        return submit(Backend.EMPLOYMENTS, () -> delegate.updateEmployment(employment));
+    }
+
+    @Override
+    public CompletableFuture<Employment> deleteEmployment(String personId, String employmentId) {
+        return submit(Backend.EMPLOYMENTS, () -> delegate.deleteEmployment(personId, employmentId));
+    }
+
+    @Override
+    public CompletableFuture<Employment> getEmployment(String personId, String employmentId) {
+        return submit(Backend.EMPLOYMENTS, () -> delegate.getEmployment(personId, employmentId));
+    }
+
+    @Override
+    public CompletableFuture<List<Employment>> listEmployments(String personId) {
+        return submit(Backend.EMPLOYMENTS, () -> delegate.listEmployments(personId));
+    }
+
+    @Override
+    public CompletableFuture<List<CompanySummary>> listCompanies() {
+        return submit(Backend.EMPLOYMENTS, delegate::listCompanies);
+    }
+
+    @Override
+    public CompletableFuture<Relationship> createRelationship(Relationship relationship) {
+        return submit(Backend.RELATIONSHIPS, () -> delegate.createRelationship(relationship));
+    }
+
+    @Override
+    public CompletableFuture<Relationship> updateRelationship(Relationship relationship) {
+        return submit(Backend.RELATIONSHIPS, () -> delegate.updateRelationship(relationship));
+    }
+
+    @Override
+    public CompletableFuture<Relationship> deleteRelationship(String personId, String relationshipId) {
+        return submit(Backend.RELATIONSHIPS, () -> delegate.deleteRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public CompletableFuture<Relationship> getRelationship(String personId, String relationshipId) {
+        return submit(Backend.RELATIONSHIPS, () -> delegate.getRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public CompletableFuture<List<Relationship>> listRelationships(String personId) {
+        return submit(Backend.RELATIONSHIPS, () -> delegate.listRelationships(personId));
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> submit(Backend backend, Supplier<T> call) {
+        Semaphore semaphore = permits.get(backend);
+        return CompletableFuture.supplyAsync(() -> {
+            semaphore.acquireUninterruptibly();
+            try {
+                return call.get();
+            } finally {
+                semaphore.release();
+            }
+        }, executor);
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    private static Map<Backend, Integer> uniformLimits(int limit) {
+        Map<Backend, Integer> limits = new EnumMap<>(Backend.class);
+        for (Backend backend : Backend.values()) {
+            limits.put(backend, limit);
+        }
+        return limits;
+    }
+}
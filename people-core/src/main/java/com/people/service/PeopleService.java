@@ -1,87 +1,432 @@
 package com.people.service;
 
+import com.people.api.BulkResult;
 import com.people.api.CompanySummary;
-import com.people.api.PeopleApi;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.NotFoundException;
+import com.people.api.PersonDetail;
+import com.people.api.RowError;
+import com.people.api.SearchHit;
+import com.people.api.VersionConflictException;
+import com.people.cluster.ClusterNode;
+import com.people.dedup.DuplicateDetector;
 import com.people.domain.Address;
+import com.people.domain.Company;
 import com.people.domain.Employment;
 import com.people.domain.Person;
 import com.people.domain.Relationship;
+import com.people.geo.GeoRollup;
+import com.people.history.History;
+import com.people.history.HistoryPruner;
+import com.people.household.HouseholdIndex;
+import com.people.interval.EmploymentIntervalIndex;
+import com.people.ownership.OwnerIndex;
+import com.people.ownership.RelatedIndex;
+import com.people.picture.PictureStore;
+import com.people.picture.PictureType;
+import com.people.query.Entity;
+import com.people.query.Index;
+import com.people.query.Query;
+import com.people.query.QueryEngine;
+import com.people.query.QueryPlan;
+import com.people.query.Table;
+import com.people.reclaim.ReclaimStats;
+import com.people.reclaim.Reclaimer;
+import com.people.reclaim.Tombstones;
+import com.people.replication.Change;
 import com.people.repo.AddressRepository;
+import com.people.repo.CompanyRepository;
+import com.people.repo.DiskAddressRepository;
+import com.people.repo.DiskCompanyRepository;
+import com.people.repo.DiskEmploymentRepository;
+import com.people.repo.DiskPersonRepository;
+import com.people.repo.DiskRelationshipRepository;
+import com.people.repo.FilterStats;
+import com.people.repo.FilteredAddressRepository;
+import com.people.repo.FilteredEmploymentRepository;
+import com.people.repo.FilteredPersonRepository;
+import com.people.repo.FilteredRelationshipRepository;
+import com.people.repo.FilteredRepository;
 import com.people.repo.EmploymentRepository;
 import com.people.repo.InMemoryAddressRepository;
+import com.people.repo.InMemoryCompanyRepository;
 import com.people.repo.InMemoryEmploymentRepository;
 import com.people.repo.InMemoryPersonRepository;
 import com.people.repo.InMemoryRelationshipRepository;
 import com.people.repo.PersonRepository;
 import com.people.repo.RelationshipRepository;
+import com.people.search.TextIndex;
+import com.people.storage.BTreeStore;
 
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+public final class PeopleService implements ClusterNode {
+    public static final long UNVERSIONED = 0;
+    public static final long INITIAL_VERSION = 1;
+    private static final int LOCK_STRIPES = 64;
+    private static final System.Logger LOG = System.getLogger(PeopleService.class.getName());
 
-public final class PeopleService implements PeopleApi {
     private final PersonRepository personRepository;
     private final AddressRepository addressRepository;
     private final EmploymentRepository employmentRepository;
     private final RelationshipRepository relationshipRepository;
+    private final CompanyRepository companyRepository;
+    private final PictureStore pictures;
+    private final Predicate<String> knownPeople;
+    private final QueryEngine queryEngine;
+    private final History history = new History(Clock.systemUTC());
+    private final HouseholdIndex households;
+    private final GeoRollup geo = new GeoRollup();
+    private final TextIndex textIndex = new TextIndex();
+    private final EmploymentIntervalIndex employmentPeriods;
+    private final OwnerIndex addressOwners = new OwnerIndex();
+    private final OwnerIndex employmentOwners = new OwnerIndex();
+    private final OwnerIndex relationshipOwners = new OwnerIndex();
+    private final RelatedIndex relationshipTargets = new RelatedIndex();
+    private final Tombstones tombstones = new Tombstones();
+    private final Lock[] stripes = new Lock[LOCK_STRIPES];
+    private volatile boolean softDeletes;
+
+    public PeopleService(PersonRepository personRepository,
+                         AddressRepository addressRepository,
+                         EmploymentRepository employmentRepository,
+                         RelationshipRepository relationshipRepository,
+                         CompanyRepository companyRepository) {
+        this(personRepository, addressRepository, employmentRepository, relationshipRepository, companyRepository,
+                null);
+    }
 
     public PeopleService(PersonRepository personRepository,
                          AddressRepository addressRepository,
                          EmploymentRepository employmentRepository,
-                         RelationshipRepository relationshipRepository) {
+                         RelationshipRepository relationshipRepository,
+                         CompanyRepository companyRepository,
+                         PictureStore pictures) {
+        this(personRepository, addressRepository, employmentRepository, relationshipRepository, companyRepository,
+                pictures, null);
+    }
+
+    PeopleService(PersonRepository personRepository,
+                  AddressRepository addressRepository,
+                  EmploymentRepository employmentRepository,
+                  RelationshipRepository relationshipRepository,
+                  CompanyRepository companyRepository,
+                  PictureStore pictures,
+                  Predicate<String> knownPeople) {
+        this(personRepository, addressRepository, employmentRepository, relationshipRepository, companyRepository,
+                pictures, knownPeople, new HouseholdIndex());
+    }
+
+    PeopleService(PersonRepository personRepository,
+                  AddressRepository addressRepository,
+                  EmploymentRepository employmentRepository,
+                  RelationshipRepository relationshipRepository,
+                  CompanyRepository companyRepository,
+                  PictureStore pictures,
+                  Predicate<String> knownPeople,
+                  HouseholdIndex households) {
         this.personRepository = personRepository;
         this.addressRepository = addressRepository;
         this.employmentRepository = employmentRepository;
         this.relationshipRepository = relationshipRepository;
+        this.companyRepository = companyRepository;
+        this.pictures = pictures;
+        this.knownPeople = knownPeople == null ? personRepository::exists : knownPeople;
+        this.households = households;
+        this.employmentPeriods = new EmploymentIntervalIndex(employmentRepository::find);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.queryEngine = new QueryEngine(List.of(
+                new Table<>(Entity.PERSON, personRepository::list, personRepository::count,
+                        List.of(new Index<>("id", id -> personRepository.find(id).map(List::of).orElse(List.of()),
+                                personRepository::count))),
+                new Table<>(Entity.ADDRESS, this::liveAddresses, addressRepository::count,
+                        List.of(new Index<>("personId", personId -> live(addressRepository.list(personId),
+                                Address::personId), personRepository::count))),
+                new Table<>(Entity.EMPLOYMENT, this::liveEmployments, employmentRepository::count,
+                        List.of(new Index<>("personId", personId -> live(employmentRepository.list(personId),
+                                        Employment::personId), personRepository::count),
+                                new Index<>("companyId", companyId -> live(employmentRepository.listByCompany(
+                                        companyId), Employment::personId),
+                                        () -> companyRepository.list().size())))));
+        for (Address address : addressRepository.listAll()) {
+            if (tombstoneIfOrphaned(address.personId())) {
+                continue;
+            }
+            households.put(address);
+            addressOwners.put(address.id(), address.personId());
+            geo.put(address);
+            textIndex.index(address);
+        }
+        for (Employment employment : employmentRepository.listAll()) {
+            if (tombstoneIfOrphaned(employment.personId())) {
+                continue;
+            }
+            textIndex.index(employment);
+            employmentPeriods.put(employment);
+            employmentOwners.put(employment.id(), employment.personId());
+        }
+        for (Relationship relationship : relationshipRepository.listAll()) {
+            if (!this.knownPeople.test(relationship.relatedPersonId())) {
+                tombstones.add(relationship.relatedPersonId());
+            }
+            if (!tombstoneIfOrphaned(relationship.personId())) {
+                relationshipOwners.put(relationship.id(), relationship.personId());
+            }
+            relationshipTargets.put(relationship.id(), relationship.personId(), relationship.relatedPersonId());
+        }
+        if (pictures != null) {
+            for (Person person : personRepository.list()) {
+                if (person.pictureHash() != null && pictures.contains(person.pictureHash())) {
+                    pictures.retain(person.pictureHash());
+                }
+            }
+        }
     }
 
     public static PeopleService createInMemory() {
+        return createInMemory(null);
+    }
+
+    public static PeopleService createInMemory(PictureStore pictures) {
+        return createInMemory(pictures, null);
+    }
+
+    public static PeopleService createInMemory(PictureStore pictures, Predicate<String> knownPeople) {
+        CompanyRepository companies = new InMemoryCompanyRepository();
         return new PeopleService(
                 new InMemoryPersonRepository(),
                 new InMemoryAddressRepository(),
-                new InMemoryEmploymentRepository(),
-                new InMemoryRelationshipRepository()
+                new InMemoryEmploymentRepository(companies),
+                new InMemoryRelationshipRepository(),
+                companies,
+                pictures,
+                knownPeople
+        );
+    }
+
+    public static PeopleService createOnDisk(BTreeStore store, PictureStore pictures) {
+        return createOnDisk(store, pictures, null);
+    }
+
+    public static PeopleService createOnDisk(BTreeStore store, PictureStore pictures, Predicate<String> knownPeople) {
+        CompanyRepository companies = new DiskCompanyRepository(store);
+        return new PeopleService(
+                new FilteredPersonRepository(new DiskPersonRepository(store)),
+                new FilteredAddressRepository(new DiskAddressRepository(store)),
+                new FilteredEmploymentRepository(new DiskEmploymentRepository(store, companies)),
+                new FilteredRelationshipRepository(new DiskRelationshipRepository(store)),
+                companies,
+                pictures,
+                knownPeople
         );
     }
 
     @Override
     public Person createPerson(Person person) {
-        rejectProvidedId(person.id(), "person id");
-        Person created = new Person(generateId(), person.firstName(), person.middleName(), person.lastName(),
-                person.dateOfBirth(), person.gender(), person.preferredGender(), person.picturePath());
-        Validators.validatePerson(created);
-        if (personRepository.exists(created.id())) {
-            throw new IllegalArgumentException("person id already exists");
-        }
-        personRepository.create(created);
-        return created;
+        return createOne(person, this::tryCreatePerson);
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        return createAll(people, "person", this::tryCreatePerson);
+    }
+
+    @Override
+    public Person createPerson(Person person, String id) {
+        return createOne(person, (value, errors) -> tryCreatePerson(value, id, errors));
+    }
+
+    BulkResult<Person> createPeople(List<Person> people, List<String> ids) {
+        return createRows(people, "person", (row, value, errors) -> tryCreatePerson(value, ids.get(row), errors));
+    }
+
+    @Override
+    public void deleteRelationshipsRelatedTo(String personId) {
+        relationshipTargets.relatedTo(personId, Integer.MAX_VALUE).forEach(this::deleteIncoming);
     }
 
     @Override
     public Person updatePerson(Person person) {
         Validators.validatePerson(person);
-        requirePersonExists(person.id());
-        personRepository.update(person);
-        return person;
+        return locked(person.id(), () -> storePerson(person));
+    }
+
+    private Person storePerson(Person person) {
+        while (true) {
+            Person existing = getPerson(person.id());
+            if (person.version() != UNVERSIONED && person.version() != existing.version()) {
+                throw new VersionConflictException("person", person.version(), existing.version());
+            }
+            String previousHash = existing.pictureHash();
+            String hash = person.pictureHash();
+            boolean pictureChanged = !Objects.equals(previousHash, hash);
+            if (pictureChanged && hash != null) {
+                requirePictures().retain(hash);
+            }
+            Person stored;
+            try {
+                stored = personRepository.update(person.withVersion(existing.version()));
+            } catch (RuntimeException ex) {
+                if (pictureChanged && hash != null) {
+                    releasePicture(hash);
+                }
+                if (ex instanceof VersionConflictException && person.version() == UNVERSIONED) {
+                    continue;
+                }
+                throw ex;
+            }
+            if (pictureChanged && previousHash != null) {
+                releasePicture(previousHash);
+            }
+            history.people().record(stored.id(), stored.id(), stored);
+            return stored;
+        }
     }
 
     @Override
     public Person deletePerson(String id) {
         requirePersonExists(id);
-        addressRepository.deleteAllForPerson(id);
-        employmentRepository.deleteAllForPerson(id);
-        relationshipRepository.deleteAllForPerson(id);
-        relationshipRepository.deleteAllRelatedTo(id);
-        return personRepository.delete(id);
+        if (softDeletes) {
+            return locked(id, () -> {
+                tombstones.add(id);
+                return removePersonRecord(id);
+            });
+        }
+        return removePerson(id);
+    }
+
+    @Override
+    public Person evictPerson(String id) {
+        return locked(id, () -> {
+            for (Address removed : addressRepository.deleteAllForPerson(id)) {
+                addressDeleted(id, removed.id());
+            }
+            for (Employment removed : employmentRepository.deleteAllForPerson(id)) {
+                employmentDeleted(id, removed.id());
+            }
+            for (Relationship removed : relationshipRepository.deleteAllForPerson(id)) {
+                relationshipDeleted(id, removed.id());
+            }
+            return removePersonRecord(id);
+        });
+    }
+
+    private Person removePersonRecord(String id) {
+        Person deleted = personRepository.delete(id);
+        if (deleted != null) {
+            history.people().recordDeleted(id, id);
+            history.forget(id);
+            if (deleted.pictureHash() != null) {
+                releasePicture(deleted.pictureHash());
+            }
+        }
+        return deleted;
+    }
+
+    private Person removePerson(String id) {
+        deleteRelationshipsRelatedTo(id);
+        return evictPerson(id);
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        Person existing = getPerson(personId);
+        PictureStore store = requirePictures();
+        if (image == null || image.length == 0) {
+            throw new IllegalArgumentException("picture must be provided");
+        }
+        PictureType.detect(ByteBuffer.wrap(image));
+        String hash = store.put(image);
+        return locked(personId, () -> setPicture(personId, existing, hash, store));
+    }
+
+    private Person setPicture(String personId, Person current, String hash, PictureStore store) {
+        Person existing = current;
+        while (true) {
+            Person updated;
+            try {
+                updated = personRepository.update(new Person(existing.id(), existing.firstName(),
+                        existing.middleName(), existing.lastName(), existing.dateOfBirth(), existing.gender(),
+                        existing.preferredGender(), hash, existing.version()));
+            } catch (VersionConflictException ex) {
+                existing = getPerson(personId);
+                continue;
+            } catch (RuntimeException ex) {
+                store.release(hash);
+                throw ex;
+            }
+            if (existing.pictureHash() != null) {
+                store.release(existing.pictureHash());
+            }
+            history.people().record(personId, personId, updated);
+            return updated;
+        }
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        String hash = getPerson(personId).pictureHash();
+        if (hash == null) {
+            throw new NotFoundException("picture not found");
+        }
+        return requirePictures().read(hash);
     }
 
     @Override
     public Person getPerson(String id) {
         return personRepository.find(id)
-                .orElseThrow(() -> new IllegalArgumentException("person not found"));
+                .orElseThrow(() -> new NotFoundException("person not found"));
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        if (parts == null) {
+            throw new IllegalArgumentException("parts must be provided");
+        }
+        while (true) {
+            long changes = history.changes(id);
+            Person person = getPerson(id);
+            List<Address> addresses = parts.contains(PersonDetail.Part.ADDRESSES)
+                    ? addressRepository.list(id) : List.of();
+            List<Relationship> relationships = parts.contains(PersonDetail.Part.RELATIONSHIPS)
+                    ? live(relationshipRepository.list(id), Relationship::relatedPersonId) : List.of();
+            List<Employment> employments = parts.contains(PersonDetail.Part.EMPLOYMENTS)
+                    ? employmentRepository.list(id) : List.of();
+            if (history.changes(id) == changes) {
+                return new PersonDetail(person, addresses, relationships, employments);
+            }
+        }
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return history.people().asOf(id, id, asOf)
+                .orElseThrow(() -> new NotFoundException("person not found"));
     }
 
     @Override
@@ -91,41 +436,54 @@ public final class PeopleService implements PeopleApi {
 
     @Override
     public Address createAddress(Address address) {
-        rejectProvidedId(address.id(), "address id");
-        Address created = new Address(generateId(), address.personId(), address.address(), address.town(),
-                address.state(), address.type(), address.description(), address.owns(), address.primary(),
-                address.monthlyPayment(), address.bedrooms(),
-                address.bathrooms());
-        Validators.validateAddress(created);
-        requirePersonExists(address.personId());
-        if (addressRepository.exists(address.personId(), created.id())) {
-            throw new IllegalArgumentException("address id already exists for person");
-        }
-        addressRepository.create(created);
-        return created;
+        return createOne(address, this::tryCreateAddress);
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        return createAll(addresses, "address", this::tryCreateAddress);
     }
 
     @Override
     public Address updateAddress(Address address) {
         Validators.validateAddress(address);
         requirePersonExists(address.personId());
-        requireAddressExists(address.personId(), address.id());
-        addressRepository.update(address);
-        return address;
+        return locked(address.personId(), () -> {
+            Address updated = compareAndSet(address.version(), () -> getAddress(address.personId(), address.id()),
+                    Address::version, address::withVersion, addressRepository::update);
+            addressStored(updated);
+            return updated;
+        });
     }
 
     @Override
     public Address deleteAddress(String personId, String addressId) {
         requirePersonExists(personId);
         requireAddressExists(personId, addressId);
-        return addressRepository.delete(personId, addressId);
+        return locked(personId, () -> {
+            Address deleted = addressRepository.delete(personId, addressId);
+            if (deleted != null) {
+                addressDeleted(personId, addressId);
+            }
+            return deleted;
+        });
     }
 
     @Override
     public Address getAddress(String personId, String addressId) {
         requirePersonExists(personId);
         return addressRepository.find(personId, addressId)
-                .orElseThrow(() -> new IllegalArgumentException("address not found"));
+                .orElseThrow(() -> new NotFoundException("address not found"));
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return getAddress(ownerOf(addressOwners, addressId, "address not found"), addressId);
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        return deleteAddress(ownerOf(addressOwners, addressId, "address not found"), addressId);
     }
 
     @Override
@@ -134,47 +492,70 @@ public final class PeopleService implements PeopleApi {
         return addressRepository.list(personId);
     }
 
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        getPerson(personId, asOf);
+        return history.addresses().listAsOf(personId, asOf);
+    }
+
     @Override
     public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
-        return filterAddresses(addressRepository.listAll(), street, town, state, streetContains);
+        return filterAddresses(liveAddresses(), street, town, state, streetContains);
     }
 
     @Override
     public Employment createEmployment(Employment employment) {
-        rejectProvidedId(employment.id(), "employment id");
-        Employment created = new Employment(generateId(), employment.personId(), employment.name(),
-                employment.description(), employment.address(), employment.jobTitle(), employment.payType(),
-                employment.rateOfPay(), employment.currentEmployer(), employment.startDate(), employment.endDate());
-        Validators.validateEmployment(created);
-        requirePersonExists(employment.personId());
-        if (employmentRepository.exists(employment.personId(), created.id())) {
-            throw new IllegalArgumentException("employment id already exists for person");
-        }
-        employmentRepository.create(created);
-        return created;
+        return createOne(employment, this::tryCreateEmployment);
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        return createAll(employments, "employment", this::tryCreateEmployment);
     }
 
     @Override
     public Employment updateEmployment(Employment employment) {
         Validators.validateEmployment(employment);
         requirePersonExists(employment.personId());
-        requireEmploymentExists(employment.personId(), employment.id());
-        employmentRepository.update(employment);
-        return employment;
+        Employment resolved = employment.withCompany(
+                companyRepository.findOrCreate(employment.name(), employment.address()));
+        return locked(employment.personId(), () -> {
+            Employment updated = compareAndSet(employment.version(),
+                    () -> getEmployment(employment.personId(), employment.id()),
+                    Employment::version, resolved::withVersion, employmentRepository::update);
+            employmentStored(updated);
+            return updated;
+        });
     }
 
     @Override
     public Employment deleteEmployment(String personId, String employmentId) {
         requirePersonExists(personId);
         requireEmploymentExists(personId, employmentId);
-        return employmentRepository.delete(personId, employmentId);
+        return locked(personId, () -> {
+            Employment deleted = employmentRepository.delete(personId, employmentId);
+            if (deleted != null) {
+                employmentDeleted(personId, employmentId);
+            }
+            return deleted;
+        });
     }
 
     @Override
     public Employment getEmployment(String personId, String employmentId) {
         requirePersonExists(personId);
         return employmentRepository.find(personId, employmentId)
-                .orElseThrow(() -> new IllegalArgumentException("employment not found"));
+                .orElseThrow(() -> new NotFoundException("employment not found"));
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return getEmployment(ownerOf(employmentOwners, employmentId, "employment not found"), employmentId);
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        return deleteEmployment(ownerOf(employmentOwners, employmentId, "employment not found"), employmentId);
     }
 
     @Override
@@ -183,93 +564,670 @@ public final class PeopleService implements PeopleApi {
         return employmentRepository.list(personId);
     }
 
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        getPerson(personId, asOf);
+        return history.employments().listAsOf(personId, asOf);
+    }
+
     @Override
     public List<Employment> listAllEmployments() {
-        return employmentRepository.listAll();
+        return liveEmployments();
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        return live(employmentPeriods.employedOn(date, companyId), Employment::personId);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        return live(employmentPeriods.overlapping(from, to, companyId), Employment::personId);
     }
 
     @Override
     public List<CompanySummary> listCompanies() {
-        Map<String, CompanySummaryBuilder> summaryByKey = new TreeMap<>();
-        for (Employment employment : employmentRepository.listAll()) {
-            String key = employment.name().toLowerCase() + "|" + employment.address().toLowerCase();
-            summaryByKey.computeIfAbsent(key, k -> new CompanySummaryBuilder(employment.name(), employment.address()))
-                    .addEmployee(employment.personId());
-        }
         List<CompanySummary> summaries = new ArrayList<>();
-        for (CompanySummaryBuilder builder : summaryByKey.values()) {
-            summaries.add(builder.build());
+        for (Company company : companyRepository.list()) {
+            int employees = (int) live(employmentRepository.listByCompany(company.id()), Employment::personId)
+                    .stream()
+                    .map(Employment::personId)
+                    .distinct()
+                    .count();
+            if (employees > 0) {
+                summaries.add(new CompanySummary(company.id(), company.name(), company.address(), employees));
+            }
         }
         summaries.sort(Comparator.comparing(CompanySummary::name));
         return summaries;
     }
 
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        requireCompanyExists(companyId);
+        return live(employmentRepository.listByCompany(companyId), Employment::personId);
+    }
+
     @Override
     public Relationship createRelationship(Relationship relationship) {
-        rejectProvidedId(relationship.id(), "relationship id");
-        Relationship created = new Relationship(generateId(), relationship.personId(),
-                relationship.relatedPersonId(), relationship.type());
-        Validators.validateRelationship(created);
-        requirePersonExists(relationship.personId());
-        requirePersonExists(relationship.relatedPersonId());
-        if (relationshipRepository.exists(relationship.personId(), created.id())) {
-            throw new IllegalArgumentException("relationship id already exists for person");
-        }
-        relationshipRepository.create(created);
-        return created;
+        return createOne(relationship, this::tryCreateRelationship);
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        return createAll(relationships, "relationship", this::tryCreateRelationship);
     }
 
     @Override
     public Relationship updateRelationship(Relationship relationship) {
         Validators.validateRelationship(relationship);
         requirePersonExists(relationship.personId());
-        requirePersonExists(relationship.relatedPersonId());
-        requireRelationshipExists(relationship.personId(), relationship.id());
-        relationshipRepository.update(relationship);
-        return relationship;
+        if (!knownPeople.test(relationship.relatedPersonId())) {
+            throw new NotFoundException("person not found");
+        }
+        return locked(relationship.personId(), () -> {
+            Relationship updated = compareAndSet(relationship.version(),
+                    () -> getRelationship(relationship.personId(), relationship.id()),
+                    Relationship::version, relationship::withVersion, relationshipRepository::update);
+            relationshipStored(updated);
+            return updated;
+        });
     }
 
     @Override
     public Relationship deleteRelationship(String personId, String relationshipId) {
         requirePersonExists(personId);
         requireRelationshipExists(personId, relationshipId);
-        return relationshipRepository.delete(personId, relationshipId);
+        return locked(personId, () -> {
+            Relationship deleted = relationshipRepository.delete(personId, relationshipId);
+            if (deleted != null) {
+                relationshipDeleted(personId, relationshipId);
+            }
+            return deleted;
+        });
     }
 
     @Override
     public Relationship getRelationship(String personId, String relationshipId) {
         requirePersonExists(personId);
         return relationshipRepository.find(personId, relationshipId)
-                .orElseThrow(() -> new IllegalArgumentException("relationship not found"));
+                .orElseThrow(() -> new NotFoundException("relationship not found"));
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return getRelationship(ownerOf(relationshipOwners, relationshipId, "relationship not found"),
+                relationshipId);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        return deleteRelationship(ownerOf(relationshipOwners, relationshipId, "relationship not found"),
+                relationshipId);
     }
 
     @Override
     public List<Relationship> listRelationships(String personId) {
         requirePersonExists(personId);
-        return relationshipRepository.list(personId);
+        return live(relationshipRepository.list(personId), Relationship::relatedPersonId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        getPerson(personId, asOf);
+        return history.relationships().listAsOf(personId, asOf);
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        return queryEngine.execute(query);
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        return queryEngine.explain(query);
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return DuplicateDetector.find(listPeople(), threshold);
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        requirePersonExists(personId);
+        return households.household(personId, tombstones::contains);
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        return households.households(minSize, tombstones::contains);
+    }
+
+    Household householdAt(String addressKey) {
+        return households.householdAt(addressKey, tombstones::contains);
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return geo.stats(tombstones.pending());
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return textIndex.search(text, limit, tombstones::contains);
+    }
+
+    public String ownerOf(Change.Kind kind, String childId) {
+        return switch (kind) {
+            case PERSON -> personRepository.exists(childId) ? childId : null;
+            case ADDRESS -> liveOwner(addressOwners.owner(childId));
+            case EMPLOYMENT -> liveOwner(employmentOwners.owner(childId));
+            case RELATIONSHIP -> liveOwner(relationshipOwners.owner(childId));
+        };
+    }
+
+    @Override
+    public void importChanges(List<Change> changes) {
+        for (Change change : changes) {
+            apply(change);
+        }
+    }
+
+    public void apply(Change change) {
+        if (change.kind() == Change.Kind.PERSON && change.isRemoval()) {
+            removePerson(change.id());
+            return;
+        }
+        locked(change.personId(), () -> applyValue(change));
+    }
+
+    private void applyValue(Change change) {
+        switch (change.kind()) {
+            case PERSON -> {
+                if (applyPut((Person) change.value(), personRepository.find(change.id()), Person::version,
+                        ((Person) change.value())::withVersion, personRepository::create, personRepository::update,
+                        () -> personRepository.delete(change.id()))) {
+                    history.people().record(change.personId(), change.id(), (Person) change.value());
+                }
+            }
+            case ADDRESS -> {
+                if (change.isRemoval()) {
+                    if (addressRepository.delete(change.personId(), change.id()) != null) {
+                        addressDeleted(change.personId(), change.id());
+                    }
+                } else if (applyPut((Address) change.value(), addressRepository.find(change.personId(), change.id()),
+                        Address::version, ((Address) change.value())::withVersion, addressRepository::create,
+                        addressRepository::update, () -> addressRepository.delete(change.personId(), change.id()))) {
+                    addressStored((Address) change.value());
+                }
+            }
+            case EMPLOYMENT -> {
+                if (change.isRemoval()) {
+                    if (employmentRepository.delete(change.personId(), change.id()) != null) {
+                        employmentDeleted(change.personId(), change.id());
+                    }
+                    return;
+                }
+                Employment employment = (Employment) change.value();
+                companyRepository.register(new Company(employment.companyId(), employment.name(),
+                        employment.address()));
+                if (applyPut(employment, employmentRepository.find(change.personId(), change.id()),
+                        Employment::version, employment::withVersion, employmentRepository::create,
+                        employmentRepository::update,
+                        () -> employmentRepository.delete(change.personId(), change.id()))) {
+                    employmentStored(employment);
+                }
+            }
+            case RELATIONSHIP -> {
+                if (change.isRemoval()) {
+                    if (relationshipRepository.delete(change.personId(), change.id()) != null) {
+                        relationshipDeleted(change.personId(), change.id());
+                    }
+                } else if (applyPut((Relationship) change.value(),
+                        relationshipRepository.find(change.personId(), change.id()), Relationship::version,
+                        ((Relationship) change.value())::withVersion, relationshipRepository::create,
+                        relationshipRepository::update,
+                        () -> relationshipRepository.delete(change.personId(), change.id()))) {
+                    relationshipStored((Relationship) change.value());
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (Person person : personRepository.list()) {
+            removePerson(person.id());
+        }
+        reclaim(Integer.MAX_VALUE);
+    }
+
+    public History history() {
+        return history;
+    }
+
+    public HistoryPruner startHistoryPruning(Duration retention) {
+        return history.startPruning(retention);
+    }
+
+    public Reclaimer startReclaiming(int batchSize, Duration interval) {
+        Reclaimer reclaimer = Reclaimer.start(this::reclaim, batchSize, interval);
+        softDeletes = true;
+        return reclaimer;
+    }
+
+    public int reclaim(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("reclaim batch size must be positive");
+        }
+        int removed = 0;
+        String personId;
+        while (removed < limit && (personId = tombstones.next()) != null) {
+            try {
+                removed += reclaimChildren(personId, limit - removed);
+            } catch (RuntimeException ex) {
+                tombstones.failed(personId);
+                LOG.log(System.Logger.Level.WARNING, "reclaiming person " + personId + " failed", ex);
+                break;
+            }
+        }
+        tombstones.recordBatch(removed);
+        return removed;
+    }
+
+    public ReclaimStats reclaimStats() {
+        return tombstones.stats();
+    }
+
+    public List<FilterStats> filterStats() {
+        List<FilterStats> stats = new ArrayList<>();
+        for (Object repository : List.of(personRepository, addressRepository, employmentRepository,
+                relationshipRepository)) {
+            if (repository instanceof FilteredRepository filtered) {
+                stats.add(filtered.filterStats());
+            }
+        }
+        return stats;
+    }
+
+    private Person tryCreatePerson(Person person, ValidationErrors errors) {
+        return tryCreatePerson(person, generateId(), errors);
+    }
+
+    private Person tryCreatePerson(Person person, String id, ValidationErrors errors) {
+        checkNoProvidedId(person.id(), "person id", errors);
+        Person created = new Person(id, person.firstName(), person.middleName(), person.lastName(),
+                person.dateOfBirth(), person.gender(), person.preferredGender(), person.pictureHash(),
+                INITIAL_VERSION);
+        ValidationEngine.PERSON.validate(created, errors);
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        if (personRepository.exists(created.id())) {
+            errors.add("person id already exists");
+            return null;
+        }
+        if (created.pictureHash() != null) {
+            if (pictures == null || !pictures.contains(created.pictureHash())) {
+                errors.add("picture not found");
+                return null;
+            }
+            pictures.retain(created.pictureHash());
+        }
+        if (tombstones.contains(id)) {
+            tombstones.recordBatch(reclaimChildren(id, Integer.MAX_VALUE));
+        }
+        personRepository.create(created);
+        history.people().record(id, id, created);
+        return created;
+    }
+
+    private Address tryCreateAddress(Address address, ValidationErrors errors) {
+        checkNoProvidedId(address.id(), "address id", errors);
+        Address created = new Address(generateId(), address.personId(), address.address(), address.town(),
+                address.state(), address.type(), address.description(), address.owns(), address.primary(),
+                address.monthlyPayment(), address.bedrooms(), address.bathrooms(), INITIAL_VERSION);
+        ValidationEngine.ADDRESS.validate(created, errors);
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        if (!checkPersonExists(address.personId(), errors)) {
+            return null;
+        }
+        if (addressRepository.exists(address.personId(), created.id())) {
+            errors.add("address id already exists for person");
+            return null;
+        }
+        return locked(created.personId(), () -> {
+            addressRepository.create(created);
+            addressStored(created);
+            return created;
+        });
+    }
+
+    private Employment tryCreateEmployment(Employment employment, ValidationErrors errors) {
+        checkNoProvidedId(employment.id(), "employment id", errors);
+        Employment created = new Employment(generateId(), employment.personId(), employment.name(),
+                employment.description(), employment.address(), employment.jobTitle(), employment.payType(),
+                employment.rateOfPay(), employment.currentEmployer(), employment.startDate(), employment.endDate(),
+                INITIAL_VERSION);
+        ValidationEngine.EMPLOYMENT.validate(created, errors);
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        if (!checkPersonExists(employment.personId(), errors)) {
+            return null;
+        }
+        if (employmentRepository.exists(employment.personId(), created.id())) {
+            errors.add("employment id already exists for person");
+            return null;
+        }
+        Employment resolved = created.withCompany(
+                companyRepository.findOrCreate(created.name(), created.address()));
+        return locked(resolved.personId(), () -> {
+            employmentRepository.create(resolved);
+            employmentStored(resolved);
+            return resolved;
+        });
+    }
+
+    private Relationship tryCreateRelationship(Relationship relationship, ValidationErrors errors) {
+        checkNoProvidedId(relationship.id(), "relationship id", errors);
+        Relationship created = new Relationship(generateId(), relationship.personId(),
+                relationship.relatedPersonId(), relationship.type(), INITIAL_VERSION);
+        ValidationEngine.RELATIONSHIP.validate(created, errors);
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        boolean personFound = checkPersonExists(relationship.personId(), errors);
+        boolean relatedPersonFound = knownPeople.test(relationship.relatedPersonId());
+        if (!relatedPersonFound) {
+            errors.add("person not found");
+        }
+        if (!personFound || !relatedPersonFound) {
+            return null;
+        }
+        if (relationshipRepository.exists(relationship.personId(), created.id())) {
+            errors.add("relationship id already exists for person");
+            return null;
+        }
+        return locked(created.personId(), () -> {
+            relationshipRepository.create(created);
+            relationshipStored(created);
+            return created;
+        });
+    }
+
+    private static <T> boolean applyPut(T value, Optional<T> stored, ToLongFunction<T> version,
+                                        LongFunction<T> atVersion, Consumer<T> create, UnaryOperator<T> update,
+                                        Runnable delete) {
+        if (stored.isEmpty()) {
+            create.accept(value);
+            return true;
+        }
+        long current = version.applyAsLong(stored.get());
+        long target = version.applyAsLong(value);
+        if (current >= target) {
+            return false;
+        }
+        if (current + 1 == target) {
+            update.apply(atVersion.apply(current));
+        } else {
+            delete.run();
+            create.accept(value);
+        }
+        return true;
+    }
+
+    private <T> T createOne(T value, Creator<T> creator) {
+        ValidationErrors errors = Validators.sink();
+        T created = creator.tryCreate(value, errors);
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors.messages());
+        }
+        return created;
+    }
+
+    private <T> BulkResult<T> createAll(List<T> values, String label, Creator<T> creator) {
+        return createRows(values, label, (row, value, errors) -> creator.tryCreate(value, errors));
+    }
+
+    private <T> BulkResult<T> createRows(List<T> values, String label, RowCreator<T> creator) {
+        ValidationErrors errors = new ValidationErrors();
+        List<T> created = new ArrayList<>(values.size());
+        List<RowError> rowErrors = new ArrayList<>();
+        String missing = label + " must be provided";
+        for (int row = 0; row < values.size(); row++) {
+            T value = values.get(row);
+            errors.clear();
+            if (value == null) {
+                errors.add(missing);
+            } else {
+                T result = creator.tryCreate(row, value, errors);
+                if (errors.isEmpty()) {
+                    created.add(result);
+                    continue;
+                }
+            }
+            rowErrors.add(new RowError(row, errors.messages()));
+        }
+        return new BulkResult<>(created, rowErrors);
+    }
+
+    private boolean checkPersonExists(String id, ValidationErrors errors) {
+        if (personRepository.exists(id)) {
+            return true;
+        }
+        errors.add("person not found");
+        return false;
+    }
+
+    private void checkNoProvidedId(String id, String label, ValidationErrors errors) {
+        if (id != null && !id.isBlank()) {
+            errors.add(label + " must not be provided");
+        }
+    }
+
+    private String ownerOf(OwnerIndex owners, String childId, String notFound) {
+        String owner = childId == null ? null : liveOwner(owners.owner(childId));
+        if (owner == null) {
+            throw new NotFoundException(notFound);
+        }
+        return owner;
+    }
+
+    private String liveOwner(String owner) {
+        return owner == null || tombstones.contains(owner) ? null : owner;
     }
 
     private void requirePersonExists(String id) {
         if (!personRepository.exists(id)) {
-            throw new IllegalArgumentException("person not found");
+            throw new NotFoundException("person not found");
+        }
+    }
+
+    private <T> T compareAndSet(long requestedVersion, Supplier<T> current, ToLongFunction<T> version,
+                                LongFunction<T> withVersion, UnaryOperator<T> update) {
+        while (true) {
+            long expected = requestedVersion == UNVERSIONED ? version.applyAsLong(current.get()) : requestedVersion;
+            try {
+                return update.apply(withVersion.apply(expected));
+            } catch (VersionConflictException ex) {
+                if (requestedVersion != UNVERSIONED) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private PictureStore requirePictures() {
+        if (pictures == null) {
+            throw new IllegalArgumentException("picture storage is not configured");
+        }
+        return pictures;
+    }
+
+    private void releasePicture(String hash) {
+        if (pictures != null) {
+            pictures.release(hash);
+        }
+    }
+
+    private void requireCompanyExists(String companyId) {
+        if (companyRepository.find(companyId).isEmpty()) {
+            throw new NotFoundException("company not found");
         }
     }
 
     private void requireAddressExists(String personId, String addressId) {
         if (!addressRepository.exists(personId, addressId)) {
-            throw new IllegalArgumentException("address not found");
+            throw new NotFoundException("address not found");
         }
     }
 
     private void requireEmploymentExists(String personId, String employmentId) {
         if (!employmentRepository.exists(personId, employmentId)) {
-            throw new IllegalArgumentException("employment not found");
+            throw new NotFoundException("employment not found");
+        }
+    }
+
+    private int reclaimChildren(String personId, int budget) {
+        int removed = locked(personId, () -> reclaimOwnChildren(personId, budget));
+        Map<String, String> incoming = relationshipTargets.relatedTo(personId, budget - removed);
+        incoming.forEach(this::deleteIncoming);
+        removed += incoming.size();
+        if (removed < budget) {
+            tombstones.reclaimed(personId);
+            history.forget(personId);
         }
+        return removed;
+    }
+
+    private int reclaimOwnChildren(String personId, int budget) {
+        int removed = 0;
+        for (Address address : head(addressRepository.list(personId), budget)) {
+            if (addressRepository.delete(personId, address.id()) != null) {
+                addressDeleted(personId, address.id());
+            }
+            removed++;
+        }
+        for (Employment employment : head(employmentRepository.list(personId), budget - removed)) {
+            if (employmentRepository.delete(personId, employment.id()) != null) {
+                employmentDeleted(personId, employment.id());
+            }
+            removed++;
+        }
+        for (Relationship relationship : head(relationshipRepository.list(personId), budget - removed)) {
+            if (relationshipRepository.delete(personId, relationship.id()) != null) {
+                relationshipDeleted(personId, relationship.id());
+            }
+            removed++;
+        }
+        return removed;
+    }
+
+    private void deleteIncoming(String relationshipId, String owner) {
+        locked(owner, () -> {
+            if (relationshipRepository.delete(owner, relationshipId) != null) {
+                relationshipDeleted(owner, relationshipId);
+            } else {
+                relationshipTargets.remove(relationshipId);
+            }
+        });
+    }
+
+    private <T> T locked(String personId, Supplier<T> action) {
+        int hash = personId == null ? 0 : personId.hashCode() * 0x9E3779B9;
+        Lock lock = stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void locked(String personId, Runnable action) {
+        locked(personId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static <T> List<T> head(List<T> values, int limit) {
+        return values.size() <= limit ? values : values.subList(0, limit);
+    }
+
+    private <T> List<T> live(List<T> values, Function<T, String> personId) {
+        if (tombstones.isEmpty()) {
+            return values;
+        }
+        return values.stream()
+                .filter(value -> !tombstones.contains(personId.apply(value)))
+                .toList();
+    }
+
+    private List<Address> liveAddresses() {
+        return live(addressRepository.listAll(), Address::personId);
+    }
+
+    private List<Employment> liveEmployments() {
+        return live(employmentRepository.listAll(), Employment::personId);
+    }
+
+    private boolean tombstoneIfOrphaned(String personId) {
+        if (personRepository.exists(personId)) {
+            return false;
+        }
+        tombstones.add(personId);
+        return true;
+    }
+
+    private void addressStored(Address address) {
+        history.addresses().record(address.personId(), address.id(), address);
+        households.put(address);
+        addressOwners.put(address.id(), address.personId());
+        geo.put(address);
+        textIndex.index(address);
+    }
+
+    private void employmentStored(Employment employment) {
+        history.employments().record(employment.personId(), employment.id(), employment);
+        textIndex.index(employment);
+        employmentPeriods.put(employment);
+        employmentOwners.put(employment.id(), employment.personId());
+    }
+
+    private void relationshipStored(Relationship relationship) {
+        history.relationships().record(relationship.personId(), relationship.id(), relationship);
+        relationshipOwners.put(relationship.id(), relationship.personId());
+        relationshipTargets.put(relationship.id(), relationship.personId(), relationship.relatedPersonId());
+    }
+
+    private void addressDeleted(String personId, String addressId) {
+        history.addresses().recordDeleted(personId, addressId);
+        households.remove(personId, addressId);
+        addressOwners.remove(addressId);
+        geo.remove(personId, addressId);
+        textIndex.remove(TextIndex.ADDRESS, personId, addressId);
+    }
+
+    private void employmentDeleted(String personId, String employmentId) {
+        history.employments().recordDeleted(personId, employmentId);
+        textIndex.remove(TextIndex.EMPLOYMENT, personId, employmentId);
+        employmentPeriods.remove(personId, employmentId);
+        employmentOwners.remove(employmentId);
+    }
+
+    private void relationshipDeleted(String personId, String relationshipId) {
+        history.relationships().recordDeleted(personId, relationshipId);
+        relationshipOwners.remove(relationshipId);
+        relationshipTargets.remove(relationshipId);
     }
 
     private void requireRelationshipExists(String personId, String relationshipId) {
         if (!relationshipRepository.exists(personId, relationshipId)) {
-            throw new IllegalArgumentException("relationship not found");
+            throw new NotFoundException("relationship not found");
         }
     }
 
@@ -313,28 +1271,13 @@ public final class PeopleService implements PeopleApi {
         return UUID.randomUUID().toString();
     }
 
-    private void rejectProvidedId(String id, String label) {
-        if (id != null && !id.isBlank()) {
-            throw new IllegalArgumentException(label + " must not be provided");
-        }
+    @FunctionalInterface
+    private interface Creator<T> {
+        T tryCreate(T value, ValidationErrors errors);
     }
 
-    private static final class CompanySummaryBuilder {
-        private final String name;
-        private final String address;
-        private final Map<String, Boolean> employeeIds = new TreeMap<>();
-
-        private CompanySummaryBuilder(String name, String address) {
-            this.name = name;
-            this.address = address;
-        }
-
-        private void addEmployee(String personId) {
-            employeeIds.put(personId, Boolean.TRUE);
-        }
-
-        private CompanySummary build() {
-            return new CompanySummary(name, address, employeeIds.size());
-        }
+    @FunctionalInterface
+    private interface RowCreator<T> {
+        T tryCreate(int row, T value, ValidationErrors errors);
     }
 }
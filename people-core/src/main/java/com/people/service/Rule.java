@@ -0,0 +1,6 @@
+package com.people.service;
+
+@FunctionalInterface
+public interface Rule<T> {
+    void check(T value, ValidationErrors errors);
+}
@@ -0,0 +1,22 @@
+package com.people.service;
+
+public final class RuleSet<T> {
+    private final Rule<T>[] rules;
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public RuleSet(Rule<T>... rules) {
+        this.rules = (Rule<T>[]) new Rule<?>[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            this.rules[i] = rules[i];
+        }
+    }
+
+    public boolean validate(T value, ValidationErrors errors) {
+        int before = errors.size();
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].check(value, errors);
+        }
+        return errors.size() == before;
+    }
+}
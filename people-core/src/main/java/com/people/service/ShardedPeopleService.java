@@ -0,0 +1,622 @@
+package com.people.service;
+
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.NotFoundException;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.RowError;
+import com.people.api.SearchHit;
+import com.people.dedup.DuplicateDetector;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+import com.people.geo.GeoRollup;
+import com.people.history.History;
+import com.people.history.HistoryPruner;
+import com.people.household.HouseholdIndex;
+import com.people.interval.EmploymentIntervalIndex;
+import com.people.picture.PictureStore;
+import com.people.query.PlanStep;
+import com.people.query.Query;
+import com.people.query.QueryEngine;
+import com.people.query.QueryPlan;
+import com.people.replication.Change;
+import com.people.repo.CompanyRepository;
+import com.people.repo.InMemoryAddressRepository;
+import com.people.repo.InMemoryCompanyRepository;
+import com.people.repo.InMemoryEmploymentRepository;
+import com.people.repo.InMemoryPersonRepository;
+import com.people.repo.InMemoryRelationshipRepository;
+import com.people.repo.PersonRepository;
+import com.people.search.TextIndex;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+public final class ShardedPeopleService implements PeopleApi, AutoCloseable {
+    private final Shard[] shards;
+    private final List<Map<String, Set<Integer>>> householdKeys;
+    private final ExecutorService readers;
+
+    public ShardedPeopleService(int shardCount) {
+        this(shardCount, null);
+    }
+
+    public ShardedPeopleService(int shardCount, PictureStore pictures) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shard count must be positive");
+        }
+        this.shards = new Shard[shardCount];
+        this.householdKeys = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            householdKeys.add(new ConcurrentHashMap<>());
+        }
+        CompanyRepository companies = new InMemoryCompanyRepository();
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            PersonRepository people = new InMemoryPersonRepository();
+            PeopleService service = new PeopleService(people, new InMemoryAddressRepository(),
+                    new InMemoryEmploymentRepository(companies), new InMemoryRelationshipRepository(), companies,
+                    pictures, this::personExists,
+                    new HouseholdIndex(key -> householdKeyAdded(key, shard), key -> householdKeyRemoved(key, shard)));
+            ExecutorService writer = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("people-shard-" + i).daemon(true).factory());
+            shards[i] = new Shard(service, people, writer);
+        }
+        this.readers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String personId) {
+        if (personId == null) {
+            return 0;
+        }
+        int hash = personId.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    @Override
+    public Person createPerson(Person person) {
+        String id = UUID.randomUUID().toString();
+        return write(id, shard -> shard.createPerson(person, id));
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        List<String> ids = new ArrayList<>(people.size());
+        for (int i = 0; i < people.size(); i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return createPartitioned(people, ids::get, (shard, batch, rows) -> {
+            List<String> batchIds = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                batchIds.add(ids.get(row));
+            }
+            return shard.createPeople(batch, batchIds);
+        });
+    }
+
+    @Override
+    public Person updatePerson(Person person) {
+        return write(person.id(), shard -> shard.updatePerson(person));
+    }
+
+    /**
+     * Deletes the person on its owning shard, then removes incoming relationships on the other shards. This is not
+     * atomic: the person is gone once the owning shard commits, and if a later shard fails its incoming
+     * relationships are left in place. Every shard is still awaited before the first failure is rethrown.
+     */
+    @Override
+    public Person deletePerson(String id) {
+        Person deleted = write(id, shard -> shard.deletePerson(id));
+        int owner = shardOf(id);
+        List<Future<Void>> pending = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            if (i != owner) {
+                PeopleService shard = shards[i].service();
+                pending.add(shards[i].writer().submit(() -> {
+                    shard.deleteRelationshipsRelatedTo(id);
+                    return null;
+                }));
+            }
+        }
+        RuntimeException failure = null;
+        for (Future<Void> future : pending) {
+            try {
+                await(future);
+            } catch (RuntimeException ex) {
+                if (failure == null) {
+                    failure = ex;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return deleted;
+    }
+
+    @Override
+    public Person getPerson(String id) {
+        return shard(id).getPerson(id);
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        return shard(id).getPersonDetail(id, parts);
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return shard(id).getPerson(id, asOf);
+    }
+
+    @Override
+    public List<Person> listPeople() {
+        return gather(PeopleService::listPeople);
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        return write(personId, shard -> shard.setPicture(personId, image));
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        return shard(personId).getPicture(personId);
+    }
+
+    @Override
+    public Address createAddress(Address address) {
+        return write(address.personId(), shard -> shard.createAddress(address));
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        return createPartitioned(addresses, row -> personIdOf(addresses.get(row), Address::personId),
+                (shard, batch, rows) -> shard.createAddresses(batch));
+    }
+
+    @Override
+    public Address updateAddress(Address address) {
+        return write(address.personId(), shard -> shard.updateAddress(address));
+    }
+
+    @Override
+    public Address deleteAddress(String personId, String addressId) {
+        return write(personId, shard -> shard.deleteAddress(personId, addressId));
+    }
+
+    @Override
+    public Address getAddress(String personId, String addressId) {
+        return shard(personId).getAddress(personId, addressId);
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return getAddress(ownerOf(Change.Kind.ADDRESS, addressId), addressId);
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        return deleteAddress(ownerOf(Change.Kind.ADDRESS, addressId), addressId);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId) {
+        return shard(personId).listAddresses(personId);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        return shard(personId).listAddresses(personId, asOf);
+    }
+
+    @Override
+    public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
+        return gather(shard -> shard.listAddressesFiltered(street, town, state, streetContains));
+    }
+
+    @Override
+    public Employment createEmployment(Employment employment) {
+        return write(employment.personId(), shard -> shard.createEmployment(employment));
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        return createPartitioned(employments, row -> personIdOf(employments.get(row), Employment::personId),
+                (shard, batch, rows) -> shard.createEmployments(batch));
+    }
+
+    @Override
+    public Employment updateEmployment(Employment employment) {
+        return write(employment.personId(), shard -> shard.updateEmployment(employment));
+    }
+
+    @Override
+    public Employment deleteEmployment(String personId, String employmentId) {
+        return write(personId, shard -> shard.deleteEmployment(personId, employmentId));
+    }
+
+    @Override
+    public Employment getEmployment(String personId, String employmentId) {
+        return shard(personId).getEmployment(personId, employmentId);
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return getEmployment(ownerOf(Change.Kind.EMPLOYMENT, employmentId), employmentId);
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        return deleteEmployment(ownerOf(Change.Kind.EMPLOYMENT, employmentId), employmentId);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId) {
+        return shard(personId).listEmployments(personId);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        return shard(personId).listEmployments(personId, asOf);
+    }
+
+    @Override
+    public List<Employment> listAllEmployments() {
+        return gather(PeopleService::listAllEmployments);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        List<Employment> employments = gather(shard -> shard.listEmploymentsOn(date, companyId));
+        employments.sort(EmploymentIntervalIndex.BY_START);
+        return employments;
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        List<Employment> employments = gather(shard -> shard.listEmploymentsOverlapping(from, to, companyId));
+        employments.sort(EmploymentIntervalIndex.BY_START);
+        return employments;
+    }
+
+    @Override
+    public List<CompanySummary> listCompanies() {
+        Map<String, CompanySummary> merged = new HashMap<>();
+        for (CompanySummary company : gather(PeopleService::listCompanies)) {
+            merged.merge(company.id(), company, (a, b) ->
+                    new CompanySummary(a.id(), a.name(), a.address(), a.employeeCount() + b.employeeCount()));
+        }
+        List<CompanySummary> summaries = new ArrayList<>(merged.values());
+        summaries.sort(Comparator.comparing(CompanySummary::name));
+        return summaries;
+    }
+
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        return gather(shard -> shard.listCompanyEmployments(companyId));
+    }
+
+    @Override
+    public Relationship createRelationship(Relationship relationship) {
+        return write(relationship.personId(), shard -> shard.createRelationship(relationship));
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        return createPartitioned(relationships,
+                row -> personIdOf(relationships.get(row), Relationship::personId),
+                (shard, batch, rows) -> shard.createRelationships(batch));
+    }
+
+    @Override
+    public Relationship updateRelationship(Relationship relationship) {
+        return write(relationship.personId(), shard -> shard.updateRelationship(relationship));
+    }
+
+    @Override
+    public Relationship deleteRelationship(String personId, String relationshipId) {
+        return write(personId, shard -> shard.deleteRelationship(personId, relationshipId));
+    }
+
+    @Override
+    public Relationship getRelationship(String personId, String relationshipId) {
+        return shard(personId).getRelationship(personId, relationshipId);
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return getRelationship(ownerOf(Change.Kind.RELATIONSHIP, relationshipId), relationshipId);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        return deleteRelationship(ownerOf(Change.Kind.RELATIONSHIP, relationshipId), relationshipId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId) {
+        return shard(personId).listRelationships(personId);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        return shard(personId).listRelationships(personId, asOf);
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        return QueryEngine.merge(query, gather(shard -> shard.query(query)));
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        Household local = shard(personId).getHousehold(personId);
+        if (local.addresses().isEmpty()) {
+            return local;
+        }
+        int owner = shardOf(personId);
+        List<Household> parts = new ArrayList<>(List.of(local));
+        Set<String> covered = new HashSet<>();
+        Set<String> seen = new HashSet<>(local.addresses());
+        Deque<String> pending = new ArrayDeque<>(local.addresses());
+        for (String key : local.addresses()) {
+            covered.add(owner + "|" + key);
+        }
+        while (!pending.isEmpty()) {
+            String key = pending.poll();
+            for (int holder : householdKeys.get(shardOf(key)).getOrDefault(key, Set.of())) {
+                if (covered.contains(holder + "|" + key)) {
+                    continue;
+                }
+                Household part = shards[holder].service().householdAt(key);
+                if (part == null) {
+                    continue;
+                }
+                parts.add(part);
+                for (String next : part.addresses()) {
+                    covered.add(holder + "|" + next);
+                    if (seen.add(next)) {
+                        pending.add(next);
+                    }
+                }
+            }
+        }
+        return HouseholdIndex.merge(parts).get(0);
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        List<Household> households = HouseholdIndex.merge(gather(shard -> shard.listHouseholds(1)));
+        households.removeIf(household -> household.size() < minSize);
+        return households;
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return TextIndex.merge(gather(shard -> shard.search(text, limit)), limit);
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return GeoRollup.merge(gather(PeopleService::listGeoStats));
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return DuplicateDetector.find(listPeople(), threshold);
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        QueryPlan shardPlan = shards[0].service().explain(query);
+        List<PlanStep> steps = new ArrayList<>();
+        long total = shardPlan.steps().get(0).estimatedRows() * shards.length;
+        if (query.limit() > 0) {
+            total = Math.min(total, query.limit());
+        }
+        boolean reorder = query.limit() > 0 || !query.orderBy().isEmpty();
+        steps.add(new PlanStep("Gather", shards.length + " shards in parallel"
+                + (reorder ? ", then re-applies order and limit" : ""), total));
+        steps.addAll(shardPlan.steps());
+        return new QueryPlan(steps);
+    }
+
+    public HistoryPruner startHistoryPruning(Duration retention) {
+        return HistoryPruner.start(horizon -> {
+            int pruned = 0;
+            for (Shard shard : shards) {
+                pruned += shard.service().history().prune(horizon);
+            }
+            return pruned;
+        }, Clock.systemUTC(), retention, History.DEFAULT_PRUNE_INTERVAL);
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.writer().close();
+        }
+        readers.close();
+    }
+
+    private boolean personExists(String id) {
+        return id != null && shards[shardOf(id)].people().exists(id);
+    }
+
+    private PeopleService shard(String personId) {
+        return shards[shardOf(personId)].service();
+    }
+
+    private <T> T write(String personId, Function<PeopleService, T> operation) {
+        Shard shard = shards[shardOf(personId)];
+        return await(shard.writer().submit(() -> operation.apply(shard.service())));
+    }
+
+    private String ownerOf(Change.Kind kind, String childId) {
+        for (Shard shard : shards) {
+            String owner = shard.service().ownerOf(kind, childId);
+            if (owner != null) {
+                return owner;
+            }
+        }
+        throw new NotFoundException(kind.name().toLowerCase() + " not found");
+    }
+
+    private <T> List<T> gather(Function<PeopleService, List<T>> query) {
+        if (shards.length == 1) {
+            return query.apply(shards[0].service());
+        }
+        List<Future<List<T>>> pending = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            Callable<List<T>> task = () -> query.apply(shard.service());
+            pending.add(readers.submit(task));
+        }
+        List<T> all = new ArrayList<>();
+        for (Future<List<T>> future : pending) {
+            all.addAll(await(future));
+        }
+        return all;
+    }
+
+    private <T> BulkResult<T> createPartitioned(List<T> values, IntFunction<String> personIdOfRow,
+                                                ShardBatch<T> create) {
+        int[] counts = new int[shards.length];
+        int[] shardOfRow = new int[values.size()];
+        for (int row = 0; row < values.size(); row++) {
+            shardOfRow[row] = shardOf(personIdOfRow.apply(row));
+            counts[shardOfRow[row]]++;
+        }
+        int[][] rowsByShard = new int[shards.length][];
+        for (int i = 0; i < shards.length; i++) {
+            rowsByShard[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int row = 0; row < values.size(); row++) {
+            int shard = shardOfRow[row];
+            rowsByShard[shard][counts[shard]++] = row;
+        }
+
+        List<Future<BulkResult<T>>> pending = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int[] rows = rowsByShard[i];
+            if (rows.length == 0) {
+                pending.add(null);
+                continue;
+            }
+            List<T> batch = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                batch.add(values.get(row));
+            }
+            PeopleService shard = shards[i].service();
+            pending.add(shards[i].writer().submit(() -> create.create(shard, batch, rows)));
+        }
+
+        List<T> createdByRow = new ArrayList<>(values.size());
+        for (int row = 0; row < values.size(); row++) {
+            createdByRow.add(null);
+        }
+        boolean[] failed = new boolean[values.size()];
+        List<RowError> errors = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            if (pending.get(i) == null) {
+                continue;
+            }
+            int[] rows = rowsByShard[i];
+            BulkResult<T> result = await(pending.get(i));
+            for (RowError error : result.errors()) {
+                failed[rows[error.row()]] = true;
+                errors.add(new RowError(rows[error.row()], error.messages()));
+            }
+            int next = 0;
+            for (int row : rows) {
+                if (!failed[row]) {
+                    createdByRow.set(row, result.created().get(next++));
+                }
+            }
+        }
+        List<T> created = new ArrayList<>(values.size() - errors.size());
+        for (int row = 0; row < values.size(); row++) {
+            if (!failed[row]) {
+                created.add(createdByRow.get(row));
+            }
+        }
+        errors.sort(Comparator.comparingInt(RowError::row));
+        return new BulkResult<>(created, errors);
+    }
+
+    private static <T> String personIdOf(T value, Function<T, String> personId) {
+        return value == null ? null : personId.apply(value);
+    }
+
+    private void householdKeyAdded(String key, int shard) {
+        householdKeys.get(shardOf(key)).compute(key, (k, holders) -> {
+            Set<Integer> next = holders == null ? ConcurrentHashMap.newKeySet() : holders;
+            next.add(shard);
+            return next;
+        });
+    }
+
+    private void householdKeyRemoved(String key, int shard) {
+        householdKeys.get(shardOf(key)).computeIfPresent(key, (k, holders) -> {
+            holders.remove(shard);
+            return holders.isEmpty() ? null : holders;
+        });
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for shard", ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ShardBatch<T> {
+        BulkResult<T> create(PeopleService shard, List<T> batch, int[] rows);
+    }
+
+    private record Shard(PeopleService service, PersonRepository people, ExecutorService writer) {
+    }
+}
@@ -0,0 +1,247 @@
+package com.people.service;
+
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Money;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+public final class ValidationEngine {
+
+    public static final RuleSet<Person> PERSON = new RuleSet<>(
+            id(Person::id, "person id"),
+            nonBlank(Person::firstName, "first name", ValidationRules.NAME_MAX),
+            optional(Person::middleName, "middle name", ValidationRules.NAME_MAX),
+            nonBlank(Person::lastName, "last name", ValidationRules.NAME_MAX),
+            pastDate(Person::dateOfBirth, "date of birth"),
+            required(Person::gender, "gender"),
+            preferredGender(),
+            digest(Person::pictureHash, "picture hash", ValidationRules.PICTURE_HASH_LENGTH),
+            version(Person::version)
+    );
+
+    public static final RuleSet<Address> ADDRESS = new RuleSet<>(
+            id(Address::id, "address id"),
+            id(Address::personId, "person id"),
+            nonBlank(Address::address, "street", ValidationRules.ADDRESS_MAX),
+            nonBlank(Address::town, "town", ValidationRules.TOWN_MAX),
+            nonBlank(Address::state, "state", ValidationRules.STATE_MAX),
+            required(Address::type, "address type"),
+            optional(Address::description, "description", ValidationRules.DESCRIPTION_MAX),
+            money(Address::monthlyPayment, "monthly payment", ValidationRules.MONTHLY_PAYMENT_MAX,
+                    ValidationRules.MONTHLY_PAYMENT_MAX_CENTS),
+            range(Address::bedrooms, "bedrooms", ValidationRules.MIN_ROOMS, ValidationRules.MAX_ROOMS),
+            range(Address::bathrooms, "bathrooms", ValidationRules.MIN_ROOMS, ValidationRules.MAX_ROOMS),
+            version(Address::version)
+    );
+
+    public static final RuleSet<Employment> EMPLOYMENT = new RuleSet<>(
+            id(Employment::id, "employment id"),
+            id(Employment::personId, "person id"),
+            nonBlank(Employment::name, "company name", ValidationRules.COMPANY_NAME_MAX),
+            optional(Employment::description, "company description", ValidationRules.DESCRIPTION_MAX),
+            nonBlank(Employment::address, "employment address", ValidationRules.ADDRESS_MAX),
+            nonBlank(Employment::jobTitle, "job title", ValidationRules.JOB_TITLE_MAX),
+            required(Employment::payType, "pay type"),
+            money(Employment::rateOfPay, "rate of pay", ValidationRules.RATE_OF_PAY_MAX,
+                    ValidationRules.RATE_OF_PAY_MAX_CENTS),
+            pastDate(Employment::startDate, "start date"),
+            employmentPeriod(),
+            version(Employment::version)
+    );
+
+    public static final RuleSet<Relationship> RELATIONSHIP = new RuleSet<>(
+            id(Relationship::id, "relationship id"),
+            id(Relationship::personId, "person id"),
+            id(Relationship::relatedPersonId, "related person id"),
+            required(Relationship::type, "relationship type"),
+            distinctPeople(),
+            version(Relationship::version)
+    );
+
+    private static volatile Today today = Today.compute();
+
+    private ValidationEngine() {
+    }
+
+    private static <T> Rule<T> id(Function<T, String> field, String label) {
+        return nonBlank(field, label, ValidationRules.ID_MAX);
+    }
+
+    private static <T> Rule<T> nonBlank(Function<T, String> field, String label, int maxLen) {
+        String missing = label + " must be provided";
+        String tooLong = label + " must be at most " + maxLen + " characters";
+        return (value, errors) -> {
+            String text = field.apply(value);
+            if (text == null || text.isBlank()) {
+                errors.add(missing);
+            } else if (text.length() > maxLen) {
+                errors.add(tooLong);
+            }
+        };
+    }
+
+    private static <T> Rule<T> optional(Function<T, String> field, String label, int maxLen) {
+        String blank = label + " must not be blank";
+        String tooLong = label + " must be at most " + maxLen + " characters";
+        return (value, errors) -> {
+            String text = field.apply(value);
+            if (text == null) {
+                return;
+            }
+            if (text.isBlank()) {
+                errors.add(blank);
+            } else if (text.length() > maxLen) {
+                errors.add(tooLong);
+            }
+        };
+    }
+
+    private static <T> Rule<T> digest(Function<T, String> field, String label, int length) {
+        String malformed = label + " must be " + length + " lowercase hex characters";
+        return (value, errors) -> {
+            String text = field.apply(value);
+            if (text == null) {
+                return;
+            }
+            if (text.length() != length) {
+                errors.add(malformed);
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                    errors.add(malformed);
+                    return;
+                }
+            }
+        };
+    }
+
+    private static <T> Rule<T> version(ToLongFunction<T> field) {
+        String negative = "version must not be negative";
+        return (value, errors) -> {
+            if (field.applyAsLong(value) < 0) {
+                errors.add(negative);
+            }
+        };
+    }
+
+    private static <T> Rule<T> required(Function<T, ?> field, String label) {
+        String missing = label + " must be provided";
+        return (value, errors) -> {
+            if (field.apply(value) == null) {
+                errors.add(missing);
+            }
+        };
+    }
+
+    private static <T> Rule<T> pastDate(Function<T, LocalDate> field, String label) {
+        String missing = label + " must be provided";
+        String future = label + " must not be in the future";
+        return (value, errors) -> {
+            LocalDate date = field.apply(value);
+            if (date == null) {
+                errors.add(missing);
+            } else if (date.isAfter(today())) {
+                errors.add(future);
+            }
+        };
+    }
+
+    private static <T> Rule<T> range(ToIntFunction<T> field, String label, int min, int max) {
+        String outOfRange = label + " must be between " + min + " and " + max;
+        return (value, errors) -> {
+            int number = field.applyAsInt(value);
+            if (number < min || number > max) {
+                errors.add(outOfRange);
+            }
+        };
+    }
+
+    private static <T> Rule<T> money(Function<T, BigDecimal> field, String label, long max, long maxCents) {
+        String missing = label + " must be provided";
+        String tooPrecise = label + " must have at most " + Money.SCALE + " decimal places";
+        String outOfRange = label + " must be between 0 and " + max;
+        BigDecimal maxAmount = BigDecimal.valueOf(maxCents, Money.SCALE);
+        return (value, errors) -> {
+            BigDecimal amount = field.apply(value);
+            if (amount == null) {
+                errors.add(missing);
+                return;
+            }
+            if (amount.scale() > Money.SCALE) {
+                errors.add(tooPrecise);
+            }
+            if (amount.signum() < 0 || amount.compareTo(maxAmount) > 0) {
+                errors.add(outOfRange);
+            }
+        };
+    }
+
+    private static Rule<Person> preferredGender() {
+        String missing = "preferred gender must be provided";
+        Rule<PreferredGender> otherLabel = nonBlank(PreferredGender::otherLabel, "preferred gender other label",
+                ValidationRules.PREFERRED_GENDER_OTHER_MAX);
+        return (person, errors) -> {
+            PreferredGender preferredGender = person.preferredGender();
+            if (preferredGender == null) {
+                errors.add(missing);
+            } else if (preferredGender.type() == PreferredGenderType.OTHER) {
+                otherLabel.check(preferredGender, errors);
+            }
+        };
+    }
+
+    private static Rule<Employment> employmentPeriod() {
+        String endBeforeStart = "end date must be on or after start date";
+        String currentWithEnd = "current employer must not have an end date";
+        return (employment, errors) -> {
+            LocalDate start = employment.startDate();
+            LocalDate end = employment.endDate();
+            if (end != null && start != null && end.isBefore(start)) {
+                errors.add(endBeforeStart);
+            }
+            if (employment.currentEmployer() && end != null) {
+                errors.add(currentWithEnd);
+            }
+        };
+    }
+
+    private static Rule<Relationship> distinctPeople() {
+        String samePerson = "related person id must be different from person id";
+        return (relationship, errors) -> {
+            String personId = relationship.personId();
+            if (personId != null && personId.equals(relationship.relatedPersonId())) {
+                errors.add(samePerson);
+            }
+        };
+    }
+
+    private static LocalDate today() {
+        Today current = today;
+        if (System.currentTimeMillis() >= current.validUntilMillis()) {
+            current = Today.compute();
+            today = current;
+        }
+        return current.date();
+    }
+
+    private record Today(LocalDate date, long validUntilMillis) {
+        private static Today compute() {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = LocalDate.now(zone);
+            long validUntil = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new Today(date, validUntil);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.people.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class ValidationErrors {
+    private String[] messages = new String[4];
+    private int size;
+
+    public void add(String message) {
+        if (size == messages.length) {
+            messages = Arrays.copyOf(messages, size * 2);
+        }
+        messages[size++] = message;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return messages[index];
+    }
+
+    public List<String> messages() {
+        return List.of(Arrays.copyOf(messages, size));
+    }
+
+    public void clear() {
+        Arrays.fill(messages, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.join("; ", messages());
+    }
+}
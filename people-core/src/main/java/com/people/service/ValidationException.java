@@ -0,0 +1,23 @@
+package com.people.service;
+
+import java.util.List;
+
+public final class ValidationException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<String> violations;
+
+    public ValidationException(List<String> violations) {
+        super(String.join("; ", violations));
+        this.violations = violations;
+    }
+
+    public List<String> violations() {
+        return violations;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,5 +1,7 @@
 package com.people.service;
 
+import com.people.domain.Money;
+
 public final class ValidationRules {
     public static final int ID_MAX = 50;
     public static final int NAME_MAX = 100;
@@ -10,12 +12,15 @@ public final class ValidationRules {
     public static final int STATE_MAX = 50;
     public static final int DESCRIPTION_MAX = 500;
     public static final int PREFERRED_GENDER_OTHER_MAX = 50;
+    public static final int PICTURE_HASH_LENGTH = 64;
 
     public static final int MIN_ROOMS = 0;
     public static final int MAX_ROOMS = 100;
 
     public static final long MONTHLY_PAYMENT_MAX = 1_000_000L;
     public static final long RATE_OF_PAY_MAX = 1_000_000_000L;
+    public static final long MONTHLY_PAYMENT_MAX_CENTS = MONTHLY_PAYMENT_MAX * Money.CENTS_PER_UNIT;
+    public static final long RATE_OF_PAY_MAX_CENTS = RATE_OF_PAY_MAX * Money.CENTS_PER_UNIT;
 
     private ValidationRules() {
     }
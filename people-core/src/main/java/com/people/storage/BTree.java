@@ -0,0 +1,497 @@
+package com.people.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+public final class BTree {
+    private static final int MAGIC = 0x42545231;
+    private static final byte LEAF = 1;
+    private static final byte BRANCH = 2;
+    private static final int NODE_HEADER = 7;
+    private static final int SLOT_BYTES = 2;
+    private static final int NO_PAGE = 0;
+
+    private final PageFile file;
+    private final BufferPool pool;
+    private final int pageSize;
+    private final int maxEntryBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int root;
+    private long size;
+
+    BTree(PageFile file, BufferPool pool, int pageSize) {
+        this.file = file;
+        this.pool = pool;
+        this.pageSize = pageSize;
+        this.maxEntryBytes = (pageSize - NODE_HEADER) / 4 - SLOT_BYTES;
+        if (file.pageCount() == 0) {
+            pool.unpin(pool.allocate(file), true);
+            BufferPool.Frame leaf = pool.allocate(file);
+            new Node(true).encode(leaf.buffer);
+            pool.unpin(leaf, true);
+            root = leaf.page();
+            writeHeader();
+            return;
+        }
+        BufferPool.Frame header = pool.pin(file, 0);
+        try {
+            ByteBuffer buffer = header.buffer;
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != pageSize) {
+                throw new IllegalArgumentException(file.path() + " is not a b-tree file with " + pageSize
+                        + " byte pages");
+            }
+            root = buffer.getInt(8);
+            file.extendTo(buffer.getInt(12));
+            size = buffer.getLong(16);
+        } finally {
+            pool.unpin(header, false);
+        }
+    }
+
+    public byte[] get(byte[] key) {
+        lock.readLock().lock();
+        try {
+            return find(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(byte[] key) {
+        return get(key) != null;
+    }
+
+    public byte[] put(byte[] key, byte[] value) {
+        lock.writeLock().lock();
+        try {
+            return store(key, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public byte[] remove(byte[] key) {
+        lock.writeLock().lock();
+        try {
+            return delete(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public byte[] update(byte[] key, UnaryOperator<byte[]> change) {
+        lock.writeLock().lock();
+        try {
+            byte[] current = find(key);
+            byte[] next = change.apply(current);
+            if (next == null) {
+                if (current != null) {
+                    delete(key);
+                }
+            } else {
+                store(key, next);
+            }
+            return next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void scan(byte[] prefix, BiConsumer<byte[], byte[]> visitor) {
+        lock.readLock().lock();
+        try {
+            visit(prefix, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<byte[]> keys(byte[] prefix) {
+        List<byte[]> keys = new ArrayList<>();
+        scan(prefix, (key, value) -> keys.add(key));
+        return keys;
+    }
+
+    public List<byte[]> values(byte[] prefix) {
+        List<byte[]> values = new ArrayList<>();
+        scan(prefix, (key, value) -> values.add(value));
+        return values;
+    }
+
+    public List<byte[]> removePrefix(byte[] prefix) {
+        lock.writeLock().lock();
+        try {
+            List<byte[]> keys = new ArrayList<>();
+            visit(prefix, (key, value) -> keys.add(key));
+            List<byte[]> removed = new ArrayList<>(keys.size());
+            for (byte[] key : keys) {
+                removed.add(delete(key));
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int depth() {
+        lock.readLock().lock();
+        try {
+            int depth = 1;
+            int page = root;
+            while (true) {
+                BufferPool.Frame frame = pool.pin(file, page);
+                try {
+                    if (frame.buffer.get(0) == LEAF) {
+                        return depth;
+                    }
+                    page = frame.buffer.getInt(3);
+                    depth++;
+                } finally {
+                    pool.unpin(frame, false);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void flush() {
+        lock.writeLock().lock();
+        try {
+            writeHeader();
+            pool.flush(file);
+            file.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void close() {
+        flush();
+        pool.discard(file);
+        file.close();
+    }
+
+    private byte[] find(byte[] key) {
+        int page = root;
+        while (true) {
+            BufferPool.Frame frame = pool.pin(file, page);
+            try {
+                ByteBuffer buffer = frame.buffer;
+                int index = search(buffer, key);
+                if (buffer.get(0) == LEAF) {
+                    return index >= 0 ? value(buffer, index) : null;
+                }
+                page = child(buffer, index);
+            } finally {
+                pool.unpin(frame, false);
+            }
+        }
+    }
+
+    private byte[] store(byte[] key, byte[] value) {
+        if (key.length + value.length + 3 * SLOT_BYTES > maxEntryBytes) {
+            throw new IllegalArgumentException("record of " + (key.length + value.length)
+                    + " bytes exceeds the page limit of " + (maxEntryBytes - 3 * SLOT_BYTES) + " bytes");
+        }
+        byte[][] previous = new byte[1][];
+        Split split = insert(root, key, value, previous);
+        if (split != null) {
+            BufferPool.Frame frame = pool.allocate(file);
+            Node node = new Node(false);
+            node.link = root;
+            node.keys.add(split.key());
+            node.children.add(split.page());
+            node.encode(frame.buffer);
+            pool.unpin(frame, true);
+            root = frame.page();
+        }
+        if (previous[0] == null) {
+            size++;
+        }
+        return previous[0];
+    }
+
+    private Split insert(int page, byte[] key, byte[] value, byte[][] previous) {
+        BufferPool.Frame frame = pool.pin(file, page);
+        boolean dirty = false;
+        try {
+            ByteBuffer buffer = frame.buffer;
+            int index = search(buffer, key);
+            Node node;
+            if (buffer.get(0) == LEAF) {
+                node = Node.decode(buffer);
+                if (index >= 0) {
+                    previous[0] = node.values.set(index, value);
+                } else {
+                    node.keys.add(-index - 1, key);
+                    node.values.add(-index - 1, value);
+                }
+            } else {
+                Split split = insert(child(buffer, index), key, value, previous);
+                if (split == null) {
+                    return null;
+                }
+                node = Node.decode(buffer);
+                int at = index >= 0 ? index + 1 : -index - 1;
+                node.keys.add(at, split.key());
+                node.children.add(at, split.page());
+            }
+            dirty = true;
+            if (node.bytes() <= pageSize) {
+                node.encode(buffer);
+                return null;
+            }
+            return split(node, buffer);
+        } finally {
+            pool.unpin(frame, dirty);
+        }
+    }
+
+    private Split split(Node node, ByteBuffer buffer) {
+        int half = node.bytes() / 2;
+        int used = NODE_HEADER;
+        int mid = 0;
+        while (mid < node.keys.size() - 1 && used < half) {
+            used += SLOT_BYTES + node.cellBytes(mid);
+            mid++;
+        }
+        mid = Math.max(mid, 1);
+        int count = node.keys.size();
+        BufferPool.Frame frame = pool.allocate(file);
+        try {
+            Node right = new Node(node.leaf);
+            byte[] separator;
+            if (node.leaf) {
+                right.keys.addAll(node.keys.subList(mid, count));
+                right.values.addAll(node.values.subList(mid, count));
+                right.link = node.link;
+                node.link = frame.page();
+                node.values.subList(mid, count).clear();
+                separator = right.keys.get(0);
+            } else {
+                separator = node.keys.get(mid);
+                right.link = node.children.get(mid);
+                right.keys.addAll(node.keys.subList(mid + 1, count));
+                right.children.addAll(node.children.subList(mid + 1, count));
+                node.children.subList(mid, count).clear();
+            }
+            node.keys.subList(mid, count).clear();
+            right.encode(frame.buffer);
+            node.encode(buffer);
+            return new Split(separator, frame.page());
+        } finally {
+            pool.unpin(frame, true);
+        }
+    }
+
+    private byte[] delete(byte[] key) {
+        int page = root;
+        while (true) {
+            BufferPool.Frame frame = pool.pin(file, page);
+            boolean dirty = false;
+            try {
+                ByteBuffer buffer = frame.buffer;
+                int index = search(buffer, key);
+                if (buffer.get(0) == BRANCH) {
+                    page = child(buffer, index);
+                    continue;
+                }
+                if (index < 0) {
+                    return null;
+                }
+                Node node = Node.decode(buffer);
+                node.keys.remove(index);
+                byte[] removed = node.values.remove(index);
+                node.encode(buffer);
+                dirty = true;
+                size--;
+                return removed;
+            } finally {
+                pool.unpin(frame, dirty);
+            }
+        }
+    }
+
+    private void visit(byte[] prefix, BiConsumer<byte[], byte[]> visitor) {
+        int page = root;
+        int index;
+        while (true) {
+            BufferPool.Frame frame = pool.pin(file, page);
+            try {
+                ByteBuffer buffer = frame.buffer;
+                int found = search(buffer, prefix);
+                if (buffer.get(0) == LEAF) {
+                    index = found >= 0 ? found : -found - 1;
+                    break;
+                }
+                page = child(buffer, found);
+            } finally {
+                pool.unpin(frame, false);
+            }
+        }
+        while (page != NO_PAGE) {
+            BufferPool.Frame frame = pool.pin(file, page);
+            try {
+                ByteBuffer buffer = frame.buffer;
+                for (int count = count(buffer); index < count; index++) {
+                    if (!startsWith(buffer, index, prefix)) {
+                        return;
+                    }
+                    visitor.accept(key(buffer, index), value(buffer, index));
+                }
+                page = buffer.getInt(3);
+                index = 0;
+            } finally {
+                pool.unpin(frame, false);
+            }
+        }
+    }
+
+    private void writeHeader() {
+        BufferPool.Frame frame = pool.pin(file, 0);
+        frame.buffer.putInt(0, MAGIC)
+                .putInt(4, pageSize)
+                .putInt(8, root)
+                .putInt(12, file.pageCount())
+                .putLong(16, size);
+        pool.unpin(frame, true);
+    }
+
+    private static int search(ByteBuffer buffer, byte[] key) {
+        int low = 0;
+        int high = count(buffer) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = slot(buffer, mid);
+            int length = unsignedShort(buffer, offset);
+            int cmp = Arrays.compareUnsigned(buffer.array(), offset + 2, offset + 2 + length, key, 0, key.length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int child(ByteBuffer buffer, int index) {
+        int cell = index >= 0 ? index : -index - 2;
+        if (cell < 0) {
+            return buffer.getInt(3);
+        }
+        int offset = slot(buffer, cell);
+        return buffer.getInt(offset + 2 + unsignedShort(buffer, offset));
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int index, byte[] prefix) {
+        int offset = slot(buffer, index);
+        int length = unsignedShort(buffer, offset);
+        return length >= prefix.length
+                && Arrays.equals(buffer.array(), offset + 2, offset + 2 + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static byte[] key(ByteBuffer buffer, int index) {
+        int offset = slot(buffer, index);
+        return Arrays.copyOfRange(buffer.array(), offset + 2, offset + 2 + unsignedShort(buffer, offset));
+    }
+
+    private static byte[] value(ByteBuffer buffer, int index) {
+        int offset = slot(buffer, index);
+        int valueOffset = offset + 2 + unsignedShort(buffer, offset);
+        int length = unsignedShort(buffer, valueOffset);
+        return Arrays.copyOfRange(buffer.array(), valueOffset + 2, valueOffset + 2 + length);
+    }
+
+    private static int count(ByteBuffer buffer) {
+        return unsignedShort(buffer, 1);
+    }
+
+    private static int slot(ByteBuffer buffer, int index) {
+        return unsignedShort(buffer, NODE_HEADER + index * SLOT_BYTES);
+    }
+
+    private static int unsignedShort(ByteBuffer buffer, int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private record Split(byte[] key, int page) {
+    }
+
+    private static final class Node {
+        private final boolean leaf;
+        private final List<byte[]> keys = new ArrayList<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private final List<Integer> children = new ArrayList<>();
+        private int link;
+
+        private Node(boolean leaf) {
+            this.leaf = leaf;
+        }
+
+        static Node decode(ByteBuffer buffer) {
+            Node node = new Node(buffer.get(0) == LEAF);
+            node.link = buffer.getInt(3);
+            for (int i = 0, count = count(buffer); i < count; i++) {
+                node.keys.add(key(buffer, i));
+                if (node.leaf) {
+                    node.values.add(value(buffer, i));
+                } else {
+                    int offset = slot(buffer, i);
+                    node.children.add(buffer.getInt(offset + 2 + unsignedShort(buffer, offset)));
+                }
+            }
+            return node;
+        }
+
+        int cellBytes(int index) {
+            return 2 + keys.get(index).length + (leaf ? 2 + values.get(index).length : Integer.BYTES);
+        }
+
+        int bytes() {
+            int bytes = NODE_HEADER;
+            for (int i = 0; i < keys.size(); i++) {
+                bytes += SLOT_BYTES + cellBytes(i);
+            }
+            return bytes;
+        }
+
+        void encode(ByteBuffer buffer) {
+            Arrays.fill(buffer.array(), (byte) 0);
+            buffer.put(0, leaf ? LEAF : BRANCH);
+            buffer.putShort(1, (short) keys.size());
+            buffer.putInt(3, link);
+            int end = buffer.capacity();
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] key = keys.get(i);
+                end -= cellBytes(i);
+                buffer.putShort(NODE_HEADER + i * SLOT_BYTES, (short) end);
+                buffer.putShort(end, (short) key.length);
+                buffer.put(end + 2, key);
+                if (leaf) {
+                    byte[] value = values.get(i);
+                    buffer.putShort(end + 2 + key.length, (short) value.length);
+                    buffer.put(end + 4 + key.length, value);
+                } else {
+                    buffer.putInt(end + 2 + key.length, children.get(i));
+                }
+            }
+        }
+    }
+}
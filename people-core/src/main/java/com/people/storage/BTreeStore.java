@@ -0,0 +1,80 @@
+package com.people.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class BTreeStore implements AutoCloseable {
+    public static final int PAGE_SIZE = 16 * 1024;
+    public static final int DEFAULT_CACHE_PAGES = 4096;
+    private static final String SUFFIX = ".btree";
+
+    private final Path directory;
+    private final BufferPool pool;
+    private final Map<String, BTree> trees = new LinkedHashMap<>();
+    private boolean closed;
+
+    private BTreeStore(Path directory, int cachePages) {
+        this.directory = directory;
+        this.pool = new BufferPool(PAGE_SIZE, cachePages);
+    }
+
+    public static BTreeStore open(Path directory) {
+        return open(directory, DEFAULT_CACHE_PAGES);
+    }
+
+    public static BTreeStore open(Path directory, int cachePages) {
+        BTreeStore store = new BTreeStore(directory, cachePages);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot open b-tree store at " + directory, ex);
+        }
+        return store;
+    }
+
+    public synchronized BTree tree(String name) {
+        ensureOpen();
+        if (name == null || !name.matches("[a-z0-9-]+")) {
+            throw new IllegalArgumentException("tree name must be lowercase letters, digits or '-'");
+        }
+        return trees.computeIfAbsent(name,
+                key -> new BTree(new PageFile(directory.resolve(key + SUFFIX), PAGE_SIZE), pool, PAGE_SIZE));
+    }
+
+    public synchronized void flush() {
+        ensureOpen();
+        for (BTree tree : trees.values()) {
+            tree.flush();
+        }
+    }
+
+    public long cacheHits() {
+        return pool.hits();
+    }
+
+    public long cacheMisses() {
+        return pool.misses();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (BTree tree : trees.values()) {
+            tree.close();
+        }
+        trees.clear();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("b-tree store is closed");
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.people.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+final class BufferPool {
+    private final int pageSize;
+    private final int capacity;
+    private final List<Frame> frames = new ArrayList<>();
+    private final Map<PageId, Frame> table = new HashMap<>();
+    private int hand;
+    private long hits;
+    private long misses;
+
+    BufferPool(int pageSize, int capacity) {
+        if (capacity < 16) {
+            throw new IllegalArgumentException("buffer pool needs at least 16 pages");
+        }
+        this.pageSize = pageSize;
+        this.capacity = capacity;
+    }
+
+    Frame pin(PageFile file, int page) {
+        return acquire(new PageId(file, page), true, frame -> file.read(page, frame.buffer));
+    }
+
+    Frame allocate(PageFile file) {
+        Frame frame = acquire(new PageId(file, file.allocate()), false,
+                fresh -> Arrays.fill(fresh.buffer.array(), (byte) 0));
+        synchronized (this) {
+            frame.dirty = true;
+        }
+        return frame;
+    }
+
+    synchronized void unpin(Frame frame, boolean dirty) {
+        if (frame.pins <= 0) {
+            throw new IllegalStateException("page " + frame.page + " is not pinned");
+        }
+        frame.pins--;
+        frame.dirty |= dirty;
+    }
+
+    void flush(PageFile file) {
+        List<Frame> dirty = new ArrayList<>();
+        synchronized (this) {
+            for (Frame frame : frames) {
+                if (frame.file == file && frame.dirty && !frame.loading) {
+                    frame.pins++;
+                    frame.dirty = false;
+                    dirty.add(frame);
+                }
+            }
+        }
+        for (int i = 0; i < dirty.size(); i++) {
+            try {
+                writeBack(dirty.get(i));
+            } catch (RuntimeException ex) {
+                for (Frame skipped : dirty.subList(i + 1, dirty.size())) {
+                    unpin(skipped, true);
+                }
+                throw ex;
+            }
+        }
+    }
+
+    synchronized void discard(PageFile file) {
+        for (Frame frame : frames) {
+            if (frame.file == file) {
+                table.remove(new PageId(file, frame.page));
+                frame.file = null;
+                frame.dirty = false;
+                frame.referenced = false;
+            }
+        }
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    private Frame acquire(PageId id, boolean count, Consumer<Frame> fill) {
+        while (true) {
+            Frame frame;
+            boolean evicting;
+            synchronized (this) {
+                frame = table.get(id);
+                if (frame != null) {
+                    if (count) {
+                        hits++;
+                    }
+                    frame.pins++;
+                    frame.referenced = true;
+                    awaitLoad(frame);
+                    return frame;
+                }
+                frame = frames.size() < capacity ? newFrame() : victim();
+                frame.pins++;
+                evicting = frame.dirty;
+                if (evicting) {
+                    frame.dirty = false;
+                } else {
+                    if (count) {
+                        misses++;
+                    }
+                    if (frame.file != null) {
+                        table.remove(new PageId(frame.file, frame.page));
+                    }
+                    frame.file = id.file();
+                    frame.page = id.page();
+                    frame.referenced = true;
+                    frame.loading = true;
+                    frame.failure = null;
+                    table.put(id, frame);
+                }
+            }
+            if (!evicting) {
+                load(id, frame, fill);
+                return frame;
+            }
+            writeBack(frame);
+        }
+    }
+
+    private void load(PageId id, Frame frame, Consumer<Frame> fill) {
+        try {
+            fill.accept(frame);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                table.remove(id);
+                frame.file = null;
+                frame.failure = ex;
+                frame.loading = false;
+                frame.pins--;
+                notifyAll();
+            }
+            throw ex;
+        }
+        synchronized (this) {
+            frame.loading = false;
+            notifyAll();
+        }
+    }
+
+    private void awaitLoad(Frame frame) {
+        boolean interrupted = false;
+        while (frame.loading) {
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (frame.failure != null) {
+            frame.pins--;
+            throw frame.failure;
+        }
+    }
+
+    private void writeBack(Frame frame) {
+        try {
+            frame.file.write(frame.page, frame.buffer);
+        } catch (RuntimeException ex) {
+            unpin(frame, true);
+            throw ex;
+        }
+        unpin(frame, false);
+    }
+
+
+    private Frame newFrame() {
+        Frame frame = new Frame(ByteBuffer.allocate(pageSize));
+        frames.add(frame);
+        return frame;
+    }
+
+    private Frame victim() {
+        for (int step = 0; step < frames.size() * 2; step++) {
+            Frame frame = frames.get(hand);
+            hand = (hand + 1) % frames.size();
+            if (frame.pins > 0) {
+                continue;
+            }
+            if (frame.file == null) {
+                return frame;
+            }
+            if (frame.referenced) {
+                frame.referenced = false;
+                continue;
+            }
+            return frame;
+        }
+        throw new IllegalStateException("buffer pool exhausted: all " + capacity + " pages are pinned");
+    }
+
+    static final class Frame {
+        final ByteBuffer buffer;
+        private PageFile file;
+        private int page;
+        private int pins;
+        private boolean referenced;
+        private boolean dirty;
+        private boolean loading;
+        private RuntimeException failure;
+
+        private Frame(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int page() {
+            return page;
+        }
+    }
+
+    private record PageId(PageFile file, int page) {
+    }
+}
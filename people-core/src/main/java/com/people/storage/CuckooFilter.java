@@ -0,0 +1,159 @@
+package com.people.storage;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class CuckooFilter {
+    public static final int BUCKET_SIZE = 4;
+    private static final int FINGERPRINT_VALUES = 1 << 16;
+    private static final int MAX_KICKS = 500;
+    private static final double MAX_LOAD = 0.95;
+
+    private final short[] slots;
+    private final int bucketMask;
+    private short victim;
+    private int victimBucket;
+    private int size;
+
+    public CuckooFilter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int buckets = Integer.highestOneBit((int) Math.ceil(capacity / (BUCKET_SIZE * MAX_LOAD)) - 1) << 1;
+        this.slots = new short[Math.max(buckets, 1) * BUCKET_SIZE];
+        this.bucketMask = slots.length / BUCKET_SIZE - 1;
+    }
+
+    public synchronized boolean add(String key) {
+        if (victim != 0) {
+            return false;
+        }
+        long hash = hash(key);
+        short fingerprint = fingerprint(hash);
+        int first = (int) hash & bucketMask;
+        int second = alternate(first, fingerprint);
+        if (insert(first, fingerprint) || insert(second, fingerprint)) {
+            size++;
+            return true;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int bucket = random.nextBoolean() ? first : second;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * BUCKET_SIZE + random.nextInt(BUCKET_SIZE);
+            short evicted = slots[slot];
+            slots[slot] = fingerprint;
+            fingerprint = evicted;
+            bucket = alternate(bucket, fingerprint);
+            if (insert(bucket, fingerprint)) {
+                size++;
+                return true;
+            }
+        }
+        victim = fingerprint;
+        victimBucket = bucket;
+        size++;
+        return false;
+    }
+
+    public synchronized boolean mightContain(String key) {
+        long hash = hash(key);
+        short fingerprint = fingerprint(hash);
+        int first = (int) hash & bucketMask;
+        int second = alternate(first, fingerprint);
+        return contains(first, fingerprint) || contains(second, fingerprint)
+                || (victim == fingerprint && (victimBucket == first || victimBucket == second));
+    }
+
+    public synchronized boolean remove(String key) {
+        long hash = hash(key);
+        short fingerprint = fingerprint(hash);
+        int first = (int) hash & bucketMask;
+        int second = alternate(first, fingerprint);
+        if (victim == fingerprint && (victimBucket == first || victimBucket == second)) {
+            victim = 0;
+            size--;
+            return true;
+        }
+        if (delete(first, fingerprint) || delete(second, fingerprint)) {
+            size--;
+            if (victim != 0 && insert(victimBucket, victim)) {
+                victim = 0;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long memoryBytes() {
+        return (long) slots.length * Short.BYTES;
+    }
+
+    public synchronized double loadFactor() {
+        return (double) size / slots.length;
+    }
+
+    public double expectedFalsePositiveRate() {
+        return 1 - Math.pow(1 - 1.0 / (FINGERPRINT_VALUES - 1), 2.0 * BUCKET_SIZE * loadFactor());
+    }
+
+    private boolean insert(int bucket, short fingerprint) {
+        for (int slot = bucket * BUCKET_SIZE, end = slot + BUCKET_SIZE; slot < end; slot++) {
+            if (slots[slot] == 0) {
+                slots[slot] = fingerprint;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(int bucket, short fingerprint) {
+        for (int slot = bucket * BUCKET_SIZE, end = slot + BUCKET_SIZE; slot < end; slot++) {
+            if (slots[slot] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean delete(int bucket, short fingerprint) {
+        for (int slot = bucket * BUCKET_SIZE, end = slot + BUCKET_SIZE; slot < end; slot++) {
+            if (slots[slot] == fingerprint) {
+                slots[slot] = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int alternate(int bucket, short fingerprint) {
+        return (bucket ^ (int) mix(fingerprint & 0xFFFF)) & bucketMask;
+    }
+
+    private static short fingerprint(long hash) {
+        short fingerprint = (short) (hash >>> 48);
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
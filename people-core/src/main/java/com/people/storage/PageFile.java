@@ -0,0 +1,90 @@
+package com.people.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+final class PageFile implements AutoCloseable {
+    private final Path path;
+    private final FileChannel channel;
+    private final int pageSize;
+    private int pageCount;
+
+    PageFile(Path path, int pageSize) {
+        this.path = path;
+        this.pageSize = pageSize;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.pageCount = (int) ((channel.size() + pageSize - 1) / pageSize);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot open page file " + path, ex);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    synchronized int pageCount() {
+        return pageCount;
+    }
+
+    synchronized void extendTo(int pages) {
+        pageCount = Math.max(pageCount, pages);
+    }
+
+    synchronized int allocate() {
+        return pageCount++;
+    }
+
+    void read(int page, ByteBuffer buffer) {
+        buffer.clear();
+        long position = (long) page * pageSize;
+        try {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    Arrays.fill(buffer.array(), buffer.position(), buffer.limit(), (byte) 0);
+                    break;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot read page " + page + " of " + path, ex);
+        }
+        buffer.clear();
+    }
+
+    void write(int page, ByteBuffer buffer) {
+        ByteBuffer source = buffer.duplicate().clear();
+        long position = (long) page * pageSize;
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source, position + source.position());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot write page " + page + " of " + path, ex);
+        }
+    }
+
+    void force() {
+        try {
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot sync " + path, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot close " + path, ex);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.people.loadgen;
+
+public enum ArrivalProcess {
+    UNIFORM,
+    POISSON
+}
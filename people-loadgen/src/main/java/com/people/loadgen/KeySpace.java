@@ -0,0 +1,40 @@
+package com.people.loadgen;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+final class KeySpace {
+    private String[] ids;
+    private int size;
+
+    KeySpace(Collection<String> initial) {
+        this.ids = initial.toArray(new String[Math.max(16, initial.size())]);
+        this.size = initial.size();
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void add(String id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    synchronized String pick(long rank) {
+        return size == 0 ? null : ids[(int) Long.remainderUnsigned(rank, size)];
+    }
+
+    synchronized String take(long rank) {
+        if (size == 0) {
+            return null;
+        }
+        int index = (int) Long.remainderUnsigned(rank, size);
+        String id = ids[index];
+        ids[index] = ids[--size];
+        ids[size] = null;
+        return id;
+    }
+}
@@ -0,0 +1,181 @@
+package com.people.loadgen;
+
+import com.people.api.PeopleApi;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.datagen.ZipfSampler;
+import com.people.domain.Person;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public final class LoadGenerator {
+    private static final int MIN_ZIPF_KEYS = 1000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final PeopleApi api;
+    private final Workload workload;
+    private final SyntheticDataGenerator people;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(PeopleApi api, Workload workload) {
+        this.api = api;
+        this.workload = workload;
+        this.people = new SyntheticDataGenerator(api, GeneratorConfig.forScale(MIN_ZIPF_KEYS, workload.seed()));
+        List<Operation> active = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            int weight = workload.weight(operation);
+            if (weight > 0) {
+                total += weight;
+                active.add(operation);
+                cumulative.add(total);
+            }
+        }
+        this.operations = active.toArray(new Operation[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public LoadReport run() throws InterruptedException {
+        KeySpace keys = new KeySpace(api.listPeople().stream().map(Person::id).toList());
+        ZipfSampler zipf = workload.keys() == KeyDistribution.ZIPF
+                ? new ZipfSampler(Math.max(MIN_ZIPF_KEYS, keys.size()), workload.zipfExponent())
+                : null;
+        Recorder[] recorders = new Recorder[Operation.values().length];
+        for (Operation operation : operations) {
+            recorders[operation.ordinal()] = new Recorder();
+        }
+
+        SplittableRandom random = new SplittableRandom(workload.seed());
+        AtomicInteger outstanding = new AtomicInteger();
+        long dropped = 0;
+        long maxLag = 0;
+        double intervalNanos = 1e9 / workload.rate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1);
+        long measureFrom = start + workload.warmup().toNanos();
+        long end = measureFrom + workload.duration().toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(workload.threads());
+        try {
+            double offset = 0;
+            while (true) {
+                long intended = start + (long) offset;
+                if (intended >= end) {
+                    break;
+                }
+                offset += workload.arrival() == ArrivalProcess.POISSON
+                        ? -Math.log(1 - random.nextDouble()) * intervalNanos
+                        : intervalNanos;
+                Operation operation = pick(random);
+                long keyRank = zipf != null && usesHotKeys(operation) ? zipf.sample(random) : random.nextLong();
+                long seed = random.nextLong();
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                boolean measured = intended >= measureFrom;
+                if (measured) {
+                    maxLag = Math.max(maxLag, now - intended);
+                }
+                if (outstanding.incrementAndGet() > workload.maxOutstanding()) {
+                    outstanding.decrementAndGet();
+                    if (measured) {
+                        dropped++;
+                    }
+                    continue;
+                }
+                Recorder recorder = measured ? recorders[operation.ordinal()] : null;
+                executor.execute(() -> {
+                    try {
+                        execute(operation, keyRank, seed, intended, keys, recorder);
+                    } finally {
+                        outstanding.decrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+
+        List<OperationStats> stats = new ArrayList<>(operations.length);
+        for (Operation operation : operations) {
+            Recorder recorder = recorders[operation.ordinal()];
+            stats.add(new OperationStats(operation, recorder.errors.sum(), recorder.response, recorder.service));
+        }
+        return new LoadReport(workload, stats, workload.duration(), dropped, maxLag);
+    }
+
+    private void execute(Operation operation, long keyRank, long seed, long intended, KeySpace keys,
+                         Recorder recorder) {
+        long started = System.nanoTime();
+        boolean failed = false;
+        try {
+            perform(operation, keyRank, seed, keys);
+        } catch (RuntimeException ex) {
+            failed = true;
+        }
+        long finished = System.nanoTime();
+        if (recorder != null) {
+            recorder.response.record(finished - intended);
+            recorder.service.record(finished - started);
+            if (failed) {
+                recorder.errors.increment();
+            }
+        }
+    }
+
+    private void perform(Operation operation, long keyRank, long seed, KeySpace keys) {
+        switch (operation) {
+            case CREATE -> keys.add(api.createPerson(people.randomPerson(new SplittableRandom(seed))).id());
+            case GET -> api.getPerson(require(keys.pick(keyRank)));
+            case UPDATE -> {
+                String id = require(keys.pick(keyRank));
+                Person person = people.randomPerson(new SplittableRandom(seed));
+                api.updatePerson(new Person(id, person.firstName(), person.middleName(), person.lastName(),
+                        person.dateOfBirth(), person.gender(), person.preferredGender(), person.pictureHash()));
+            }
+            case LIST -> api.listAddresses(require(keys.pick(keyRank)));
+            case DELETE -> api.deletePerson(require(keys.take(keyRank)));
+            case LIST_PEOPLE -> api.listPeople();
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int target = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static boolean usesHotKeys(Operation operation) {
+        return operation == Operation.GET || operation == Operation.UPDATE || operation == Operation.LIST;
+    }
+
+    private static String require(String id) {
+        if (id == null) {
+            throw new IllegalStateException("no people left to target");
+        }
+        return id;
+    }
+
+    private static final class Recorder {
+        private final LatencyHistogram response = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,87 @@
+package com.people.loadgen;
+
+import com.people.api.PeopleApi;
+import com.people.datagen.GenerationSummary;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+public final class LoadGeneratorMain {
+    private static final String IN_PROCESS = "inprocess";
+
+    private LoadGeneratorMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        Properties properties = new Properties();
+        String file = options.remove("workload");
+        if (file != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+                properties.load(reader);
+            }
+        }
+        String target = options.getOrDefault("target", IN_PROCESS);
+        options.remove("target");
+        int shards = Integer.parseInt(options.getOrDefault("shards", "0"));
+        options.remove("shards");
+        options.forEach(properties::setProperty);
+        Workload workload = Workload.fromProperties(properties);
+
+        LoadReport report;
+        if (IN_PROCESS.equals(target)) {
+            PeopleApi api = shards > 0 ? new ShardedPeopleService(shards) : PeopleService.createInMemory();
+            if (workload.people() > 0) {
+                GenerationSummary summary = new SyntheticDataGenerator(api,
+                        GeneratorConfig.forScale(workload.people(), workload.seed())).generate();
+                System.out.printf("Generated %d people in %d ms%n", summary.people(), summary.elapsed().toMillis());
+            }
+            report = run(api, workload, shards > 0
+                    ? "in-process ShardedPeopleService (" + shards + " shards)"
+                    : "in-process PeopleService");
+            if (api instanceof ShardedPeopleService sharded) {
+                sharded.close();
+            }
+        } else {
+            try (RemotePeopleApi api = RemotePeopleApi.forUrl(target)) {
+                report = run(api, workload, target);
+            }
+        }
+        report.print(System.out);
+    }
+
+    private static LoadReport run(PeopleApi api, Workload workload, String target) throws InterruptedException {
+        System.out.printf("Driving %s at %d req/s with %d threads, mix %s, %ds warmup + %ds measured...%n",
+                target, workload.rate(), workload.threads(), workload.mix(), workload.warmup().toSeconds(),
+                workload.duration().toSeconds());
+        return new LoadGenerator(api, workload).run();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            int eq = key.indexOf('=');
+            if (eq >= 0) {
+                options.put(key.substring(0, eq), key.substring(eq + 1));
+            } else if (i + 1 < args.length) {
+                options.put(key, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + key);
+            }
+        }
+        return options;
+    }
+}
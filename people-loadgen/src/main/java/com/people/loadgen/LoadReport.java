@@ -0,0 +1,82 @@
+package com.people.loadgen;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+
+public record LoadReport(
+        Workload workload,
+        List<OperationStats> operations,
+        Duration measured,
+        long dropped,
+        long maxDispatchLagNanos
+) {
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99};
+
+    public long requests() {
+        return operations.stream().mapToLong(OperationStats::count).sum();
+    }
+
+    public long errors() {
+        return operations.stream().mapToLong(OperationStats::errors).sum();
+    }
+
+    public double throughput() {
+        return measured.isZero() ? 0 : requests() / (measured.toNanos() / 1e9);
+    }
+
+    public OperationStats total() {
+        LatencyHistogram response = new LatencyHistogram();
+        LatencyHistogram service = new LatencyHistogram();
+        for (OperationStats stats : operations) {
+            response.add(stats.responseTime());
+            service.add(stats.serviceTime());
+        }
+        return new OperationStats(null, errors(), response, service);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("target %d req/s (%s arrivals, %s keys), achieved %.0f req/s over %.1fs%n",
+                workload.rate(), label(workload.arrival()), label(workload.keys()), throughput(),
+                measured.toNanos() / 1e9);
+        out.printf("requests=%d errors=%d dropped=%d max dispatch lag=%.2fms%n",
+                requests(), errors(), dropped, maxDispatchLagNanos / 1e6);
+        out.println();
+        out.println("response time from intended start (us)");
+        printTable(out, true);
+        out.println();
+        out.println("service time from actual start (us)");
+        printTable(out, false);
+    }
+
+    private void printTable(PrintStream out, boolean response) {
+        out.printf("%-12s %9s %7s", "operation", "count", "errors");
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9s", "p" + format(percentile));
+        }
+        out.printf(" %9s %9s%n", "max", "mean");
+        for (OperationStats stats : operations) {
+            if (stats.count() > 0) {
+                printRow(out, stats.operation().label(), stats, response);
+            }
+        }
+        printRow(out, "all", total(), response);
+    }
+
+    private static void printRow(PrintStream out, String label, OperationStats stats, boolean response) {
+        LatencyHistogram histogram = response ? stats.responseTime() : stats.serviceTime();
+        out.printf("%-12s %9d %7d", label, stats.count(), stats.errors());
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9d", histogram.percentile(percentile) / 1_000);
+        }
+        out.printf(" %9d %9.0f%n", histogram.max() / 1_000, histogram.mean() / 1_000);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static String label(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+}
@@ -0,0 +1,22 @@
+package com.people.loadgen;
+
+public enum Operation {
+    CREATE,
+    GET,
+    UPDATE,
+    LIST,
+    DELETE,
+    LIST_PEOPLE;
+
+    public String label() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    public static Operation parse(String value) {
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("unknown operation: " + value);
+        }
+    }
+}
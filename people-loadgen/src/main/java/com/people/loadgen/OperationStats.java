@@ -0,0 +1,12 @@
+package com.people.loadgen;
+
+public record OperationStats(
+        Operation operation,
+        long errors,
+        LatencyHistogram responseTime,
+        LatencyHistogram serviceTime
+) {
+    public long count() {
+        return responseTime.count();
+    }
+}
@@ -0,0 +1,114 @@
+package com.people.loadgen;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+public record Workload(
+        Map<Operation, Integer> mix,
+        KeyDistribution keys,
+        double zipfExponent,
+        ArrivalProcess arrival,
+        int rate,
+        int threads,
+        Duration duration,
+        Duration warmup,
+        int people,
+        long seed,
+        int maxOutstanding
+) {
+    public static final String DEFAULT_MIX = "get:70,update:10,create:10,list:8,delete:2";
+
+    public Workload {
+        if (mix == null || mix.isEmpty() || mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix must give at least one operation a positive weight");
+        }
+        mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+        if (keys == null || arrival == null) {
+            throw new IllegalArgumentException("keys and arrival must be provided");
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("zipfExponent must not be negative");
+        }
+        if (rate <= 0 || threads <= 0 || maxOutstanding <= 0) {
+            throw new IllegalArgumentException("rate, threads and maxOutstanding must be positive");
+        }
+        if (duration == null || duration.isNegative() || duration.isZero() || warmup == null || warmup.isNegative()) {
+            throw new IllegalArgumentException("duration must be positive and warmup must not be negative");
+        }
+        if (people < 0) {
+            throw new IllegalArgumentException("people must not be negative");
+        }
+    }
+
+    public static Workload fromProperties(Properties properties) {
+        return new Workload(
+                parseMix(properties.getProperty("mix", DEFAULT_MIX)),
+                parseEnum(KeyDistribution.class, properties.getProperty("keys", "zipf"), "keys"),
+                parseDouble(properties, "zipfExponent", "1.0"),
+                parseEnum(ArrivalProcess.class, properties.getProperty("arrival", "poisson"), "arrival"),
+                parseInt(properties, "rate", "1000"),
+                parseInt(properties, "threads", "8"),
+                Duration.ofSeconds(parseInt(properties, "durationSeconds", "30")),
+                Duration.ofSeconds(parseInt(properties, "warmupSeconds", "5")),
+                parseInt(properties, "people", "10000"),
+                Long.parseLong(properties.getProperty("seed", "42").trim()),
+                parseInt(properties, "maxOutstanding", "100000"));
+    }
+
+    public static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("mix entries must look like operation:weight, got " + entry);
+            }
+            int weight;
+            try {
+                weight = Integer.parseInt(entry.substring(colon + 1).trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("invalid weight in mix entry " + entry);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("mix weights must not be negative");
+            }
+            mix.merge(Operation.parse(entry.substring(0, colon)), weight, Integer::sum);
+        }
+        return mix;
+    }
+
+    public int weight(Operation operation) {
+        return mix.getOrDefault(operation, 0);
+    }
+
+    private static int parseInt(Properties properties, String key, String fallback) {
+        String value = properties.getProperty(key, fallback).trim();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(key + " must be an integer, got " + value);
+        }
+    }
+
+    private static double parseDouble(Properties properties, String key, String fallback) {
+        String value = properties.getProperty(key, fallback).trim();
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(key + " must be a number, got " + value);
+        }
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String value, String key) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("invalid " + key + ": " + value);
+        }
+    }
+}
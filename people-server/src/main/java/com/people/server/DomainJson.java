@@ -0,0 +1,583 @@
+package com.people.server;
+
+import com.people.admission.AdmissionStats;
+import com.people.api.CompanySummary;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.PersonDetail;
+import com.people.api.SearchHit;
+import com.people.api.VersionConflictException;
+import com.people.cluster.Rebalance;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.query.PlanStep;
+import com.people.query.QueryPlan;
+import com.people.reclaim.ReclaimStats;
+import com.people.replication.Change;
+import com.people.replication.LogEntry;
+import com.people.replication.ReplicationStatus;
+import com.people.repo.FilterStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class DomainJson {
+    private DomainJson() {
+    }
+
+    public static void write(JsonWriter json, Person person) {
+        json.beginObject()
+                .field("id", person.id())
+                .field("firstName", person.firstName())
+                .field("middleName", person.middleName())
+                .field("lastName", person.lastName())
+                .field("dateOfBirth", person.dateOfBirth())
+                .field("gender", person.gender());
+        PreferredGender preferredGender = person.preferredGender();
+        json.name("preferredGender");
+        if (preferredGender == null) {
+            json.nullValue();
+        } else {
+            json.beginObject()
+                    .field("type", preferredGender.type())
+                    .field("otherLabel", preferredGender.otherLabel())
+                    .endObject();
+        }
+        json.field("pictureHash", person.pictureHash())
+                .field("version", person.version())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, Address address) {
+        json.beginObject()
+                .field("id", address.id())
+                .field("personId", address.personId())
+                .field("address", address.address())
+                .field("town", address.town())
+                .field("state", address.state())
+                .field("type", address.type())
+                .field("description", address.description())
+                .field("owns", address.owns())
+                .field("primary", address.primary())
+                .field("monthlyPayment", address.monthlyPayment())
+                .field("bedrooms", address.bedrooms())
+                .field("bathrooms", address.bathrooms())
+                .field("version", address.version())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, Employment employment) {
+        json.beginObject()
+                .field("id", employment.id())
+                .field("personId", employment.personId())
+                .field("companyId", employment.companyId())
+                .field("name", employment.name())
+                .field("description", employment.description())
+                .field("address", employment.address())
+                .field("jobTitle", employment.jobTitle())
+                .field("payType", employment.payType())
+                .field("rateOfPay", employment.rateOfPay())
+                .field("currentEmployer", employment.currentEmployer())
+                .field("startDate", employment.startDate())
+                .field("endDate", employment.endDate())
+                .field("version", employment.version())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, Relationship relationship) {
+        json.beginObject()
+                .field("id", relationship.id())
+                .field("personId", relationship.personId())
+                .field("relatedPersonId", relationship.relatedPersonId())
+                .field("type", relationship.type())
+                .field("version", relationship.version())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, CompanySummary company) {
+        json.beginObject()
+                .field("id", company.id())
+                .field("name", company.name())
+                .field("address", company.address())
+                .field("employeeCount", company.employeeCount())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, DuplicateCluster cluster) {
+        json.beginObject()
+                .field("score", BigDecimal.valueOf(cluster.score()))
+                .name("people")
+                .beginArray();
+        for (Person person : cluster.people()) {
+            write(json, person);
+        }
+        json.endArray().endObject();
+    }
+
+    public static void write(JsonWriter json, GeoStats stats) {
+        json.beginObject().field("state", stats.state());
+        if (stats.town() != null) {
+            json.field("town", stats.town());
+        }
+        json.field("people", stats.people())
+                .field("addresses", stats.addresses())
+                .field("owners", stats.owners())
+                .field("renters", stats.renters())
+                .field("totalMonthlyPayment", stats.totalMonthlyPayment())
+                .field("averageMonthlyPayment", stats.averageMonthlyPayment())
+                .field("totalBedrooms", stats.totalBedrooms())
+                .field("averageBedrooms", BigDecimal.valueOf(stats.averageBedrooms()))
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, SearchHit hit) {
+        json.beginObject()
+                .field("type", hit.type())
+                .field("personId", hit.personId())
+                .field("id", hit.id())
+                .field("text", hit.text())
+                .field("score", BigDecimal.valueOf(hit.score()))
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, Household household) {
+        json.beginObject()
+                .field("size", household.size())
+                .name("personIds")
+                .beginArray();
+        for (String personId : household.personIds()) {
+            json.value(personId);
+        }
+        json.endArray().name("addresses").beginArray();
+        for (String address : household.addresses()) {
+            json.value(address);
+        }
+        json.endArray().endObject();
+    }
+
+    public static void write(JsonWriter json, FilterStats stats) {
+        json.beginObject()
+                .field("name", stats.name())
+                .field("entries", stats.entries())
+                .field("capacity", stats.capacity())
+                .field("memoryBytes", stats.memoryBytes())
+                .field("expectedFalsePositiveRate", rate(stats.expectedFalsePositiveRate()))
+                .field("observedFalsePositiveRate", rate(stats.observedFalsePositiveRate()))
+                .field("probes", stats.probes())
+                .field("skipped", stats.skipped())
+                .field("falsePositives", stats.falsePositives())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, AdmissionStats stats) {
+        json.beginObject()
+                .field("operationClass", stats.operationClass())
+                .field("limit", stats.limit())
+                .field("inFlight", stats.inFlight())
+                .field("queued", stats.queued())
+                .field("admitted", stats.admitted())
+                .field("rejected", stats.rejected())
+                .field("averageLatencyMicros", stats.averageLatencyMicros())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, LogEntry entry) {
+        Change change = entry.change();
+        json.beginObject()
+                .field("position", entry.position())
+                .field("time", entry.timeMillis())
+                .field("kind", change.kind())
+                .field("personId", change.personId())
+                .field("id", change.id())
+                .name("value");
+        switch (change.value()) {
+            case null -> json.nullValue();
+            case Person person -> write(json, person);
+            case Address address -> write(json, address);
+            case Employment employment -> write(json, employment);
+            case Relationship relationship -> write(json, relationship);
+            default -> throw new IllegalArgumentException("unsupported change: " + change.kind());
+        }
+        json.endObject();
+    }
+
+    public static void write(JsonWriter json, Rebalance rebalance) {
+        json.beginObject()
+                .field("node", rebalance.node())
+                .field("movedPeople", rebalance.movedPeople())
+                .field("elapsedMillis", rebalance.elapsedMillis())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, ReclaimStats stats) {
+        json.beginObject()
+                .field("pendingPeople", stats.pendingPeople())
+                .field("reclaimedPeople", stats.reclaimedPeople())
+                .field("reclaimedRecords", stats.reclaimedRecords())
+                .field("batches", stats.batches())
+                .field("failures", stats.failures())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, ReplicationStatus status) {
+        json.beginObject()
+                .field("role", status.role())
+                .field("logId", status.logId())
+                .field("position", status.position())
+                .field("primaryPosition", status.primaryPosition())
+                .field("lagEntries", status.lagEntries())
+                .field("lagMillis", status.lagMillis())
+                .field("followers", status.followers())
+                .field("connected", status.connected())
+                .field("failures", status.failures())
+                .field("lastFailure", status.lastFailure())
+                .endObject();
+    }
+
+    public static void write(JsonWriter json, PersonDetail detail) {
+        json.beginObject().name("person");
+        write(json, detail.person());
+        json.name("addresses").beginArray();
+        for (Address address : detail.addresses()) {
+            write(json, address);
+        }
+        json.endArray().name("relationships").beginArray();
+        for (Relationship relationship : detail.relationships()) {
+            write(json, relationship);
+        }
+        json.endArray().name("employments").beginArray();
+        for (Employment employment : detail.employments()) {
+            write(json, employment);
+        }
+        json.endArray().endObject();
+    }
+
+    public static void write(JsonWriter json, QueryPlan plan) {
+        json.beginObject().name("steps").beginArray();
+        for (PlanStep step : plan.steps()) {
+            json.beginObject()
+                    .field("operator", step.operator())
+                    .field("detail", step.detail())
+                    .field("estimatedRows", step.estimatedRows())
+                    .endObject();
+        }
+        json.endArray().endObject();
+    }
+
+    public static void writeRow(JsonWriter json, Object row) {
+        switch (row) {
+            case Person person -> write(json, person);
+            case Address address -> write(json, address);
+            case Employment employment -> write(json, employment);
+            default -> throw new IllegalArgumentException("unsupported row type: " + row.getClass().getSimpleName());
+        }
+    }
+
+    public static void writeError(JsonWriter json, String message, List<String> violations) {
+        json.beginObject().field("error", message);
+        if (violations != null) {
+            json.name("violations").beginArray();
+            for (String violation : violations) {
+                json.value(violation);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    public static void writeConflict(JsonWriter json, VersionConflictException conflict) {
+        json.beginObject()
+                .field("error", conflict.getMessage())
+                .field("entity", conflict.entity())
+                .field("expectedVersion", conflict.expectedVersion())
+                .field("actualVersion", conflict.actualVersion())
+                .endObject();
+    }
+
+    public static VersionConflictException readConflict(Map<String, Object> json) {
+        return new VersionConflictException(text(json, "entity"), longValue(json, "expectedVersion"),
+                longValue(json, "actualVersion"));
+    }
+
+    public static Person readPerson(Map<String, Object> json, String id) {
+        return new Person(id,
+                text(json, "firstName"),
+                text(json, "middleName"),
+                text(json, "lastName"),
+                date(json, "dateOfBirth"),
+                enumValue(json, "gender", Gender.class),
+                preferredGender(json.get("preferredGender")),
+                text(json, "pictureHash"),
+                version(json));
+    }
+
+    public static Address readAddress(Map<String, Object> json, String id, String personId) {
+        return new Address(id,
+                personId,
+                text(json, "address"),
+                text(json, "town"),
+                text(json, "state"),
+                enumValue(json, "type", AddressType.class),
+                text(json, "description"),
+                bool(json, "owns"),
+                bool(json, "primary"),
+                decimal(json, "monthlyPayment"),
+                integer(json, "bedrooms"),
+                integer(json, "bathrooms"),
+                version(json));
+    }
+
+    public static Employment readEmployment(Map<String, Object> json, String id, String personId) {
+        return new Employment(id,
+                personId,
+                text(json, "companyId"),
+                text(json, "name"),
+                text(json, "description"),
+                text(json, "address"),
+                text(json, "jobTitle"),
+                enumValue(json, "payType", PayType.class),
+                decimal(json, "rateOfPay"),
+                bool(json, "currentEmployer"),
+                date(json, "startDate"),
+                date(json, "endDate"),
+                version(json));
+    }
+
+    public static Relationship readRelationship(Map<String, Object> json, String id, String personId) {
+        return new Relationship(id,
+                personId,
+                text(json, "relatedPersonId"),
+                enumValue(json, "type", RelationshipType.class),
+                version(json));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static LogEntry readLogEntry(Map<String, Object> json) {
+        Change.Kind kind = enumValue(json, "kind", Change.Kind.class);
+        String personId = text(json, "personId");
+        String id = text(json, "id");
+        Map<String, Object> value = (Map<String, Object>) json.get("value");
+        Change change = value == null ? Change.removed(kind, personId, id) : switch (kind) {
+            case PERSON -> Change.of(readPerson(value, id));
+            case ADDRESS -> Change.of(readAddress(value, id, personId));
+            case EMPLOYMENT -> Change.of(readEmployment(value, id, personId));
+            case RELATIONSHIP -> Change.of(readRelationship(value, id, personId));
+        };
+        return new LogEntry(longValue(json, "position"), longValue(json, "time"), change);
+    }
+
+    public static QueryPlan readQueryPlan(Map<String, Object> json) {
+        List<PlanStep> steps = new ArrayList<>();
+        if (json.get("steps") instanceof List<?> values) {
+            for (Object value : values) {
+                if (value instanceof Map<?, ?> step) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> fields = (Map<String, Object>) step;
+                    steps.add(new PlanStep(text(fields, "operator"), text(fields, "detail"),
+                            longValue(fields, "estimatedRows")));
+                }
+            }
+        }
+        return new QueryPlan(steps);
+    }
+
+    public static PersonDetail readPersonDetail(Map<String, Object> json) {
+        Map<String, Object> person = object(json.get("person"), "person");
+        return new PersonDetail(readPerson(person, (String) person.get("id")),
+                children(json, "addresses", value -> readAddress(value, text(value, "id"), text(value, "personId"))),
+                children(json, "relationships",
+                        value -> readRelationship(value, text(value, "id"), text(value, "personId"))),
+                children(json, "employments",
+                        value -> readEmployment(value, text(value, "id"), text(value, "personId"))));
+    }
+
+    public static DuplicateCluster readDuplicateCluster(Map<String, Object> json) {
+        if (!(json.get("people") instanceof List<?> people)) {
+            throw new IllegalArgumentException("people must be an array");
+        }
+        List<Person> members = new ArrayList<>(people.size());
+        for (Object value : people) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> person = (Map<String, Object>) value;
+            members.add(readPerson(person, (String) person.get("id")));
+        }
+        return new DuplicateCluster(decimal(json, "score").doubleValue(), members);
+    }
+
+    public static Household readHousehold(Map<String, Object> json) {
+        return new Household(strings(json, "personIds"), strings(json, "addresses"));
+    }
+
+    public static GeoStats readGeoStats(Map<String, Object> json) {
+        return new GeoStats(text(json, "state"), text(json, "town"), longValue(json, "people"),
+                longValue(json, "addresses"), longValue(json, "owners"), longValue(json, "renters"),
+                decimal(json, "totalMonthlyPayment"), longValue(json, "totalBedrooms"));
+    }
+
+    public static SearchHit readSearchHit(Map<String, Object> json) {
+        return new SearchHit(text(json, "type"), text(json, "personId"), text(json, "id"), text(json, "text"),
+                decimal(json, "score").doubleValue());
+    }
+
+    public static CompanySummary readCompanySummary(Map<String, Object> json) {
+        return new CompanySummary(text(json, "id"), text(json, "name"), text(json, "address"), integer(json, "employeeCount"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PreferredGender preferredGender(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String text) {
+            return PreferredGender.of(parseEnum(PreferredGenderType.class, text, "preferredGender"));
+        }
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("preferredGender must be an object or string");
+        }
+        Map<String, Object> object = (Map<String, Object>) value;
+        PreferredGenderType type = enumValue(object, "type", PreferredGenderType.class);
+        if (type == null) {
+            return null;
+        }
+        return type == PreferredGenderType.OTHER
+                ? PreferredGender.other(text(object, "otherLabel"))
+                : PreferredGender.of(type);
+    }
+
+    private static BigDecimal rate(double value) {
+        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    private static List<String> strings(Map<String, Object> json, String field) {
+        if (!(json.get(field) instanceof List<?> values)) {
+            throw new IllegalArgumentException(field + " must be an array");
+        }
+        return values.stream().map(String::valueOf).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value, String field) {
+        if (!(value instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException(field + " must be an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static <T> List<T> children(Map<String, Object> json, String field,
+                                        Function<Map<String, Object>, T> reader) {
+        Object value = json.get(field);
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> values)) {
+            throw new IllegalArgumentException(field + " must be an array");
+        }
+        List<T> result = new ArrayList<>(values.size());
+        for (Object element : values) {
+            result.add(reader.apply(object(element, field)));
+        }
+        return result;
+    }
+
+    private static String text(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        throw new IllegalArgumentException(field + " must be a string");
+    }
+
+    private static boolean bool(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value instanceof Boolean flag) {
+            return flag;
+        }
+        if (value == null) {
+            return false;
+        }
+        throw new IllegalArgumentException(field + " must be a boolean");
+    }
+
+    private static int integer(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value instanceof BigDecimal number) {
+            try {
+                return number.intValueExact();
+            } catch (ArithmeticException ex) {
+                throw new IllegalArgumentException(field + " must be an integer");
+            }
+        }
+        throw new IllegalArgumentException(field + " must be an integer");
+    }
+
+    private static long version(Map<String, Object> json) {
+        return json.get("version") == null ? 0 : longValue(json, "version");
+    }
+
+    private static long longValue(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value instanceof BigDecimal number) {
+            try {
+                return number.longValueExact();
+            } catch (ArithmeticException ex) {
+                throw new IllegalArgumentException(field + " must be an integer");
+            }
+        }
+        throw new IllegalArgumentException(field + " must be an integer");
+    }
+
+    private static BigDecimal decimal(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof String text) {
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(field + " must be a number");
+            }
+        }
+        throw new IllegalArgumentException(field + " must be a number");
+    }
+
+    private static LocalDate date(Map<String, Object> json, String field) {
+        String value = text(json, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(field + " must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+
+    private static <T extends Enum<T>> T enumValue(Map<String, Object> json, String field, Class<T> type) {
+        String value = text(json, field);
+        return value == null ? null : parseEnum(type, value, field);
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.trim().replace('-', '_').replace(' ', '_').toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("invalid " + field + ": " + value);
+        }
+    }
+}
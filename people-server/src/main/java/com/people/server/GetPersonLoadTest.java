@@ -0,0 +1,99 @@
+package com.people.server;
+
+import com.people.api.PeopleApi;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.domain.Person;
+import com.people.service.PeopleService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class GetPersonLoadTest {
+    private GetPersonLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = PeopleServer.parseOptions(args);
+        int people = Integer.parseInt(options.getOrDefault("people", "10000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "3"));
+
+        PeopleApi api = PeopleService.createInMemory();
+        new SyntheticDataGenerator(api, GeneratorConfig.forScale(people, GeneratorConfig.DEFAULT_SEED)).generate();
+        List<String> ids = api.listPeople().stream().map(Person::id).toList();
+
+        try (PeopleServer server = PeopleServer.start(api, 0);
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            System.out.printf("Warming up for %ds with %d keep-alive connections...%n", warmupSeconds, concurrency);
+            run(server.port(), ids, concurrency, warmupSeconds, workers);
+            System.out.printf("Measuring for %ds...%n", seconds);
+            Result result = run(server.port(), ids, concurrency, seconds, workers);
+            long[] latencies = result.latenciesMicros();
+            Arrays.sort(latencies);
+            System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                    latencies.length, result.errors(), latencies.length / (double) seconds);
+            System.out.printf("latency us: p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies.length == 0 ? 0 : latencies[latencies.length - 1]);
+        }
+    }
+
+    private static Result run(int port, List<String> ids, int concurrency, int seconds, ExecutorService workers)
+            throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        LongAdder errors = new LongAdder();
+        List<Future<long[]>> futures = new ArrayList<>(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            SplittableRandom random = new SplittableRandom(worker);
+            futures.add(workers.submit(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try (HttpConnection connection = new HttpConnection("localhost", port)) {
+                    while (System.nanoTime() < deadline) {
+                        String path = "/people/" + ids.get(random.nextInt(ids.size()));
+                        long start = System.nanoTime();
+                        HttpConnection.Response response = connection.send("GET", path, null, 0);
+                        long elapsed = (System.nanoTime() - start) / 1_000;
+                        if (response.status() != 200) {
+                            errors.increment();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = elapsed;
+                    }
+                }
+                return Arrays.copyOf(samples, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] samples = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + samples.length);
+            System.arraycopy(samples, 0, all, offset, samples.length);
+        }
+        return new Result(all, errors.sum());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    private record Result(long[] latenciesMicros, long errors) {
+    }
+}
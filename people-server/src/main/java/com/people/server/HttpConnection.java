@@ -0,0 +1,142 @@
+package com.people.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+final class HttpConnection implements AutoCloseable {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Socket socket;
+    private final String host;
+    private final InputStream in;
+    private final OutputStream out;
+    private boolean reusable = true;
+
+    HttpConnection(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        this.host = host;
+        this.in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), 8 * 1024);
+    }
+
+    Response send(String method, String path, byte[] body, int bodyLength) throws IOException {
+        return send(method, path, "application/json", body, bodyLength);
+    }
+
+    Response send(String method, String path, String contentType, byte[] body, int bodyLength) throws IOException {
+        StringBuilder head = new StringBuilder(128)
+                .append(method).append(' ').append(path).append(" HTTP/1.1\r\nHost: ").append(host).append("\r\n");
+        if (body != null) {
+            head.append("Content-Type: ").append(contentType).append("\r\nContent-Length: ").append(bodyLength)
+                    .append("\r\n");
+        }
+        out.write(head.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII));
+        if (body != null) {
+            out.write(body, 0, bodyLength);
+        }
+        out.flush();
+
+        String statusLine = readLine();
+        if (statusLine.length() < 12 || !statusLine.startsWith("HTTP/1.")) {
+            throw new IOException("malformed status line: " + statusLine);
+        }
+        int status = Integer.parseInt(statusLine.substring(9, 12));
+        int contentLength = -1;
+        boolean chunked = false;
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                contentLength = Integer.parseInt(value);
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.equalsIgnoreCase("chunked");
+            } else if (name.equalsIgnoreCase("Connection")) {
+                reusable = !value.equalsIgnoreCase("close");
+            }
+        }
+        if (chunked) {
+            return new Response(status, readChunked());
+        }
+        if (contentLength > 0) {
+            return new Response(status, readExactly(contentLength));
+        }
+        if (contentLength < 0 && status != 204 && status != 304 && !"HEAD".equals(method)) {
+            reusable = false;
+            return new Response(status, in.readAllBytes());
+        }
+        return new Response(status, EMPTY);
+    }
+
+    boolean reusable() {
+        return reusable && !socket.isClosed();
+    }
+
+    private byte[] readChunked() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int size;
+        while ((size = Integer.parseInt(stripExtensions(readLine()), 16)) > 0) {
+            body.write(readExactly(size));
+            readLine();
+        }
+        String trailer;
+        do {
+            trailer = readLine();
+        } while (!trailer.isEmpty());
+        return body.toByteArray();
+    }
+
+    private byte[] readExactly(int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("connection closed mid-response");
+        }
+        return bytes;
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("connection closed");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private static String stripExtensions(String sizeLine) {
+        int semicolon = sizeLine.indexOf(';');
+        return (semicolon < 0 ? sizeLine : sizeLine.substring(0, semicolon)).trim();
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            return;
+        }
+    }
+
+    record Response(int status, byte[] body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.people.server;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class JsonReader {
+    private static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private JsonReader(String text) {
+        this.text = text;
+    }
+
+    public static Object parse(byte[] body) {
+        return parse(new String(body, StandardCharsets.UTF_8));
+    }
+
+    public static Object parse(String text) {
+        JsonReader reader = new JsonReader(text);
+        Object value = reader.readValue();
+        reader.skipWhitespace();
+        if (reader.position != text.length()) {
+            throw reader.error("unexpected trailing content");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(byte[] body) {
+        Object value = parse(body);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("request body must be a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("unexpected end of input");
+        }
+        char c = text.charAt(position);
+        return switch (c) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            default -> readNumber();
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        enter();
+        position++;
+        Map<String, Object> object = new LinkedHashMap<>();
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            depth--;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("expected field name");
+            }
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue());
+            skipWhitespace();
+            char next = next();
+            if (next == '}') {
+                depth--;
+                return object;
+            }
+            if (next != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        enter();
+        position++;
+        List<Object> array = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            depth--;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            char next = next();
+            if (next == ']') {
+                depth--;
+                return array;
+            }
+            if (next != ',') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String readString() {
+        position++;
+        StringBuilder sb = null;
+        int start = position;
+        while (true) {
+            if (position >= text.length()) {
+                throw error("unterminated string");
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                String value = sb == null
+                        ? text.substring(start, position)
+                        : sb.append(text, start, position).toString();
+                position++;
+                return value;
+            }
+            if (c == '\\') {
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(text, start, position);
+                position++;
+                sb.append(readEscape());
+                start = position;
+                continue;
+            }
+            if (c < 0x20) {
+                throw error("control character in string");
+            }
+            position++;
+        }
+    }
+
+    private char readEscape() {
+        char c = next();
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                if (position + 4 > text.length()) {
+                    throw error("invalid unicode escape");
+                }
+                try {
+                    char decoded = (char) Integer.parseInt(text, position, position + 4, 16);
+                    position += 4;
+                    yield decoded;
+                } catch (NumberFormatException ex) {
+                    throw error("invalid unicode escape");
+                }
+            }
+            default -> throw error("invalid escape");
+        };
+    }
+
+    private BigDecimal readNumber() {
+        int start = position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        if (start == position) {
+            throw error("unexpected character");
+        }
+        try {
+            return new BigDecimal(text.substring(start, position));
+        } catch (NumberFormatException ex) {
+            throw error("invalid number");
+        }
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, position)) {
+            throw error("unexpected literal");
+        }
+        position += literal.length();
+        return value;
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("nesting too deep");
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("unexpected end of input");
+        }
+        return text.charAt(position);
+    }
+
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("invalid JSON at offset " + position + ": " + message);
+    }
+}
@@ -0,0 +1,343 @@
+package com.people.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public final class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] NULL = "null".getBytes();
+    private static final byte[] TRUE = "true".getBytes();
+    private static final byte[] FALSE = "false".getBytes();
+    private static final int MAX_DEPTH = 64;
+
+    private final OutputStream out;
+    private final int flushThreshold;
+    private final boolean[] firstInScope = new boolean[MAX_DEPTH];
+    private byte[] buffer;
+    private int position;
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter() {
+        this(null, 512, Integer.MAX_VALUE);
+    }
+
+    public JsonWriter(OutputStream out, int initialCapacity, int flushThreshold) {
+        this.out = out;
+        this.buffer = new byte[Math.max(64, initialCapacity)];
+        this.flushThreshold = flushThreshold;
+    }
+
+    public static JsonWriter streaming(OutputStream out) {
+        return new JsonWriter(out, 16 * 1024, 8 * 1024);
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        push();
+        writeByte('{');
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        push();
+        writeByte('[');
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        writeByte(']');
+        flushIfNeeded();
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        if (depth > 0) {
+            if (!firstInScope[depth]) {
+                writeByte(',');
+            }
+            firstInScope[depth] = false;
+        }
+        writeQuoted(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeQuoted(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public JsonWriter value(BigDecimal value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeAscii(value.toPlainString());
+        return this;
+    }
+
+    public JsonWriter value(LocalDate value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeByte('"');
+        writePadded(value.getYear(), 4);
+        writeByte('-');
+        writePadded(value.getMonthValue(), 2);
+        writeByte('-');
+        writePadded(value.getDayOfMonth(), 2);
+        writeByte('"');
+        return this;
+    }
+
+    public JsonWriter value(Enum<?> value) {
+        return value == null ? nullValue() : value(value.name());
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeBytes(NULL);
+        return this;
+    }
+
+    public JsonWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, BigDecimal value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, LocalDate value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, Enum<?> value) {
+        return name(name).value(value);
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void reset() {
+        position = 0;
+        depth = 0;
+        afterName = false;
+    }
+
+    public void flush() {
+        if (out == null || position == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        position = 0;
+    }
+
+    public void flushIfNeeded() {
+        if (position >= flushThreshold) {
+            flush();
+        }
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (!firstInScope[depth]) {
+                writeByte(',');
+            }
+            firstInScope[depth] = false;
+        }
+    }
+
+    private void push() {
+        if (++depth >= MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting too deep");
+        }
+        firstInScope[depth] = true;
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("unbalanced JSON scope");
+        }
+        depth--;
+    }
+
+    private void writeQuoted(String value) {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    writeByte('\\');
+                    writeByte(c);
+                } else if (c < 0x20) {
+                    writeControl(c);
+                } else {
+                    writeByte(c);
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                writeByte('?');
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        switch (c) {
+            case '\n' -> {
+                writeByte('\\');
+                writeByte('n');
+            }
+            case '\r' -> {
+                writeByte('\\');
+                writeByte('r');
+            }
+            case '\t' -> {
+                writeByte('\\');
+                writeByte('t');
+            }
+            default -> {
+                ensure(6);
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        ensure(20);
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int left = start, right = position - 1; left < right; left++, right--) {
+            byte swap = buffer[left];
+            buffer[left] = buffer[right];
+            buffer[right] = swap;
+        }
+    }
+
+    private void writePadded(int value, int width) {
+        ensure(width + 10);
+        if (value < 0) {
+            writeLong(value);
+            return;
+        }
+        int digits = value == 0 ? 1 : (int) Math.log10(value) + 1;
+        for (int i = digits; i < width; i++) {
+            buffer[position++] = '0';
+        }
+        writeLong(value);
+    }
+
+    private void writeAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buffer[position++] = (byte) b;
+    }
+
+    private void ensure(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package com.people.server;
+
+import com.people.admission.AdmissionControlledPeopleService;
+import com.people.api.CompanySummary;
+import com.people.api.NotFoundException;
+import com.people.api.OverloadedException;
+import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.VersionConflictException;
+import com.people.cluster.ClusterNode;
+import com.people.cluster.ClusterPeopleService;
+import com.people.dedup.DuplicateDetector;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Relationship;
+import com.people.picture.PictureStore;
+import com.people.picture.PictureType;
+import com.people.query.Query;
+import com.people.replication.Change;
+import com.people.replication.ReadReplica;
+import com.people.replication.ReplicatedPeopleService;
+import com.people.replication.ReplicationStatus;
+import com.people.repo.FilterStats;
+import com.people.service.PeopleService;
+import com.people.service.ValidationException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+final class PeopleHandler implements HttpHandler {
+    static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final System.Logger LOG = System.getLogger(PeopleHandler.class.getName());
+
+    private final PeopleApi api;
+    private final PeopleApi backend;
+
+    PeopleHandler(PeopleApi api) {
+        this.api = api;
+        this.backend = api instanceof AdmissionControlledPeopleService admission ? admission.delegate() : api;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        try (exchange) {
+            try {
+                route(exchange, exchange.getRequestMethod(), segments(exchange.getRequestURI().getRawPath()));
+            } catch (HttpError ex) {
+                sendError(exchange, ex.status(), ex.getMessage(), null);
+            } catch (VersionConflictException ex) {
+                sendConflict(exchange, ex);
+            } catch (ValidationException ex) {
+                sendError(exchange, 400, ex.getMessage(), ex.violations());
+            } catch (NotFoundException ex) {
+                sendError(exchange, 404, ex.getMessage(), null);
+            } catch (IllegalArgumentException ex) {
+                sendError(exchange, 400, ex.getMessage() == null ? "bad request" : ex.getMessage(), null);
+            } catch (UnsupportedOperationException ex) {
+                sendError(exchange, 405, ex.getMessage(), null);
+            } catch (OverloadedException ex) {
+                exchange.getResponseHeaders().set("Retry-After",
+                        Long.toString(Math.max(1, (ex.retryAfterMillis() + 999) / 1000)));
+                sendError(exchange, 503, ex.getMessage(), null);
+            } catch (UncheckedIOException ex) {
+                return;
+            } catch (RuntimeException ex) {
+                LOG.log(System.Logger.Level.ERROR, exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                        + " failed", ex);
+                sendError(exchange, 500, "internal error", null);
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String[] path) {
+        if (path.length == 0) {
+            throw new HttpError(404, "not found");
+        }
+        switch (path[0]) {
+            case "people" -> routePeople(exchange, method, path);
+            case "addresses" -> {
+                if (path.length == 2 && !"stats".equals(path[1])) {
+                    send(exchange, 200, switch (method) {
+                        case "GET" -> api.getAddress(path[1]);
+                        case "DELETE" -> api.deleteAddress(path[1]);
+                        default -> throw methodNotAllowed();
+                    }, DomainJson::write);
+                    return;
+                }
+                requireMethod(method, "GET");
+                if (path.length == 2) {
+                    sendList(exchange, api.listGeoStats(), DomainJson::write);
+                    return;
+                }
+                requireLength(path, 1);
+                Map<String, String> query = query(exchange);
+                sendList(exchange, api.listAddressesFiltered(query.get("street"), query.get("town"),
+                        query.get("state"), query.get("streetContains")), DomainJson::write);
+            }
+            case "employments" -> {
+                if (path.length == 2) {
+                    send(exchange, 200, switch (method) {
+                        case "GET" -> api.getEmployment(path[1]);
+                        case "DELETE" -> api.deleteEmployment(path[1]);
+                        default -> throw methodNotAllowed();
+                    }, DomainJson::write);
+                    return;
+                }
+                requireLength(path, 1);
+                requireMethod(method, "GET");
+                Map<String, String> query = query(exchange);
+                String companyId = query.get("companyId");
+                List<Employment> employments;
+                if (query.containsKey("on")) {
+                    employments = api.listEmploymentsOn(date(query, "on"), companyId);
+                } else if (query.containsKey("from") || query.containsKey("to")) {
+                    employments = api.listEmploymentsOverlapping(date(query, "from"), date(query, "to"), companyId);
+                } else {
+                    employments = api.listAllEmployments();
+                }
+                sendList(exchange, employments, DomainJson::write);
+            }
+            case "relationships" -> {
+                requireLength(path, 2);
+                send(exchange, 200, switch (method) {
+                    case "GET" -> api.getRelationship(path[1]);
+                    case "DELETE" -> api.deleteRelationship(path[1]);
+                    default -> throw methodNotAllowed();
+                }, DomainJson::write);
+            }
+            case "companies" -> {
+                requireMethod(method, "GET");
+                if (path.length == 1) {
+                    List<CompanySummary> companies = api.listCompanies();
+                    sendList(exchange, companies, DomainJson::write);
+                    return;
+                }
+                requireLength(path, 3);
+                if (!"employments".equals(path[2])) {
+                    throw new HttpError(404, "not found");
+                }
+                sendList(exchange, api.listCompanyEmployments(path[1]), DomainJson::write);
+            }
+            case "query" -> {
+                requireMethod(method, "GET");
+                Query<?> query = Query.parse(query(exchange).get("q"));
+                if (path.length == 1) {
+                    sendList(exchange, api.query(query), DomainJson::writeRow);
+                    return;
+                }
+                requireLength(path, 2);
+                if (!"plan".equals(path[1])) {
+                    throw new HttpError(404, "not found");
+                }
+                send(exchange, 200, api.explain(query), DomainJson::write);
+            }
+            case "metrics" -> {
+                requireMethod(method, "GET");
+                requireLength(path, 2);
+                switch (path[1]) {
+                    case "filters" -> {
+                        List<FilterStats> stats = backend instanceof PeopleService service ? service.filterStats()
+                                : List.of();
+                        sendList(exchange, stats, DomainJson::write);
+                    }
+                    case "replication" -> send(exchange, 200, replicationStatus(), DomainJson::write);
+                    case "reclaim" -> {
+                        if (!(backend instanceof PeopleService service)) {
+                            throw new HttpError(404, "reclamation is not available");
+                        }
+                        send(exchange, 200, service.reclaimStats(), DomainJson::write);
+                    }
+                    case "admission" -> {
+                        if (!(api instanceof AdmissionControlledPeopleService admission)) {
+                            throw new HttpError(404, "admission control is not enabled");
+                        }
+                        sendList(exchange, admission.stats(), DomainJson::write);
+                    }
+                    default -> throw new HttpError(404, "not found");
+                }
+            }
+            case "duplicates" -> {
+                requireLength(path, 1);
+                requireMethod(method, "GET");
+                sendList(exchange, api.findDuplicates(threshold(exchange)), DomainJson::write);
+            }
+            case "households" -> {
+                requireLength(path, 1);
+                requireMethod(method, "GET");
+                sendList(exchange, api.listHouseholds(minSize(exchange)), DomainJson::write);
+            }
+            case "search" -> {
+                requireLength(path, 1);
+                requireMethod(method, "GET");
+                Map<String, String> params = query(exchange);
+                sendList(exchange, api.search(params.get("q"), limit(params.get("limit"))), DomainJson::write);
+            }
+            case "cluster" -> routeCluster(exchange, method, path);
+            default -> throw new HttpError(404, "not found");
+        }
+    }
+
+    private void routePeople(HttpExchange exchange, String method, String[] path) {
+        if (path.length == 1) {
+            switch (method) {
+                case "GET" -> sendList(exchange, api.listPeople(), DomainJson::write);
+                case "POST" -> send(exchange, 201, api.createPerson(DomainJson.readPerson(body(exchange), null)),
+                        DomainJson::write);
+                default -> throw methodNotAllowed();
+            }
+            return;
+        }
+        String personId = path[1];
+        if (path.length == 2) {
+            switch (method) {
+                case "GET" -> {
+                    Instant asOf = asOf(exchange);
+                    send(exchange, 200, asOf == null ? api.getPerson(personId) : api.getPerson(personId, asOf),
+                            DomainJson::write);
+                }
+                case "PUT" -> send(exchange, 200, api.updatePerson(DomainJson.readPerson(body(exchange), personId)),
+                        DomainJson::write);
+                case "DELETE" -> send(exchange, 200, api.deletePerson(personId), DomainJson::write);
+                default -> throw methodNotAllowed();
+            }
+            return;
+        }
+        switch (path[2]) {
+            case "detail" -> {
+                requireLength(path, 3);
+                requireMethod(method, "GET");
+                send(exchange, 200, api.getPersonDetail(personId, parts(query(exchange).get("include"))),
+                        DomainJson::write);
+            }
+            case "household" -> {
+                requireLength(path, 3);
+                requireMethod(method, "GET");
+                send(exchange, 200, api.getHousehold(personId), DomainJson::write);
+            }
+            case "picture" -> {
+                requireLength(path, 3);
+                switch (method) {
+                    case "GET" -> sendPicture(exchange, api.getPicture(personId));
+                    case "PUT" -> send(exchange, 200, api.setPicture(personId,
+                            readBody(exchange, PictureStore.MAX_PICTURE_BYTES)), DomainJson::write);
+                    default -> throw methodNotAllowed();
+                }
+            }
+            case "addresses" -> routeAddresses(exchange, method, path, personId);
+            case "employments" -> routeEmployments(exchange, method, path, personId);
+            case "relationships" -> routeRelationships(exchange, method, path, personId);
+            default -> throw new HttpError(404, "not found");
+        }
+    }
+
+    private void routeAddresses(HttpExchange exchange, String method, String[] path, String personId) {
+        if (path.length == 3) {
+            switch (method) {
+                case "GET" -> {
+                    Instant asOf = asOf(exchange);
+                    sendList(exchange, asOf == null ? api.listAddresses(personId)
+                            : api.listAddresses(personId, asOf), DomainJson::write);
+                }
+                case "POST" -> send(exchange, 201,
+                        api.createAddress(DomainJson.readAddress(body(exchange), null, personId)), DomainJson::write);
+                default -> throw methodNotAllowed();
+            }
+            return;
+        }
+        requireLength(path, 4);
+        String id = path[3];
+        Address address = switch (method) {
+            case "GET" -> api.getAddress(personId, id);
+            case "PUT" -> api.updateAddress(DomainJson.readAddress(body(exchange), id, personId));
+            case "DELETE" -> api.deleteAddress(personId, id);
+            default -> throw methodNotAllowed();
+        };
+        send(exchange, 200, address, DomainJson::write);
+    }
+
+    private void routeEmployments(HttpExchange exchange, String method, String[] path, String personId) {
+        if (path.length == 3) {
+            switch (method) {
+                case "GET" -> {
+                    Instant asOf = asOf(exchange);
+                    sendList(exchange, asOf == null ? api.listEmployments(personId)
+                            : api.listEmployments(personId, asOf), DomainJson::write);
+                }
+                case "POST" -> send(exchange, 201,
+                        api.createEmployment(DomainJson.readEmployment(body(exchange), null, personId)),
+                        DomainJson::write);
+                default -> throw methodNotAllowed();
+            }
+            return;
+        }
+        requireLength(path, 4);
+        String id = path[3];
+        Employment employment = switch (method) {
+            case "GET" -> api.getEmployment(personId, id);
+            case "PUT" -> api.updateEmployment(DomainJson.readEmployment(body(exchange), id, personId));
+            case "DELETE" -> api.deleteEmployment(personId, id);
+            default -> throw methodNotAllowed();
+        };
+        send(exchange, 200, employment, DomainJson::write);
+    }
+
+    private void routeRelationships(HttpExchange exchange, String method, String[] path, String personId) {
+        if (path.length == 3) {
+            switch (method) {
+                case "GET" -> {
+                    Instant asOf = asOf(exchange);
+                    sendList(exchange, asOf == null ? api.listRelationships(personId)
+                            : api.listRelationships(personId, asOf), DomainJson::write);
+                }
+                case "POST" -> send(exchange, 201,
+                        api.createRelationship(DomainJson.readRelationship(body(exchange), null, personId)),
+                        DomainJson::write);
+                default -> throw methodNotAllowed();
+            }
+            return;
+        }
+        requireLength(path, 4);
+        String id = path[3];
+        Relationship relationship = switch (method) {
+            case "GET" -> api.getRelationship(personId, id);
+            case "PUT" -> api.updateRelationship(DomainJson.readRelationship(body(exchange), id, personId));
+            case "DELETE" -> api.deleteRelationship(personId, id);
+            default -> throw methodNotAllowed();
+        };
+        send(exchange, 200, relationship, DomainJson::write);
+    }
+
+    private void routeCluster(HttpExchange exchange, String method, String[] path) {
+        if (backend instanceof ClusterPeopleService router) {
+            requireLength(path, 2);
+            if (!"nodes".equals(path[1])) {
+                throw new HttpError(404, "not found");
+            }
+            requireMethod(method, "POST");
+            String address = (String) body(exchange).get("address");
+            if (address == null || address.isBlank()) {
+                throw new IllegalArgumentException("address must be provided");
+            }
+            send(exchange, 200, router.addNode(address, RemotePeopleApi.forUrl(address)), DomainJson::write);
+            return;
+        }
+        if (!(backend instanceof ClusterNode node)) {
+            throw new HttpError(404, "cluster is not enabled");
+        }
+        if (path.length == 2 && "changes".equals(path[1])) {
+            requireMethod(method, "POST");
+            if (!(JsonReader.parse(readBody(exchange, MAX_BODY_BYTES)) instanceof List<?> entries)) {
+                throw new IllegalArgumentException("expected a JSON array of changes");
+            }
+            List<Change> changes = new ArrayList<>(entries.size());
+            for (Object entry : entries) {
+                if (!(entry instanceof Map<?, ?>)) {
+                    throw new IllegalArgumentException("expected a JSON array of changes");
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> json = (Map<String, Object>) entry;
+                changes.add(DomainJson.readLogEntry(json).change());
+            }
+            node.importChanges(changes);
+            sendBytes(exchange, 204, null, 0);
+            return;
+        }
+        requireLength(path, 3);
+        switch (path[1] + " " + method) {
+            case "people POST" -> send(exchange, 201, node.createPerson(DomainJson.readPerson(body(exchange), null),
+                    path[2]), DomainJson::write);
+            case "people DELETE" -> send(exchange, 200, node.evictPerson(path[2]), DomainJson::write);
+            case "related DELETE" -> {
+                node.deleteRelationshipsRelatedTo(path[2]);
+                sendBytes(exchange, 204, null, 0);
+            }
+            default -> throw new HttpError(404, "not found");
+        }
+    }
+
+    private ReplicationStatus replicationStatus() {
+        return switch (backend) {
+            case ReplicatedPeopleService primary -> primary.status();
+            case ReadReplica replica -> replica.status();
+            default -> throw new HttpError(404, "replication is not enabled");
+        };
+    }
+
+    private <T> void send(HttpExchange exchange, int status, T value, BiConsumer<JsonWriter, T> writer) {
+        JsonWriter json = new JsonWriter();
+        writer.accept(json, value);
+        sendBytes(exchange, status, json.buffer(), json.size());
+    }
+
+    private <T> void sendList(HttpExchange exchange, List<T> values, BiConsumer<JsonWriter, T> writer) {
+        StreamingBody body = new StreamingBody(exchange);
+        JsonWriter json = JsonWriter.streaming(body);
+        json.beginArray();
+        for (T value : values) {
+            writer.accept(json, value);
+            json.flushIfNeeded();
+        }
+        json.endArray();
+        if (body.started) {
+            json.flush();
+        } else {
+            sendBytes(exchange, 200, json.buffer(), json.size());
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message, List<String> violations) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        JsonWriter json = new JsonWriter();
+        DomainJson.writeError(json, message, violations);
+        try {
+            sendBytes(exchange, status, json.buffer(), json.size());
+        } catch (UncheckedIOException ignored) {
+            return;
+        }
+    }
+
+    private void sendConflict(HttpExchange exchange, VersionConflictException conflict) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        JsonWriter json = new JsonWriter();
+        DomainJson.writeConflict(json, conflict);
+        try {
+            sendBytes(exchange, 409, json.buffer(), json.size());
+        } catch (UncheckedIOException ignored) {
+            return;
+        }
+    }
+
+    private static void sendBytes(HttpExchange exchange, int status, byte[] bytes, int length) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", JSON);
+            exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+            if (length > 0) {
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes, 0, length);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void sendPicture(HttpExchange exchange, ByteBuffer picture) {
+        ByteBuffer image = picture.duplicate();
+        try {
+            exchange.getResponseHeaders().set("Content-Type", PictureType.detect(image).mediaType());
+            exchange.sendResponseHeaders(200, image.remaining());
+            OutputStream out = exchange.getResponseBody();
+            byte[] chunk = new byte[Math.min(image.remaining(), 64 * 1024)];
+            while (image.hasRemaining()) {
+                int length = Math.min(chunk.length, image.remaining());
+                image.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Map<String, Object> body(HttpExchange exchange) {
+        return JsonReader.parseObject(readBody(exchange, MAX_BODY_BYTES));
+    }
+
+    private static byte[] readBody(HttpExchange exchange, int limit) {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(limit + 1);
+            if (bytes.length > limit) {
+                throw new HttpError(413, "request body too large");
+            }
+            return bytes;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static Instant asOf(HttpExchange exchange) {
+        String value = query(exchange).get("asOf");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("asOf must be an ISO-8601 instant");
+        }
+    }
+
+    private static double threshold(HttpExchange exchange) {
+        String value = query(exchange).get("threshold");
+        if (value == null || value.isBlank()) {
+            return DuplicateDetector.DEFAULT_THRESHOLD;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("threshold must be a number");
+        }
+    }
+
+    private static int minSize(HttpExchange exchange) {
+        String value = query(exchange).get("minSize");
+        if (value == null || value.isBlank()) {
+            return 2;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("minSize must be a number");
+        }
+    }
+
+    private static Set<PersonDetail.Part> parts(String include) {
+        if (include == null) {
+            return PersonDetail.Part.ALL;
+        }
+        Set<PersonDetail.Part> parts = EnumSet.noneOf(PersonDetail.Part.class);
+        for (String part : include.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            try {
+                parts.add(PersonDetail.Part.valueOf(part.strip().toUpperCase()));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("include must list addresses, relationships or employments");
+            }
+        }
+        return parts;
+    }
+
+    private static LocalDate date(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " must be provided");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 date");
+        }
+    }
+
+    private static int limit(String value) {
+        if (value == null || value.isBlank()) {
+            return 10;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("limit must be a number");
+        }
+    }
+
+    private static String[] segments(String rawPath) {
+        String trimmed = rawPath.startsWith("/") ? rawPath.substring(1) : rawPath;
+        if (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        if (trimmed.isEmpty()) {
+            return new String[0];
+        }
+        String[] parts = trimmed.split("/");
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = URLDecoder.decode(parts[i], StandardCharsets.UTF_8);
+        }
+        return parts;
+    }
+
+    private static void requireLength(String[] path, int length) {
+        if (path.length != length) {
+            throw new HttpError(404, "not found");
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw methodNotAllowed();
+        }
+    }
+
+    private static HttpError methodNotAllowed() {
+        return new HttpError(405, "method not allowed");
+    }
+
+    static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+
+        int status() {
+            return status;
+        }
+    }
+
+    private static final class StreamingBody extends OutputStream {
+        private final HttpExchange exchange;
+        private boolean started;
+
+        private StreamingBody(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!started) {
+                exchange.getResponseHeaders().set("Content-Type", JSON);
+                exchange.sendResponseHeaders(200, 0);
+                started = true;
+            }
+            exchange.getResponseBody().write(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.people.server;
+
+import com.people.admission.AdmissionControlledPeopleService;
+import com.people.api.PeopleApi;
+import com.people.cluster.ClusterPeopleService;
+import com.people.datagen.GenerationSummary;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.history.HistoryPruner;
+import com.people.picture.PictureStore;
+import com.people.reclaim.Reclaimer;
+import com.people.replication.ReadReplica;
+import com.people.replication.ReplicatedPeopleService;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+import com.people.storage.BTreeStore;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+public final class PeopleServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final String REPLICA_STATE = "replica.state";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public PeopleServer(PeopleApi api, InetSocketAddress address) throws IOException {
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.createContext("/", new PeopleHandler(api));
+        server.setExecutor(executor);
+    }
+
+    public static PeopleServer start(PeopleApi api, int port) throws IOException {
+        PeopleServer server = new PeopleServer(api, new InetSocketAddress(port));
+        server.start();
+        return server;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int port = Integer.parseInt(options.getOrDefault("port", Integer.toString(DEFAULT_PORT)));
+        PictureStore pictures = PictureStore.open(Path.of(options.getOrDefault("pictures", "pictures")));
+        int shards = Integer.parseInt(options.getOrDefault("shards", "0"));
+        if (shards > 0 && options.containsKey("data")) {
+            throw new IllegalArgumentException("--data cannot be combined with --shards");
+        }
+        boolean follower = options.containsKey("follow");
+        if (follower && (shards > 0 || options.containsKey("scale") || options.containsKey("replication-port"))) {
+            throw new IllegalArgumentException("--follow cannot be combined with --shards, --scale or "
+                    + "--replication-port");
+        }
+        boolean clusterNode = Boolean.parseBoolean(options.get("cluster-node"));
+        if (clusterNode && (shards > 0 || follower || options.containsKey("replication-port"))) {
+            throw new IllegalArgumentException("--cluster-node cannot be combined with --shards, --follow or "
+                    + "--replication-port");
+        }
+        boolean router = options.containsKey("cluster");
+        if (router && (clusterNode || shards > 0 || follower || options.containsKey("data")
+                || options.containsKey("replication-port") || options.containsKey("history-retention"))) {
+            throw new IllegalArgumentException("--cluster only routes requests and cannot be combined with storage "
+                    + "or replication options");
+        }
+        if (options.containsKey("reclaim-batch") && (shards > 0 || follower || router)) {
+            throw new IllegalArgumentException("--reclaim-batch cannot be combined with --shards, --follow or "
+                    + "--cluster");
+        }
+        BTreeStore store = options.containsKey("data") ? BTreeStore.open(Path.of(options.get("data"))) : null;
+        Predicate<String> knownPeople = clusterNode ? id -> true : null;
+        PeopleApi service = shards > 0 ? new ShardedPeopleService(shards, pictures)
+                : store != null ? PeopleService.createOnDisk(store, pictures, knownPeople)
+                : PeopleService.createInMemory(pictures, knownPeople);
+        pictures.collectGarbage();
+        ReplicationServer replication = null;
+        ReplicaClient replicaClient = null;
+        ClusterPeopleService cluster = null;
+        PeopleApi api = service;
+        if (router) {
+            Map<String, RemotePeopleApi> nodes = new LinkedHashMap<>();
+            for (String address : options.get("cluster").split(",")) {
+                nodes.put(address.strip(), RemotePeopleApi.forUrl(address.strip()));
+            }
+            cluster = new ClusterPeopleService(nodes);
+            System.out.printf("Routing to cluster nodes %s%n", nodes.keySet());
+            api = cluster;
+        } else if (follower) {
+            Path stateFile = store != null ? Path.of(options.get("data")).resolve(REPLICA_STATE) : null;
+            ReadReplica replica = ReplicaClient.open((PeopleService) service, stateFile);
+            replicaClient = ReplicaClient.start(replica, ReplicaClient.address(options.get("follow")), stateFile,
+                    store != null ? store::flush : () -> { });
+            api = replica;
+        } else if (options.containsKey("replication-port")) {
+            ReplicatedPeopleService primary = new ReplicatedPeopleService(service);
+            replication = ReplicationServer.start(primary, Integer.parseInt(options.get("replication-port")));
+            System.out.printf("Replication log listening on port %d%n", replication.port());
+            api = primary;
+        }
+        HistoryPruner pruner = null;
+        if (options.containsKey("history-retention")) {
+            Duration retention = Duration.parse(options.get("history-retention"));
+            pruner = service instanceof ShardedPeopleService sharded
+                    ? sharded.startHistoryPruning(retention)
+                    : ((PeopleService) service).startHistoryPruning(retention);
+        }
+        Reclaimer reclaimer = null;
+        if (options.containsKey("reclaim-batch")) {
+            Duration interval = options.containsKey("reclaim-interval")
+                    ? Duration.parse(options.get("reclaim-interval")) : Reclaimer.DEFAULT_INTERVAL;
+            reclaimer = ((PeopleService) service).startReclaiming(Integer.parseInt(options.get("reclaim-batch")),
+                    interval);
+        }
+        if (options.containsKey("scale")) {
+            GeneratorConfig config = GeneratorConfig.forScale(Integer.parseInt(options.get("scale")),
+                    Long.parseLong(options.getOrDefault("seed", Long.toString(GeneratorConfig.DEFAULT_SEED))));
+            GenerationSummary summary = new SyntheticDataGenerator(api, config).generate();
+            System.out.printf("Generated %d people in %d ms%n", summary.people(), summary.elapsed().toMillis());
+        }
+        if (Boolean.parseBoolean(options.get("admission"))) {
+            api = new AdmissionControlledPeopleService(api);
+        }
+        PeopleServer server = start(api, port);
+        System.out.printf("People server listening on port %d%n", server.port());
+        CountDownLatch stopped = new CountDownLatch(1);
+        HistoryPruner historyPruner = pruner;
+        Reclaimer cascadeReclaimer = reclaimer;
+        ReplicationServer replicationServer = replication;
+        ReplicaClient client = replicaClient;
+        ClusterPeopleService clusterRouter = cluster;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            if (replicationServer != null) {
+                replicationServer.close();
+            }
+            if (client != null) {
+                client.close();
+            }
+            if (clusterRouter != null) {
+                clusterRouter.close();
+            }
+            if (historyPruner != null) {
+                historyPruner.close();
+            }
+            if (cascadeReclaimer != null) {
+                cascadeReclaimer.close();
+            }
+            if (service instanceof ShardedPeopleService sharded) {
+                sharded.close();
+            }
+            if (store != null) {
+                store.close();
+            }
+            pictures.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                continue;
+            }
+            String key = args[i].substring(2);
+            int eq = key.indexOf('=');
+            if (eq >= 0) {
+                options.put(key.substring(0, eq), key.substring(eq + 1));
+            } else if (i + 1 < args.length) {
+                options.put(key, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + key);
+            }
+        }
+        return options;
+    }
+}
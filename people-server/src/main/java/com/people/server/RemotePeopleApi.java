@@ -0,0 +1,539 @@
+package com.people.server;
+
+import com.people.api.BulkResult;
+import com.people.api.DuplicateCluster;
+import com.people.api.GeoStats;
+import com.people.api.Household;
+import com.people.api.NotFoundException;
+import com.people.api.OverloadedException;
+import com.people.api.CompanySummary;
+import com.people.api.PersonDetail;
+import com.people.api.RowError;
+import com.people.api.SearchHit;
+import com.people.cluster.ClusterNode;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.domain.Relationship;
+import com.people.query.Entity;
+import com.people.query.Query;
+import com.people.query.QueryPlan;
+import com.people.replication.Change;
+import com.people.replication.LogEntry;
+import com.people.service.ValidationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class RemotePeopleApi implements ClusterNode, AutoCloseable {
+    private static final String JSON = "application/json";
+
+    private final String host;
+    private final int port;
+    private final ConcurrentLinkedQueue<HttpConnection> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public RemotePeopleApi(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static RemotePeopleApi forUrl(String url) {
+        String rest = url.startsWith("http://") ? url.substring("http://".length()) : url;
+        int slash = rest.indexOf('/');
+        String authority = slash < 0 ? rest : rest.substring(0, slash);
+        int colon = authority.lastIndexOf(':');
+        if (colon < 0) {
+            return new RemotePeopleApi(authority, 80);
+        }
+        try {
+            return new RemotePeopleApi(authority.substring(0, colon), Integer.parseInt(authority.substring(colon + 1)));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("invalid server url: " + url);
+        }
+    }
+
+    @Override
+    public Person createPerson(Person person) {
+        return call("POST", "/people", person, DomainJson::write, RemotePeopleApi::person);
+    }
+
+    @Override
+    public BulkResult<Person> createPeople(List<Person> people) {
+        return createEach(people, this::createPerson);
+    }
+
+    @Override
+    public Person updatePerson(Person person) {
+        return call("PUT", "/people/" + segment(person.id()), person, DomainJson::write, RemotePeopleApi::person);
+    }
+
+    @Override
+    public Person deletePerson(String id) {
+        return call("DELETE", "/people/" + segment(id), RemotePeopleApi::person);
+    }
+
+    @Override
+    public Person getPerson(String id) {
+        return call("GET", "/people/" + segment(id), RemotePeopleApi::person);
+    }
+
+    @Override
+    public PersonDetail getPersonDetail(String id, Set<PersonDetail.Part> parts) {
+        StringBuilder include = new StringBuilder();
+        for (PersonDetail.Part part : parts) {
+            include.append(include.isEmpty() ? "" : ",").append(part.name().toLowerCase());
+        }
+        return call("GET", "/people/" + segment(id) + "/detail?include=" + include, DomainJson::readPersonDetail);
+    }
+
+    @Override
+    public Person getPerson(String id, Instant asOf) {
+        return call("GET", "/people/" + segment(id) + asOfQuery(asOf), RemotePeopleApi::person);
+    }
+
+    @Override
+    public List<Person> listPeople() {
+        return list("/people", RemotePeopleApi::person);
+    }
+
+    @Override
+    public Person setPicture(String personId, byte[] image) {
+        if (image == null || image.length == 0) {
+            throw new IllegalArgumentException("picture must be provided");
+        }
+        return person(object(JsonReader.parse(exchange("PUT", picturePath(personId), "application/octet-stream",
+                image, image.length))));
+    }
+
+    @Override
+    public ByteBuffer getPicture(String personId) {
+        return ByteBuffer.wrap(exchange("GET", picturePath(personId), null, null, 0)).asReadOnlyBuffer();
+    }
+
+    @Override
+    public Address createAddress(Address address) {
+        return call("POST", children(address.personId(), "addresses", null), address, DomainJson::write,
+                RemotePeopleApi::address);
+    }
+
+    @Override
+    public BulkResult<Address> createAddresses(List<Address> addresses) {
+        return createEach(addresses, this::createAddress);
+    }
+
+    @Override
+    public Address updateAddress(Address address) {
+        return call("PUT", children(address.personId(), "addresses", address.id()), address, DomainJson::write,
+                RemotePeopleApi::address);
+    }
+
+    @Override
+    public Address deleteAddress(String personId, String addressId) {
+        return call("DELETE", children(personId, "addresses", addressId), RemotePeopleApi::address);
+    }
+
+    @Override
+    public Address getAddress(String personId, String addressId) {
+        return call("GET", children(personId, "addresses", addressId), RemotePeopleApi::address);
+    }
+
+    @Override
+    public Address getAddress(String addressId) {
+        return call("GET", "/addresses/" + segment(addressId), RemotePeopleApi::address);
+    }
+
+    @Override
+    public Address deleteAddress(String addressId) {
+        return call("DELETE", "/addresses/" + segment(addressId), RemotePeopleApi::address);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId) {
+        return list(children(personId, "addresses", null), RemotePeopleApi::address);
+    }
+
+    @Override
+    public List<Address> listAddresses(String personId, Instant asOf) {
+        return list(children(personId, "addresses", null) + asOfQuery(asOf), RemotePeopleApi::address);
+    }
+
+    @Override
+    public List<Address> listAddressesFiltered(String street, String town, String state, String streetContains) {
+        StringBuilder path = new StringBuilder("/addresses");
+        char separator = '?';
+        String[][] params = {{"street", street}, {"town", town}, {"state", state}, {"streetContains", streetContains}};
+        for (String[] param : params) {
+            if (param[1] != null) {
+                path.append(separator).append(param[0]).append('=')
+                        .append(URLEncoder.encode(param[1], StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return list(path.toString(), RemotePeopleApi::address);
+    }
+
+    @Override
+    public Employment createEmployment(Employment employment) {
+        return call("POST", children(employment.personId(), "employments", null), employment, DomainJson::write,
+                RemotePeopleApi::employment);
+    }
+
+    @Override
+    public BulkResult<Employment> createEmployments(List<Employment> employments) {
+        return createEach(employments, this::createEmployment);
+    }
+
+    @Override
+    public Employment updateEmployment(Employment employment) {
+        return call("PUT", children(employment.personId(), "employments", employment.id()), employment,
+                DomainJson::write, RemotePeopleApi::employment);
+    }
+
+    @Override
+    public Employment deleteEmployment(String personId, String employmentId) {
+        return call("DELETE", children(personId, "employments", employmentId), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public Employment getEmployment(String personId, String employmentId) {
+        return call("GET", children(personId, "employments", employmentId), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public Employment getEmployment(String employmentId) {
+        return call("GET", "/employments/" + segment(employmentId), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public Employment deleteEmployment(String employmentId) {
+        return call("DELETE", "/employments/" + segment(employmentId), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId) {
+        return list(children(personId, "employments", null), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public List<Employment> listEmployments(String personId, Instant asOf) {
+        return list(children(personId, "employments", null) + asOfQuery(asOf), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public List<Employment> listAllEmployments() {
+        return list("/employments", RemotePeopleApi::employment);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOn(LocalDate date, String companyId) {
+        return list("/employments?on=" + date + companyQuery(companyId), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public List<Employment> listEmploymentsOverlapping(LocalDate from, LocalDate to, String companyId) {
+        return list("/employments?from=" + from + "&to=" + to + companyQuery(companyId), RemotePeopleApi::employment);
+    }
+
+    @Override
+    public <T> List<T> query(Query<T> query) {
+        Function<Map<String, Object>, ?> reader = reader(query.entity());
+        return list("/query?q=" + URLEncoder.encode(query.toString(), StandardCharsets.UTF_8),
+                json -> query.entity().type().cast(reader.apply(json)));
+    }
+
+    @Override
+    public QueryPlan explain(Query<?> query) {
+        Object parsed = JsonReader.parse(exchange("GET",
+                "/query/plan?q=" + URLEncoder.encode(query.toString(), StandardCharsets.UTF_8), null, null, 0));
+        return DomainJson.readQueryPlan(object(parsed));
+    }
+
+    @Override
+    public List<CompanySummary> listCompanies() {
+        return list("/companies", DomainJson::readCompanySummary);
+    }
+
+    @Override
+    public List<Employment> listCompanyEmployments(String companyId) {
+        return list("/companies/" + segment(companyId) + "/employments", RemotePeopleApi::employment);
+    }
+
+    @Override
+    public Relationship createRelationship(Relationship relationship) {
+        return call("POST", children(relationship.personId(), "relationships", null), relationship,
+                DomainJson::write, RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public BulkResult<Relationship> createRelationships(List<Relationship> relationships) {
+        return createEach(relationships, this::createRelationship);
+    }
+
+    @Override
+    public Relationship updateRelationship(Relationship relationship) {
+        return call("PUT", children(relationship.personId(), "relationships", relationship.id()), relationship,
+                DomainJson::write, RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String personId, String relationshipId) {
+        return call("DELETE", children(personId, "relationships", relationshipId), RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public Relationship getRelationship(String personId, String relationshipId) {
+        return call("GET", children(personId, "relationships", relationshipId), RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public Relationship getRelationship(String relationshipId) {
+        return call("GET", "/relationships/" + segment(relationshipId), RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public Relationship deleteRelationship(String relationshipId) {
+        return call("DELETE", "/relationships/" + segment(relationshipId), RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId) {
+        return list(children(personId, "relationships", null), RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public List<Relationship> listRelationships(String personId, Instant asOf) {
+        return list(children(personId, "relationships", null) + asOfQuery(asOf), RemotePeopleApi::relationship);
+    }
+
+    @Override
+    public Household getHousehold(String personId) {
+        return call("GET", "/people/" + segment(personId) + "/household", DomainJson::readHousehold);
+    }
+
+    @Override
+    public List<Household> listHouseholds(int minSize) {
+        return list("/households?minSize=" + minSize, DomainJson::readHousehold);
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) {
+        return list("/search?q=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&limit=" + limit,
+                DomainJson::readSearchHit);
+    }
+
+    @Override
+    public List<GeoStats> listGeoStats() {
+        return list("/addresses/stats", DomainJson::readGeoStats);
+    }
+
+    @Override
+    public List<DuplicateCluster> findDuplicates(double threshold) {
+        return list("/duplicates?threshold=" + threshold, DomainJson::readDuplicateCluster);
+    }
+
+    @Override
+    public Person createPerson(Person person, String id) {
+        return call("POST", "/cluster/people/" + segment(id), person, DomainJson::write, RemotePeopleApi::person);
+    }
+
+    @Override
+    public void deleteRelationshipsRelatedTo(String personId) {
+        exchange("DELETE", "/cluster/related/" + segment(personId), null, null, 0);
+    }
+
+    @Override
+    public void importChanges(List<Change> changes) {
+        JsonWriter json = new JsonWriter().beginArray();
+        for (Change change : changes) {
+            DomainJson.write(json, new LogEntry(0, 0, change));
+        }
+        json.endArray();
+        exchange("POST", "/cluster/changes", JSON, json.buffer(), json.size());
+    }
+
+    @Override
+    public Person evictPerson(String id) {
+        return call("DELETE", "/cluster/people/" + segment(id), RemotePeopleApi::person);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        HttpConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private <T> T call(String method, String path, Function<Map<String, Object>, T> reader) {
+        return reader.apply(object(JsonReader.parse(exchange(method, path, null, null, 0))));
+    }
+
+    private <T, R> R call(String method, String path, T value, BiConsumer<JsonWriter, T> writer,
+                          Function<Map<String, Object>, R> reader) {
+        if (value == null) {
+            throw new IllegalArgumentException("request body must be provided");
+        }
+        JsonWriter json = new JsonWriter();
+        writer.accept(json, value);
+        return reader.apply(object(JsonReader.parse(exchange(method, path, JSON, json.buffer(), json.size()))));
+    }
+
+    private <T> List<T> list(String path, Function<Map<String, Object>, T> reader) {
+        Object parsed = JsonReader.parse(exchange("GET", path, null, null, 0));
+        if (!(parsed instanceof List<?> values)) {
+            throw new IllegalStateException("expected a JSON array from " + path);
+        }
+        List<T> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(reader.apply(object(value)));
+        }
+        return result;
+    }
+
+    private byte[] exchange(String method, String path, String contentType, byte[] body, int bodyLength) {
+        if (closed) {
+            throw new IllegalStateException("client is closed");
+        }
+        HttpConnection connection = idle.poll();
+        HttpConnection.Response response;
+        try {
+            if (connection == null) {
+                connection = new HttpConnection(host, port);
+            }
+            response = connection.send(method, path, contentType, body, bodyLength);
+        } catch (IOException ex) {
+            if (connection != null) {
+                connection.close();
+            }
+            throw new UncheckedIOException(method + " " + path + " failed", ex);
+        }
+        if (connection.reusable() && !closed) {
+            idle.offer(connection);
+        } else {
+            connection.close();
+        }
+        if (!response.ok()) {
+            throw error(response);
+        }
+        return response.body();
+    }
+
+    private static RuntimeException error(HttpConnection.Response response) {
+        Map<String, Object> json;
+        try {
+            json = object(JsonReader.parse(response.body()));
+        } catch (IllegalArgumentException ex) {
+            return new IllegalStateException("server returned " + response.status());
+        }
+        Object message = json.get("error");
+        if (response.status() == 409) {
+            return DomainJson.readConflict(json);
+        }
+        if (json.get("violations") instanceof List<?> violations) {
+            return new ValidationException(violations.stream().map(String::valueOf).toList());
+        }
+        if (response.status() == 503) {
+            return new OverloadedException("remote", 1000);
+        }
+        if (response.status() >= 500) {
+            return new IllegalStateException("server returned " + response.status() + ": " + message);
+        }
+        if (response.status() == 404) {
+            return new NotFoundException(String.valueOf(message));
+        }
+        return new IllegalArgumentException(String.valueOf(message));
+    }
+
+    private static <T> BulkResult<T> createEach(List<T> values, Function<T, T> creator) {
+        List<T> created = new ArrayList<>(values.size());
+        List<RowError> errors = new ArrayList<>();
+        for (int row = 0; row < values.size(); row++) {
+            try {
+                created.add(creator.apply(values.get(row)));
+            } catch (ValidationException ex) {
+                errors.add(new RowError(row, ex.violations()));
+            } catch (IllegalArgumentException ex) {
+                errors.add(new RowError(row, List.of(String.valueOf(ex.getMessage()))));
+            }
+        }
+        return new BulkResult<>(created, errors);
+    }
+
+    private static String picturePath(String personId) {
+        return "/people/" + segment(personId) + "/picture";
+    }
+
+    private static String children(String personId, String collection, String id) {
+        String path = "/people/" + segment(personId) + "/" + collection;
+        return id == null ? path : path + "/" + segment(id);
+    }
+
+    private static String asOfQuery(Instant asOf) {
+        if (asOf == null) {
+            throw new IllegalArgumentException("asOf must be provided");
+        }
+        return "?asOf=" + URLEncoder.encode(asOf.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static String companyQuery(String companyId) {
+        return companyId == null ? "" : "&companyId=" + URLEncoder.encode(companyId, StandardCharsets.UTF_8);
+    }
+
+    private static String segment(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("id must be provided");
+        }
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalStateException("expected a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static Function<Map<String, Object>, ?> reader(Entity<?> entity) {
+        if (entity == Entity.PERSON) {
+            return RemotePeopleApi::person;
+        }
+        if (entity == Entity.ADDRESS) {
+            return RemotePeopleApi::address;
+        }
+        if (entity == Entity.EMPLOYMENT) {
+            return RemotePeopleApi::employment;
+        }
+        throw new IllegalArgumentException("unsupported entity: " + entity);
+    }
+
+    private static Person person(Map<String, Object> json) {
+        return DomainJson.readPerson(json, (String) json.get("id"));
+    }
+
+    private static Address address(Map<String, Object> json) {
+        return DomainJson.readAddress(json, (String) json.get("id"), (String) json.get("personId"));
+    }
+
+    private static Employment employment(Map<String, Object> json) {
+        return DomainJson.readEmployment(json, (String) json.get("id"), (String) json.get("personId"));
+    }
+
+    private static Relationship relationship(Map<String, Object> json) {
+        return DomainJson.readRelationship(json, (String) json.get("id"), (String) json.get("personId"));
+    }
+}
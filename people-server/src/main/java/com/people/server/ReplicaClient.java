@@ -0,0 +1,199 @@
+package com.people.server;
+
+import com.people.replication.ReadReplica;
+import com.people.service.PeopleService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+public final class ReplicaClient implements AutoCloseable {
+    static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    static final int READ_TIMEOUT_MILLIS = 5000;
+    static final long RETRY_MILLIS = 500;
+    static final long CHECKPOINT_MILLIS = 1000;
+    private static final System.Logger LOG = System.getLogger(ReplicaClient.class.getName());
+
+    private final ReadReplica replica;
+    private final InetSocketAddress primary;
+    private final Path stateFile;
+    private final Runnable flush;
+    private final Thread thread;
+    private volatile Socket socket;
+    private volatile boolean closed;
+    private String checkpointedLog;
+    private long checkpointedPosition = -1;
+    private long lastCheckpoint;
+
+    private ReplicaClient(ReadReplica replica, InetSocketAddress primary, Path stateFile, Runnable flush) {
+        this.replica = replica;
+        this.primary = primary;
+        this.stateFile = stateFile;
+        this.flush = flush;
+        this.thread = Thread.ofPlatform().name("people-replica").daemon().unstarted(this::run);
+    }
+
+    public static ReplicaClient start(ReadReplica replica, InetSocketAddress primary) {
+        return start(replica, primary, null, () -> { });
+    }
+
+    public static ReplicaClient start(ReadReplica replica, InetSocketAddress primary, Path stateFile,
+                                      Runnable flush) {
+        ReplicaClient client = new ReplicaClient(replica, primary, stateFile, flush);
+        client.thread.start();
+        return client;
+    }
+
+    public static ReadReplica open(PeopleService service, Path stateFile) {
+        if (stateFile == null || !Files.exists(stateFile)) {
+            return new ReadReplica(service);
+        }
+        try {
+            List<String> lines = Files.readAllLines(stateFile, StandardCharsets.UTF_8);
+            if (lines.size() < 2) {
+                return new ReadReplica(service);
+            }
+            return new ReadReplica(service, lines.get(0), Long.parseLong(lines.get(1)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot read replica state " + stateFile, ex);
+        }
+    }
+
+    public static InetSocketAddress address(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        try {
+            return new InetSocketAddress(colon < 0 ? "localhost" : hostAndPort.substring(0, colon),
+                    Integer.parseInt(hostAndPort.substring(colon + 1)));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("invalid primary address: " + hostAndPort);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+                replica.connected(false);
+            }
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        checkpoint();
+    }
+
+    private void run() {
+        while (!closed) {
+            try (Socket connection = new Socket()) {
+                connection.connect(primary, CONNECT_TIMEOUT_MILLIS);
+                connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+                connection.setTcpNoDelay(true);
+                socket = connection;
+                replica.connected(true);
+                follow(connection);
+            } catch (IOException ex) {
+                if (closed) {
+                    return;
+                }
+            } catch (RuntimeException ex) {
+                if (closed) {
+                    return;
+                }
+                replica.failed(ex);
+                LOG.log(System.Logger.Level.WARNING, "replication from " + primary + " failed; reconnecting", ex);
+            } finally {
+                socket = null;
+                replica.connected(false);
+            }
+            if (closed) {
+                return;
+            }
+            checkpoint();
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void follow(Socket connection) throws IOException {
+        JsonWriter hello = new JsonWriter();
+        hello.beginObject().field("log", replica.logId()).field("from", replica.position()).endObject();
+        OutputStream out = connection.getOutputStream();
+        out.write(hello.buffer(), 0, hello.size());
+        out.write('\n');
+        out.flush();
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        String line;
+        while (!closed && (line = in.readLine()) != null) {
+            Map<String, Object> message = JsonReader.parseObject(line.getBytes(StandardCharsets.UTF_8));
+            switch (String.valueOf(message.get("type"))) {
+                case "change" -> replica.apply(DomainJson.readLogEntry(object(message.get("entry"))));
+                case "reset" -> replica.reset((String) message.get("log"));
+                case "snapshot" -> replica.completeSnapshot(number(message, "position"), number(message, "time"));
+                case "heartbeat" -> {
+                    replica.heartbeat(number(message, "position"), number(message, "time"));
+                    if (System.currentTimeMillis() - lastCheckpoint >= CHECKPOINT_MILLIS) {
+                        checkpoint();
+                    }
+                }
+                default -> throw new IllegalArgumentException("unknown replication message: " + message.get("type"));
+            }
+        }
+    }
+
+    private synchronized void checkpoint() {
+        lastCheckpoint = System.currentTimeMillis();
+        String logId = replica.logId();
+        long position = replica.position();
+        if (stateFile == null || logId == null
+                || (logId.equals(checkpointedLog) && position == checkpointedPosition)) {
+            return;
+        }
+        flush.run();
+        Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, logId + "\n" + position + "\n", StandardCharsets.UTF_8);
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("cannot write replica state " + stateFile, ex);
+        }
+        checkpointedLog = logId;
+        checkpointedPosition = position;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return (Map<String, Object>) map;
+        }
+        throw new IllegalArgumentException("replication entry must be an object");
+    }
+
+    private static long number(Map<String, Object> message, String field) {
+        if (message.get(field) instanceof BigDecimal value) {
+            return value.longValueExact();
+        }
+        throw new IllegalArgumentException(field + " must be a number");
+    }
+}
@@ -0,0 +1,152 @@
+package com.people.server;
+
+import com.people.replication.Change;
+import com.people.replication.ChangeLog;
+import com.people.replication.LogEntry;
+import com.people.replication.ReplicatedPeopleService;
+import com.people.replication.Snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class ReplicationServer implements AutoCloseable {
+    static final int BATCH_SIZE = 512;
+    static final long HEARTBEAT_MILLIS = 500;
+
+    private final ReplicatedPeopleService primary;
+    private final ServerSocket socket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private ReplicationServer(ReplicatedPeopleService primary, ServerSocket socket) {
+        this.primary = primary;
+        this.socket = socket;
+    }
+
+    public static ReplicationServer start(ReplicatedPeopleService primary, int port) throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.bind(new InetSocketAddress(port));
+        ReplicationServer server = new ReplicationServer(primary, socket);
+        server.executor.submit(server::accept);
+        return server;
+    }
+
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(socket);
+        for (Socket follower : followers) {
+            closeQuietly(follower);
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket follower = socket.accept();
+                follower.setTcpNoDelay(true);
+                followers.add(follower);
+                executor.submit(() -> serve(follower));
+            } catch (IOException ex) {
+                if (closed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void serve(Socket follower) {
+        primary.followerConnected();
+        try (follower) {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(follower.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = new BufferedOutputStream(follower.getOutputStream(), 64 * 1024);
+            String hello = in.readLine();
+            if (hello == null) {
+                return;
+            }
+            Map<String, Object> request = JsonReader.parseObject(hello.getBytes(StandardCharsets.UTF_8));
+            ChangeLog log = primary.log();
+            long position = request.get("from") instanceof BigDecimal from ? from.longValueExact() : 0;
+            JsonWriter json = new JsonWriter();
+            if (!log.id().equals(request.get("log")) || !log.covers(position)) {
+                position = sendSnapshot(json, out);
+            }
+            while (!closed) {
+                List<LogEntry> entries;
+                try {
+                    entries = log.read(position, BATCH_SIZE, HEARTBEAT_MILLIS);
+                } catch (IllegalStateException ex) {
+                    position = sendSnapshot(json, out);
+                    continue;
+                }
+                for (LogEntry entry : entries) {
+                    json.beginObject().field("type", "change").name("entry");
+                    DomainJson.write(json, entry);
+                    send(json.endObject(), out);
+                    position = entry.position();
+                }
+                send(json.beginObject().field("type", "heartbeat").field("position", log.head())
+                        .field("time", System.currentTimeMillis()).endObject(), out);
+                out.flush();
+            }
+        } catch (IOException | RuntimeException ex) {
+            return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(follower);
+            primary.followerDisconnected();
+        }
+    }
+
+    private long sendSnapshot(JsonWriter json, OutputStream out) throws IOException {
+        Snapshot snapshot = primary.snapshot();
+        long time = System.currentTimeMillis();
+        send(json.beginObject().field("type", "reset").field("log", primary.log().id()).endObject(), out);
+        for (Change change : snapshot.changes()) {
+            json.beginObject().field("type", "change").name("entry");
+            DomainJson.write(json, new LogEntry(0, time, change));
+            send(json.endObject(), out);
+        }
+        send(json.beginObject().field("type", "snapshot").field("position", snapshot.position())
+                .field("time", time).endObject(), out);
+        out.flush();
+        return snapshot.position();
+    }
+
+    private static void send(JsonWriter json, OutputStream out) throws IOException {
+        out.write(json.buffer(), 0, json.size());
+        out.write('\n');
+        json.reset();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            return;
+        }
+    }
+}
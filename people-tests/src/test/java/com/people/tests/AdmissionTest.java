@@ -0,0 +1,112 @@
+package com.people.tests;
+
+import com.people.admission.AdaptiveLimiter;
+import com.people.admission.AdmissionControlledPeopleService;
+import com.people.admission.AdmissionLimits;
+import com.people.admission.AdmissionStats;
+import com.people.admission.OperationClass;
+import com.people.api.OverloadedException;
+import com.people.api.PeopleApi;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionTest {
+
+    @Test
+    void limiterQueuesUpToItsBoundAndRejectsTheRest() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(OperationClass.SCAN,
+                new AdmissionLimits(1, 1, 1, 1, Duration.ofSeconds(5)));
+        limiter.acquire();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> queued = executor.submit(limiter::acquire);
+            while (limiter.stats().queued() == 0) {
+                Thread.sleep(1);
+            }
+            assertThrows(OverloadedException.class, limiter::acquire);
+            limiter.release(1_000);
+            queued.get(5, TimeUnit.SECONDS);
+        }
+        AdmissionStats stats = limiter.stats();
+        assertEquals(1, stats.inFlight());
+        assertEquals(2, stats.admitted());
+        assertEquals(1, stats.rejected());
+
+        AdaptiveLimiter noQueue = new AdaptiveLimiter(OperationClass.SCAN,
+                new AdmissionLimits(1, 1, 1, 0, Duration.ZERO));
+        noQueue.acquire();
+        assertThrows(OverloadedException.class, noQueue::acquire);
+    }
+
+    @Test
+    void limitGrowsWhileSaturatedAndBacksOffWhenLatencyRises() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(OperationClass.POINT,
+                new AdmissionLimits(10, 2, 100, 0, Duration.ZERO));
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 200; i++) {
+            limiter.release(10_000);
+            limiter.acquire();
+        }
+        int grown = limiter.stats().limit();
+        assertTrue(grown > 10, "limit did not grow: " + grown);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(1_000_000);
+        }
+        assertTrue(limiter.stats().limit() < grown / 2, "limit did not back off: " + limiter.stats());
+    }
+
+    @Test
+    void pointReadsAreAdmittedWhileScansAreShed() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Person ada = new Person("ada", "Ada", null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE, null,
+                null);
+        PeopleApi slow = (PeopleApi) Proxy.newProxyInstance(PeopleApi.class.getClassLoader(),
+                new Class<?>[] {PeopleApi.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "listPeople" -> {
+                        scanning.countDown();
+                        finish.await();
+                        yield List.of(ada);
+                    }
+                    case "getPerson" -> ada;
+                    default -> List.of();
+                });
+        AdmissionControlledPeopleService api = new AdmissionControlledPeopleService(slow,
+                Map.of(OperationClass.SCAN, new AdmissionLimits(1, 1, 1, 0, Duration.ZERO)));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Person>> scan = executor.submit(api::listPeople);
+            assertTrue(scanning.await(5, TimeUnit.SECONDS));
+            assertThrows(OverloadedException.class, api::listCompanies);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(ada, api.getPerson("ada"));
+            }
+            finish.countDown();
+            assertEquals(List.of(ada), scan.get(5, TimeUnit.SECONDS));
+        }
+        Map<OperationClass, AdmissionStats> stats = api.stats().stream()
+                .collect(Collectors.toMap(AdmissionStats::operationClass, Function.identity()));
+        assertEquals(100, stats.get(OperationClass.POINT).admitted());
+        assertEquals(0, stats.get(OperationClass.POINT).rejected());
+        assertEquals(1, stats.get(OperationClass.SCAN).admitted());
+        assertEquals(1, stats.get(OperationClass.SCAN).rejected());
+    }
+}
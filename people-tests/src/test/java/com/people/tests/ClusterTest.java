@@ -0,0 +1,190 @@
+package com.people.tests;
+
+import com.people.api.CompanySummary;
+import com.people.cluster.ClusterPeopleService;
+import com.people.cluster.Rebalance;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.server.PeopleServer;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import com.people.service.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClusterTest {
+
+    @Test
+    void routesEachPersonToItsOwnerAndMergesFanOutReads() {
+        Map<String, PeopleService> nodes = nodes("a", "b", "c");
+        try (ClusterPeopleService cluster = new ClusterPeopleService(nodes)) {
+            List<Person> people = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                Person person = cluster.createPerson(person("Person" + (i % 7), "Last" + i));
+                cluster.createAddress(address(person.id()));
+                cluster.createEmployment(employment(person.id()));
+                people.add(person);
+            }
+            for (Person person : people) {
+                for (Map.Entry<String, PeopleService> node : nodes.entrySet()) {
+                    boolean owner = node.getKey().equals(cluster.ownerOf(person.id()));
+                    assertEquals(owner, node.getValue().listPeople().contains(person));
+                    assertEquals(owner ? 1 : 0, node.getValue().listAddressesFiltered(null, null, null, null).stream()
+                            .filter(address -> address.personId().equals(person.id())).count());
+                }
+            }
+            assertTrue(nodes.values().stream().allMatch(node -> !node.listPeople().isEmpty()));
+            assertEquals(people.stream().sorted(Comparator.comparing(Person::lastName)
+                    .thenComparing(Person::firstName).thenComparing(Person::id)).toList(), cluster.listPeople());
+            assertEquals(30, cluster.listAddressesFiltered(null, "London", null, null).size());
+            List<CompanySummary> companies = cluster.listCompanies();
+            assertEquals(1, companies.size());
+            assertEquals(30, companies.get(0).employeeCount());
+            assertEquals(30, cluster.listCompanyEmployments(companies.get(0).id()).size());
+            assertThrows(ValidationException.class, () -> cluster.createRelationship(
+                    new Relationship(null, people.get(0).id(), "missing", RelationshipType.COUSIN)));
+        }
+    }
+
+    @Test
+    void companyEmploymentsSkipNodesThatNeverSawTheCompany() {
+        try (ClusterPeopleService cluster = new ClusterPeopleService(nodes("a", "b", "c"))) {
+            Person person = cluster.createPerson(person("Ada", "Lovelace"));
+            Employment employment = cluster.createEmployment(employment(person.id()));
+
+            assertEquals(List.of(employment), cluster.listCompanyEmployments(employment.companyId()));
+            assertThrows(IllegalArgumentException.class, () -> cluster.listCompanyEmployments("missing"));
+        }
+    }
+
+    @Test
+    void addingANodeMovesOnlyItsShareAndKeepsEverythingReachable() {
+        Map<String, PeopleService> nodes = nodes("a", "b");
+        try (ClusterPeopleService cluster = new ClusterPeopleService(nodes)) {
+            List<Person> people = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                Person person = cluster.createPerson(person("Person", "Last" + i));
+                cluster.createAddress(address(person.id()));
+                if (i > 0) {
+                    cluster.createRelationship(new Relationship(null, person.id(), people.get(i - 1).id(),
+                            RelationshipType.COUSIN));
+                }
+                people.add(person);
+            }
+            List<Relationship> relationships = relationships(cluster, people);
+            PeopleService added = PeopleService.createInMemory(null, id -> true);
+            Rebalance rebalance = cluster.addNode("c", added);
+
+            assertEquals("c", rebalance.node());
+            assertTrue(rebalance.movedPeople() > 0);
+            assertEquals(rebalance.movedPeople(), added.listPeople().size());
+            assertEquals(60 - rebalance.movedPeople(),
+                    nodes.get("a").listPeople().size() + nodes.get("b").listPeople().size());
+            for (Person person : people) {
+                assertEquals(person, cluster.getPerson(person.id()));
+                assertEquals(1, cluster.listAddresses(person.id()).size());
+            }
+            assertEquals(59, relationships.size());
+            assertEquals(relationships, relationships(cluster, people));
+
+            Person removed = people.get(30);
+            cluster.deletePerson(removed.id());
+            assertEquals(List.of(), cluster.listRelationships(people.get(31).id()));
+            assertEquals(57, relationships(cluster, people.stream().filter(person -> person != removed).toList())
+                    .size());
+            assertThrows(IllegalArgumentException.class, () -> cluster.getPerson(removed.id()));
+        }
+    }
+
+    @Test
+    void routerDrivesRemoteNodesAndRebalancesOverHttp() throws Exception {
+        List<PeopleServer> servers = new ArrayList<>();
+        Map<String, RemotePeopleApi> nodes = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                PeopleServer server = PeopleServer.start(PeopleService.createInMemory(null, id -> true), 0);
+                servers.add(server);
+                if (i < 2) {
+                    nodes.put("localhost:" + server.port(), RemotePeopleApi.forUrl("localhost:" + server.port()));
+                }
+            }
+            try (ClusterPeopleService cluster = new ClusterPeopleService(nodes)) {
+                List<Person> people = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    Person person = cluster.createPerson(person("Person", "Last" + i));
+                    cluster.createEmployment(employment(person.id()));
+                    if (i > 0) {
+                        cluster.createRelationship(new Relationship(null, people.get(0).id(), person.id(),
+                                RelationshipType.COUSIN));
+                    }
+                    people.add(person);
+                }
+                String address = "localhost:" + servers.get(2).port();
+                Rebalance rebalance = cluster.addNode(address, RemotePeopleApi.forUrl(address));
+                assertTrue(rebalance.movedPeople() > 0);
+                for (Person person : people) {
+                    assertEquals(person, cluster.getPerson(person.id()));
+                    assertEquals(1, cluster.listEmployments(person.id()).size());
+                }
+                assertEquals(19, cluster.listRelationships(people.get(0).id()).size());
+                assertEquals(20, cluster.listCompanies().get(0).employeeCount());
+
+                cluster.deletePerson(people.get(5).id());
+                assertEquals(18, cluster.listRelationships(people.get(0).id()).size());
+                assertEquals(19, cluster.listPeople().size());
+            }
+        } finally {
+            servers.forEach(PeopleServer::close);
+        }
+    }
+
+    private static List<Relationship> relationships(ClusterPeopleService cluster, List<Person> people) {
+        List<Relationship> relationships = new ArrayList<>();
+        for (Person person : people) {
+            relationships.addAll(cluster.listRelationships(person.id()));
+        }
+        return relationships;
+    }
+
+    private static Map<String, PeopleService> nodes(String... names) {
+        Map<String, PeopleService> nodes = new LinkedHashMap<>();
+        for (String name : names) {
+            nodes.put(name, PeopleService.createInMemory(null, id -> true));
+        }
+        return nodes;
+    }
+
+    private static Person person(String firstName, String lastName) {
+        return new Person(null, firstName, null, lastName, LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId) {
+        return new Address(null, personId, "12 St James's Square", "London", "LDN", AddressType.HOUSE, null, true,
+                true, new BigDecimal("1200.00"), 4, 2);
+    }
+
+    private static Employment employment(String personId) {
+        return new Employment(null, personId, "Analytical Engines", null, "1 Dorset St", "Programmer",
+                PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null);
+    }
+}
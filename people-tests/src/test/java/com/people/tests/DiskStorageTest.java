@@ -0,0 +1,252 @@
+package com.people.tests;
+
+import com.people.api.VersionConflictException;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.picture.PictureStore;
+import com.people.repo.FilterStats;
+import com.people.service.PeopleService;
+import com.people.storage.BTree;
+import com.people.storage.BTreeStore;
+import com.people.storage.CuckooFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DiskStorageTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void treeMatchesSortedMapThroughSplitsEvictionAndReopen() {
+        TreeMap<String, String> expected = new TreeMap<>();
+        Random random = new Random(42);
+        try (BTreeStore store = BTreeStore.open(directory, 16)) {
+            BTree tree = store.tree("test");
+            for (int i = 0; i < 20_000; i++) {
+                String key = "k" + random.nextInt(10_000) + "/" + random.nextInt(10);
+                if (random.nextInt(4) == 0) {
+                    assertEquals(expected.remove(key), string(tree.remove(bytes(key))));
+                } else {
+                    String value = key.repeat(1 + random.nextInt(40));
+                    assertEquals(expected.put(key, value), string(tree.put(bytes(key), bytes(value))));
+                }
+            }
+            assertTrue(tree.depth() > 1);
+            assertTrue(store.cacheMisses() > 0);
+            assertContents(expected, tree);
+        }
+        try (BTreeStore store = BTreeStore.open(directory, 16)) {
+            BTree tree = store.tree("test");
+            assertContents(expected, tree);
+            List<String> prefixed = new ArrayList<>();
+            tree.scan(bytes("k42/"), (key, value) -> prefixed.add(string(key)));
+            assertEquals(List.copyOf(expected.subMap("k42/", "k420").keySet()), prefixed);
+            assertNull(tree.get(bytes("missing")));
+        }
+    }
+
+    @Test
+    void treesSharingASmallPoolStayCorrectUnderConcurrentEviction() throws Exception {
+        int threads = 4;
+        List<TreeMap<String, String>> expected = new ArrayList<>();
+        try (BTreeStore store = BTreeStore.open(directory, 16)) {
+            List<Thread> workers = new ArrayList<>();
+            List<Throwable> failures = new CopyOnWriteArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                TreeMap<String, String> mine = new TreeMap<>();
+                expected.add(mine);
+                BTree tree = store.tree("tree" + t);
+                Random random = new Random(t);
+                workers.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 5_000; i++) {
+                            String key = "k" + random.nextInt(2_000);
+                            if (random.nextInt(4) == 0) {
+                                assertEquals(mine.remove(key), string(tree.remove(bytes(key))));
+                            } else {
+                                String value = key.repeat(1 + random.nextInt(40));
+                                assertEquals(mine.put(key, value), string(tree.put(bytes(key), bytes(value))));
+                            }
+                            assertEquals(mine.get(key), string(tree.get(bytes(key))));
+                        }
+                    } catch (Throwable ex) {
+                        failures.add(ex);
+                    }
+                }));
+            }
+            workers.forEach(Thread::start);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertEquals(List.of(), failures);
+            assertTrue(store.cacheMisses() > 0);
+        }
+        try (BTreeStore store = BTreeStore.open(directory, 16)) {
+            for (int t = 0; t < threads; t++) {
+                assertContents(expected.get(t), store.tree("tree" + t));
+            }
+        }
+    }
+
+    @Test
+    void diskServiceKeepsRecordsAcrossRestarts() {
+        Person ada;
+        Address home;
+        Employment job;
+        Relationship link;
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            PeopleService api = PeopleService.createOnDisk(store, null);
+            ada = api.createPerson(person("Ada"));
+            Person charles = api.createPerson(person("Charles"));
+            home = api.createAddress(new Address(null, ada.id(), "12 St James's Square", "London", "LDN",
+                    AddressType.HOUSE, null, true, true, new BigDecimal("1200.00"), 4, 2));
+            job = api.createEmployment(new Employment(null, ada.id(), "Analytical Engines", null, "1 Dorset St",
+                    "Programmer", PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1),
+                    null));
+            link = api.createRelationship(new Relationship(null, charles.id(), ada.id(), RelationshipType.COUSIN));
+            ada = api.updatePerson(new Person(ada.id(), "Augusta Ada", null, "King", ada.dateOfBirth(),
+                    ada.gender(), ada.preferredGender(), null, ada.version()));
+            Person stale = ada.withVersion(ada.version() - 1);
+            assertThrows(VersionConflictException.class, () -> api.updatePerson(stale));
+        }
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            PeopleService api = PeopleService.createOnDisk(store, null);
+            assertEquals(ada, api.getPerson(ada.id()));
+            assertEquals(List.of(home), api.listAddresses(ada.id()));
+            assertEquals(List.of(job), api.listCompanyEmployments(job.companyId()));
+            assertEquals(List.of(link), api.listRelationships(link.personId()));
+            assertEquals(2, api.listPeople().size());
+
+            api.deletePerson(ada.id());
+            assertEquals(List.of(), api.listRelationships(link.personId()));
+            assertEquals(List.of(), api.listCompanyEmployments(job.companyId()));
+            assertEquals(List.of(), api.listAddressesFiltered(null, null, null, null));
+        }
+    }
+
+    @Test
+    void diskServiceKeepsReferencedPicturesAcrossRestarts() {
+        Path data = directory.resolve("data");
+        Path blobs = directory.resolve("pictures");
+        Person ada;
+        byte[] image = png(1_000, 3);
+        try (BTreeStore store = BTreeStore.open(data); PictureStore pictures = PictureStore.open(blobs)) {
+            PeopleService api = PeopleService.createOnDisk(store, pictures);
+            ada = api.setPicture(api.createPerson(person("Ada")).id(), image);
+            Person charles = api.setPicture(api.createPerson(person("Charles")).id(), png(1_000, 4));
+            api.deletePerson(charles.id());
+            pictures.put(png(1_000, 5));
+            assertEquals(2, pictures.blobCount());
+        }
+        try (BTreeStore store = BTreeStore.open(data); PictureStore pictures = PictureStore.open(blobs)) {
+            PeopleService api = PeopleService.createOnDisk(store, pictures);
+            assertEquals(2, pictures.collectGarbage().blobsRemoved());
+            assertEquals(1, pictures.blobCount());
+            assertEquals(1, pictures.references(ada.pictureHash()));
+            ByteBuffer stored = api.getPicture(ada.id());
+            byte[] read = new byte[stored.remaining()];
+            stored.get(read);
+            assertArrayEquals(image, read);
+        }
+    }
+
+    @Test
+    void cuckooFilterHasNoFalseNegativesAndSupportsDeletes() {
+        CuckooFilter filter = new CuckooFilter(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.add("present-" + i));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.remove("present-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(i < 5_000 || filter.mightContain("present-" + i));
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertEquals(5_000, filter.size());
+        assertTrue(falsePositives < 20, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.001);
+    }
+
+    @Test
+    void diskServiceAnswersMissesFromFilters() {
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            PeopleService api = PeopleService.createOnDisk(store, null);
+            for (int i = 0; i < 50; i++) {
+                api.createPerson(person("Person" + i));
+            }
+            assertThrows(IllegalArgumentException.class, () -> api.getPerson("missing"));
+            FilterStats people = api.filterStats().get(0);
+            assertEquals("people", people.name());
+            assertEquals(50, people.entries());
+            assertTrue(people.skipped() >= 50);
+            assertTrue(people.memoryBytes() > 0);
+        }
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            PeopleService api = PeopleService.createOnDisk(store, null);
+            assertEquals(List.of(50, 0, 0, 0), api.filterStats().stream().map(FilterStats::entries).toList());
+        }
+    }
+
+    private static void assertContents(Map<String, String> expected, BTree tree) {
+        assertEquals(expected.size(), tree.size());
+        List<String> keys = new ArrayList<>();
+        tree.scan(new byte[0], (key, value) -> {
+            keys.add(string(key));
+            assertEquals(expected.get(string(key)), string(value));
+        });
+        assertEquals(List.copyOf(expected.keySet()), keys);
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static byte[] png(int size, int fill) {
+        byte[] image = new byte[size];
+        Arrays.fill(image, (byte) fill);
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+        System.arraycopy(signature, 0, image, 0, signature.length);
+        return image;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,98 @@
+package com.people.tests;
+
+import com.people.api.DuplicateCluster;
+import com.people.dedup.DuplicateDetector;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DuplicateDetectionTest {
+    private static final LocalDate HOPPER_BIRTH = LocalDate.of(1906, 12, 9);
+
+    @Test
+    void ranksMisspelledDuplicatesAndIgnoresDistinctPeople() {
+        PeopleService api = PeopleService.createInMemory();
+        Person grace = api.createPerson(person("Grace", "Hopper", HOPPER_BIRTH));
+        Person hoper = api.createPerson(person("Grace", "Hoper", HOPPER_BIRTH));
+        Person accented = api.createPerson(person("Gráce", "Hopper", HOPPER_BIRTH));
+        Person ada = api.createPerson(person("Ada", "Lovelace", LocalDate.of(1815, 12, 10)));
+        Person adah = api.createPerson(person("Adah", "Lovelace", LocalDate.of(1815, 12, 10)));
+        api.createPerson(person("Grace", "Hopper", LocalDate.of(1970, 1, 1)));
+        api.createPerson(person("Alan", "Hopper", HOPPER_BIRTH));
+        api.createPerson(person("Alan", "Turing", LocalDate.of(1912, 6, 23)));
+
+        List<DuplicateCluster> clusters = api.findDuplicates(DuplicateDetector.DEFAULT_THRESHOLD);
+
+        assertEquals(2, clusters.size());
+        assertEquals(Set.of(grace, hoper, accented), Set.copyOf(clusters.get(0).people()));
+        assertEquals(1.0, clusters.get(0).score());
+        assertEquals(List.of(ada, adah), clusters.get(1).people());
+        assertTrue(clusters.get(1).score() >= DuplicateDetector.DEFAULT_THRESHOLD);
+        assertTrue(clusters.get(1).score() < 1.0);
+        assertEquals(1, api.findDuplicates(0.99).size());
+        assertThrows(IllegalArgumentException.class, () -> api.findDuplicates(1.5));
+    }
+
+    @Test
+    void findsInjectedDuplicatesInALargePopulation() {
+        Random random = new Random(7);
+        List<Person> people = new ArrayList<>();
+        Set<Set<String>> expected = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            Person person = new Person("p" + i, name(random), null, name(random),
+                    LocalDate.of(1940 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    Gender.FEMALE, null, null);
+            people.add(person);
+            if (i % 400 == 0) {
+                String last = person.lastName();
+                int at = 1 + random.nextInt(last.length() - 1);
+                Person typo = new Person("d" + i, person.firstName(), null,
+                        last.substring(0, at) + last.substring(at + 1), person.dateOfBirth(), Gender.FEMALE, null,
+                        null);
+                people.add(typo);
+                expected.add(Set.of(person.id(), typo.id()));
+            }
+        }
+        for (int i = 0; i < 600; i++) {
+            people.add(new Person("s" + i, name(random), null, "Smith", HOPPER_BIRTH, Gender.MALE, null, null));
+        }
+        people.add(new Person("jonathan", "Jonathan", null, "Smith", HOPPER_BIRTH, Gender.MALE, null, null));
+        people.add(new Person("jonathon", "Jonathon", null, "Smith", HOPPER_BIRTH, Gender.MALE, null, null));
+        expected.add(Set.of("jonathan", "jonathon"));
+
+        Set<Set<String>> found = new HashSet<>();
+        for (DuplicateCluster cluster : DuplicateDetector.find(people, DuplicateDetector.DEFAULT_THRESHOLD)) {
+            found.add(Set.copyOf(cluster.people().stream().map(Person::id).toList()));
+        }
+        assertTrue(found.containsAll(expected), "missed: " + expected.stream().filter(p -> !found.contains(p))
+                .toList());
+        assertTrue(found.size() < expected.size() + 5, "too many clusters: " + found.size());
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder().append((char) ('A' + random.nextInt(26)));
+        for (int i = 0, length = 5 + random.nextInt(4); i < length; i++) {
+            name.append((char) ('a' + random.nextInt(26)));
+        }
+        return name.toString();
+    }
+
+    private static Person person(String firstName, String lastName, LocalDate dateOfBirth) {
+        return new Person(null, firstName, null, lastName, dateOfBirth, Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+}
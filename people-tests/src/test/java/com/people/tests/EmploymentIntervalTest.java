@@ -0,0 +1,126 @@
+package com.people.tests;
+
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.interval.EmploymentIntervalIndex;
+import com.people.server.PeopleServer;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EmploymentIntervalTest {
+    private static final LocalDate EPOCH = LocalDate.of(2000, 1, 1);
+
+    @Test
+    void answersPointInTimeAndRangeQueriesAcrossWrites() throws Exception {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person grace = api.createPerson(person("Grace"));
+        Employment engines = api.createEmployment(employment(ada.id(), "Analytical Engines",
+                LocalDate.of(2010, 1, 1), LocalDate.of(2015, 6, 30)));
+        Employment navy = api.createEmployment(employment(grace.id(), "Navy", LocalDate.of(2012, 3, 1), null));
+        Employment univac = api.createEmployment(employment(ada.id(), "Univac", LocalDate.of(2015, 7, 1),
+                LocalDate.of(2020, 1, 1)));
+
+        assertEquals(List.of(engines, navy), api.listEmploymentsOn(LocalDate.of(2014, 1, 1), null));
+        assertEquals(List.of(navy), api.listEmploymentsOn(LocalDate.of(2030, 1, 1), null));
+        assertEquals(List.of(engines), api.listEmploymentsOn(LocalDate.of(2015, 6, 30), engines.companyId()));
+        assertEquals(List.of(), api.listEmploymentsOn(LocalDate.of(2015, 7, 1), engines.companyId()));
+        assertEquals(List.of(navy, univac), api.listEmploymentsOverlapping(LocalDate.of(2015, 7, 1),
+                LocalDate.of(2015, 9, 30), null));
+        assertThrows(IllegalArgumentException.class, () -> api.listEmploymentsOverlapping(LocalDate.of(2015, 9, 30),
+                LocalDate.of(2015, 7, 1), null));
+
+        Employment moved = api.updateEmployment(new Employment(navy.id(), grace.id(), "Univac", null, "1 Main St",
+                "Programmer", PayType.SALARY, new BigDecimal("100000.00"), false, LocalDate.of(2012, 3, 1),
+                LocalDate.of(2016, 1, 1), navy.version()));
+        assertEquals(List.of(), api.listEmploymentsOn(LocalDate.of(2014, 1, 1), navy.companyId()));
+        assertEquals(List.of(moved, univac), api.listEmploymentsOn(LocalDate.of(2015, 8, 1), univac.companyId()));
+        api.deleteEmployment(ada.id(), univac.id());
+        api.deletePerson(grace.id());
+        assertEquals(List.of(), api.listEmploymentsOverlapping(LocalDate.of(2015, 7, 1), LocalDate.of(2040, 1, 1),
+                null));
+
+        try (PeopleServer server = PeopleServer.start(api, 0)) {
+            RemotePeopleApi remote = RemotePeopleApi.forUrl("localhost:" + server.port());
+            assertEquals(List.of(engines), remote.listEmploymentsOn(LocalDate.of(2011, 1, 1), engines.companyId()));
+            assertEquals(List.of(engines), remote.listEmploymentsOverlapping(LocalDate.of(2001, 1, 1),
+                    LocalDate.of(2010, 1, 1), null));
+        }
+    }
+
+    @Test
+    void matchesABruteForceScanUnderRandomChanges() {
+        Random random = new Random(9);
+        Map<String, Employment> rows = new HashMap<>();
+        EmploymentIntervalIndex index = new EmploymentIntervalIndex((personId, id) ->
+                Optional.ofNullable(rows.get(personId + "/" + id)));
+        List<Employment> live = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                Employment employment = random(random, "p" + random.nextInt(500), "e" + step);
+                rows.put(employment.personId() + "/" + employment.id(), employment);
+                index.put(employment);
+                live.add(employment);
+            } else {
+                int at = random.nextInt(live.size());
+                Employment existing = live.get(at);
+                if (random.nextBoolean()) {
+                    rows.remove(existing.personId() + "/" + existing.id());
+                    index.remove(existing.personId(), existing.id());
+                    live.set(at, live.get(live.size() - 1));
+                    live.remove(live.size() - 1);
+                } else {
+                    Employment replaced = random(random, existing.personId(), existing.id());
+                    rows.put(replaced.personId() + "/" + replaced.id(), replaced);
+                    index.put(replaced);
+                    live.set(at, replaced);
+                }
+            }
+        }
+        for (int query = 0; query < 200; query++) {
+            LocalDate from = EPOCH.plusDays(random.nextInt(8_000));
+            LocalDate to = from.plusDays(random.nextInt(400));
+            String companyId = random.nextBoolean() ? null : "c" + random.nextInt(5);
+            List<Employment> expected = live.stream()
+                    .filter(e -> companyId == null || companyId.equals(e.companyId()))
+                    .filter(e -> !e.startDate().isAfter(to) && (e.endDate() == null || !e.endDate().isBefore(from)))
+                    .sorted(EmploymentIntervalIndex.BY_START)
+                    .toList();
+            assertEquals(expected, index.overlapping(from, to, companyId));
+        }
+    }
+
+    private static Employment random(Random random, String personId, String id) {
+        LocalDate start = EPOCH.plusDays(random.nextInt(8_000));
+        LocalDate end = random.nextInt(4) == 0 ? null : start.plusDays(random.nextInt(1_500));
+        return new Employment(id, personId, "c" + random.nextInt(5), "Company", null, "1 Main St", "Programmer",
+                PayType.SALARY, new BigDecimal("100000.00"), end == null, start, end, 1);
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Employment employment(String personId, String company, LocalDate start, LocalDate end) {
+        return new Employment(null, personId, company, null, "1 Main St", "Programmer", PayType.SALARY,
+                new BigDecimal("100000.00"), end == null, start, end);
+    }
+}
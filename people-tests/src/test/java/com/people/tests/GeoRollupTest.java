@@ -0,0 +1,157 @@
+package com.people.tests;
+
+import com.people.api.GeoStats;
+import com.people.api.PeopleApi;
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.geo.GeoRollup;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GeoRollupTest {
+
+    @Test
+    void rollsUpByStateAndTownAsAddressesChange() {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person grace = api.createPerson(person("Grace"));
+        api.createAddress(address(ada.id(), "London", "LDN", true, "1200.00", 4));
+        Address flat = api.createAddress(address(ada.id(), "London", "LDN", false, "800.00", 1));
+        api.createAddress(address(grace.id(), "Arlington", "VA", false, "950.50", 2));
+        api.createAddress(address(grace.id(), "London", "LDN", true, "1000.00", 3));
+
+        List<GeoStats> stats = api.listGeoStats();
+        assertEquals(List.of(
+                new GeoStats("LDN", null, 2, 3, 2, 1, new BigDecimal("3000.00"), 8),
+                new GeoStats("LDN", "London", 2, 3, 2, 1, new BigDecimal("3000.00"), 8),
+                new GeoStats("VA", null, 1, 1, 0, 1, new BigDecimal("950.50"), 2),
+                new GeoStats("VA", "Arlington", 1, 1, 0, 1, new BigDecimal("950.50"), 2)), stats);
+        assertEquals(new BigDecimal("1000.00"), stats.get(0).averageMonthlyPayment());
+        assertEquals(8 / 3.0, stats.get(0).averageBedrooms());
+
+        api.updateAddress(new Address(flat.id(), ada.id(), "1 Main St", "Richmond", "VA", AddressType.FLAT, null,
+                false, false, new BigDecimal("700.00"), 1, 1, flat.version()));
+        api.deletePerson(grace.id());
+        assertEquals(List.of(
+                new GeoStats("LDN", null, 1, 1, 1, 0, new BigDecimal("1200.00"), 4),
+                new GeoStats("LDN", "London", 1, 1, 1, 0, new BigDecimal("1200.00"), 4),
+                new GeoStats("VA", null, 1, 1, 0, 1, new BigDecimal("700.00"), 1),
+                new GeoStats("VA", "Richmond", 1, 1, 0, 1, new BigDecimal("700.00"), 1)), api.listGeoStats());
+    }
+
+    @Test
+    void incrementalRollupMatchesRecomputedRollupUnderRandomChanges() {
+        Random random = new Random(3);
+        String[] towns = {"Springfield", "Shelbyville", "Ogdenville", "Capital City"};
+        String[] states = {"MA", "VT", "NH"};
+        PeopleService single = PeopleService.createInMemory();
+        try (ShardedPeopleService sharded = new ShardedPeopleService(4, null)) {
+            for (PeopleApi api : List.of(single, sharded)) {
+                List<String> people = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    people.add(api.createPerson(person("Person" + i)).id());
+                }
+                for (int step = 0; step < 2_000; step++) {
+                    String personId = people.get(random.nextInt(people.size()));
+                    List<Address> current = api.listAddresses(personId);
+                    Address next = address(personId, towns[random.nextInt(towns.length)],
+                            states[random.nextInt(states.length)], random.nextBoolean(),
+                            random.nextInt(3_000) + "." + (10 + random.nextInt(90)), random.nextInt(6));
+                    int action = random.nextInt(3);
+                    if (action == 0 || current.isEmpty()) {
+                        api.createAddress(next);
+                    } else {
+                        Address existing = current.get(random.nextInt(current.size()));
+                        if (action == 1) {
+                            api.deleteAddress(personId, existing.id());
+                        } else {
+                            api.updateAddress(new Address(existing.id(), personId, next.address(), next.town(),
+                                    next.state(), next.type(), null, next.owns(), next.primary(),
+                                    next.monthlyPayment(), next.bedrooms(), next.bathrooms(), existing.version()));
+                        }
+                    }
+                    if (step % 400 == 0) {
+                        api.deletePerson(people.remove(random.nextInt(people.size())));
+                    }
+                }
+                GeoRollup recomputed = new GeoRollup();
+                api.listAddressesFiltered(null, null, null, null).forEach(recomputed::put);
+                assertEquals(recomputed.stats(), api.listGeoStats());
+            }
+        }
+    }
+
+    @Test
+    void concurrentUpdatesAndDeletesLeaveTheDerivedIndexesMatchingTheStore() throws Exception {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        String[] towns = {"Springfield", "Shelbyville", "Ogdenville"};
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            for (int round = 0; round < 200; round++) {
+                Address address = api.createAddress(address(ada.id(), "Springfield", "MA", true, "1000.00", 2));
+                boolean delete = round % 2 == 0;
+                List<Future<?>> writers = new ArrayList<>();
+                for (int writer = 0; writer < 3; writer++) {
+                    int offset = writer;
+                    writers.add(executor.submit(() -> {
+                        for (int i = 0; i < 20; i++) {
+                            try {
+                                if (delete && offset == 2 && i == 10) {
+                                    api.deleteAddress(ada.id(), address.id());
+                                    return;
+                                }
+                                api.updateAddress(new Address(address.id(), ada.id(), "1 Main St",
+                                        towns[(offset + i) % towns.length], "MA", AddressType.HOUSE, "cottage", true,
+                                        true, new BigDecimal("1000.00"), i, 1, PeopleService.UNVERSIONED));
+                            } catch (IllegalArgumentException ex) {
+                                return;
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> writer : writers) {
+                    writer.get(10, TimeUnit.SECONDS);
+                }
+            }
+        }
+        List<Address> stored = api.listAddresses(ada.id());
+        GeoRollup recomputed = new GeoRollup();
+        stored.forEach(recomputed::put);
+        assertEquals(recomputed.stats(), api.listGeoStats());
+        assertEquals(stored.stream().map(Address::id).collect(Collectors.toSet()),
+                api.search("cottage", 1_000).stream().map(SearchHit::id).collect(Collectors.toSet()));
+        assertEquals(Set.copyOf(stored), Set.copyOf(api.listAddresses(ada.id(), Instant.now())));
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId, String town, String state, boolean owns, String payment,
+                                   int bedrooms) {
+        return new Address(null, personId, "12 St James's Square", town, state, AddressType.HOUSE, null, owns, true,
+                new BigDecimal(payment), bedrooms, 2);
+    }
+}
@@ -0,0 +1,133 @@
+package com.people.tests;
+
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistoryTest {
+
+    @Test
+    void readsReturnTheVersionCurrentAtTheRequestedInstant() throws InterruptedException {
+        PeopleService api = PeopleService.createInMemory();
+        Instant beforeCreate = tick();
+        Person ada = api.createPerson(person("Ada"));
+        Address home = api.createAddress(address(ada.id(), "12 St James's Square"));
+        Instant created = tick();
+        List<Person> versions = new ArrayList<>(List.of(ada));
+        List<Instant> instants = new ArrayList<>(List.of(created));
+        for (int i = 1; i <= 40; i++) {
+            Person current = versions.get(versions.size() - 1);
+            versions.add(api.updatePerson(new Person(current.id(), "Ada", "v" + i, current.lastName(),
+                    current.dateOfBirth(), current.gender(), current.preferredGender(), null, current.version())));
+            instants.add(tick());
+        }
+        api.deleteAddress(ada.id(), home.id());
+        Instant addressDeleted = tick();
+        api.deletePerson(ada.id());
+        Instant personDeleted = tick();
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(versions.get(i), api.getPerson(ada.id(), instants.get(i)));
+        }
+        assertEquals(List.of(home), api.listAddresses(ada.id(), created));
+        assertEquals(List.of(), api.listAddresses(ada.id(), addressDeleted));
+        assertThrows(IllegalArgumentException.class, () -> api.getPerson(ada.id(), beforeCreate));
+        assertThrows(IllegalArgumentException.class, () -> api.getPerson(ada.id(), personDeleted));
+        assertThrows(IllegalArgumentException.class, () -> api.getPerson(ada.id()));
+    }
+
+    @Test
+    void pruningKeepsTheVersionVisibleAtTheHorizon() throws InterruptedException {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person grace = api.createPerson(person("Grace"));
+        for (int i = 0; i < 20; i++) {
+            ada = api.updatePerson(new Person(ada.id(), "Ada", "v" + i, ada.lastName(), ada.dateOfBirth(),
+                    ada.gender(), ada.preferredGender(), null, ada.version()));
+        }
+        api.deletePerson(grace.id());
+        Instant horizon = tick();
+        assertEquals(0, api.history().changes(grace.id()));
+
+        assertTrue(api.history().prune(horizon) > 0);
+        assertTrue(api.history().changes(ada.id()) > 0);
+
+        assertEquals(1, api.history().people().versionCount());
+        assertEquals(ada, api.getPerson(ada.id(), horizon));
+        assertEquals(ada, api.getPerson(ada.id(), Instant.now()));
+    }
+
+    @Test
+    void pruningConcurrentlyWithWritesNeverLosesANewVersion() throws InterruptedException {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread pruner = new Thread(() -> {
+            while (!done.get()) {
+                api.history().prune(Instant.now());
+            }
+        });
+        pruner.start();
+        int lost = 0;
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                Address home = api.createAddress(address(ada.id(), i + " St James's Square"));
+                if (api.history().addresses().asOf(ada.id(), home.id(), Instant.now().plusSeconds(1)).isEmpty()) {
+                    lost++;
+                }
+                api.deleteAddress(ada.id(), home.id());
+            }
+        } finally {
+            done.set(true);
+            pruner.join();
+        }
+        assertEquals(0, lost);
+    }
+
+    @Test
+    void shardedServiceAnswersAsOfReadsFromTheOwningShard() throws InterruptedException {
+        try (ShardedPeopleService api = new ShardedPeopleService(4)) {
+            Person ada = api.createPerson(person("Ada"));
+            Instant created = tick();
+            api.updatePerson(new Person(ada.id(), "Augusta Ada", null, ada.lastName(), ada.dateOfBirth(),
+                    ada.gender(), ada.preferredGender(), null, ada.version()));
+
+            assertEquals(ada, api.getPerson(ada.id(), created));
+            assertEquals("Augusta Ada", api.getPerson(ada.id(), tick()).firstName());
+        }
+    }
+
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(2);
+        Instant now = Instant.now();
+        Thread.sleep(2);
+        return now;
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId, String street) {
+        return new Address(null, personId, street, "London", "LDN", AddressType.HOUSE, null, true, true,
+                new BigDecimal("1200.00"), 4, 2);
+    }
+}
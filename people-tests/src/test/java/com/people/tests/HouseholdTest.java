@@ -0,0 +1,181 @@
+package com.people.tests;
+
+import com.people.api.Household;
+import com.people.api.PeopleApi;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.household.AddressKey;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HouseholdTest {
+
+    @Test
+    void groupsPeopleSharingANormalizedAddressAndSplitsWhenTheyMove() {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person byron = api.createPerson(person("Byron"));
+        Person charles = api.createPerson(person("Charles"));
+        Person mary = api.createPerson(person("Mary"));
+        api.createAddress(address(ada.id(), "12 St. James's Square", "London"));
+        api.createAddress(address(byron.id(), "12 Saint James's square", "LONDON"));
+        Address cottage = api.createAddress(address(ada.id(), "1 Ockham Lane", "Ockham"));
+        Address marys = api.createAddress(address(mary.id(), "1 Ockham Ln", "Ockham"));
+        api.createAddress(address(charles.id(), "1 Dorset Street", "London"));
+
+        Household household = api.getHousehold(byron.id());
+        assertEquals(Set.of(ada.id(), byron.id(), mary.id()), Set.copyOf(household.personIds()));
+        assertEquals(2, household.addresses().size());
+        assertEquals(List.of(household), api.listHouseholds(2));
+        assertEquals(2, api.listHouseholds(1).size());
+
+        api.updateAddress(new Address(marys.id(), mary.id(), "9 Marylebone Road", "London", "LDN",
+                AddressType.HOUSE, null, true, true, new BigDecimal("1200.00"), 4, 2, marys.version()));
+        assertEquals(Set.of(ada.id(), byron.id()), Set.copyOf(api.getHousehold(ada.id()).personIds()));
+        assertEquals(List.of(mary.id()), api.getHousehold(mary.id()).personIds());
+
+        api.deleteAddress(ada.id(), cottage.id());
+        api.deletePerson(byron.id());
+        assertEquals(List.of(), api.listHouseholds(2));
+        assertEquals(List.of(ada.id()), api.getHousehold(ada.id()).personIds());
+        assertEquals(List.of(), api.getHousehold(api.createPerson(person("Grace")).id()).addresses());
+        assertThrows(IllegalArgumentException.class, () -> api.listHouseholds(0));
+        assertEquals(AddressKey.of(address(ada.id(), "12 St James Sq", "london")),
+                api.getHousehold(ada.id()).addresses().get(0));
+    }
+
+    @Test
+    void incrementalIndexMatchesRecomputedHouseholdsUnderRandomChanges() {
+        Random random = new Random(11);
+        PeopleService single = PeopleService.createInMemory();
+        try (ShardedPeopleService sharded = new ShardedPeopleService(4, null)) {
+            for (PeopleApi api : List.of(single, sharded)) {
+                List<String> people = new ArrayList<>();
+                for (int i = 0; i < 150; i++) {
+                    people.add(api.createPerson(person("Person" + i)).id());
+                }
+                for (int step = 0; step < 1_500; step++) {
+                    String personId = people.get(random.nextInt(people.size()));
+                    List<Address> current = api.listAddresses(personId);
+                    int action = random.nextInt(3);
+                    if (action == 0 || current.isEmpty()) {
+                        api.createAddress(address(personId, random.nextInt(60) + " High Street", "Town"));
+                    } else {
+                        Address existing = current.get(random.nextInt(current.size()));
+                        if (action == 1) {
+                            api.deleteAddress(personId, existing.id());
+                        } else {
+                            api.updateAddress(new Address(existing.id(), personId, random.nextInt(60) + " High St",
+                                    "town", "LDN", AddressType.HOUSE, null, true, true, new BigDecimal("1200.00"),
+                                    4, 2, existing.version()));
+                        }
+                    }
+                    if (step % 250 == 0) {
+                        api.deletePerson(people.remove(random.nextInt(people.size())));
+                    }
+                }
+                Set<Set<String>> expected = recompute(api.listAddressesFiltered(null, null, null, null));
+                Set<Set<String>> actual = new HashSet<>();
+                for (Household household : api.listHouseholds(1)) {
+                    actual.add(new TreeSet<>(household.personIds()));
+                }
+                assertEquals(expected, actual);
+                for (String personId : people) {
+                    Set<String> mine = expected.stream().filter(group -> group.contains(personId)).findFirst()
+                            .orElse(Set.of(personId));
+                    assertEquals(mine, new TreeSet<>(api.getHousehold(personId).personIds()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readersNeverSeeAHouseholdHalfRebuiltWhileAnotherResidentComesAndGoes() throws Exception {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person byron = api.createPerson(person("Byron"));
+        Person charles = api.createPerson(person("Charles"));
+        api.createAddress(address(ada.id(), "0 Stable Row", "Ockham"));
+        api.createAddress(address(byron.id(), "40 Stable Row", "Ockham"));
+        for (int i = 0; i < 40; i++) {
+            String lodger = api.createPerson(person("Lodger" + i)).id();
+            api.createAddress(address(lodger, i + " Stable Row", "Ockham"));
+            api.createAddress(address(lodger, (i + 1) + " Stable Row", "Ockham"));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger torn = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                if (!api.getHousehold(ada.id()).personIds().contains(byron.id())) {
+                    torn.incrementAndGet();
+                }
+                if (api.listHouseholds(2).stream().noneMatch(household -> household.personIds().contains(ada.id())
+                        && household.personIds().contains(byron.id()))) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 500; i++) {
+                Address visit = api.createAddress(address(charles.id(), "0 Stable Row", "Ockham"));
+                api.deleteAddress(charles.id(), visit.id());
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertEquals(0, torn.get());
+    }
+
+    private static Set<Set<String>> recompute(List<Address> addresses) {
+        Map<String, Set<String>> byKey = new HashMap<>();
+        for (Address address : addresses) {
+            byKey.computeIfAbsent(AddressKey.of(address), key -> new HashSet<>()).add(address.personId());
+        }
+        List<Set<String>> groups = new ArrayList<>();
+        for (Set<String> residents : byKey.values()) {
+            Set<String> merged = new TreeSet<>(residents);
+            groups.removeIf(group -> {
+                if (group.stream().anyMatch(merged::contains)) {
+                    merged.addAll(group);
+                    return true;
+                }
+                return false;
+            });
+            groups.add(merged);
+        }
+        return new HashSet<>(groups);
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId, String street, String town) {
+        return new Address(null, personId, street, town, "LDN", AddressType.HOUSE, null, true, true,
+                new BigDecimal("1200.00"), 4, 2);
+    }
+}
@@ -0,0 +1,86 @@
+package com.people.tests;
+
+import com.people.api.PeopleApi;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.loadgen.LatencyHistogram;
+import com.people.loadgen.LoadGenerator;
+import com.people.loadgen.LoadReport;
+import com.people.loadgen.Operation;
+import com.people.loadgen.OperationStats;
+import com.people.loadgen.Workload;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadGeneratorTest {
+
+    @Test
+    void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000_000, histogram.max());
+        assertWithin(50_000_000, histogram.percentile(50));
+        assertWithin(99_000_000, histogram.percentile(99));
+        assertWithin(99_900_000, histogram.percentile(99.9));
+        assertEquals(100_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    void openModelRunRecordsEveryScheduledRequest() throws Exception {
+        PeopleApi api = PeopleService.createInMemory();
+        new SyntheticDataGenerator(api, GeneratorConfig.forScale(500, 5L)).generate();
+        Properties properties = new Properties();
+        properties.setProperty("mix", "get:6,update:1,create:1,list:1,delete:1");
+        properties.setProperty("arrival", "uniform");
+        properties.setProperty("rate", "500");
+        properties.setProperty("threads", "4");
+        properties.setProperty("warmupSeconds", "0");
+        properties.setProperty("durationSeconds", "1");
+        Workload workload = Workload.fromProperties(properties);
+
+        LoadReport report = new LoadGenerator(api, workload).run();
+
+        assertEquals(500, report.requests() + report.dropped());
+        assertEquals(0, report.errors());
+        for (OperationStats stats : report.operations()) {
+            assertTrue(stats.count() > 0, stats.operation().label());
+            assertTrue(stats.responseTime().max() >= stats.serviceTime().max());
+        }
+        long creates = count(report, Operation.CREATE);
+        long deletes = count(report, Operation.DELETE);
+        assertEquals(500 + creates - deletes, api.listPeople().size());
+    }
+
+    @Test
+    void rejectsInvalidWorkloads() {
+        Properties properties = new Properties();
+        properties.setProperty("mix", "get:0");
+        assertThrows(IllegalArgumentException.class, () -> Workload.fromProperties(properties));
+        properties.setProperty("mix", "explode:1");
+        assertThrows(IllegalArgumentException.class, () -> Workload.fromProperties(properties));
+        properties.setProperty("mix", "get:1");
+        properties.setProperty("rate", "0");
+        assertThrows(IllegalArgumentException.class, () -> Workload.fromProperties(properties));
+    }
+
+    private static long count(LoadReport report, Operation operation) {
+        return report.operations().stream()
+                .filter(stats -> stats.operation() == operation)
+                .mapToLong(OperationStats::count)
+                .sum();
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 50, "expected ~" + expected + " but was " + actual);
+    }
+}
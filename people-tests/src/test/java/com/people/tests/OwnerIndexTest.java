@@ -0,0 +1,105 @@
+package com.people.tests;
+
+import com.people.api.PeopleApi;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.ownership.OwnerIndex;
+import com.people.server.PeopleServer;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OwnerIndexTest {
+
+    @Test
+    void resolvesChildRecordsByIdAloneAcrossServices() throws Exception {
+        PeopleService single = PeopleService.createInMemory();
+        try (ShardedPeopleService sharded = new ShardedPeopleService(4, null);
+             PeopleServer server = PeopleServer.start(PeopleService.createInMemory(), 0)) {
+            RemotePeopleApi remote = RemotePeopleApi.forUrl("localhost:" + server.port());
+            for (PeopleApi api : List.of(single, sharded, remote)) {
+                Person ada = api.createPerson(person("Ada"));
+                Person byron = api.createPerson(person("Byron"));
+                Address address = api.createAddress(new Address(null, ada.id(), "12 St James's Square", "London",
+                        "LDN", AddressType.HOUSE, null, true, true, new BigDecimal("1200.00"), 4, 2));
+                Employment employment = api.createEmployment(new Employment(null, byron.id(), "Analytical Engines",
+                        null, "1 Dorset St", "Programmer", PayType.SALARY, new BigDecimal("100000.00"), true,
+                        LocalDate.of(1842, 1, 1), null));
+                Relationship relationship = api.createRelationship(new Relationship(null, ada.id(), byron.id(),
+                        RelationshipType.COUSIN));
+
+                assertEquals(address, api.getAddress(address.id()));
+                assertEquals(employment, api.getEmployment(employment.id()));
+                assertEquals(relationship, api.getRelationship(relationship.id()));
+                assertThrows(IllegalArgumentException.class, () -> api.getAddress(employment.id()));
+
+                assertEquals(relationship, api.deleteRelationship(relationship.id()));
+                assertEquals(List.of(), api.listRelationships(ada.id()));
+                assertEquals(address, api.deleteAddress(address.id()));
+                assertThrows(IllegalArgumentException.class, () -> api.getAddress(address.id()));
+                api.deletePerson(byron.id());
+                assertThrows(IllegalArgumentException.class, () -> api.getEmployment(employment.id()));
+                assertThrows(IllegalArgumentException.class, () -> api.deleteEmployment(employment.id()));
+            }
+        }
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(13);
+        OwnerIndex index = new OwnerIndex();
+        Map<String, String> expected = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (int step = 0; step < 200_000; step++) {
+            if (ids.isEmpty() || random.nextInt(5) < 3) {
+                String id = random.nextInt(50) == 0 ? "legacy-" + step : new UUID(random.nextLong(),
+                        random.nextLong()).toString();
+                String owner = "p" + random.nextInt(1_000);
+                index.put(id, owner);
+                expected.put(id, owner);
+                ids.add(id);
+            } else {
+                int at = random.nextInt(ids.size());
+                String id = ids.get(at);
+                ids.set(at, ids.get(ids.size() - 1));
+                ids.remove(ids.size() - 1);
+                index.remove(id);
+                expected.remove(id);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), index.owner(entry.getKey()));
+        }
+        assertNull(index.owner(UUID.randomUUID().toString()));
+        assertNull(index.owner(ids.isEmpty() ? "x" : ids.get(0).toUpperCase()));
+        assertNull(index.owner(null));
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.people.tests;
+
+import com.people.api.NotFoundException;
+import com.people.api.PeopleApi;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.query.Query;
+import com.people.server.JsonReader;
+import com.people.server.PeopleServer;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import com.people.service.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PeopleServerTest {
+    private static final String ADA = """
+            {"firstName":"Ada","lastName":"Lovelace","dateOfBirth":"1815-12-10","gender":"female",
+             "preferredGender":{"type":"FEMALE"}}""";
+
+    private PeopleApi api;
+    private PeopleServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        api = PeopleService.createInMemory();
+        server = PeopleServer.start(api, 0);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void createGetAndListPeople() throws Exception {
+        HttpResponse<String> created = send("POST", "/people", ADA);
+        assertEquals(201, created.statusCode());
+        String id = (String) object(created.body()).get("id");
+
+        HttpResponse<String> fetched = send("GET", "/people/" + id, null);
+        assertEquals(200, fetched.statusCode());
+        assertEquals("Lovelace", object(fetched.body()).get("lastName"));
+
+        HttpResponse<String> address = send("POST", "/people/" + id + "/addresses", """
+                {"address":"1 Main St","town":"Springfield","state":"MA","type":"house","owns":true,
+                 "primary":true,"monthlyPayment":1250.50,"bedrooms":2,"bathrooms":1}""");
+        assertEquals(201, address.statusCode());
+        assertTrue(address.body().contains("\"monthlyPayment\":1250.50"));
+
+        HttpResponse<String> listed = send("GET", "/people", null);
+        assertEquals(1, ((List<?>) JsonReader.parse(listed.body())).size());
+    }
+
+    @Test
+    void streamsLargeLists() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            send("POST", "/people", ADA);
+        }
+        HttpResponse<String> listed = send("GET", "/people", null);
+        assertEquals(200, listed.statusCode());
+        assertEquals(300, ((List<?>) JsonReader.parse(listed.body())).size());
+    }
+
+    @Test
+    void reportsErrorsAsJson() throws Exception {
+        assertEquals(404, send("GET", "/people/missing", null).statusCode());
+        assertEquals(404, send("GET", "/nowhere", null).statusCode());
+        assertEquals(404, send("GET", "/addresses/missing", null).statusCode());
+        assertEquals(405, send("PATCH", "/people", "{}").statusCode());
+        HttpResponse<String> invalid = send("POST", "/people", "{\"firstName\":\"\"}");
+        assertEquals(400, invalid.statusCode());
+        assertTrue(((List<?>) object(invalid.body()).get("violations")).size() > 1);
+        assertEquals(400, send("POST", "/people", "{not json").statusCode());
+    }
+
+    @Test
+    void remoteApiMirrorsInProcessBehaviour() {
+        try (RemotePeopleApi remote = new RemotePeopleApi("localhost", server.port())) {
+            Person created = remote.createPerson(new Person(null, "Grace", null, "Hopper", LocalDate.of(1906, 12, 9),
+                    Gender.FEMALE, PreferredGender.of(PreferredGenderType.FEMALE), null));
+            assertEquals(created, api.getPerson(created.id()));
+            assertEquals(created, remote.getPerson(created.id()));
+
+            Address address = remote.createAddress(new Address(null, created.id(), "1 Navy Way", "Arlington", "VA",
+                    AddressType.HOUSE, null, true, true, new BigDecimal("999.99"), 3, 2));
+            assertEquals(List.of(address), remote.listAddresses(created.id()));
+            assertEquals(List.of(address), remote.listAddressesFiltered(null, "Arlington", null, null));
+            Query<?> query = Query.parse("address where town = 'arlington' and bedrooms >= 3");
+            assertEquals(List.of(address), remote.query(query));
+            assertEquals(api.explain(query), remote.explain(query));
+
+            ValidationException invalid = assertThrows(ValidationException.class, () -> remote.createPerson(
+                    new Person(null, "", null, "", null, null, null, null)));
+            assertTrue(invalid.violations().size() > 1);
+            assertThrows(NotFoundException.class, () -> remote.getPerson("missing"));
+
+            assertEquals(created, remote.deletePerson(created.id()));
+            assertTrue(remote.listPeople().isEmpty());
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> object(String json) {
+        return (Map<String, Object>) JsonReader.parse(json);
+    }
+}
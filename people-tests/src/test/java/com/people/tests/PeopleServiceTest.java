@@ -1,24 +1,35 @@
 package com.people.tests;
 
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
 import com.people.api.PeopleApi;
+import com.people.api.PersonDetail;
+import com.people.api.VersionConflictException;
 import com.people.domain.Address;
 import com.people.domain.AddressType;
 import com.people.domain.Employment;
 import com.people.domain.Gender;
+import com.people.domain.Money;
 import com.people.domain.PayType;
 import com.people.domain.Person;
 import com.people.domain.PreferredGender;
 import com.people.domain.PreferredGenderType;
 import com.people.domain.Relationship;
 import com.people.domain.RelationshipType;
+import com.people.service.AsyncPeopleService;
 import com.people.service.PeopleService;
+import com.people.service.ValidationException;
 import com.people.service.ValidationRules;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -81,6 +92,23 @@ public class PeopleServiceTest {
         assertThrows(IllegalArgumentException.class, () -> api.createAddress(badAddress));
     }
 
+    @Test
+    void moneyLimitsAreCheckedInCents() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person person = api.createPerson(samplePerson(null));
+        BigDecimal max = Money.fromCents(ValidationRules.MONTHLY_PAYMENT_MAX_CENTS);
+
+        api.createAddress(new Address(null, person.id(), "123 Test St", "Springfield", "MA", AddressType.HOUSE,
+                null, true, true, max, 2, 1));
+        Address overLimit = new Address(null, person.id(), "123 Test St", "Springfield", "MA", AddressType.HOUSE,
+                null, true, true, max.add(new BigDecimal("0.01")), 2, 1);
+        Address huge = new Address(null, person.id(), "123 Test St", "Springfield", "MA", AddressType.HOUSE,
+                null, true, true, new BigDecimal("1e30"), 2, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> api.createAddress(overLimit));
+        assertThrows(IllegalArgumentException.class, () -> api.createAddress(huge));
+    }
+
     @Test
     void addressRejectsTooManyBedrooms() {
         PeopleApi api = PeopleService.createInMemory();
@@ -195,6 +223,167 @@ public class PeopleServiceTest {
         assertEquals(PayType.HOURLY, fetched.payType());
     }
 
+    @Test
+    void employmentsReferenceOneCompanyPerNameAndAddress() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person ada = api.createPerson(samplePerson(null));
+        Person grace = api.createPerson(samplePerson(null));
+
+        Employment first = api.createEmployment(new Employment(null, ada.id(), "Acme", null, "1 Main St",
+                "Engineer", PayType.SALARY, BigDecimal.valueOf(90_000), true, LocalDate.of(2020, 1, 1), null));
+        Employment second = api.createEmployment(new Employment(null, ada.id(), "ACME", null, "1 main st",
+                "Manager", PayType.SALARY, BigDecimal.valueOf(120_000), true, LocalDate.of(2022, 1, 1), null));
+        Employment third = api.createEmployment(new Employment(null, grace.id(), "Acme", null, "1 Main St",
+                "Analyst", PayType.HOURLY, BigDecimal.valueOf(50), true, LocalDate.of(2021, 1, 1), null));
+
+        assertNotNull(first.companyId());
+        assertEquals(first.companyId(), second.companyId());
+        assertEquals(first.companyId(), third.companyId());
+        assertEquals("Acme", second.name());
+        List<CompanySummary> companies = api.listCompanies();
+        assertEquals(1, companies.size());
+        assertEquals(2, companies.get(0).employeeCount());
+        assertEquals(3, api.listCompanyEmployments(first.companyId()).size());
+
+        Employment moved = api.updateEmployment(new Employment(third.id(), grace.id(), "Globex", null, "2 Elm St",
+                "Analyst", PayType.HOURLY, BigDecimal.valueOf(50), true, LocalDate.of(2021, 1, 1), null));
+        assertNotEquals(first.companyId(), moved.companyId());
+        assertEquals(1, api.listCompanies().get(0).employeeCount());
+        assertEquals(List.of(moved), api.listCompanyEmployments(moved.companyId()));
+        assertThrows(IllegalArgumentException.class, () -> api.listCompanyEmployments("missing"));
+    }
+
+    @Test
+    void moneyRoundTripsExactlyThroughStorage() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person person = api.createPerson(samplePerson(null));
+
+        Address created = api.createAddress(new Address(null, person.id(), "123 Test St", "Springfield", "MA",
+                AddressType.HOUSE, null, false, true, new BigDecimal("1234.56"), 2, 1));
+
+        Address fetched = api.getAddress(person.id(), created.id());
+        assertEquals(0, new BigDecimal("1234.56").compareTo(fetched.monthlyPayment()));
+    }
+
+    @Test
+    void moneyArithmeticRoundsHalfEven() {
+        assertEquals(123456L, Money.toCents(new BigDecimal("1234.56")));
+        assertEquals(new BigDecimal("0.05"), Money.fromCents(5));
+        assertEquals(2L, Money.mean(5, 2));
+        assertEquals(4L, Money.mean(7, 2));
+        assertEquals(-2L, Money.divide(-5, 2, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void validationReportsAllViolations() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person person = new Person(null, " ", null, "x".repeat(ValidationRules.NAME_MAX + 1),
+                LocalDate.of(1815, 12, 10), null, PreferredGender.of(PreferredGenderType.FEMALE), null);
+
+        ValidationException failure = assertThrows(ValidationException.class, () -> api.createPerson(person));
+        assertEquals(3, failure.violations().size());
+    }
+
+    @Test
+    void bulkCreateReportsErrorsPerRow() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person bad = new Person(null, "", null, "Hopper", LocalDate.of(1906, 12, 9),
+                null, PreferredGender.of(PreferredGenderType.FEMALE), null);
+
+        BulkResult<Person> result = api.createPeople(Arrays.asList(samplePerson(null), bad, null,
+                samplePerson(null)));
+
+        assertEquals(2, result.created().size());
+        assertEquals(2, result.errors().size());
+        assertEquals(1, result.errors().get(0).row());
+        assertEquals(2, result.errors().get(0).messages().size());
+        assertEquals(2, result.errors().get(1).row());
+        assertEquals(2, api.listPeople().size());
+
+        BulkResult<Address> addresses = api.createAddresses(List.of(
+                new Address(null, result.created().get(0).id(), "1 Main St", "Springfield", "MA",
+                        AddressType.FLAT, null, false, true, BigDecimal.valueOf(900), 1, 1),
+                new Address(null, "missing", "2 Main St", "Springfield", "MA",
+                        AddressType.FLAT, null, false, true, BigDecimal.valueOf(900), 1, 1)));
+        assertEquals(1, addresses.created().size());
+        assertEquals(List.of("person not found"), addresses.errors().get(0).messages());
+    }
+
+    @Test
+    void asyncPersonDetailFansOutAndPropagatesErrors() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person person = api.createPerson(samplePerson(null));
+        api.createAddress(new Address(null, person.id(), "123 Test St", "Springfield", "MA",
+                AddressType.HOUSE, null, true, true, BigDecimal.valueOf(1200), 2, 1));
+
+        try (AsyncPeopleService async = new AsyncPeopleService(api, 4)) {
+            PersonDetail detail = AsyncPeopleService.join(async.getPersonDetail(person.id()));
+            assertEquals(person.id(), detail.person().id());
+            assertEquals(1, detail.addresses().size());
+            assertEquals(0, detail.employments().size());
+            assertThrows(IllegalArgumentException.class,
+                    () -> AsyncPeopleService.join(async.getPersonDetail("missing")));
+        }
+    }
+
+    @Test
+    void staleVersionUpdateConflicts() {
+        PeopleApi api = PeopleService.createInMemory();
+        Person created = api.createPerson(samplePerson(null));
+        assertEquals(1, created.version());
+
+        Person renamed = api.updatePerson(new Person(created.id(), "Augusta", null, "Lovelace",
+                created.dateOfBirth(), created.gender(), created.preferredGender(), null, created.version()));
+        assertEquals(2, renamed.version());
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> api.updatePerson(created.withVersion(1)));
+        assertEquals(1, conflict.expectedVersion());
+        assertEquals(2, conflict.actualVersion());
+        assertEquals("Augusta", api.getPerson(created.id()).firstName());
+
+        Address address = api.createAddress(new Address(null, created.id(), "123 Test St", "Springfield", "MA",
+                AddressType.HOUSE, null, true, true, BigDecimal.valueOf(1200), 2, 1));
+        assertEquals(2, api.updateAddress(address).version());
+        assertThrows(VersionConflictException.class, () -> api.updateAddress(address));
+    }
+
+    @Test
+    void concurrentConditionalUpdatesLoseNothing() throws Exception {
+        PeopleApi api = PeopleService.createInMemory();
+        String id = api.createPerson(samplePerson(null)).id();
+        int threads = 4;
+        int incrementsPerThread = 250;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    while (true) {
+                        Person current = api.getPerson(id);
+                        int count = current.middleName() == null ? 0 : Integer.parseInt(current.middleName());
+                        try {
+                            api.updatePerson(new Person(id, current.firstName(), String.valueOf(count + 1),
+                                    current.lastName(), current.dateOfBirth(), current.gender(),
+                                    current.preferredGender(), null, current.version()));
+                            break;
+                        } catch (VersionConflictException retry) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Person result = api.getPerson(id);
+        assertEquals(String.valueOf(threads * incrementsPerThread), result.middleName());
+        assertEquals(1 + threads * incrementsPerThread, result.version());
+    }
+
     private Person samplePerson(String id) {
         return new Person(id, "Ada", null, "Lovelace", LocalDate.of(1815, 12, 10),
                 Gender.FEMALE, PreferredGender.of(PreferredGenderType.FEMALE), null);
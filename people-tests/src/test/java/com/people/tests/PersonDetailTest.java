@@ -0,0 +1,104 @@
+package com.people.tests;
+
+import com.people.api.PersonDetail;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.server.PeopleServer;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersonDetailTest {
+
+    @Test
+    void loadsOnlyTheRequestedPartsLocallyAndOverHttp() throws Exception {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person byron = api.createPerson(person("Byron"));
+        Address address = api.createAddress(address(ada.id()));
+        Employment employment = api.createEmployment(employment(ada.id()));
+        Relationship relationship = api.createRelationship(new Relationship(null, ada.id(), byron.id(),
+                RelationshipType.COUSIN));
+
+        assertEquals(new PersonDetail(ada, List.of(address), List.of(relationship), List.of(employment)),
+                api.getPersonDetail(ada.id(), PersonDetail.Part.ALL));
+        assertEquals(new PersonDetail(ada, List.of(), List.of(), List.of(employment)),
+                api.getPersonDetail(ada.id(), EnumSet.of(PersonDetail.Part.EMPLOYMENTS)));
+        assertThrows(IllegalArgumentException.class, () -> api.getPersonDetail("missing", PersonDetail.Part.ALL));
+
+        try (PeopleServer server = PeopleServer.start(api, 0)) {
+            RemotePeopleApi remote = RemotePeopleApi.forUrl("localhost:" + server.port());
+            assertEquals(api.getPersonDetail(ada.id(), PersonDetail.Part.ALL),
+                    remote.getPersonDetail(ada.id(), PersonDetail.Part.ALL));
+            assertEquals(new PersonDetail(ada, List.of(address), List.of(relationship), List.of()),
+                    remote.getPersonDetail(ada.id(),
+                            EnumSet.of(PersonDetail.Part.ADDRESSES, PersonDetail.Part.RELATIONSHIPS)));
+            assertEquals(new PersonDetail(ada, List.of(), List.of(), List.of()),
+                    remote.getPersonDetail(ada.id(), EnumSet.noneOf(PersonDetail.Part.class)));
+        }
+    }
+
+    @Test
+    void neverObservesAHalfAppliedSequenceOfWrites() throws Exception {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        AtomicBoolean done = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    api.createAddress(address(ada.id()));
+                    api.createEmployment(employment(ada.id()));
+                }
+                done.set(true);
+            });
+            int reads = 0;
+            while (!done.get() || reads == 0) {
+                PersonDetail detail = api.getPersonDetail(ada.id(), PersonDetail.Part.ALL);
+                int gap = detail.addresses().size() - detail.employments().size();
+                assertTrue(gap == 0 || gap == 1, "inconsistent snapshot: " + gap);
+                reads++;
+            }
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        PersonDetail finished = api.getPersonDetail(ada.id(), PersonDetail.Part.ALL);
+        assertEquals(2_000, finished.addresses().size());
+        assertEquals(2_000, finished.employments().size());
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId) {
+        return new Address(null, personId, "12 St James's Square", "London", "LDN", AddressType.HOUSE, null, true,
+                true, new BigDecimal("1200.00"), 4, 2);
+    }
+
+    private static Employment employment(String personId) {
+        return new Employment(null, personId, "Analytical Engines", null, "1 Dorset St", "Programmer",
+                PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null);
+    }
+}
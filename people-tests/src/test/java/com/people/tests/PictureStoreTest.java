@@ -0,0 +1,133 @@
+package com.people.tests;
+
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.picture.PictureGcSummary;
+import com.people.picture.PictureStore;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PictureStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void deduplicatesContentAndServesMappedReadOnlyBuffers() {
+        try (PictureStore store = PictureStore.open(directory)) {
+            byte[] image = png(1_000, 1);
+            String first = store.put(image);
+            String second = store.put(image.clone());
+
+            assertEquals(first, second);
+            assertEquals(64, first.length());
+            assertEquals(1, store.blobCount());
+            assertEquals(2, store.references(first));
+            ByteBuffer read = store.read(first);
+            assertTrue(read.isDirect());
+            assertTrue(read.isReadOnly());
+            assertArrayEquals(image, bytes(read));
+        }
+    }
+
+    @Test
+    void compactsSegmentsOnceBlobsAreReleasedAndRecoversOnReopen() {
+        List<String> hashes = new ArrayList<>();
+        List<byte[]> images = new ArrayList<>();
+        try (PictureStore store = PictureStore.open(directory, 4_096)) {
+            for (int i = 0; i < 12; i++) {
+                byte[] image = png(1_500, i);
+                images.add(image);
+                hashes.add(store.put(image));
+            }
+            assertTrue(store.segmentCount() > 3);
+            long before = store.storedBytes();
+            for (int i = 0; i < 12; i += 2) {
+                store.release(hashes.get(i));
+            }
+
+            assertTrue(store.storedBytes() < before);
+            assertEquals(0, store.collectGarbage().blobsRemoved());
+            assertEquals(6, store.blobCount());
+            assertFalse(store.contains(hashes.get(0)));
+            assertThrows(IllegalArgumentException.class, () -> store.read(hashes.get(0)));
+            for (int i = 1; i < 12; i += 2) {
+                assertArrayEquals(images.get(i), bytes(store.read(hashes.get(i))));
+                assertEquals(1, store.references(hashes.get(i)));
+            }
+        }
+        try (PictureStore reopened = PictureStore.open(directory, 4_096)) {
+            assertEquals(6, reopened.blobCount());
+            assertArrayEquals(images.get(11), bytes(reopened.read(hashes.get(11))));
+            PictureGcSummary summary = reopened.collectGarbage();
+            assertEquals(6, summary.blobsRemoved());
+            assertTrue(summary.segmentsCompacted() > 0);
+            assertEquals(0, reopened.blobCount());
+        }
+    }
+
+    @Test
+    void serviceTracksPictureReferencesAcrossPeople() {
+        try (PictureStore store = PictureStore.open(directory)) {
+            PeopleService service = PeopleService.createInMemory(store);
+            Person ada = service.createPerson(person("Ada"));
+            Person grace = service.createPerson(person("Grace"));
+            byte[] image = png(2_000, 7);
+
+            String hash = service.setPicture(ada.id(), image).pictureHash();
+            assertEquals(hash, service.setPicture(grace.id(), image).pictureHash());
+            assertEquals(2, store.references(hash));
+            assertArrayEquals(image, bytes(service.getPicture(grace.id())));
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.setPicture(ada.id(), "not an image".getBytes()));
+
+            service.deletePerson(ada.id());
+            assertEquals(1, store.references(hash));
+            Person cleared = service.updatePerson(withPicture(service.getPerson(grace.id()), null));
+            assertNull(cleared.pictureHash());
+            assertFalse(store.contains(hash));
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.createPerson(withPicture(person("Alan"), hash)));
+        }
+    }
+
+    private static Person person(String first) {
+        return new Person(null, first, null, "Tester", LocalDate.of(1950, 1, 1), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Person withPicture(Person person, String hash) {
+        return new Person(person.id(), person.firstName(), person.middleName(), person.lastName(),
+                person.dateOfBirth(), person.gender(), person.preferredGender(), hash);
+    }
+
+    private static byte[] png(int size, int fill) {
+        byte[] image = new byte[size];
+        Arrays.fill(image, (byte) fill);
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+        System.arraycopy(signature, 0, image, 0, signature.length);
+        return image;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
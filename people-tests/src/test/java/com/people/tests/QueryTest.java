@@ -0,0 +1,98 @@
+package com.people.tests;
+
+import com.people.api.PeopleApi;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.domain.Address;
+import com.people.domain.Gender;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.query.Condition;
+import com.people.query.Entity;
+import com.people.query.Ordering;
+import com.people.query.PlanStep;
+import com.people.query.Query;
+import com.people.query.QueryPlan;
+import com.people.service.PeopleService;
+import com.people.service.ShardedPeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryTest {
+
+    @Test
+    void parsesAndRendersTheSameQuery() {
+        String text = "address where town = 'O''Fallon' and (bedrooms >= 3 or not owns = true)"
+                + " order by monthlyPayment desc, street limit 5";
+
+        Query<?> query = Query.parse(text);
+
+        assertEquals(Entity.ADDRESS, query.entity());
+        assertEquals(text, query.toString());
+        assertEquals(query, Query.parse(query.toString()));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("address where town ="));
+        assertThrows(IllegalArgumentException.class, () -> PeopleService.createInMemory()
+                .query(Query.parse("address where colour = 'red'")));
+    }
+
+    @Test
+    void plannerUsesIndexAndMatchesFullScan() {
+        PeopleApi api = PeopleService.createInMemory();
+        new SyntheticDataGenerator(api, GeneratorConfig.forScale(300, 7)).generate();
+        Address sample = api.listAddressesFiltered(null, null, null, null).get(0);
+
+        Query<Address> byPerson = Query.of(Entity.ADDRESS, Condition.and(
+                Condition.ge("bedrooms", 0), Condition.eq("personId", sample.personId())));
+        QueryPlan plan = api.explain(byPerson);
+        PlanStep access = plan.steps().get(plan.steps().size() - 1);
+        assertEquals("IndexLookup", access.operator());
+        assertEquals(api.listAddresses(sample.personId()).size(), api.query(byPerson).size());
+
+        Query<Address> byTown = Query.of(Entity.ADDRESS, Condition.eq("town", sample.town().toUpperCase()))
+                .orderBy(Ordering.desc("bedrooms"), Ordering.asc("id"))
+                .limit(3);
+        List<Address> expected = api.listAddressesFiltered(null, sample.town(), null, null).stream()
+                .sorted(Comparator.comparingInt(Address::bedrooms).reversed().thenComparing(Address::id))
+                .limit(3)
+                .toList();
+        assertEquals(expected, api.query(byTown));
+        List<PlanStep> steps = api.explain(byTown).steps();
+        assertEquals("TopN", steps.get(0).operator());
+        assertEquals("FullScan", steps.get(steps.size() - 1).operator());
+    }
+
+    @Test
+    void shardedQueriesMergeOrderAndLimit() {
+        PeopleApi single = PeopleService.createInMemory();
+        try (ShardedPeopleService sharded = new ShardedPeopleService(4)) {
+            for (String name : List.of("Grace", "Ada", "Edsger", "Barbara", "Alan", "Donald")) {
+                for (PeopleApi api : List.of(single, sharded)) {
+                    api.createPerson(new Person(null, name, null, "Test", LocalDate.of(1950, 1, 1), Gender.FEMALE,
+                            PreferredGender.of(PreferredGenderType.FEMALE), null));
+                }
+            }
+            Query<?> query = Query.parse("people where firstName != 'alan' order by firstName limit 3");
+
+            List<String> expected = names(single.query(query));
+            assertEquals(List.of("Ada", "Barbara", "Donald"), expected);
+            assertEquals(expected, names(sharded.query(query)));
+            QueryPlan plan = sharded.explain(query);
+            assertEquals("Gather", plan.steps().get(0).operator());
+            assertFalse(plan.describe().isBlank());
+            assertTrue(plan.describe().contains("FullScan"));
+        }
+    }
+
+    private static List<String> names(List<?> people) {
+        return people.stream().map(person -> ((Person) person).firstName()).toList();
+    }
+}
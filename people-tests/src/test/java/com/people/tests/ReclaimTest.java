@@ -0,0 +1,288 @@
+package com.people.tests;
+
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.query.Condition;
+import com.people.query.Entity;
+import com.people.query.Query;
+import com.people.reclaim.ReclaimStats;
+import com.people.reclaim.Reclaimer;
+import com.people.repo.AddressRepository;
+import com.people.repo.CompanyRepository;
+import com.people.repo.InMemoryAddressRepository;
+import com.people.repo.InMemoryCompanyRepository;
+import com.people.repo.InMemoryEmploymentRepository;
+import com.people.repo.InMemoryPersonRepository;
+import com.people.repo.InMemoryRelationshipRepository;
+import com.people.service.PeopleService;
+import com.people.storage.BTreeStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReclaimTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void hidesTheDeletedPersonAtOnceAndReclaimsChildrenInBatches() {
+        PeopleService api = PeopleService.createInMemory();
+        try (Reclaimer ignored = api.startReclaiming(1, Duration.ofHours(1))) {
+            Person ada = api.createPerson(person("Ada"));
+            Person byron = api.createPerson(person("Byron"));
+            Address home = api.createAddress(address(ada.id()));
+            Employment job = api.createEmployment(employment(ada.id()));
+            api.createRelationship(new Relationship(null, ada.id(), byron.id(), RelationshipType.COUSIN));
+            api.createRelationship(new Relationship(null, byron.id(), ada.id(), RelationshipType.COUSIN));
+
+            assertEquals(ada, api.deletePerson(ada.id()));
+            assertThrows(IllegalArgumentException.class, () -> api.getPerson(ada.id()));
+            assertThrows(IllegalArgumentException.class, () -> api.listAddresses(ada.id()));
+            assertThrows(IllegalArgumentException.class, () -> api.getAddress(home.id()));
+            assertEquals(List.of(byron), api.listPeople());
+            assertEquals(List.of(), api.listRelationships(byron.id()));
+            assertEquals(new ReclaimStats(1, 0, 0, 0, 0), api.reclaimStats());
+            assertEquals(List.of(), api.listAllEmployments());
+            assertThrows(IllegalArgumentException.class, () -> api.getEmployment(job.id()));
+
+            assertEquals(2, api.reclaim(2));
+            assertEquals(new ReclaimStats(1, 0, 2, 1, 0), api.reclaimStats());
+            assertEquals(2, api.reclaim(2));
+            assertEquals(new ReclaimStats(1, 0, 4, 2, 0), api.reclaimStats());
+            assertEquals(0, api.reclaim(2));
+            assertEquals(new ReclaimStats(0, 1, 4, 2, 0), api.reclaimStats());
+            assertEquals(List.of(), api.search("programmer", 10));
+            assertEquals(List.of(), api.listGeoStats());
+            assertThrows(IllegalArgumentException.class, () -> api.reclaim(0));
+        }
+    }
+
+    @Test
+    void resumesReclamationOfOrphanedRecordsAfterARestart() {
+        String adaId;
+        String byronId;
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            PeopleService api = PeopleService.createOnDisk(store, null);
+            try (Reclaimer ignored = api.startReclaiming(1, Duration.ofHours(1))) {
+                adaId = api.createPerson(person("Ada")).id();
+                byronId = api.createPerson(person("Byron")).id();
+                for (int i = 0; i < 5; i++) {
+                    api.createAddress(address(adaId));
+                    api.createEmployment(employment(adaId));
+                }
+                api.createRelationship(new Relationship(null, byronId, adaId, RelationshipType.SPOUSE));
+                api.deletePerson(adaId);
+                assertEquals(3, api.reclaim(3));
+            }
+        }
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            PeopleService api = PeopleService.createOnDisk(store, null);
+            assertEquals(new ReclaimStats(1, 0, 0, 0, 0), api.reclaimStats());
+            assertEquals(List.of(), api.listRelationships(byronId));
+            assertEquals(8, api.reclaim(100));
+            assertEquals(new ReclaimStats(0, 1, 8, 1, 0), api.reclaimStats());
+            assertEquals(List.of(), api.listAddressesFiltered(null, null, null, null));
+            assertEquals(List.of(), api.listAllEmployments());
+            assertEquals(List.of(), api.listRelationships(byronId));
+        }
+        try (BTreeStore store = BTreeStore.open(directory)) {
+            assertEquals(new ReclaimStats(0, 0, 0, 0, 0), PeopleService.createOnDisk(store, null).reclaimStats());
+        }
+    }
+
+    @Test
+    void reclaimsIncomingRelationshipsWithinTheBatchBudget() {
+        PeopleService api = PeopleService.createInMemory();
+        try (Reclaimer ignored = api.startReclaiming(1, Duration.ofHours(1))) {
+            Person ada = api.createPerson(person("Ada"));
+            List<Person> cousins = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Person cousin = api.createPerson(person("Cousin" + i));
+                api.createRelationship(new Relationship(null, cousin.id(), ada.id(), RelationshipType.COUSIN));
+                cousins.add(cousin);
+            }
+            api.deletePerson(ada.id());
+
+            assertEquals(2, api.reclaim(2));
+            assertEquals(2, api.reclaim(2));
+            assertEquals(new ReclaimStats(1, 0, 4, 2, 0), api.reclaimStats());
+
+            api.createPerson(person("Ada"), ada.id());
+            assertEquals(new ReclaimStats(0, 1, 5, 3, 0), api.reclaimStats());
+            for (Person cousin : cousins) {
+                assertEquals(List.of(), api.listRelationships(cousin.id()));
+            }
+            assertEquals(0, api.reclaim(2));
+        }
+    }
+
+    @Test
+    void everyListingSkipsTheChildrenOfASoftDeletedPerson() {
+        PeopleService api = PeopleService.createInMemory();
+        try (Reclaimer ignored = api.startReclaiming(1, Duration.ofHours(1))) {
+            Person ada = api.createPerson(person("Ada"));
+            Person byron = api.createPerson(person("Byron"));
+            api.createAddress(address(ada.id()));
+            Address home = api.createAddress(address(byron.id()));
+            api.createEmployment(employment(ada.id()));
+            Employment job = api.createEmployment(employment(byron.id()));
+            assertEquals(Set.of(ada.id(), byron.id()), Set.copyOf(api.getHousehold(byron.id()).personIds()));
+
+            api.deletePerson(ada.id());
+
+            assertEquals(List.of(home), api.listAddressesFiltered(null, null, null, null));
+            assertEquals(List.of(home), api.query(Query.of(Entity.ADDRESS, Condition.eq("town", "London"))));
+            assertEquals(List.of(), api.query(Query.of(Entity.ADDRESS, Condition.eq("personId", ada.id()))));
+            assertEquals(List.of(job), api.listAllEmployments());
+            assertEquals(List.of(job), api.listCompanyEmployments(job.companyId()));
+            assertEquals(List.of(job), api.query(Query.of(Entity.EMPLOYMENT,
+                    Condition.eq("companyId", job.companyId()))));
+            assertEquals(List.of(job), api.listEmploymentsOn(LocalDate.of(1850, 1, 1), null));
+            assertEquals(List.of(job), api.listEmploymentsOverlapping(LocalDate.of(1800, 1, 1),
+                    LocalDate.of(1900, 1, 1), job.companyId()));
+            assertEquals(1, api.listCompanies().get(0).employeeCount());
+            assertEquals(List.of(byron.id()), api.search("programmer", 10).stream().map(SearchHit::personId).toList());
+            assertEquals(1, api.listGeoStats().get(0).addresses());
+            assertEquals(List.of(), api.listHouseholds(2));
+            assertEquals(List.of(byron.id()), api.getHousehold(byron.id()).personIds());
+        }
+    }
+
+    @Test
+    void companiesCountDistinctLiveEmployeesWhileATombstoneIsPending() {
+        PeopleService api = PeopleService.createInMemory();
+        try (Reclaimer ignored = api.startReclaiming(1, Duration.ofHours(1))) {
+            Person ada = api.createPerson(person("Ada"));
+            Person byron = api.createPerson(person("Byron"));
+            for (int i = 0; i < 3; i++) {
+                api.createEmployment(employment(byron.id()));
+            }
+            api.createEmployment(employment(ada.id()));
+            assertEquals(2, api.listCompanies().get(0).employeeCount());
+
+            api.deletePerson(ada.id());
+
+            assertEquals(new ReclaimStats(1, 0, 0, 0, 0), api.reclaimStats());
+            assertEquals(1, api.listCompanies().get(0).employeeCount());
+            assertEquals(3, api.listCompanyEmployments(api.listCompanies().get(0).id()).size());
+        }
+    }
+
+    @Test
+    void aFailingTombstoneIsCountedAndDoesNotBlockTheOthers() {
+        Set<String> broken = new HashSet<>();
+        AddressRepository addresses = new InMemoryAddressRepository();
+        CompanyRepository companies = new InMemoryCompanyRepository();
+        PeopleService api = new PeopleService(new InMemoryPersonRepository(), new FailingAddresses(addresses, broken),
+                new InMemoryEmploymentRepository(companies), new InMemoryRelationshipRepository(), companies);
+        try (Reclaimer ignored = api.startReclaiming(1, Duration.ofHours(1))) {
+            Person ada = api.createPerson(person("Ada"));
+            Person byron = api.createPerson(person("Byron"));
+            api.createAddress(address(ada.id()));
+            api.createAddress(address(byron.id()));
+            api.deletePerson(ada.id());
+            api.deletePerson(byron.id());
+            broken.add(ada.id());
+
+            assertEquals(0, api.reclaim(10));
+            assertEquals(new ReclaimStats(2, 0, 0, 0, 1), api.reclaimStats());
+            assertEquals(1, api.reclaim(10));
+            assertEquals(new ReclaimStats(1, 1, 1, 1, 2), api.reclaimStats());
+
+            broken.clear();
+            assertEquals(1, api.reclaim(10));
+            assertEquals(new ReclaimStats(0, 2, 2, 2, 2), api.reclaimStats());
+            assertEquals(List.of(), addresses.listAll());
+        }
+    }
+
+    private record FailingAddresses(
+            AddressRepository delegate,
+            Set<String> broken
+    ) implements AddressRepository {
+        @Override
+        public void create(Address address) {
+            delegate.create(address);
+        }
+
+        @Override
+        public Address update(Address address) {
+            return delegate.update(address);
+        }
+
+        @Override
+        public Address delete(String personId, String addressId) {
+            if (broken.contains(personId)) {
+                throw new IllegalStateException("disk error");
+            }
+            return delegate.delete(personId, addressId);
+        }
+
+        @Override
+        public Optional<Address> find(String personId, String addressId) {
+            return delegate.find(personId, addressId);
+        }
+
+        @Override
+        public List<Address> list(String personId) {
+            return delegate.list(personId);
+        }
+
+        @Override
+        public List<Address> listAll() {
+            return delegate.listAll();
+        }
+
+        @Override
+        public List<Address> deleteAllForPerson(String personId) {
+            return delegate.deleteAllForPerson(personId);
+        }
+
+        @Override
+        public boolean exists(String personId, String addressId) {
+            return delegate.exists(personId, addressId);
+        }
+
+        @Override
+        public int count() {
+            return delegate.count();
+        }
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId) {
+        return new Address(null, personId, "12 St James's Square", "London", "LDN", AddressType.HOUSE, null, true,
+                true, new BigDecimal("1200.00"), 4, 2);
+    }
+
+    private static Employment employment(String personId) {
+        return new Employment(null, personId, "Analytical Engines", null, "1 Dorset St", "Programmer",
+                PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null);
+    }
+}
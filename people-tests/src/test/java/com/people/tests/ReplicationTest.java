@@ -0,0 +1,203 @@
+package com.people.tests;
+
+import com.people.api.PeopleApi;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.replication.ChangeLog;
+import com.people.replication.ReadReplica;
+import com.people.replication.ReplicatedPeopleService;
+import com.people.server.ReplicaClient;
+import com.people.server.ReplicationServer;
+import com.people.service.PeopleService;
+import com.people.storage.BTreeStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplicationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void followerAppliesTheLogAndRejectsWrites() throws Exception {
+        ReplicatedPeopleService primary = new ReplicatedPeopleService(PeopleService.createInMemory());
+        Person ada = primary.createPerson(person("Ada"));
+        try (ReplicationServer server = ReplicationServer.start(primary, 0)) {
+            ReadReplica replica = new ReadReplica(PeopleService.createInMemory());
+            try (ReplicaClient client = ReplicaClient.start(replica, local(server))) {
+                Person charles = primary.createPerson(person("Charles"));
+                primary.createAddress(address(ada.id()));
+                primary.createEmployment(employment(ada.id()));
+                primary.createRelationship(new Relationship(null, ada.id(), charles.id(), RelationshipType.COUSIN));
+                primary.updatePerson(new Person(ada.id(), "Augusta Ada", null, "King", ada.dateOfBirth(),
+                        ada.gender(), ada.preferredGender(), null, ada.version()));
+                awaitCaughtUp(primary, replica);
+                assertSameState(primary, replica);
+                assertEquals(1, replica.listCompanies().size());
+
+                primary.deletePerson(charles.id());
+                awaitCaughtUp(primary, replica);
+                assertSameState(primary, replica);
+                assertEquals(List.of(), replica.listRelationships(ada.id()));
+
+                assertThrows(UnsupportedOperationException.class, () -> replica.createPerson(person("Grace")));
+                assertTrue(replica.status().connected());
+                assertEquals(0, replica.status().lagEntries());
+                assertEquals(1, primary.status().followers());
+                assertEquals(0, replica.status().failures());
+            }
+        }
+    }
+
+    @Test
+    void followerReportsMessagesItCannotApply() throws Exception {
+        try (ServerSocket primary = new ServerSocket(0)) {
+            Thread sender = new Thread(() -> {
+                while (!primary.isClosed()) {
+                    try (Socket follower = primary.accept()) {
+                        new BufferedReader(new InputStreamReader(follower.getInputStream(), StandardCharsets.UTF_8))
+                                .readLine();
+                        follower.getOutputStream().write("{\"type\":\"bogus\"}\n".getBytes(StandardCharsets.UTF_8));
+                        follower.getOutputStream().flush();
+                    } catch (IOException ex) {
+                        return;
+                    }
+                }
+            });
+            sender.start();
+            ReadReplica replica = new ReadReplica(PeopleService.createInMemory());
+            try (ReplicaClient client = ReplicaClient.start(replica,
+                    new InetSocketAddress("localhost", primary.getLocalPort()))) {
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (replica.status().failures() == 0) {
+                    assertTrue(System.currentTimeMillis() < deadline, "failure was not reported");
+                    Thread.sleep(5);
+                }
+            }
+            assertTrue(replica.status().lastFailure().contains("unknown replication message: bogus"));
+        }
+    }
+
+    @Test
+    void diskFollowerResumesFromItsLastAppliedPosition() throws Exception {
+        ReplicatedPeopleService primary = new ReplicatedPeopleService(PeopleService.createInMemory());
+        Path stateFile = directory.resolve("replica.state");
+        try (ReplicationServer server = ReplicationServer.start(primary, 0)) {
+            for (int i = 0; i < 10; i++) {
+                primary.createPerson(person("Person" + i));
+            }
+            try (BTreeStore store = BTreeStore.open(directory)) {
+                ReadReplica replica = ReplicaClient.open(PeopleService.createOnDisk(store, null), stateFile);
+                try (ReplicaClient client = ReplicaClient.start(replica, local(server), stateFile, store::flush)) {
+                    awaitCaughtUp(primary, replica);
+                }
+            }
+            Person removed = primary.listPeople().get(0);
+            primary.deletePerson(removed.id());
+            for (int i = 10; i < 15; i++) {
+                primary.createAddress(address(primary.createPerson(person("Person" + i)).id()));
+            }
+            try (BTreeStore store = BTreeStore.open(directory)) {
+                ReadReplica replica = ReplicaClient.open(PeopleService.createOnDisk(store, null), stateFile);
+                assertEquals(10, replica.position());
+                assertEquals(primary.log().id(), replica.logId());
+                assertEquals(10, replica.listPeople().size());
+                try (ReplicaClient client = ReplicaClient.start(replica, local(server), stateFile, store::flush)) {
+                    awaitCaughtUp(primary, replica);
+                    assertSameState(primary, replica);
+                }
+            }
+        }
+    }
+
+    @Test
+    void followerBehindTheRetainedLogIsReseededFromASnapshot() throws Exception {
+        ReplicatedPeopleService primary = new ReplicatedPeopleService(PeopleService.createInMemory(),
+                new ChangeLog(4));
+        for (int i = 0; i < 10; i++) {
+            primary.createAddress(address(primary.createPerson(person("Person" + i)).id()));
+        }
+        try (ReplicationServer server = ReplicationServer.start(primary, 0)) {
+            ReadReplica replica = new ReadReplica(PeopleService.createInMemory());
+            try (ReplicaClient client = ReplicaClient.start(replica, local(server))) {
+                awaitCaughtUp(primary, replica);
+                assertSameState(primary, replica);
+                primary.createEmployment(employment(primary.listPeople().get(3).id()));
+                awaitCaughtUp(primary, replica);
+                assertSameState(primary, replica);
+            }
+        }
+    }
+
+    private static void awaitCaughtUp(ReplicatedPeopleService primary, ReadReplica replica)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replica.position() < primary.log().head()) {
+            assertTrue(System.currentTimeMillis() < deadline, "replica did not catch up: " + replica.status());
+            Thread.sleep(5);
+        }
+    }
+
+    private static void assertSameState(PeopleApi expected, PeopleApi actual) {
+        List<Person> people = sorted(expected.listPeople(), Person::id);
+        assertEquals(people, sorted(actual.listPeople(), Person::id));
+        for (Person person : people) {
+            assertEquals(sorted(expected.listAddresses(person.id()), Address::id),
+                    sorted(actual.listAddresses(person.id()), Address::id));
+            assertEquals(sorted(expected.listEmployments(person.id()), Employment::id),
+                    sorted(actual.listEmployments(person.id()), Employment::id));
+            assertEquals(sorted(expected.listRelationships(person.id()), Relationship::id),
+                    sorted(actual.listRelationships(person.id()), Relationship::id));
+        }
+        assertEquals(expected.listCompanies(), actual.listCompanies());
+    }
+
+    private static <T> List<T> sorted(List<T> values, Function<T, String> key) {
+        return values.stream().sorted(Comparator.comparing(key)).toList();
+    }
+
+    private static InetSocketAddress local(ReplicationServer server) {
+        return new InetSocketAddress("localhost", server.port());
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Address address(String personId) {
+        return new Address(null, personId, "12 St James's Square", "London", "LDN", AddressType.HOUSE, null, true,
+                true, new BigDecimal("1200.00"), 4, 2);
+    }
+
+    private static Employment employment(String personId) {
+        return new Employment(null, personId, "Analytical Engines", null, "1 Dorset St", "Programmer",
+                PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.people.tests;
+
+import com.people.api.SearchHit;
+import com.people.domain.Address;
+import com.people.domain.AddressType;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.search.TextIndex;
+import com.people.server.PeopleServer;
+import com.people.server.RemotePeopleApi;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchTest {
+
+    @Test
+    void ranksDescriptionsAndJobTitlesAndFollowsUpdates() throws Exception {
+        PeopleService api = PeopleService.createInMemory();
+        Person ada = api.createPerson(person("Ada"));
+        Person grace = api.createPerson(person("Grace"));
+        Employment engineer = api.createEmployment(employment(ada.id(), "Senior Software Engineer",
+                "Builds the analytical engine"));
+        Employment admiral = api.createEmployment(employment(grace.id(), "Rear Admiral",
+                "Compiler pioneer and software engineering advocate"));
+        Address cottage = api.createAddress(address(ada.id(), "Thatched cottage with a large garden"));
+        api.createAddress(address(grace.id(), "Garden flat near the Naval Yard"));
+
+        List<SearchHit> hits = api.search("software engineer", 10);
+        assertEquals(2, hits.size());
+        assertEquals(engineer.id(), hits.get(0).id());
+        assertEquals(TextIndex.EMPLOYMENT, hits.get(0).type());
+        assertEquals(admiral.id(), hits.get(1).id());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertEquals(List.of(cottage.id()), api.search("THATCHED", 10).stream().map(SearchHit::id).toList());
+        assertEquals(1, api.search("garden", 1).size());
+        assertEquals(List.of(), api.search("the and of", 10));
+
+        api.updateEmployment(new Employment(engineer.id(), ada.id(), "Analytical Engines", null, "1 Dorset St",
+                "Mathematician", PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null,
+                engineer.version()));
+        assertEquals(List.of(admiral.id()), api.search("software", 10).stream().map(SearchHit::id).toList());
+        assertEquals(List.of(engineer.id()), api.search("mathematician", 10).stream().map(SearchHit::id).toList());
+        api.deleteAddress(ada.id(), cottage.id());
+        assertEquals(List.of(), api.search("thatched", 10));
+        api.deletePerson(grace.id());
+        assertEquals(List.of(), api.search("admiral garden", 10));
+        assertThrows(IllegalArgumentException.class, () -> api.search(" ", 10));
+        assertThrows(IllegalArgumentException.class, () -> api.search("engine", 0));
+
+        try (PeopleServer server = PeopleServer.start(api, 0)) {
+            RemotePeopleApi remote = RemotePeopleApi.forUrl("localhost:" + server.port());
+            assertEquals(api.search("mathematician", 5), remote.search("mathematician", 5));
+        }
+    }
+
+    @Test
+    void incrementalIndexMatchesARebuiltIndexAcrossCompactions() {
+        Random random = new Random(5);
+        String[] words = {"engineer", "nurse", "teacher", "senior", "junior", "lead", "garden", "pool", "garage",
+                "quiet", "street", "view", "manager", "analyst", "data", "platform"};
+        PeopleService live = PeopleService.createInMemory();
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            people.add(live.createPerson(person("Person" + i)));
+        }
+        for (int step = 0; step < 6_000; step++) {
+            Person person = people.get(random.nextInt(people.size()));
+            List<Employment> current = live.listEmployments(person.id());
+            if (current.size() < 3 || random.nextInt(4) == 0) {
+                live.createEmployment(employment(person.id(), phrase(random, words), phrase(random, words)));
+            } else {
+                Employment existing = current.get(random.nextInt(current.size()));
+                if (random.nextBoolean()) {
+                    live.deleteEmployment(person.id(), existing.id());
+                } else {
+                    live.updateEmployment(new Employment(existing.id(), person.id(), "Analytical Engines",
+                            phrase(random, words), "1 Dorset St", phrase(random, words), PayType.SALARY,
+                            new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null, existing.version()));
+                }
+            }
+        }
+        TextIndex rebuilt = new TextIndex();
+        live.listAllEmployments().forEach(rebuilt::index);
+        assertEquals(live.listAllEmployments().size(), rebuilt.size());
+        for (String word : words) {
+            assertEquals(rebuilt.search(word, 1_000), live.search(word, 1_000));
+        }
+        assertEquals(rebuilt.search("senior data engineer", 5).stream().map(SearchHit::id).toList(),
+                live.search("senior data engineer", 5).stream().map(SearchHit::id).toList());
+    }
+
+    private static String phrase(Random random, String[] words) {
+        StringBuilder phrase = new StringBuilder(words[random.nextInt(words.length)]);
+        for (int i = 0, length = random.nextInt(6); i < length; i++) {
+            phrase.append(' ').append(words[random.nextInt(words.length)]);
+        }
+        return phrase.toString();
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+
+    private static Employment employment(String personId, String jobTitle, String description) {
+        return new Employment(null, personId, "Analytical Engines", description, "1 Dorset St", jobTitle,
+                PayType.SALARY, new BigDecimal("100000.00"), true, LocalDate.of(1842, 1, 1), null);
+    }
+
+    private static Address address(String personId, String description) {
+        return new Address(null, personId, "12 St James's Square", "London", "LDN", AddressType.HOUSE, description,
+                true, true, new BigDecimal("1200.00"), 4, 2);
+    }
+}
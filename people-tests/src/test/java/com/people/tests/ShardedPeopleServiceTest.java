@@ -0,0 +1,100 @@
+package com.people.tests;
+
+import com.people.api.BulkResult;
+import com.people.api.CompanySummary;
+import com.people.domain.Employment;
+import com.people.domain.Gender;
+import com.people.domain.PayType;
+import com.people.domain.Person;
+import com.people.domain.PreferredGender;
+import com.people.domain.PreferredGenderType;
+import com.people.domain.Relationship;
+import com.people.domain.RelationshipType;
+import com.people.service.ShardedPeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedPeopleServiceTest {
+
+    @Test
+    void bulkCreateKeepsRowOrderAcrossShards() {
+        try (ShardedPeopleService api = new ShardedPeopleService(4)) {
+            List<Person> people = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                people.add(person("Person" + i));
+            }
+            people.set(7, null);
+            people.set(23, new Person("fixed", "Bad", null, "Id", LocalDate.of(1990, 1, 1), Gender.MALE,
+                    PreferredGender.of(PreferredGenderType.MALE), null));
+
+            BulkResult<Person> result = api.createPeople(people);
+
+            assertEquals(38, result.created().size());
+            assertEquals(List.of(7, 23), result.errors().stream().map(error -> error.row()).toList());
+            assertEquals(List.of("person id must not be provided"), result.errors().get(1).messages());
+            assertEquals("Person0", result.created().get(0).firstName());
+            assertEquals("Person39", result.created().get(37).firstName());
+            assertEquals(38, api.listPeople().size());
+            int[] perShard = new int[api.shardCount()];
+            for (Person created : result.created()) {
+                assertEquals(created, api.getPerson(created.id()));
+                perShard[api.shardOf(created.id())]++;
+            }
+            assertTrue(Arrays.stream(perShard).allMatch(count -> count > 0));
+        }
+    }
+
+    @Test
+    void relationshipsSpanShardsAndAreRemovedWithEitherPerson() {
+        try (ShardedPeopleService api = new ShardedPeopleService(8)) {
+            Person ada = api.createPerson(person("Ada"));
+            Person other = api.createPerson(person("Other"));
+            while (api.shardOf(other.id()) == api.shardOf(ada.id())) {
+                other = api.createPerson(person("Other"));
+            }
+            assertNotEquals(api.shardOf(ada.id()), api.shardOf(other.id()));
+
+            Relationship link = api.createRelationship(
+                    new Relationship(null, ada.id(), other.id(), RelationshipType.COUSIN));
+            assertEquals(List.of(link), api.listRelationships(ada.id()));
+            assertThrows(IllegalArgumentException.class, () -> api.createRelationship(
+                    new Relationship(null, ada.id(), "missing", RelationshipType.COUSIN)));
+
+            api.deletePerson(other.id());
+            assertEquals(List.of(), api.listRelationships(ada.id()));
+        }
+    }
+
+    @Test
+    void companiesAreMergedAcrossShards() {
+        try (ShardedPeopleService api = new ShardedPeopleService(4)) {
+            for (int i = 0; i < 20; i++) {
+                Person person = api.createPerson(person("Worker" + i));
+                api.createEmployment(new Employment(null, person.id(), i % 2 == 0 ? "Acme" : "ACME", null,
+                        "1 Main St", "Engineer", PayType.SALARY, BigDecimal.valueOf(100_000), true,
+                        LocalDate.of(2020, 1, 1), null));
+            }
+
+            List<CompanySummary> companies = api.listCompanies();
+
+            assertEquals(1, companies.size());
+            assertEquals(20, companies.get(0).employeeCount());
+            assertEquals(20, api.listAllEmployments().size());
+        }
+    }
+
+    private static Person person(String firstName) {
+        return new Person(null, firstName, null, "Lovelace", LocalDate.of(1815, 12, 10), Gender.FEMALE,
+                PreferredGender.of(PreferredGenderType.FEMALE), null);
+    }
+}
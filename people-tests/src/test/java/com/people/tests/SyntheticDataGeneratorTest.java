@@ -0,0 +1,76 @@
+package com.people.tests;
+
+import com.people.api.PeopleApi;
+import com.people.datagen.GenerationSummary;
+import com.people.datagen.GeneratorConfig;
+import com.people.datagen.SyntheticDataGenerator;
+import com.people.domain.Address;
+import com.people.domain.Employment;
+import com.people.domain.Person;
+import com.people.service.PeopleService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyntheticDataGeneratorTest {
+
+    @Test
+    void generatesRequestedPopulationWithoutRejections() {
+        PeopleApi api = PeopleService.createInMemory();
+        GeneratorConfig config = GeneratorConfig.forScale(5_000, 7L);
+
+        GenerationSummary summary = new SyntheticDataGenerator(api, config).generate();
+
+        assertEquals(5_000, summary.people());
+        assertEquals(0, summary.rejected());
+        assertEquals(5_000, api.listPeople().size());
+        assertEquals(summary.addresses(), api.listAddressesFiltered(null, null, null, null).size());
+        assertTrue(summary.relationships() > 0);
+    }
+
+    @Test
+    void sameSeedProducesSameDataRegardlessOfThreads() {
+        assertEquals(fingerprint(1, 3L), fingerprint(4, 3L));
+    }
+
+    @Test
+    void employmentHistoryIsBoundedByTheConfiguredReferenceDate() {
+        LocalDate reference = LocalDate.of(2010, 6, 30);
+        PeopleApi api = PeopleService.createInMemory();
+        new SyntheticDataGenerator(api, GeneratorConfig.forScale(2_000, 9L).withReferenceDate(reference)).generate();
+
+        List<Employment> employments = api.listAllEmployments();
+        assertFalse(employments.isEmpty());
+        for (Employment employment : employments) {
+            assertFalse(employment.startDate().isAfter(reference));
+            assertTrue(employment.endDate() == null || !employment.endDate().isAfter(reference));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> GeneratorConfig.forScale(10, 1L).withReferenceDate(LocalDate.of(2000, 1, 1)));
+    }
+
+    private List<String> fingerprint(int threads, long seed) {
+        PeopleApi api = PeopleService.createInMemory();
+        GeneratorConfig config = GeneratorConfig.forScale(3_000, seed).withThreads(threads);
+        new SyntheticDataGenerator(api, config).generate();
+        List<String> people = api.listPeople().stream()
+                .map(person -> describe(person, api.listAddresses(person.id())))
+                .sorted()
+                .collect(Collectors.toList());
+        people.add("employments=" + api.listAllEmployments().size());
+        return people;
+    }
+
+    private String describe(Person person, List<Address> addresses) {
+        return person.firstName() + "|" + person.lastName() + "|" + person.dateOfBirth() + "|"
+                + addresses.stream().map(address -> address.town() + "/" + address.state())
+                .sorted().collect(Collectors.joining(","));
+    }
+}
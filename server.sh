@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Usage: ./server.sh [--port <number>] [--scale <people>] [--seed <number>] [--pictures <dir>]
+mvn -q -pl people-core,people-server -am install -DskipTests
+
+SERVER_CP="people-server/target/classes:people-core/target/classes"
+java ${JAVA_OPTS:-} -cp "$SERVER_CP" com.people.server.PeopleServer "$@"